@@ -0,0 +1,106 @@
+package com.meli.technical.exam.api.products.domain.validator;
+
+import com.meli.technical.exam.api.products.domain.exception.InvalidProductException;
+import com.meli.technical.exam.api.products.domain.model.Price;
+import com.meli.technical.exam.api.products.domain.model.Product;
+import com.meli.technical.exam.api.products.domain.model.ProductId;
+import com.meli.technical.exam.api.products.domain.model.Rating;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Format validation of an import-sized batch: the accumulating validator against the previous one
+ * (String.matches, new URL and an exception per broken rule), kept here as the baseline. "invalid" makes
+ * every fourth product break the ID, URL and description rules.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ProductValidatorBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"valid", "invalid"})
+    public String data;
+
+    private final ProductInputFormatValidator validator = new ProductInputFormatValidator();
+    private List<Product> products;
+
+    @Setup
+    public void setUp() {
+        products = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            boolean broken = data.equals("invalid") && i % 4 == 0;
+            products.add(Product.builder()
+                    .id(ProductId.of(broken ? "product " + i : "product-" + i))
+                    .name("Benchmark product " + i)
+                    .imageUrl(broken ? "images/product-" + i + ".jpg" : "https://images.example.com/catalog/product-" + i + ".jpg")
+                    .description(broken ? "Too short" : "A benchmark product with a description long enough to pass")
+                    .price(Price.of(new BigDecimal("199.99")))
+                    .rating(Rating.of(4.2))
+                    .specifications(List.of())
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public int accumulating() {
+        int rejected = 0;
+        ValidationResult result = new ValidationResult();
+        for (Product product : products) {
+            result.clear();
+            validator.validate(product, result);
+            if (!result.isValid()) {
+                rejected++;
+            }
+        }
+        return rejected;
+    }
+
+    @Benchmark
+    public int throwing(Blackhole blackhole) {
+        int rejected = 0;
+        for (Product product : products) {
+            try {
+                LegacyFormatValidator.validate(product);
+            } catch (InvalidProductException e) {
+                blackhole.consume(e);
+                rejected++;
+            }
+        }
+        return rejected;
+    }
+
+    // The format checks as they were, without the length rules that both versions share
+    private static final class LegacyFormatValidator {
+
+        static void validate(Product product) {
+            String id = product.getId().getValue().trim();
+            if (!id.matches("^[a-zA-Z0-9\\-_]+$")) {
+                throw new InvalidProductException("Product ID can only contain letters, numbers, hyphens, and underscores");
+            }
+            try {
+                new URL(product.getImageUrl().trim());
+            } catch (MalformedURLException e) {
+                throw new InvalidProductException("Product image URL format is invalid: " + product.getImageUrl());
+            }
+            if (product.getDescription().trim().length() < 10) {
+                throw new InvalidProductException("Product description must be at least 10 characters long");
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.meli.technical.exam.api.products.application.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchRequestDto {
+
+    @JsonProperty("ids")
+    private List<String> ids;
+}
@@ -3,12 +3,14 @@ package com.meli.technical.exam.api.products.application.dto.request;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 
 @Getter
 @Setter
 @AllArgsConstructor
+@EqualsAndHashCode
 public class SpecificationDto {
     
     @NotBlank(message = "Specification key cannot be blank")
@@ -0,0 +1,28 @@
+package com.meli.technical.exam.api.products.application.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class BatchResponseDto {
+
+    @JsonProperty("products")
+    private final List<ProductResponseDto> products;
+
+    @JsonProperty("missingIds")
+    private final List<String> missingIds;
+
+    // Only present when some partitions did not answer
+    @JsonProperty("unavailableIds")
+    private final List<String> unavailableIds;
+
+    @JsonProperty("requestedCount")
+    private final int requestedCount;
+
+    @JsonProperty("foundCount")
+    private final int foundCount;
+}
@@ -0,0 +1,29 @@
+package com.meli.technical.exam.api.products.application.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.meli.technical.exam.api.products.domain.model.BestValuePick;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class BestValueResponseDto {
+
+    @JsonProperty("results")
+    private final List<Pick> results;
+
+    @JsonProperty("count")
+    private final int count;
+
+    public record Pick(
+            @JsonProperty("product") ProductResponseDto product,
+            @JsonProperty("valueScore") double valueScore
+    ) {
+
+        public static Pick from(BestValuePick pick) {
+            return new Pick(ProductResponseDto.from(pick.product()), pick.valueScore());
+        }
+    }
+}
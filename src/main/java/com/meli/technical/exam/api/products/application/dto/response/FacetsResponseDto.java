@@ -0,0 +1,26 @@
+package com.meli.technical.exam.api.products.application.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.meli.technical.exam.api.products.domain.model.FacetCount;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Builder
+public class FacetsResponseDto {
+
+    @JsonProperty("totalMatches")
+    private final int totalMatches;
+
+    @JsonProperty("price")
+    private final List<FacetCount> price;
+
+    @JsonProperty("rating")
+    private final List<FacetCount> rating;
+
+    @JsonProperty("specifications")
+    private final Map<String, List<FacetCount>> specifications;
+}
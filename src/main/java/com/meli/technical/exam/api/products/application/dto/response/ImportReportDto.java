@@ -0,0 +1,43 @@
+package com.meli.technical.exam.api.products.application.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.Getter;
+
+/*
+ * One line of the bulk import report: "error" for a rejected record, then a final "summary", or
+ * "aborted" when the store failed part way (the counts then say what was already imported).
+ * Fields that do not apply to a type are null and left out of the JSON.
+ * */
+@Getter
+@Builder
+public class ImportReportDto {
+
+    public static final String TYPE_ERROR = "error";
+    public static final String TYPE_SUMMARY = "summary";
+    public static final String TYPE_ABORTED = "aborted";
+
+    @JsonProperty("type")
+    private final String type;
+
+    @JsonProperty("line")
+    private final Long line;
+
+    @JsonProperty("id")
+    private final String id;
+
+    @JsonProperty("message")
+    private final String message;
+
+    @JsonProperty("received")
+    private final Long received;
+
+    @JsonProperty("created")
+    private final Long created;
+
+    @JsonProperty("updated")
+    private final Long updated;
+
+    @JsonProperty("rejected")
+    private final Long rejected;
+}
@@ -34,6 +34,10 @@ public class PaginatedResponseDto<T> {
     
     @JsonProperty("hasPrevious")
     private boolean hasPrevious;
+    
+    // Pass back as ?snapshot= to read the next pages from the same catalog version
+    @JsonProperty("snapshot")
+    private String snapshot;
 
     public PaginatedResponseDto(List<T> content, int page, int size, long totalElements) {
         this.content = content;
@@ -44,4 +48,9 @@ public class PaginatedResponseDto<T> {
         this.hasNext = page < totalPages - 1;
         this.hasPrevious = page > 0;
     }
+
+    public PaginatedResponseDto(List<T> content, int page, int size, long totalElements, String snapshot) {
+        this(content, page, size, totalElements);
+        this.snapshot = snapshot;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.meli.technical.exam.api.products.application.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.meli.technical.exam.api.products.application.dto.request.SpecificationDto;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.domain.model.Specification;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Product as the HTTP API returns it, same JSON as ProductDto. from() copies field references out of
+ * the snapshot's ProductView without trimming or validating again, so mapping a page stays cheap.
+ * */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class ProductResponseDto {
+
+    @JsonProperty("id")
+    private final String id;
+
+    @JsonProperty("name")
+    private final String name;
+
+    @JsonProperty("imageUrl")
+    private final String imageUrl;
+
+    @JsonProperty("description")
+    private final String description;
+
+    @JsonProperty("price")
+    private final BigDecimal price;
+
+    @JsonProperty("rating")
+    private final double rating;
+
+    @JsonProperty("specifications")
+    private final List<SpecificationDto> specifications;
+
+    public static ProductResponseDto from(ProductView product) {
+        if (product == null) {
+            return null;
+        }
+        List<SpecificationDto> specifications = new ArrayList<>(product.specifications().size());
+        for (Specification specification : product.specifications()) {
+            specifications.add(new SpecificationDto(specification.getKey(), specification.getValue()));
+        }
+        return new ProductResponseDto(product.id(), product.name(), product.imageUrl(), product.description(),
+                product.price(), product.rating(), specifications);
+    }
+
+    public static List<ProductResponseDto> from(List<ProductView> products) {
+        List<ProductResponseDto> responses = new ArrayList<>(products.size());
+        for (ProductView product : products) {
+            responses.add(from(product));
+        }
+        return responses;
+    }
+}
@@ -0,0 +1,32 @@
+package com.meli.technical.exam.api.products.application.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.meli.technical.exam.api.products.domain.model.ProductSearchHit;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class SearchResponseDto {
+
+    @JsonProperty("query")
+    private final String query;
+
+    @JsonProperty("results")
+    private final List<Hit> results;
+
+    @JsonProperty("totalHits")
+    private final int totalHits;
+
+    public record Hit(
+            @JsonProperty("product") ProductResponseDto product,
+            @JsonProperty("score") double score
+    ) {
+
+        public static Hit from(ProductSearchHit hit) {
+            return new Hit(ProductResponseDto.from(hit.product()), hit.score());
+        }
+    }
+}
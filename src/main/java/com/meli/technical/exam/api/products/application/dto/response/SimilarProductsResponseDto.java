@@ -0,0 +1,29 @@
+package com.meli.technical.exam.api.products.application.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.meli.technical.exam.api.products.domain.model.SimilarProduct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class SimilarProductsResponseDto {
+
+    @JsonProperty("productId")
+    private final String productId;
+
+    @JsonProperty("similar")
+    private final List<Match> similar;
+
+    public record Match(
+            @JsonProperty("product") ProductResponseDto product,
+            @JsonProperty("similarity") double similarity
+    ) {
+
+        public static Match from(SimilarProduct match) {
+            return new Match(ProductResponseDto.from(match.product()), match.similarity());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.meli.technical.exam.api.products.application.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class SuggestResponseDto {
+
+    @JsonProperty("prefix")
+    private final String prefix;
+
+    @JsonProperty("suggestions")
+    private final List<ProductResponseDto> suggestions;
+}
@@ -1,7 +1,7 @@
 package com.meli.technical.exam.api.products.application.dto.response.comparison;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.application.dto.response.ProductResponseDto;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -9,11 +9,11 @@ import java.time.Instant;
 import java.util.List;
 
 @Getter
-@Builder
+@Builder(toBuilder = true)
 public class ComparisonResponseDto {
 
     @JsonProperty("products")
-    private final List<ProductDto> products;
+    private final List<ProductResponseDto> products;
 
     @JsonProperty("totalProducts")
     private final int totalProducts;
@@ -21,6 +21,10 @@ public class ComparisonResponseDto {
     @JsonProperty("requestedIds")
     private final List<String> requestedIds;
 
+    // Only present when some partitions did not answer; these products are left out of the comparison
+    @JsonProperty("unavailableIds")
+    private final List<String> unavailableIds;
+
     @JsonProperty("comparisonTimestamp")
     private final Instant comparisonTimestamp;
 
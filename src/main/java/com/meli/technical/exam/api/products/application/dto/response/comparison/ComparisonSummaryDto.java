@@ -1,7 +1,7 @@
 package com.meli.technical.exam.api.products.application.dto.response.comparison;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.application.dto.response.ProductResponseDto;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -12,13 +12,13 @@ import java.util.List;
 public class ComparisonSummaryDto {
 
     @JsonProperty("bestValue")
-    private final ProductDto bestValue;
+    private final ProductResponseDto bestValue;
 
     @JsonProperty("bestQuality")
-    private final ProductDto bestQuality;
+    private final ProductResponseDto bestQuality;
 
     @JsonProperty("budgetOption")
-    private final ProductDto budgetOption;
+    private final ProductResponseDto budgetOption;
 
     @JsonProperty("insights")
     private final List<String> insights;
@@ -1,7 +1,7 @@
 package com.meli.technical.exam.api.products.application.dto.response.comparison;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.application.dto.response.ProductResponseDto;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -13,10 +13,10 @@ import java.util.Map;
 public class PriceAnalysisDto {
 
     @JsonProperty("cheapestProduct")
-    private final ProductDto cheapestProduct;
+    private final ProductResponseDto cheapestProduct;
 
     @JsonProperty("mostExpensiveProduct")
-    private final ProductDto mostExpensiveProduct;
+    private final ProductResponseDto mostExpensiveProduct;
 
     @JsonProperty("priceRange")
     private final BigDecimal priceRange;
@@ -1,7 +1,7 @@
 package com.meli.technical.exam.api.products.application.dto.response.comparison;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.application.dto.response.ProductResponseDto;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -13,10 +13,10 @@ import java.util.Map;
 public class RatingAnalysisDto {
 
     @JsonProperty("bestRatedProduct")
-    private final ProductDto bestRatedProduct;
+    private final ProductResponseDto bestRatedProduct;
 
     @JsonProperty("lowestRatedProduct")
-    private final ProductDto lowestRatedProduct;
+    private final ProductResponseDto lowestRatedProduct;
 
     @JsonProperty("averageRating")
     private final Double averageRating;
@@ -25,5 +25,5 @@ public class RatingAnalysisDto {
     private final Map<String, Double> ratingDistribution;
 
     @JsonProperty("highlyRatedProducts")
-    private final List<ProductDto> highlyRatedProducts;
+    private final List<ProductResponseDto> highlyRatedProducts;
 }
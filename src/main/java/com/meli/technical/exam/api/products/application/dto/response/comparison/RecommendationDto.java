@@ -1,6 +1,6 @@
 package com.meli.technical.exam.api.products.application.dto.response.comparison;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.application.dto.response.ProductResponseDto;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -18,7 +18,7 @@ public class RecommendationDto {
     private final String description;
 
     @JsonProperty("recommendedProduct")
-    private final ProductDto recommendedProduct;
+    private final ProductResponseDto recommendedProduct;
 
     @JsonProperty("reason")
     private final String reason;
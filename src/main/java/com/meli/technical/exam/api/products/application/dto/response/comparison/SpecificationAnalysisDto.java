@@ -1,6 +1,6 @@
 package com.meli.technical.exam.api.products.application.dto.response.comparison;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.application.dto.response.ProductResponseDto;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -21,5 +21,5 @@ public class SpecificationAnalysisDto {
     private final Map<String, Map<String, String>> specificationComparison;
 
     @JsonProperty("mostFeaturedProduct")
-    private final ProductDto mostFeaturedProduct;
+    private final ProductResponseDto mostFeaturedProduct;
 }
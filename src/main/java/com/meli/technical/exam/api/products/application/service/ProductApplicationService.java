@@ -1,13 +1,14 @@
 package com.meli.technical.exam.api.products.application.service;
 
-import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
 import com.meli.technical.exam.api.products.application.dto.response.PaginatedResponseDto;
+import com.meli.technical.exam.api.products.application.dto.response.ProductResponseDto;
 import com.meli.technical.exam.api.products.application.dto.response.comparison.ComparisonResponseDto;
 import com.meli.technical.exam.api.products.application.usecase.ProductComparisonUseCase;
 import com.meli.technical.exam.api.products.domain.event.DomainEventPublisher;
 import com.meli.technical.exam.api.products.domain.event.ProductComparedEvent;
 import com.meli.technical.exam.api.products.domain.event.ProductViewedEvent;
 import com.meli.technical.exam.api.products.domain.model.ProductId;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -30,7 +31,7 @@ public class ProductApplicationService {
         this.eventPublisher = eventPublisher;
     }
     
-    public Mono<ProductDto> getProductById(String id) {
+    public Mono<ProductView> getProductById(String id) {
         return productComparisonUseCase.getProductById(id)
                 .doOnSuccess(product -> {
                     if (product != null) {
@@ -76,13 +77,8 @@ public class ProductApplicationService {
                 });
     }
     
-    public Mono<PaginatedResponseDto<ProductDto>> getAllProducts(int page, int size) {
-        return productComparisonUseCase.getAllProductsPaginated(page, size)
+    public Mono<PaginatedResponseDto<ProductResponseDto>> getAllProducts(int page, int size) {
+        return productComparisonUseCase.getAllProductsPaginated(page, size, null)
                 .doOnError(error -> logger.error("Failed to retrieve paginated products", error));
     }
-    
-    public Mono<PaginatedResponseDto<ProductDto>> getAllProducts() {
-        return productComparisonUseCase.getAllProducts()
-                .doOnError(error -> logger.error("Failed to retrieve all products", error));
-    }
 }
\ No newline at end of file
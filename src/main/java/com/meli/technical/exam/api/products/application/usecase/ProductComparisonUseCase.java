@@ -1,11 +1,27 @@
 package com.meli.technical.exam.api.products.application.usecase;
 
 
-import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.application.dto.response.BatchResponseDto;
+import com.meli.technical.exam.api.products.application.dto.response.BestValueResponseDto;
+import com.meli.technical.exam.api.products.application.dto.response.FacetsResponseDto;
 import com.meli.technical.exam.api.products.application.dto.response.PaginatedResponseDto;
+import com.meli.technical.exam.api.products.application.dto.response.ProductResponseDto;
+import com.meli.technical.exam.api.products.application.dto.response.SearchResponseDto;
+import com.meli.technical.exam.api.products.application.dto.response.SimilarProductsResponseDto;
+import com.meli.technical.exam.api.products.application.dto.response.SuggestResponseDto;
 import com.meli.technical.exam.api.products.application.dto.response.comparison.ComparisonResponseDto;
-import com.meli.technical.exam.api.products.application.mapper.ProductMapper;
+import com.meli.technical.exam.api.products.domain.exception.BusinessRuleViolationException;
+import com.meli.technical.exam.api.products.domain.exception.ChangeHistoryExpiredException;
 import com.meli.technical.exam.api.products.domain.exception.ProductNotFoundException;
+import com.meli.technical.exam.api.products.domain.exception.SnapshotExpiredException;
+import com.meli.technical.exam.api.products.domain.metrics.ComparisonRecorder;
+import com.meli.technical.exam.api.products.domain.metrics.PipelineMetrics;
+import com.meli.technical.exam.api.products.domain.model.CatalogChange;
+import com.meli.technical.exam.api.products.domain.model.CatalogDelta;
+import com.meli.technical.exam.api.products.domain.model.FacetFilter;
+import com.meli.technical.exam.api.products.domain.model.ProductSortOrder;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.domain.model.VersionedProduct;
 import com.meli.technical.exam.api.products.domain.service.ProductComparisonAnalyzerService;
 import com.meli.technical.exam.api.products.domain.service.ProductService;
 import org.slf4j.Logger;
@@ -21,23 +37,62 @@ public class ProductComparisonUseCase {
     
     private static final Logger logger = LoggerFactory.getLogger(ProductComparisonUseCase.class);
     private final ProductService productService;
-    private final ProductMapper productMapper;
     private final ProductComparisonAnalyzerService comparisonAnalyzer;
+    private final PipelineMetrics productMetrics;
+    private final ComparisonRecorder comparisonRecorder;
     private static final int MAX_COMPARE_SIZE = 10;
     private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 5000;
+    private static final int MAX_SEARCH_LIMIT = 100;
+    private static final int MAX_SUGGEST_LIMIT = 10;
+    private static final int MAX_BEST_VALUE_LIMIT = 100;
+    private static final int MAX_SIMILAR_LIMIT = 20;
 
-    public ProductComparisonUseCase(ProductService productService, ProductMapper productMapper, 
-                                   ProductComparisonAnalyzerService comparisonAnalyzer) {
+    public ProductComparisonUseCase(ProductService productService,
+                                   ProductComparisonAnalyzerService comparisonAnalyzer,
+                                   PipelineMetrics productMetrics,
+                                   ComparisonRecorder comparisonRecorder) {
         this.productService = productService;
-        this.productMapper = productMapper;
         this.comparisonAnalyzer = comparisonAnalyzer;
+        this.productMetrics = productMetrics;
+        this.comparisonRecorder = comparisonRecorder;
     }
 
-    public Mono<ProductDto> getProductById(String id) {
+    public Mono<ProductView> getProductById(String id) {
         return productService.findById(id)
-                .map(productMapper::toDto)
-                .switchIfEmpty(Mono.error(new ProductNotFoundException("Product not found with id: " + id)))
-                .doOnError(error -> logger.error("Failed to get product by id: {}", id, error));
+                .switchIfEmpty(Mono.defer(() -> {
+                    productMetrics.incrementNotFound(PipelineMetrics.OPERATION_GET_BY_ID, 1);
+                    return Mono.error(ProductNotFoundException.forId(id));
+                }))
+                // 404s are answered by GlobalExceptionHandler, logging each one would dominate a burst of misses
+                .doOnError(error -> !(error instanceof ProductNotFoundException),
+                        error -> logger.error("Failed to get product by id: {}", id, error));
+    }
+
+    // The product with its version, for conditional requests
+    public Mono<VersionedProduct> getVersionedProductById(String id) {
+        return productService.findVersionedById(id)
+                .switchIfEmpty(Mono.defer(() -> {
+                    productMetrics.incrementNotFound(PipelineMetrics.OPERATION_GET_BY_ID, 1);
+                    return Mono.error(ProductNotFoundException.forId(id));
+                }))
+                .doOnError(error -> !(error instanceof ProductNotFoundException),
+                        error -> logger.error("Failed to get product by id: {}", id, error));
+    }
+
+    // Resumable from the sequence of the last change applied, or from a pagination snapshot token
+    public Flux<CatalogChange> getChanges(Long since) {
+        return productService.findChanges(since)
+                .doOnError(error -> !(error instanceof ChangeHistoryExpiredException
+                                || error instanceof IllegalArgumentException),
+                        error -> logger.error("Change stream failed after sequence: {}", since, error));
+    }
+
+    // Catalog versions are the pagination snapshot tokens, so a client can copy the catalog and then keep it fresh
+    public Mono<CatalogDelta> getDelta(long fromVersion) {
+        return productService.findDelta(fromVersion)
+                .doOnError(error -> !(error instanceof IllegalArgumentException),
+                        error -> logger.error("Error computing the catalog delta from version: {}", fromVersion, error));
     }
 
     public Mono<ComparisonResponseDto> compareProducts(List<String> productIds) {
@@ -49,47 +104,148 @@ public class ProductComparisonUseCase {
             return Mono.error(new IllegalArgumentException("Cannot compare more than 10 products at once"));
         }
 
-        return productService.findProductsForComparison(productIds)
-                .map(productMapper::toDto)
-                .as(productFlux -> {
-                    return productFlux.collectList()
-                            .doOnNext(products -> {
-                                if (products.size() < productIds.size()) {
+        return Mono.defer(() -> {
+                    ComparisonRecorder.ComparisonRecording recording = comparisonRecorder.beginComparison(productIds.size());
+                    return productService.findProductsForComparison(productIds)
+                            .doOnNext(batch -> recording.fetched(batch.found().size()))
+                            .doOnNext(batch -> {
+                                if (!batch.missingIds().isEmpty()) {
+                                    productMetrics.incrementNotFound(PipelineMetrics.OPERATION_COMPARE, batch.missingIds().size());
                                     logger.warn("Some products were not found. Requested: {}, Found: {}", 
-                                               productIds.size(), products.size());
+                                               productIds.size(), batch.found().size());
+                                }
+                                if (!batch.unavailableIds().isEmpty()) {
+                                    logger.warn("Comparing without products whose partition did not answer: {}",
+                                               batch.unavailableIds());
                                 }
                             })
-                            .flatMap(products -> comparisonAnalyzer.analyzeProductsReactive(Flux.fromIterable(products), productIds));
+                            .flatMap(batch -> comparisonAnalyzer.analyzeProductsReactive(Flux.fromIterable(batch.found()), productIds)
+                                    .map(response -> batch.unavailableIds().isEmpty() ? response
+                                            : response.toBuilder().unavailableIds(batch.unavailableIds()).build()))
+                            .doFinally(signal -> recording.end());
                 })
                 .doOnError(error -> logger.error("Failed to compare products: {}", productIds, error));
     }
 
-    public Mono<PaginatedResponseDto<ProductDto>> getAllProductsPaginated(int page, int size) {
-        
+    public Mono<BatchResponseDto> getProductsBatch(List<String> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return Mono.error(new IllegalArgumentException("Cannot have empty IDs"));
+        }
+
+        if (productIds.size() > MAX_BATCH_SIZE) {
+            return Mono.error(new BusinessRuleViolationException(
+                    "Cannot look up more than " + MAX_BATCH_SIZE + " products at once",
+                    "MAX_BATCH_SIZE", MAX_BATCH_SIZE, productIds.size()));
+        }
+
+        return productService.findBatch(productIds)
+                .map(batch -> {
+                    productMetrics.incrementNotFound(PipelineMetrics.OPERATION_BATCH, batch.missingIds().size());
+                    return BatchResponseDto.builder()
+                            .products(ProductResponseDto.from(batch.found()))
+                            .missingIds(batch.missingIds())
+                            .unavailableIds(batch.unavailableIds().isEmpty() ? null : batch.unavailableIds())
+                            .requestedCount(batch.found().size() + batch.missingIds().size() + batch.unavailableIds().size())
+                            .foundCount(batch.found().size())
+                            .build();
+                })
+                .doOnError(error -> logger.error("Failed to get products batch of {} IDs", productIds.size(), error));
+    }
+
+    public Mono<SearchResponseDto> searchProducts(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return Mono.error(new IllegalArgumentException("Search query cannot be empty"));
+        }
+
+        if (limit <= 0 || limit > MAX_SEARCH_LIMIT) {
+            return Mono.error(new IllegalArgumentException("Limit must be positive and not exceed " + MAX_SEARCH_LIMIT));
+        }
+
+        return productService.search(query, limit)
+                .map(result -> SearchResponseDto.builder()
+                        .query(query)
+                        .results(result.hits().stream().map(SearchResponseDto.Hit::from).toList())
+                        .totalHits(result.totalHits())
+                        .build())
+                .doOnError(error -> logger.error("Failed to search products: {}", query, error));
+    }
+
+    public Mono<SuggestResponseDto> suggestProducts(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return Mono.error(new IllegalArgumentException("Prefix cannot be empty"));
+        }
+
+        if (limit <= 0 || limit > MAX_SUGGEST_LIMIT) {
+            return Mono.error(new IllegalArgumentException("Limit must be positive and not exceed " + MAX_SUGGEST_LIMIT));
+        }
+
+        return productService.suggest(prefix, limit)
+                .collectList()
+                .map(suggestions -> new SuggestResponseDto(prefix, ProductResponseDto.from(suggestions)))
+                .doOnError(error -> logger.error("Failed to suggest products: {}", prefix, error));
+    }
+
+    public Mono<FacetsResponseDto> getFacets(FacetFilter filter) {
+        return productService.facets(filter)
+                .map(facets -> FacetsResponseDto.builder()
+                        .totalMatches(facets.totalMatches())
+                        .price(facets.price())
+                        .rating(facets.rating())
+                        .specifications(facets.specifications())
+                        .build())
+                .doOnError(error -> logger.error("Failed to get product facets", error));
+    }
+
+    public Mono<BestValueResponseDto> getBestValue(FacetFilter filter, int limit) {
+        if (limit <= 0 || limit > MAX_BEST_VALUE_LIMIT) {
+            return Mono.error(new IllegalArgumentException("Limit must be positive and not exceed " + MAX_BEST_VALUE_LIMIT));
+        }
+
+        return productService.findBestValue(filter, limit)
+                .collectList()
+                .map(picks -> new BestValueResponseDto(picks.stream().map(BestValueResponseDto.Pick::from).toList(), picks.size()))
+                .doOnError(error -> logger.error("Failed to get best value products", error));
+    }
+
+    public Mono<SimilarProductsResponseDto> getSimilarProducts(String id, int limit) {
+        if (limit <= 0 || limit > MAX_SIMILAR_LIMIT) {
+            return Mono.error(new IllegalArgumentException("Limit must be positive and not exceed " + MAX_SIMILAR_LIMIT));
+        }
+
+        return productService.findSimilar(id, limit)
+                .map(similar -> new SimilarProductsResponseDto(id, similar.stream().map(SimilarProductsResponseDto.Match::from).toList()))
+                .switchIfEmpty(Mono.defer(() -> {
+                    productMetrics.incrementNotFound(PipelineMetrics.OPERATION_SIMILAR, 1);
+                    return Mono.error(ProductNotFoundException.forId(id));
+                }))
+                .doOnError(error -> !(error instanceof ProductNotFoundException),
+                        error -> logger.error("Failed to get products similar to: {}", id, error));
+    }
+
+    // The page and its totals come from one catalog version; the returned snapshot token keeps the next pages on it
+    public Mono<PaginatedResponseDto<ProductResponseDto>> getAllProductsPaginated(int page, int size, String snapshot) {
+        return getPage(page, size, null, snapshot)
+                .doOnError(error -> !(error instanceof SnapshotExpiredException),
+                        error -> logger.error("Failed to get paginated products", error));
+    }
+
+    public Mono<PaginatedResponseDto<ProductResponseDto>> getSortedProducts(int page, int size, ProductSortOrder order,
+                                                                            String snapshot) {
+        return getPage(page, size, order, snapshot)
+                .doOnError(error -> !(error instanceof SnapshotExpiredException),
+                        error -> logger.error("Failed to get sorted products: {}", order, error));
+    }
+
+    private Mono<PaginatedResponseDto<ProductResponseDto>> getPage(int page, int size, ProductSortOrder order, String snapshot) {
+
         if (page < 0 || size <= 0 || size > MAX_PAGE_SIZE) {
             logger.warn("Invalid pagination parameters - page: {}, size: {}", page, size);
             return Mono.error(new IllegalArgumentException(
                 "Page must be non-negative, size must be positive and not exceed 100"));
         }
 
-        return productService.count()
-                .flatMap(totalElements -> 
-                    productService.findAllPaginated(page, size)
-                            .map(productMapper::toDto)
-                            .collectList()
-                            .map(products -> new PaginatedResponseDto<>(products, page, size, totalElements))
-                )
-                .doOnError(error -> logger.error("Failed to get paginated products", error));
-    }
-
-    public Mono<PaginatedResponseDto<ProductDto>> getAllProducts() {
-        return productService.count()
-                .flatMap(totalElements -> 
-                    productService.findAll()
-                            .map(productMapper::toDto)
-                            .collectList()
-                            .map(products -> new PaginatedResponseDto<>(products, 0, products.size(), totalElements))
-                )
-                .doOnError(error -> logger.error("Failed to get all products", error));
+        return productService.findPage(order, page, size, snapshot)
+                .map(result -> new PaginatedResponseDto<>(ProductResponseDto.from(result.content()), page, size, result.totalElements(),
+                        result.snapshot()));
     }
 }
\ No newline at end of file
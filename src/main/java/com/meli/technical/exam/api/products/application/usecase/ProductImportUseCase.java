@@ -0,0 +1,180 @@
+package com.meli.technical.exam.api.products.application.usecase;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.application.dto.response.ImportReportDto;
+import com.meli.technical.exam.api.products.application.mapper.ProductMapper;
+import com.meli.technical.exam.api.products.domain.exception.InvalidProductException;
+import com.meli.technical.exam.api.products.domain.metrics.PipelineMetrics;
+import com.meli.technical.exam.api.products.domain.model.ImportBatchResult;
+import com.meli.technical.exam.api.products.domain.model.Product;
+import com.meli.technical.exam.api.products.domain.service.ProductService;
+import com.meli.technical.exam.api.products.domain.validator.ProductValidator;
+import com.meli.technical.exam.api.products.domain.validator.ValidationResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Bulk import of NDJSON product records. Lines are cut into batches; up to `parallelism` batches are
+ * parsed and validated at once on the parallel scheduler, and their results are applied to the store in
+ * input order, each one atomic. Up to `parallelism` validated batches are handed to the store without
+ * waiting for the previous one, so the store can apply the ones that queue up behind a write together
+ * instead of publishing a new catalog snapshot per batch. Demand only flows upstream as batches are
+ * stored, so memory stays at a few batches whatever the size of the import. Every record is an upsert.
+ * When a batch fails, the ones already handed to the store after it may still be applied.
+ * */
+@Service
+public class ProductImportUseCase {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportUseCase.class);
+    private final ProductService productService;
+    private final ProductMapper productMapper;
+    private final List<ProductValidator> validators;
+    private final ObjectMapper objectMapper;
+    private final PipelineMetrics productMetrics;
+    private final int batchSize;
+    private final int parallelism;
+
+    public ProductImportUseCase(ProductService productService, ProductMapper productMapper,
+                                List<ProductValidator> validators, ObjectMapper objectMapper,
+                                PipelineMetrics productMetrics,
+                                @Value("${app.products.import.batch-size:1000}") int batchSize,
+                                @Value("${app.products.import.parallelism:0}") int parallelism) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Import batch size must be positive: " + batchSize);
+        }
+        this.productService = productService;
+        this.productMapper = productMapper;
+        this.validators = validators;
+        this.objectMapper = objectMapper;
+        this.productMetrics = productMetrics;
+        this.batchSize = batchSize;
+        // 0 means one batch per core
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    // One "error" line per rejected record as soon as its batch is stored, then the summary
+    public Flux<ImportReportDto> importProducts(Flux<String> lines) {
+        return Flux.defer(() -> {
+            ImportTally tally = new ImportTally();
+            return lines.index()
+                    .filter(line -> !line.getT2().isBlank())
+                    .buffer(batchSize)
+                    .flatMapSequential(batch -> Mono.fromCallable(() -> validate(batch))
+                            .subscribeOn(Schedulers.parallel()), parallelism, 1)
+                    // Subscribed in input order, which is the order the store applies them in
+                    .flatMapSequential(this::store, parallelism, 1)
+                    .concatMapIterable(stored -> {
+                        tally.add(stored.batch(), stored.result());
+                        return stored.batch().rejected();
+                    })
+                    .concatWith(Mono.fromCallable(() -> tally.report(ImportReportDto.TYPE_SUMMARY, null)))
+                    .onErrorResume(error -> {
+                        logger.error("Product import aborted after {} records", tally.received, error);
+                        return Mono.just(tally.report(ImportReportDto.TYPE_ABORTED, error.getMessage()));
+                    });
+        });
+    }
+
+    private ValidatedBatch validate(List<Tuple2<Long, String>> lines) {
+        long start = System.nanoTime();
+        List<Product> accepted = new ArrayList<>(lines.size());
+        List<ImportReportDto> rejected = new ArrayList<>();
+        // One result for the whole batch, it only allocates once a record fails
+        ValidationResult result = new ValidationResult();
+        for (Tuple2<Long, String> line : lines) {
+            // Reported line numbers start at 1
+            long lineNumber = line.getT1() + 1;
+            ProductDto dto;
+            try {
+                dto = objectMapper.readValue(line.getT2(), ProductDto.class);
+            } catch (JsonProcessingException e) {
+                rejected.add(error(lineNumber, null, "Malformed JSON: " + e.getOriginalMessage()));
+                continue;
+            }
+            if (dto == null) {
+                rejected.add(error(lineNumber, null, "Product cannot be null"));
+                continue;
+            }
+            Product product;
+            try {
+                product = productMapper.toDomain(dto);
+            } catch (InvalidProductException e) {
+                // Value objects still guard their own invariants by throwing
+                rejected.add(error(lineNumber, dto.getId(), e.getMessage()));
+                continue;
+            }
+            result.clear();
+            for (ProductValidator validator : validators) {
+                validator.validate(product, result);
+            }
+            if (result.isValid()) {
+                accepted.add(product);
+            } else {
+                rejected.add(error(lineNumber, dto.getId(), result.message()));
+            }
+        }
+        productMetrics.recordStage(PipelineMetrics.STAGE_IMPORT_VALIDATION, start);
+        return new ValidatedBatch(lines.size(), accepted, rejected);
+    }
+
+    private Mono<StoredBatch> store(ValidatedBatch batch) {
+        return productService.importBatch(batch.accepted())
+                .doOnNext(result -> {
+                    productMetrics.incrementImported("imported", batch.accepted().size());
+                    productMetrics.incrementImported("rejected", batch.rejected().size());
+                })
+                .map(result -> new StoredBatch(batch, result));
+    }
+
+    private static ImportReportDto error(long line, String id, String message) {
+        return ImportReportDto.builder()
+                .type(ImportReportDto.TYPE_ERROR)
+                .line(line)
+                .id(id)
+                .message(message)
+                .build();
+    }
+
+    private record ValidatedBatch(int received, List<Product> accepted, List<ImportReportDto> rejected) {
+    }
+
+    private record StoredBatch(ValidatedBatch batch, ImportBatchResult result) {
+    }
+
+    // Only touched from concatMapIterable, one batch at a time and in input order
+    private static final class ImportTally {
+        private long received;
+        private long created;
+        private long updated;
+        private long rejected;
+
+        void add(ValidatedBatch batch, ImportBatchResult result) {
+            received += batch.received();
+            created += result.created();
+            updated += result.updated();
+            rejected += batch.rejected().size();
+        }
+
+        ImportReportDto report(String type, String message) {
+            return ImportReportDto.builder()
+                    .type(type)
+                    .message(message)
+                    .received(received)
+                    .created(created)
+                    .updated(updated)
+                    .rejected(rejected)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.meli.technical.exam.api.products.application.usecase;
+
+import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.application.mapper.ProductMapper;
+import com.meli.technical.exam.api.products.domain.exception.InvalidProductException;
+import com.meli.technical.exam.api.products.domain.exception.ProductAlreadyExistsException;
+import com.meli.technical.exam.api.products.domain.exception.ProductNotFoundException;
+import com.meli.technical.exam.api.products.domain.exception.ProductOwnedElsewhereException;
+import com.meli.technical.exam.api.products.domain.exception.ProductVersionMismatchException;
+import com.meli.technical.exam.api.products.domain.exception.ReadOnlyReplicaException;
+import com.meli.technical.exam.api.products.domain.model.Product;
+import com.meli.technical.exam.api.products.domain.model.VersionedProduct;
+import com.meli.technical.exam.api.products.domain.service.ProductService;
+import com.meli.technical.exam.api.products.domain.validator.ProductValidator;
+import com.meli.technical.exam.api.products.domain.validator.ValidationResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Service
+public class ProductWriteUseCase {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductWriteUseCase.class);
+    private final ProductService productService;
+    private final ProductMapper productMapper;
+    private final List<ProductValidator> validators;
+
+    public ProductWriteUseCase(ProductService productService, ProductMapper productMapper,
+                               List<ProductValidator> validators) {
+        this.productService = productService;
+        this.productMapper = productMapper;
+        this.validators = validators;
+    }
+
+    public Mono<VersionedProduct> createProduct(ProductDto request) {
+        if (request == null) {
+            return Mono.error(new IllegalArgumentException("Product cannot be null"));
+        }
+
+        return Mono.fromCallable(() -> toValidatedProduct(request))
+                .flatMap(productService::create)
+                .doOnError(ProductWriteUseCase::isUnexpected,
+                        error -> logger.error("Failed to create product: {}", request.getId(), error));
+    }
+
+    public Mono<VersionedProduct> updateProduct(String id, ProductDto request) {
+        return updateProduct(id, request, VersionedProduct.ANY_VERSION);
+    }
+
+    // Fails with ProductVersionMismatchException unless the product is still at expectedVersion
+    public Mono<VersionedProduct> updateProduct(String id, ProductDto request, long expectedVersion) {
+        if (id == null || id.isBlank() || request == null) {
+            return Mono.error(new IllegalArgumentException("Product ID and product cannot be empty"));
+        }
+
+        if (request.getId() != null && !request.getId().trim().equals(id.trim())) {
+            return Mono.error(new IllegalArgumentException("Product ID in the body does not match the path"));
+        }
+
+        request.setId(id.trim());
+        return Mono.fromCallable(() -> toValidatedProduct(request))
+                .flatMap(product -> productService.update(product, expectedVersion))
+                .doOnError(ProductWriteUseCase::isUnexpected,
+                        error -> logger.error("Failed to update product: {}", id, error));
+    }
+
+    // Same expectedVersion semantics as updateProduct
+    public Mono<Void> deleteProduct(String id, long expectedVersion) {
+        if (id == null || id.isBlank()) {
+            return Mono.error(new IllegalArgumentException("Product ID cannot be empty"));
+        }
+
+        return productService.delete(id.trim(), expectedVersion)
+                .doOnError(ProductWriteUseCase::isUnexpected,
+                        error -> logger.error("Failed to delete product: {}", id, error));
+    }
+
+    // Product enforces its own invariants, the validators add format and business rules on top
+    private Product toValidatedProduct(ProductDto request) {
+        Product product = productMapper.toDomain(request);
+        ValidationResult result = new ValidationResult();
+        for (ProductValidator validator : validators) {
+            validator.validate(product, result);
+        }
+        result.throwIfInvalid();
+        return product;
+    }
+
+    private static boolean isUnexpected(Throwable error) {
+        return !(error instanceof InvalidProductException
+                || error instanceof ProductAlreadyExistsException
+                || error instanceof ProductNotFoundException
+                || error instanceof ProductOwnedElsewhereException
+                || error instanceof ProductVersionMismatchException
+                || error instanceof ReadOnlyReplicaException);
+    }
+}
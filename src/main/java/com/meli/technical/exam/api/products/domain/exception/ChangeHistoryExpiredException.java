@@ -0,0 +1,14 @@
+package com.meli.technical.exam.api.products.domain.exception;
+
+public class ChangeHistoryExpiredException extends RuntimeException {
+
+    public ChangeHistoryExpiredException(String message) {
+        super(message);
+    }
+
+    public static ChangeHistoryExpiredException since(long since, long oldest) {
+        return new ChangeHistoryExpiredException("Changes after sequence " + since
+                + " are no longer retained, the oldest change that can be resumed from is " + oldest
+                + "; reload the catalog and follow the changes from its sequence");
+    }
+}
@@ -0,0 +1,20 @@
+package com.meli.technical.exam.api.products.domain.exception;
+
+public class PartitionUnavailableException extends RuntimeException {
+
+    private final String owner;
+
+    public PartitionUnavailableException(String message, String owner) {
+        super(message);
+        this.owner = owner;
+    }
+
+    public static PartitionUnavailableException forId(String id, String owner) {
+        return new PartitionUnavailableException(
+                "Product " + id + " belongs to the partition at " + owner + ", which did not answer; retry later", owner);
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+}
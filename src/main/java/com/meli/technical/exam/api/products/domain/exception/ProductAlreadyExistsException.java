@@ -0,0 +1,12 @@
+package com.meli.technical.exam.api.products.domain.exception;
+
+public class ProductAlreadyExistsException extends RuntimeException {
+
+    public ProductAlreadyExistsException(String message) {
+        super(message);
+    }
+
+    public static ProductAlreadyExistsException forId(String id) {
+        return new ProductAlreadyExistsException("Product already exists with id: " + id);
+    }
+}
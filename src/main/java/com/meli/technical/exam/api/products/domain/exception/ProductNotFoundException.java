@@ -1,9 +1,17 @@
 package com.meli.technical.exam.api.products.domain.exception;
 
+/*
+ * A missing product is an expected outcome, not a bug, so no stack trace is captured. Lookups for unknown
+ * IDs can arrive in bursts and filling in a trace per 404 was the most expensive part of the miss path.
+ * */
 public class ProductNotFoundException extends RuntimeException {
     
     public ProductNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
-}
\ No newline at end of file
+    public static ProductNotFoundException forId(String id) {
+        return new ProductNotFoundException("Product not found with id: " + id);
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.meli.technical.exam.api.products.domain.exception;
+
+public class ProductOwnedElsewhereException extends RuntimeException {
+
+    private final String owner;
+
+    public ProductOwnedElsewhereException(String message, String owner) {
+        super(message);
+        this.owner = owner;
+    }
+
+    public static ProductOwnedElsewhereException forId(String id, String owner) {
+        return new ProductOwnedElsewhereException(
+                "Product " + id + " belongs to the partition at " + owner + ", send the write there", owner);
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+}
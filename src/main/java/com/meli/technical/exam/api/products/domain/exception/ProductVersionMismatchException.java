@@ -0,0 +1,13 @@
+package com.meli.technical.exam.api.products.domain.exception;
+
+public class ProductVersionMismatchException extends RuntimeException {
+
+    public ProductVersionMismatchException(String message) {
+        super(message);
+    }
+
+    public static ProductVersionMismatchException forId(String id, long expected, long actual) {
+        return new ProductVersionMismatchException(
+                "Product " + id + " is at version " + actual + ", the request expected version " + expected);
+    }
+}
@@ -0,0 +1,20 @@
+package com.meli.technical.exam.api.products.domain.exception;
+
+public class ReadOnlyReplicaException extends RuntimeException {
+
+    private final String leader;
+
+    public ReadOnlyReplicaException(String message, String leader) {
+        super(message);
+        this.leader = leader;
+    }
+
+    public static ReadOnlyReplicaException forLeader(String leader) {
+        return new ReadOnlyReplicaException(
+                "This instance is a read-only replica of " + leader + ", send the write there", leader);
+    }
+
+    public String getLeader() {
+        return leader;
+    }
+}
@@ -0,0 +1,13 @@
+package com.meli.technical.exam.api.products.domain.exception;
+
+public class SnapshotExpiredException extends RuntimeException {
+
+    public SnapshotExpiredException(String message) {
+        super(message);
+    }
+
+    public static SnapshotExpiredException forToken(String token) {
+        return new SnapshotExpiredException(
+                "Catalog snapshot " + token + " has expired, start again from the first page without a snapshot");
+    }
+}
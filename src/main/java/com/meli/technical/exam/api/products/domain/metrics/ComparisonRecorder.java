@@ -0,0 +1,24 @@
+package com.meli.technical.exam.api.products.domain.metrics;
+
+// Port for profiling one comparison request, split into the fetch and the analysis
+public interface ComparisonRecorder {
+
+    ComparisonRecording beginComparison(int idCount);
+
+    interface ComparisonRecording {
+
+        ComparisonRecording NOOP = new ComparisonRecording() {
+            @Override
+            public void fetched(int foundCount) {
+            }
+
+            @Override
+            public void end() {
+            }
+        };
+
+        void fetched(int foundCount);
+
+        void end();
+    }
+}
@@ -0,0 +1,30 @@
+package com.meli.technical.exam.api.products.domain.metrics;
+
+import reactor.core.publisher.Mono;
+
+/*
+ * Port through which the domain and the use cases time their stages and count misses,
+ * without knowing which meter registry publishes them.
+ * */
+public interface PipelineMetrics {
+
+    String STAGE_STATS_COLLECTION = "stats_collection";
+    String STAGE_IMPORT_VALIDATION = "import_validation";
+
+    String OPERATION_GET_BY_ID = "get_by_id";
+    String OPERATION_COMPARE = "compare";
+    String OPERATION_BATCH = "batch";
+    String OPERATION_SIMILAR = "similar";
+
+    <T> Mono<T> timeStage(String stage, Mono<T> source);
+
+    <T> Mono<T> timeStrategy(String analysisType, Mono<T> source);
+
+    // For synchronous stages started at startNanos, a System.nanoTime() reading
+    void recordStage(String stage, long startNanos);
+
+    void incrementNotFound(String operation, long amount);
+
+    // outcome is "imported" or "rejected"
+    void incrementImported(String outcome, long amount);
+}
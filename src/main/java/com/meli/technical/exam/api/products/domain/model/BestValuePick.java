@@ -0,0 +1,11 @@
+package com.meli.technical.exam.api.products.domain.model;
+
+/*
+ * A product on the best-value leaderboard. valueScore is the comparison's best-value formula,
+ * (rating / 5) / (price / most expensive price), applied to the whole catalog.
+ * */
+public record BestValuePick(
+        ProductView product,
+        double valueScore
+) {
+}
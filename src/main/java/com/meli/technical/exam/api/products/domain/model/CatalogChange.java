@@ -0,0 +1,20 @@
+package com.meli.technical.exam.api.products.domain.model;
+
+import java.util.List;
+
+/*
+ * Everything one write-ahead log record changed, in log order; an import batch logged across several
+ * records is one change at the last of them. sequence is the offset to resume from; previousSequence is
+ * the sequence of the change published before this one, so a consumer that has applied previousSequence
+ * knows it missed nothing in between.
+ * */
+public record CatalogChange(
+        long sequence,
+        long previousSequence,
+        List<ProductChange> changes
+) {
+
+    public CatalogChange {
+        changes = List.copyOf(changes);
+    }
+}
@@ -0,0 +1,22 @@
+package com.meli.technical.exam.api.products.domain.model;
+
+import java.util.List;
+
+/*
+ * What changed in the catalog between two versions: the products created or updated after fromVersion,
+ * as they are at toVersion, and the IDs deleted since. With resync the change set could not be computed
+ * or would be no smaller than the catalog; the client should copy it again, paging with toVersion as the
+ * snapshot token, and then ask for the delta from there.
+ * */
+public record CatalogDelta(
+        long fromVersion,
+        long toVersion,
+        boolean resync,
+        List<ProductView> upserted,
+        List<String> deleted
+) {
+
+    public static CatalogDelta resync(long fromVersion, long toVersion) {
+        return new CatalogDelta(fromVersion, toVersion, true, null, null);
+    }
+}
@@ -0,0 +1,14 @@
+package com.meli.technical.exam.api.products.domain.model;
+
+import java.util.List;
+
+/*
+ * One page of the catalog and the catalog size, both read from the same catalog version. snapshot is
+ * the token that reads the next pages from that version too.
+ * */
+public record CatalogPage(
+        List<ProductView> content,
+        long totalElements,
+        String snapshot
+) {
+}
@@ -0,0 +1,7 @@
+package com.meli.technical.exam.api.products.domain.model;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,10 @@
+package com.meli.technical.exam.api.products.domain.model;
+
+/*
+ * How many products have one facet value (a price bucket, a star rating or a specification value).
+ * */
+public record FacetCount(
+        String value,
+        int count
+) {
+}
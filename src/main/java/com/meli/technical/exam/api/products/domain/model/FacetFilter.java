@@ -0,0 +1,23 @@
+package com.meli.technical.exam.api.products.domain.model;
+
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Selected facet values. Values of the same facet are OR-ed, different facets are AND-ed, and an empty
+ * selection does not filter. Ratings are whole stars: 4 selects ratings from 4.0 up to, not including, 5.0.
+ * */
+public record FacetFilter(
+        Set<PriceBucket> priceBuckets,
+        Set<Integer> ratings,
+        Map<String, Set<String>> specifications
+) {
+
+    public static final FacetFilter NONE = new FacetFilter(Set.of(), Set.of(), Map.of());
+
+    public FacetFilter {
+        priceBuckets = Set.copyOf(priceBuckets);
+        ratings = Set.copyOf(ratings);
+        specifications = Map.copyOf(specifications);
+    }
+}
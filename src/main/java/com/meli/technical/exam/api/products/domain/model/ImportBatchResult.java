@@ -0,0 +1,12 @@
+package com.meli.technical.exam.api.products.domain.model;
+
+/*
+ * Outcome of one atomically applied import batch: how many IDs were new and how many replaced a product.
+ * */
+public record ImportBatchResult(
+        int created,
+        int updated
+) {
+
+    public static final ImportBatchResult EMPTY = new ImportBatchResult(0, 0);
+}
@@ -0,0 +1,52 @@
+package com.meli.technical.exam.api.products.domain.model;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/*
+ * Fixed price ranges used for facet counts and filters. Lower bound inclusive, upper bound exclusive.
+ * */
+public enum PriceBucket {
+
+    UNDER_250("0-250", null, new BigDecimal("250")),
+    FROM_250_TO_500("250-500", new BigDecimal("250"), new BigDecimal("500")),
+    FROM_500_TO_1000("500-1000", new BigDecimal("500"), new BigDecimal("1000")),
+    FROM_1000_TO_1500("1000-1500", new BigDecimal("1000"), new BigDecimal("1500")),
+    OVER_1500("1500+", new BigDecimal("1500"), null);
+
+    private final String label;
+    private final BigDecimal min;
+    private final BigDecimal max;
+
+    PriceBucket(String label, BigDecimal min, BigDecimal max) {
+        this.label = label;
+        this.min = min;
+        this.max = max;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public boolean contains(BigDecimal price) {
+        return (min == null || price.compareTo(min) >= 0) && (max == null || price.compareTo(max) < 0);
+    }
+
+    public static PriceBucket of(BigDecimal price) {
+        for (PriceBucket bucket : values()) {
+            if (bucket.contains(price)) {
+                return bucket;
+            }
+        }
+        return OVER_1500;
+    }
+
+    public static Optional<PriceBucket> fromLabel(String label) {
+        for (PriceBucket bucket : values()) {
+            if (bucket.label.equals(label)) {
+                return Optional.of(bucket);
+            }
+        }
+        return Optional.empty();
+    }
+}
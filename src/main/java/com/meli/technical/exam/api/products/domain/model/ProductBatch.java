@@ -0,0 +1,27 @@
+package com.meli.technical.exam.api.products.domain.model;
+
+import java.util.List;
+
+/*
+ * Result of looking up many IDs at once: the products that exist, in the order they were requested,
+ * and the requested IDs that are not in the catalog. In a partitioned catalog unavailableIds are the
+ * ones whose partition did not answer in time; whether they exist is unknown.
+ * */
+public record ProductBatch(
+        List<ProductView> found,
+        List<String> missingIds,
+        List<String> unavailableIds
+) {
+
+    public static final ProductBatch EMPTY = new ProductBatch(List.of(), List.of());
+
+    public ProductBatch {
+        found = List.copyOf(found);
+        missingIds = List.copyOf(missingIds);
+        unavailableIds = List.copyOf(unavailableIds);
+    }
+
+    public ProductBatch(List<ProductView> found, List<String> missingIds) {
+        this(found, missingIds, List.of());
+    }
+}
@@ -0,0 +1,53 @@
+package com.meli.technical.exam.api.products.domain.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/*
+ * One product as a write left it. changedFields names the JSON fields that differ from the product it
+ * replaced, so a consumer can patch its copy; it is empty for a created product and for a write that
+ * stored the same product again. A deleted product is reported as it was before the deletion.
+ * */
+public record ProductChange(
+        ChangeType type,
+        ProductView product,
+        List<String> changedFields
+) {
+
+    public ProductChange {
+        changedFields = List.copyOf(changedFields);
+    }
+
+    public static ProductChange deleted(ProductView before) {
+        return new ProductChange(ChangeType.DELETED, before, List.of());
+    }
+
+    // before is null when the product did not exist
+    public static ProductChange between(ProductView before, ProductView after) {
+        if (before == null) {
+            return new ProductChange(ChangeType.CREATED, after, List.of());
+        }
+        List<String> changed = new ArrayList<>(2);
+        if (!Objects.equals(before.name(), after.name())) {
+            changed.add("name");
+        }
+        if (!Objects.equals(before.imageUrl(), after.imageUrl())) {
+            changed.add("imageUrl");
+        }
+        if (!Objects.equals(before.description(), after.description())) {
+            changed.add("description");
+        }
+        if (before.price() == null ? after.price() != null
+                : after.price() == null || before.price().compareTo(after.price()) != 0) {
+            changed.add("price");
+        }
+        if (Double.compare(before.rating(), after.rating()) != 0) {
+            changed.add("rating");
+        }
+        if (!before.specifications().equals(after.specifications())) {
+            changed.add("specifications");
+        }
+        return new ProductChange(ChangeType.UPDATED, after, changed);
+    }
+}
@@ -0,0 +1,25 @@
+package com.meli.technical.exam.api.products.domain.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Facet counts for a filter. Each facet is counted with the selections of the other facets applied but not
+ * its own, so a listing page can show what selecting another value of the same facet would give.
+ * */
+public record ProductFacets(
+        int totalMatches,
+        List<FacetCount> price,
+        List<FacetCount> rating,
+        Map<String, List<FacetCount>> specifications
+) {
+
+    public ProductFacets {
+        price = List.copyOf(price);
+        rating = List.copyOf(rating);
+        // Keeps the order the facet index produced
+        specifications = Collections.unmodifiableMap(new LinkedHashMap<>(specifications));
+    }
+}
@@ -0,0 +1,10 @@
+package com.meli.technical.exam.api.products.domain.model;
+
+/*
+ * One full-text search match and its relevance score, higher is better.
+ * */
+public record ProductSearchHit(
+        ProductView product,
+        double score
+) {
+}
@@ -0,0 +1,18 @@
+package com.meli.technical.exam.api.products.domain.model;
+
+import java.util.List;
+
+/*
+ * Best matches of a search, most relevant first, and how many products matched in total.
+ * */
+public record ProductSearchResult(
+        List<ProductSearchHit> hits,
+        int totalHits
+) {
+
+    public static final ProductSearchResult EMPTY = new ProductSearchResult(List.of(), 0);
+
+    public ProductSearchResult {
+        hits = List.copyOf(hits);
+    }
+}
@@ -0,0 +1,21 @@
+package com.meli.technical.exam.api.products.domain.model;
+
+import java.util.Locale;
+import java.util.Optional;
+
+public enum ProductSortField {
+    PRICE,
+    RATING,
+    NAME;
+
+    public static Optional<ProductSortField> fromParameter(String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(valueOf(value.trim().toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.meli.technical.exam.api.products.domain.model;
+
+import java.util.Objects;
+
+/*
+ * Order of a product listing. Products with equal keys keep load order when ascending and come in reverse
+ * load order when descending, since a descending listing is the ascending one read backwards.
+ * */
+public record ProductSortOrder(
+        ProductSortField field,
+        SortDirection direction
+) {
+
+    public ProductSortOrder {
+        Objects.requireNonNull(field, "field");
+        direction = direction != null ? direction : SortDirection.ASC;
+    }
+}
@@ -0,0 +1,73 @@
+package com.meli.technical.exam.api.products.domain.model;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+
+/*
+ * Read model of a product. Product stays the aggregate that validates input on POST/PUT,
+ * while the read path and the comparison analysis work on this immutable record, built once per catalog
+ * snapshot from an already validated Product. It serializes to the same JSON as ProductDto.
+ * */
+public record ProductView(
+        String id,
+        String name,
+        String imageUrl,
+        String description,
+        BigDecimal price,
+        double rating,
+        List<Specification> specifications
+) {
+
+    public ProductView {
+        Objects.requireNonNull(id, "Product ID cannot be null");
+        specifications = specifications == null ? List.of() : List.copyOf(specifications);
+    }
+
+    // The canonicalizer lets the caller share Specification instances between products (flyweight)
+    public static ProductView from(Product product, UnaryOperator<Specification> canonicalizer) {
+        List<Specification> specifications = new ArrayList<>(product.getSpecifications().size());
+        for (Specification specification : product.getSpecifications()) {
+            specifications.add(canonicalizer.apply(specification));
+        }
+        return new ProductView(
+                product.getId().getValue(),
+                product.getName(),
+                product.getImageUrl(),
+                product.getDescription(),
+                product.getPrice().getValue(),
+                product.getRating().getValue(),
+                specifications);
+    }
+
+    public static ProductView from(Product product) {
+        return from(product, UnaryOperator.identity());
+    }
+
+    /*
+     * Rating points per unit of price. The comparison's best-value score, (rating / 5) / (price / maxPrice),
+     * only rescales this by constants of the compared set, so both rank products the same way.
+     * */
+    public double valueRatio() {
+        if (price == null || price.signum() <= 0) {
+            return 0;
+        }
+        return rating / price.doubleValue();
+    }
+
+    public boolean hasSpecification(String key) {
+        return specificationValue(key) != null;
+    }
+
+    // Linear scan on purpose: products have a handful of specifications, a map per product would cost more
+    public String specificationValue(String key) {
+        for (Specification specification : specifications) {
+            if (specification.getKey().equals(key)) {
+                return specification.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,11 @@
+package com.meli.technical.exam.api.products.domain.model;
+
+/*
+ * A product whose specifications resemble another one's. similarity is the Jaccard index of both
+ * specification key/value sets, from 0 (nothing shared) to 1 (identical).
+ * */
+public record SimilarProduct(
+        ProductView product,
+        double similarity
+) {
+}
@@ -0,0 +1,20 @@
+package com.meli.technical.exam.api.products.domain.model;
+
+import java.util.Locale;
+import java.util.Optional;
+
+public enum SortDirection {
+    ASC,
+    DESC;
+
+    public static Optional<SortDirection> fromParameter(String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(valueOf(value.trim().toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
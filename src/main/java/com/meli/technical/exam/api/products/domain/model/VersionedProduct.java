@@ -0,0 +1,14 @@
+package com.meli.technical.exam.api.products.domain.model;
+
+/*
+ * A product together with its version: the log sequence of the write that last stored it, 0 for a product
+ * unchanged since the seed data. Versions only grow, so equal versions mean an identical product.
+ * */
+public record VersionedProduct(
+        ProductView product,
+        long version
+) {
+
+    // Expected version of an update that does not care what it replaces
+    public static final long ANY_VERSION = -1;
+}
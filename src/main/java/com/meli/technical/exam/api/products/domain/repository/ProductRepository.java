@@ -1,6 +1,19 @@
 package com.meli.technical.exam.api.products.domain.repository;
 
+import com.meli.technical.exam.api.products.domain.model.BestValuePick;
+import com.meli.technical.exam.api.products.domain.model.CatalogChange;
+import com.meli.technical.exam.api.products.domain.model.CatalogDelta;
+import com.meli.technical.exam.api.products.domain.model.CatalogPage;
+import com.meli.technical.exam.api.products.domain.model.FacetFilter;
+import com.meli.technical.exam.api.products.domain.model.ImportBatchResult;
 import com.meli.technical.exam.api.products.domain.model.Product;
+import com.meli.technical.exam.api.products.domain.model.ProductBatch;
+import com.meli.technical.exam.api.products.domain.model.ProductFacets;
+import com.meli.technical.exam.api.products.domain.model.ProductSearchResult;
+import com.meli.technical.exam.api.products.domain.model.ProductSortOrder;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.domain.model.SimilarProduct;
+import com.meli.technical.exam.api.products.domain.model.VersionedProduct;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -8,13 +21,52 @@ import java.util.List;
 
 public interface ProductRepository {
     
-    Mono<Product> findById(String id);
+    Mono<ProductView> findById(String id);
     
-    Flux<Product> findByIds(List<String> ids);
+    Mono<VersionedProduct> findVersionedById(String id);
     
-    Flux<Product> findAll();
+    Mono<ProductBatch> findBatch(List<String> ids);
     
-    Mono<Long> count();
+    Mono<ProductSearchResult> search(String query, int limit);
     
-    Flux<Product> findAllPaginated(int page, int size);
+    Flux<ProductView> suggest(String prefix, int limit);
+    
+    Mono<ProductFacets> facets(FacetFilter filter);
+    
+    Flux<BestValuePick> findBestValue(FacetFilter filter, int limit);
+    
+    // Empty when there is no product with the ID
+    Mono<List<SimilarProduct>> findSimilar(String id, int limit);
+    
+    /*
+     * A page (in load order when order is null) and the catalog size from one catalog version: the current
+     * one when snapshot is null, otherwise the one the token names. Fails with SnapshotExpiredException
+     * once that version is no longer kept
+     * */
+    Mono<CatalogPage> findPage(ProductSortOrder order, int page, int size, String snapshot);
+    
+    // Fails with ProductAlreadyExistsException when the ID is taken; completes once the write is durable
+    Mono<VersionedProduct> create(Product product);
+    
+    /*
+     * Fails with ProductNotFoundException when there is no product with the ID, and with
+     * ProductVersionMismatchException when expectedVersion is not VersionedProduct.ANY_VERSION and the
+     * stored product is at another version; completes once the write is durable
+     * */
+    Mono<VersionedProduct> update(Product product, long expectedVersion);
+
+    // Same failures as update(); completes once the deletion is durable
+    Mono<Void> delete(String id, long expectedVersion);
+    
+    // Creates or replaces every product in one atomic, durable step; a repeated ID keeps its last product
+    Mono<ImportBatchResult> importBatch(List<Product> products);
+    
+    /*
+     * Every change logged after sequence since, then live changes, never completing; only live changes when
+     * since is null. Fails with ChangeHistoryExpiredException when the changes after since are no longer kept
+     * */
+    Flux<CatalogChange> findChanges(Long since);
+
+    // The products upserted and the IDs deleted after catalog version fromVersion, or a resync
+    Mono<CatalogDelta> findDelta(long fromVersion);
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.meli.technical.exam.api.products.domain.service;
 
-import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.application.dto.response.ProductResponseDto;
 import com.meli.technical.exam.api.products.application.dto.response.comparison.*;
+import com.meli.technical.exam.api.products.domain.metrics.PipelineMetrics;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
 import com.meli.technical.exam.api.products.domain.service.analysis.ProductStats;
 import com.meli.technical.exam.api.products.domain.service.analysis.strategy.*;
 import org.slf4j.Logger;
@@ -24,26 +26,29 @@ public class ProductComparisonAnalyzerService {
     private final SpecificationAnalysisStrategy specificationAnalysisStrategy;
     private final RecommendationEngine recommendationEngine;
     private final SummaryGenerationStrategy summaryGenerationStrategy;
+    private final PipelineMetrics productMetrics;
     
     public ProductComparisonAnalyzerService(PriceAnalysisStrategy priceAnalysisStrategy,
                                           RatingAnalysisStrategy ratingAnalysisStrategy,
                                           SpecificationAnalysisStrategy specificationAnalysisStrategy,
                                           RecommendationEngine recommendationEngine,
-                                          SummaryGenerationStrategy summaryGenerationStrategy) {
+                                          SummaryGenerationStrategy summaryGenerationStrategy,
+                                          PipelineMetrics productMetrics) {
         this.priceAnalysisStrategy = priceAnalysisStrategy;
         this.ratingAnalysisStrategy = ratingAnalysisStrategy;
         this.specificationAnalysisStrategy = specificationAnalysisStrategy;
         this.recommendationEngine = recommendationEngine;
         this.summaryGenerationStrategy = summaryGenerationStrategy;
+        this.productMetrics = productMetrics;
     }
 
-    public Mono<ComparisonResponseDto> analyzeProductsReactive(Flux<ProductDto> productFlux, List<String> requestedIds) {
+    public Mono<ComparisonResponseDto> analyzeProductsReactive(Flux<ProductView> productFlux, List<String> requestedIds) {
         return productFlux
                 .as(flux -> analyzeProductsFromFlux(flux, requestedIds))
                 .doOnError(error -> logger.error("Error during reactive product analysis", error));
     }
 
-    private Mono<ComparisonResponseDto> analyzeProductsFromFlux(Flux<ProductDto> productFlux, List<String> requestedIds) {
+    private Mono<ComparisonResponseDto> analyzeProductsFromFlux(Flux<ProductView> productFlux, List<String> requestedIds) {
         return productFlux
                 .collectList()
                 .flatMap(products -> {
@@ -51,10 +56,11 @@ public class ProductComparisonAnalyzerService {
                         return Mono.just(createEmptyResponse(requestedIds));
                     }
                     
-                    return ProductStats.fromProductsReactive(Flux.fromIterable(products))
+                    return productMetrics.timeStage(PipelineMetrics.STAGE_STATS_COLLECTION,
+                                    ProductStats.fromProductsReactive(Flux.fromIterable(products)))
                             .flatMap(this::performAnalysis)
                             .map(analysisResults -> ComparisonResponseDto.builder()
-                                    .products(products)
+                                    .products(ProductResponseDto.from(products))
                                     .totalProducts(products.size())
                                     .requestedIds(requestedIds)
                                     .comparisonTimestamp(Instant.now())
@@ -70,11 +76,11 @@ public class ProductComparisonAnalyzerService {
     
     private Mono<AnalysisResults> performAnalysis(ProductStats productStats) {
         return Mono.zip(
-                priceAnalysisStrategy.analyze(productStats),
-                ratingAnalysisStrategy.analyze(productStats),
-                specificationAnalysisStrategy.analyze(productStats),
-                recommendationEngine.analyze(productStats),
-                summaryGenerationStrategy.analyze(productStats)
+                timedAnalysis(priceAnalysisStrategy, productStats),
+                timedAnalysis(ratingAnalysisStrategy, productStats),
+                timedAnalysis(specificationAnalysisStrategy, productStats),
+                timedAnalysis(recommendationEngine, productStats),
+                timedAnalysis(summaryGenerationStrategy, productStats)
         ).map(tuple -> new AnalysisResults(
                 tuple.getT1(), // priceAnalysis
                 tuple.getT2(), // ratingAnalysis  
@@ -84,6 +90,10 @@ public class ProductComparisonAnalyzerService {
         ));
     }
     
+    private <T> Mono<T> timedAnalysis(ProductAnalysisStrategy<T> strategy, ProductStats productStats) {
+        return productMetrics.timeStrategy(strategy.getAnalysisType(), strategy.analyze(productStats));
+    }
+    
     private record AnalysisResults(
             PriceAnalysisDto priceAnalysis,
             RatingAnalysisDto ratingAnalysis,
@@ -1,6 +1,20 @@
 package com.meli.technical.exam.api.products.domain.service;
 
+import com.meli.technical.exam.api.products.domain.exception.SnapshotExpiredException;
+import com.meli.technical.exam.api.products.domain.model.BestValuePick;
+import com.meli.technical.exam.api.products.domain.model.CatalogChange;
+import com.meli.technical.exam.api.products.domain.model.CatalogDelta;
+import com.meli.technical.exam.api.products.domain.model.CatalogPage;
+import com.meli.technical.exam.api.products.domain.model.FacetFilter;
+import com.meli.technical.exam.api.products.domain.model.ImportBatchResult;
 import com.meli.technical.exam.api.products.domain.model.Product;
+import com.meli.technical.exam.api.products.domain.model.ProductBatch;
+import com.meli.technical.exam.api.products.domain.model.ProductFacets;
+import com.meli.technical.exam.api.products.domain.model.ProductSearchResult;
+import com.meli.technical.exam.api.products.domain.model.ProductSortOrder;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.domain.model.SimilarProduct;
+import com.meli.technical.exam.api.products.domain.model.VersionedProduct;
 import com.meli.technical.exam.api.products.domain.repository.ProductRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,38 +34,115 @@ public class ProductService {
         this.productRepository = productRepository;
     }
 
-    public Mono<Product> findById(String id) {
+    public Mono<ProductView> findById(String id) {
         return productRepository.findById(id)
                 .doOnError(error -> logger.error("Error finding product by id: {}", id, error));
     }
 
-    public Flux<Product> findProductsForComparison(List<String> productIds) {
+    public Mono<VersionedProduct> findVersionedById(String id) {
+        return productRepository.findVersionedById(id)
+                .doOnError(error -> logger.error("Error finding product by id: {}", id, error));
+    }
+
+    // A batch, so that IDs whose partition did not answer are told apart from missing ones
+    public Mono<ProductBatch> findProductsForComparison(List<String> productIds) {
         
         if (productIds == null || productIds.isEmpty()) {
             logger.warn("Empty product IDs list provided for comparison");
-            return Flux.empty();
+            return Mono.just(ProductBatch.EMPTY);
         }
 
-        return productRepository.findByIds(productIds)
+        return productRepository.findBatch(productIds)
                 .doOnError(error -> logger.error("Error finding products for comparison", error));
     }
 
-    public Flux<Product> findAll() {
-        return productRepository.findAll()
-                .doOnError(error -> logger.error("Error finding all products", error));
+    public Mono<ProductBatch> findBatch(List<String> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return Mono.just(ProductBatch.EMPTY);
+        }
+
+        return productRepository.findBatch(productIds)
+                .doOnError(error -> logger.error("Error finding products batch", error));
     }
 
-    public Flux<Product> findAllPaginated(int page, int size) {
+    public Mono<ProductSearchResult> search(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return Mono.just(ProductSearchResult.EMPTY);
+        }
+
+        return productRepository.search(query, limit)
+                .doOnError(error -> logger.error("Error searching products: {}", query, error));
+    }
+
+    public Flux<ProductView> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return Flux.empty();
+        }
+
+        return productRepository.suggest(prefix, limit)
+                .doOnError(error -> logger.error("Error suggesting products: {}", prefix, error));
+    }
+
+    public Mono<ProductFacets> facets(FacetFilter filter) {
+        return productRepository.facets(filter != null ? filter : FacetFilter.NONE)
+                .doOnError(error -> logger.error("Error counting product facets: {}", filter, error));
+    }
+
+    public Flux<BestValuePick> findBestValue(FacetFilter filter, int limit) {
+        return productRepository.findBestValue(filter != null ? filter : FacetFilter.NONE, limit)
+                .doOnError(error -> logger.error("Error finding best value products: {}", filter, error));
+    }
+
+    public Mono<List<SimilarProduct>> findSimilar(String id, int limit) {
+        if (id == null || id.isBlank()) {
+            return Mono.empty();
+        }
+
+        return productRepository.findSimilar(id.trim(), limit)
+                .doOnError(error -> logger.error("Error finding products similar to: {}", id, error));
+    }
+
+    public Mono<VersionedProduct> create(Product product) {
+        return productRepository.create(product)
+                .doOnSuccess(created -> logger.info("Created product: {} at version {}", created.product().id(), created.version()));
+    }
+
+    public Mono<VersionedProduct> update(Product product) {
+        return update(product, VersionedProduct.ANY_VERSION);
+    }
+
+    public Mono<VersionedProduct> update(Product product, long expectedVersion) {
+        return productRepository.update(product, expectedVersion)
+                .doOnSuccess(updated -> logger.info("Updated product: {} to version {}", updated.product().id(), updated.version()));
+    }
+
+    public Mono<Void> delete(String id, long expectedVersion) {
+        return productRepository.delete(id, expectedVersion)
+                .doOnSuccess(deleted -> logger.info("Deleted product: {}", id));
+    }
+
+    public Mono<ImportBatchResult> importBatch(List<Product> products) {
+        if (products == null || products.isEmpty()) {
+            return Mono.just(ImportBatchResult.EMPTY);
+        }
+        return productRepository.importBatch(products);
+    }
+
+    public Mono<CatalogPage> findPage(ProductSortOrder order, int page, int size, String snapshot) {
         if (page < 0 || size <= 0) {
-            return Flux.error(new IllegalArgumentException("Page must be non-negative and size must be positive"));
+            return Mono.error(new IllegalArgumentException("Page must be non-negative and size must be positive"));
         }
 
-        return productRepository.findAllPaginated(page, size)
-                .doOnError(error -> logger.error("Error finding paginated products", error));
+        return productRepository.findPage(order, page, size, snapshot)
+                .doOnError(error -> !(error instanceof SnapshotExpiredException),
+                        error -> logger.error("Error finding products page", error));
+    }
+
+    public Flux<CatalogChange> findChanges(Long since) {
+        return productRepository.findChanges(since);
     }
 
-    public Mono<Long> count() {
-        return productRepository.count()
-                .doOnError(error -> logger.error("Error counting products", error));
+    public Mono<CatalogDelta> findDelta(long fromVersion) {
+        return productRepository.findDelta(fromVersion);
     }
 }
\ No newline at end of file
@@ -1,13 +1,13 @@
 package com.meli.technical.exam.api.products.domain.service.analysis;
 
-import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
 
 import java.math.BigDecimal;
 import java.util.Map;
 
 public record PriceStats(
-        ProductDto cheapest,
-        ProductDto mostExpensive,
+        ProductView cheapest,
+        ProductView mostExpensive,
         BigDecimal totalPrice,
         BigDecimal averagePrice,
         BigDecimal priceRange,
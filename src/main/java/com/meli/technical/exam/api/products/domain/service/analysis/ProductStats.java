@@ -1,6 +1,6 @@
 package com.meli.technical.exam.api.products.domain.service.analysis;
 
-import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
 import lombok.Builder;
 import lombok.Getter;
 import reactor.core.publisher.Flux;
@@ -17,15 +17,15 @@ import java.util.Set;
 public class ProductStats {
     
     // Price statistics
-    private final ProductDto cheapestProduct;
-    private final ProductDto mostExpensiveProduct;
+    private final ProductView cheapestProduct;
+    private final ProductView mostExpensiveProduct;
     private final BigDecimal totalPrice;
     private final BigDecimal averagePrice;
     private final BigDecimal priceRange;
     
     // Rating statistics  
-    private final ProductDto bestRatedProduct;
-    private final ProductDto lowestRatedProduct;
+    private final ProductView bestRatedProduct;
+    private final ProductView lowestRatedProduct;
     private final Double totalRating;
     private final Double averageRating;
     private final Double ratingRange;
@@ -33,19 +33,19 @@ public class ProductStats {
     // Specification statistics
     private final Set<String> allSpecificationKeys;
     private final Set<String> commonSpecifications;
-    private final ProductDto mostFeaturedProduct;
+    private final ProductView mostFeaturedProduct;
     private final Map<String, Set<String>> productSpecifications;
     
     // General statistics
     private final int totalProducts;
-    private final List<ProductDto> allProducts;
-    private final List<ProductDto> highlyRatedProducts;
+    private final List<ProductView> allProducts;
+    private final List<ProductView> highlyRatedProducts;
     
     // Calculated collections
     private final Map<String, BigDecimal> priceDistribution;
     private final Map<String, Double> ratingDistribution;
 
-    public static Mono<ProductStats> fromProductsReactive(Flux<ProductDto> productFlux) {
+    public static Mono<ProductStats> fromProductsReactive(Flux<ProductView> productFlux) {
         return ProductStatsCollector.collectStatsReactive(productFlux);
     }
     
@@ -1,6 +1,6 @@
 package com.meli.technical.exam.api.products.domain.service.analysis;
 
-import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -14,12 +14,12 @@ public class ProductStatsCollector {
     private final RatingStatsCollector ratingCollector = new RatingStatsCollector();
     private final SpecStatsCollector specCollector = new SpecStatsCollector();
 
-    public static Mono<ProductStats> collectStatsReactive(Flux<ProductDto> productFlux) {
+    public static Mono<ProductStats> collectStatsReactive(Flux<ProductView> productFlux) {
         return new ProductStatsCollector().collectReactive(productFlux);
     }
 
     // Truly reactive implementation - processes streams without blocking
-    public Mono<ProductStats> collectReactive(Flux<ProductDto> productFlux) {
+    public Mono<ProductStats> collectReactive(Flux<ProductView> productFlux) {
         return productFlux.hasElements()
                 .flatMap(hasElements -> {
                     if (Boolean.FALSE.equals(hasElements)) {
@@ -1,16 +1,16 @@
 package com.meli.technical.exam.api.products.domain.service.analysis;
 
-import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
 
 import java.util.List;
 import java.util.Map;
 
 public record RatingStats(
-        ProductDto bestRated,
-        ProductDto lowestRated,
+        ProductView bestRated,
+        ProductView lowestRated,
         Double totalRating,
         Double averageRating,
         Double ratingRange,
         Map<String, Double> ratingDistribution,
-        List<ProductDto> highlyRated
+        List<ProductView> highlyRated
 ) {}
\ No newline at end of file
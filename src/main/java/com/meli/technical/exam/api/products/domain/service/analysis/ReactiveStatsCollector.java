@@ -1,9 +1,9 @@
 package com.meli.technical.exam.api.products.domain.service.analysis;
 
-import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface ReactiveStatsCollector<T> {
-    Mono<T> collectReactive(Flux<ProductDto> productFlux);
+    Mono<T> collectReactive(Flux<ProductView> productFlux);
 }
\ No newline at end of file
@@ -1,6 +1,6 @@
 package com.meli.technical.exam.api.products.domain.service.analysis;
 
-import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
 
 import java.util.List;
 import java.util.Map;
@@ -9,7 +9,7 @@ import java.util.Set;
 public record SpecStats(
         Set<String> allSpecKeys,
         Set<String> commonSpecs,
-        ProductDto mostFeatured,
+        ProductView mostFeatured,
         Map<String, Set<String>> productSpecifications,
-        List<ProductDto> allProducts
+        List<ProductView> allProducts
 ) {}
\ No newline at end of file
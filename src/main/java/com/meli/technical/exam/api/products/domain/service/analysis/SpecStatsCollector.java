@@ -1,7 +1,7 @@
 package com.meli.technical.exam.api.products.domain.service.analysis;
 
-import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
-import com.meli.technical.exam.api.products.application.dto.request.SpecificationDto;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.domain.model.Specification;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -11,26 +11,21 @@ import java.util.stream.Collectors;
 public class SpecStatsCollector implements ReactiveStatsCollector<SpecStats> {
 
     @Override
-    public Mono<SpecStats> collectReactive(Flux<ProductDto> productFlux) {
+    public Mono<SpecStats> collectReactive(Flux<ProductView> productFlux) {
         return Mono.zip(
                 // Find most featured product
-                productFlux.reduce((p1, p2) -> {
-                    int specs1 = Optional.ofNullable(p1.getSpecifications()).orElse(List.of()).size();
-                    int specs2 = Optional.ofNullable(p2.getSpecifications()).orElse(List.of()).size();
-                    return specs1 >= specs2 ? p1 : p2;
-                }),
+                productFlux.reduce((p1, p2) -> p1.specifications().size() >= p2.specifications().size() ? p1 : p2),
                 // Collect product specifications map
                 productFlux.collectMap(
-                        ProductDto::getName,
-                        p -> Optional.ofNullable(p.getSpecifications()).orElse(List.of())
-                                .stream().map(SpecificationDto::getKey).collect(Collectors.toSet())
+                        ProductView::name,
+                        p -> p.specifications().stream().map(Specification::getKey).collect(Collectors.toSet())
                 ),
                 // Collect all products
                 productFlux.collectList()
         ).map(tuple -> {
-            ProductDto mostFeatured = tuple.getT1();
+            ProductView mostFeatured = tuple.getT1();
             Map<String, Set<String>> productSpecs = tuple.getT2();
-            List<ProductDto> allProducts = tuple.getT3();
+            List<ProductView> allProducts = tuple.getT3();
             
             // Calculate all specification keys
             Set<String> allKeys = productSpecs.values().stream()
@@ -39,9 +34,7 @@ public class SpecStatsCollector implements ReactiveStatsCollector<SpecStats> {
             
             // Calculate common specification keys
             Set<String> commonKeys = allKeys.stream()
-                    .filter(k -> allProducts.stream().allMatch(p -> 
-                            Optional.ofNullable(p.getSpecifications()).orElse(List.of())
-                                    .stream().anyMatch(spec -> spec.getKey().equals(k))))
+                    .filter(k -> allProducts.stream().allMatch(p -> p.hasSpecification(k)))
                     .collect(Collectors.toSet());
             
             return new SpecStats(allKeys, commonKeys, mostFeatured, productSpecs, allProducts);
@@ -1,5 +1,6 @@
 package com.meli.technical.exam.api.products.domain.service.analysis.strategy;
 
+import com.meli.technical.exam.api.products.application.dto.response.ProductResponseDto;
 import com.meli.technical.exam.api.products.application.dto.response.comparison.PriceAnalysisDto;
 import com.meli.technical.exam.api.products.domain.service.analysis.ProductStats;
 import org.springframework.stereotype.Component;
@@ -15,8 +16,8 @@ public class PriceAnalysisStrategy implements ProductAnalysisStrategy<PriceAnaly
         }
         
         return Mono.fromSupplier(() -> PriceAnalysisDto.builder()
-                .cheapestProduct(productStats.getCheapestProduct())
-                .mostExpensiveProduct(productStats.getMostExpensiveProduct())
+                .cheapestProduct(ProductResponseDto.from(productStats.getCheapestProduct()))
+                .mostExpensiveProduct(ProductResponseDto.from(productStats.getMostExpensiveProduct()))
                 .priceRange(productStats.getPriceRange())
                 .averagePrice(productStats.getAveragePrice())
                 .priceDistribution(productStats.getPriceDistribution())
@@ -1,5 +1,6 @@
 package com.meli.technical.exam.api.products.domain.service.analysis.strategy;
 
+import com.meli.technical.exam.api.products.application.dto.response.ProductResponseDto;
 import com.meli.technical.exam.api.products.application.dto.response.comparison.RatingAnalysisDto;
 import com.meli.technical.exam.api.products.domain.service.analysis.ProductStats;
 import org.springframework.stereotype.Component;
@@ -17,11 +18,11 @@ public class RatingAnalysisStrategy implements ProductAnalysisStrategy<RatingAna
         }
         
         return Mono.fromSupplier(() -> RatingAnalysisDto.builder()
-                .bestRatedProduct(productStats.getBestRatedProduct())
-                .lowestRatedProduct(productStats.getLowestRatedProduct())
+                .bestRatedProduct(ProductResponseDto.from(productStats.getBestRatedProduct()))
+                .lowestRatedProduct(ProductResponseDto.from(productStats.getLowestRatedProduct()))
                 .averageRating(productStats.getAverageRating())
                 .ratingDistribution(productStats.getRatingDistribution())
-                .highlyRatedProducts(productStats.getHighlyRatedProducts())
+                .highlyRatedProducts(ProductResponseDto.from(productStats.getHighlyRatedProducts()))
                 .build());
     }
     
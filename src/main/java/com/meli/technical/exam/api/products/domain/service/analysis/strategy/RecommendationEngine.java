@@ -1,7 +1,8 @@
 package com.meli.technical.exam.api.products.domain.service.analysis.strategy;
 
-import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.application.dto.response.ProductResponseDto;
 import com.meli.technical.exam.api.products.application.dto.response.comparison.RecommendationDto;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
 import com.meli.technical.exam.api.products.domain.service.analysis.ProductStats;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
@@ -35,7 +36,7 @@ public class RecommendationEngine implements ProductAnalysisStrategy<List<Recomm
     
     private Mono<RecommendationDto> generateBestValueRecommendation(ProductStats productStats) {
         return Mono.fromSupplier(() -> {
-            ProductDto bestValue = calculateBestValue(productStats.getAllProducts());
+            ProductView bestValue = calculateBestValue(productStats.getAllProducts());
             if (bestValue == null) {
                 return null;
             }
@@ -44,7 +45,7 @@ public class RecommendationEngine implements ProductAnalysisStrategy<List<Recomm
                     .type("BEST_VALUE")
                     .title("Best Value for Money")
                     .description("This product offers the best balance of price, quality, and features")
-                    .recommendedProduct(bestValue)
+                    .recommendedProduct(ProductResponseDto.from(bestValue))
                     .reason("Optimal price-to-rating ratio with comprehensive features")
                     .build();
         })
@@ -53,7 +54,7 @@ public class RecommendationEngine implements ProductAnalysisStrategy<List<Recomm
     
     private Mono<RecommendationDto> generateBudgetRecommendation(ProductStats productStats) {
         return Mono.fromSupplier(() -> {
-            ProductDto cheapest = productStats.getCheapestProduct();
+            ProductView cheapest = productStats.getCheapestProduct();
             if (cheapest == null) {
                 return null;
             }
@@ -62,7 +63,7 @@ public class RecommendationEngine implements ProductAnalysisStrategy<List<Recomm
                     .type("BUDGET_FRIENDLY")
                     .title("Most Affordable Option")
                     .description("Best choice if budget is your primary concern")
-                    .recommendedProduct(cheapest)
+                    .recommendedProduct(ProductResponseDto.from(cheapest))
                     .reason("Lowest price among compared products")
                     .build();
         })
@@ -71,7 +72,7 @@ public class RecommendationEngine implements ProductAnalysisStrategy<List<Recomm
     
     private Mono<RecommendationDto> generatePremiumRecommendation(ProductStats productStats) {
         return Mono.fromSupplier(() -> {
-            ProductDto bestRated = productStats.getBestRatedProduct();
+            ProductView bestRated = productStats.getBestRatedProduct();
             if (bestRated == null) {
                 return null;
             }
@@ -80,24 +81,17 @@ public class RecommendationEngine implements ProductAnalysisStrategy<List<Recomm
                     .type("PREMIUM_CHOICE")
                     .title("Highest Quality")
                     .description("Top-rated product with the best customer satisfaction")
-                    .recommendedProduct(bestRated)
+                    .recommendedProduct(ProductResponseDto.from(bestRated))
                     .reason("Highest customer rating among compared products")
                     .build();
         })
         .filter(recommendation -> recommendation != null);
     }
     
-    private ProductDto calculateBestValue(List<ProductDto> products) {
+    private ProductView calculateBestValue(List<ProductView> products) {
+        // Same order as (rating / max_rating) / (price / max_price), without rescanning for max_price per product
         return products.stream()
-                .max(Comparator.comparing(product -> {
-                    // Value score = (rating / max_rating) / (price / max_price)
-                    double normalizedRating = product.getRating() / 5.0;
-                    double maxPrice = products.stream()
-                            .mapToDouble(p -> p.getPrice().doubleValue())
-                            .max().orElse(1.0);
-                    double normalizedPrice = product.getPrice().doubleValue() / maxPrice;
-                    return normalizedRating / normalizedPrice;
-                }))
+                .max(Comparator.comparingDouble(ProductView::valueRatio))
                 .orElse(null);
     }
 }
\ No newline at end of file
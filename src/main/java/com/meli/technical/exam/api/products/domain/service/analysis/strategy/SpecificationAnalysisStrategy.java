@@ -1,5 +1,6 @@
 package com.meli.technical.exam.api.products.domain.service.analysis.strategy;
 
+import com.meli.technical.exam.api.products.application.dto.response.ProductResponseDto;
 import com.meli.technical.exam.api.products.application.dto.response.comparison.SpecificationAnalysisDto;
 import com.meli.technical.exam.api.products.domain.service.analysis.ProductStats;
 import org.springframework.stereotype.Component;
@@ -8,6 +9,7 @@ import reactor.core.publisher.Mono;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -28,7 +30,7 @@ public class SpecificationAnalysisStrategy implements ProductAnalysisStrategy<Sp
                     .commonSpecifications(productStats.getCommonSpecifications())
                     .uniqueSpecifications(uniqueSpecs)
                     .specificationComparison(specComparison)
-                    .mostFeaturedProduct(productStats.getMostFeaturedProduct())
+                    .mostFeaturedProduct(ProductResponseDto.from(productStats.getMostFeaturedProduct()))
                     .build();
         });
     }
@@ -54,12 +56,8 @@ public class SpecificationAnalysisStrategy implements ProductAnalysisStrategy<Sp
         for (String specKey : productStats.getCommonSpecifications()) {
             Map<String, String> productValues = productStats.getAllProducts().stream()
                     .collect(Collectors.toMap(
-                            product -> product.getName(),
-                            product -> product.getSpecifications().stream()
-                                    .filter(spec -> spec.getKey().equals(specKey))
-                                    .map(spec -> spec.getValue())
-                                    .findFirst()
-                                    .orElse("N/A")
+                            product -> product.name(),
+                            product -> Objects.requireNonNullElse(product.specificationValue(specKey), "N/A")
                     ));
             specComparison.put(specKey, productValues);
         }
@@ -1,7 +1,8 @@
 package com.meli.technical.exam.api.products.domain.service.analysis.strategy;
 
-import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.application.dto.response.ProductResponseDto;
 import com.meli.technical.exam.api.products.application.dto.response.comparison.ComparisonSummaryDto;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
 import com.meli.technical.exam.api.products.domain.service.analysis.ProductStats;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
@@ -21,17 +22,17 @@ public class SummaryGenerationStrategy implements ProductAnalysisStrategy<Compar
         }
         
         return Mono.fromSupplier(() -> {
-            ProductDto bestValue = calculateBestValue(productStats.getAllProducts());
-            ProductDto bestQuality = productStats.getBestRatedProduct();
-            ProductDto budgetOption = productStats.getCheapestProduct();
+            ProductView bestValue = calculateBestValue(productStats.getAllProducts());
+            ProductView bestQuality = productStats.getBestRatedProduct();
+            ProductView budgetOption = productStats.getCheapestProduct();
             
             List<String> insights = generateInsights(productStats);
             String conclusion = generateConclusion(productStats, bestValue, bestQuality, budgetOption);
             
             return ComparisonSummaryDto.builder()
-                    .bestValue(bestValue)
-                    .bestQuality(bestQuality)
-                    .budgetOption(budgetOption)
+                    .bestValue(ProductResponseDto.from(bestValue))
+                    .bestQuality(ProductResponseDto.from(bestQuality))
+                    .budgetOption(ProductResponseDto.from(budgetOption))
                     .insights(insights)
                     .conclusion(conclusion)
                     .build();
@@ -43,14 +44,14 @@ public class SummaryGenerationStrategy implements ProductAnalysisStrategy<Compar
         return "SUMMARY_GENERATION";
     }
     
-    private ProductDto calculateBestValue(List<ProductDto> products) {
+    private ProductView calculateBestValue(List<ProductView> products) {
         return products.stream()
                 .max(Comparator.comparing(product -> {
-                    double normalizedRating = product.getRating() / 5.0;
+                    double normalizedRating = product.rating() / 5.0;
                     double maxPrice = products.stream()
-                            .mapToDouble(p -> p.getPrice().doubleValue())
+                            .mapToDouble(p -> p.price().doubleValue())
                             .max().orElse(1.0);
-                    double normalizedPrice = product.getPrice().doubleValue() / maxPrice;
+                    double normalizedPrice = product.price().doubleValue() / maxPrice;
                     return normalizedRating / normalizedPrice;
                 }))
                 .orElse(null);
@@ -86,8 +87,8 @@ public class SummaryGenerationStrategy implements ProductAnalysisStrategy<Compar
         return insights;
     }
     
-    private String generateConclusion(ProductStats productStats, ProductDto bestValue,
-                                    ProductDto bestQuality, ProductDto budgetOption) {
+    private String generateConclusion(ProductStats productStats, ProductView bestValue,
+                                    ProductView bestQuality, ProductView budgetOption) {
         if (productStats.hasSingleProduct()) {
             return "Only one product available for comparison.";
         }
@@ -97,12 +98,12 @@ public class SummaryGenerationStrategy implements ProductAnalysisStrategy<Compar
         if (bestValue != null && bestQuality != null && budgetOption != null) {
             if (bestValue.equals(bestQuality) && bestValue.equals(budgetOption)) {
                 conclusion.append(String.format("%s stands out as the clear winner across all categories.",
-                        bestValue.getName()));
+                        bestValue.name()));
             } else {
                 conclusion.append("Each product has its strengths: ");
-                conclusion.append(String.format("%s for value, ", bestValue.getName()));
-                conclusion.append(String.format("%s for quality, ", bestQuality.getName()));
-                conclusion.append(String.format("and %s for budget-conscious buyers.", budgetOption.getName()));
+                conclusion.append(String.format("%s for value, ", bestValue.name()));
+                conclusion.append(String.format("%s for quality, ", bestQuality.name()));
+                conclusion.append(String.format("and %s for budget-conscious buyers.", budgetOption.name()));
             }
         }
         
@@ -1,10 +1,10 @@
 package com.meli.technical.exam.api.products.domain.validator;
 
-import com.meli.technical.exam.api.products.domain.exception.InvalidProductException;
 import com.meli.technical.exam.api.products.domain.model.Product;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.Objects;
 
 @Component
 public class ProductBusinessRulesValidator implements ProductValidator {
@@ -14,52 +14,38 @@ public class ProductBusinessRulesValidator implements ProductValidator {
     private static final double MAX_RATING = 5.0;
     private static final int MAX_SPECIFICATIONS = 50;
 
+    // A null product is a caller bug here, not a data error
     @Override
-    public void validate(Product product) {
-        validatePrice(product.getPrice().getValue());
-        validateRating(product.getRating().getValue());
-        validateSpecifications(product);
+    public void validate(Product product, ValidationResult result) {
+        Objects.requireNonNull(product, "Product cannot be null");
+        validatePrice(product.getPrice() != null ? product.getPrice().getValue() : null, result);
+        validateRating(product.getRating() != null ? product.getRating().getValue() : null, result);
+        validateSpecifications(product, result);
     }
 
-    private void validatePrice(BigDecimal price) {
+    private void validatePrice(BigDecimal price, ValidationResult result) {
         if (price == null) {
-            throw new InvalidProductException("Product price cannot be null");
-        }
-        
-        if (price.compareTo(BigDecimal.ZERO) < 0) {
-            throw new InvalidProductException("Product price cannot be negative");
-        }
-        
-        if (price.compareTo(MAX_PRICE) > 0) {
-            throw new InvalidProductException("Product price cannot exceed " + MAX_PRICE);
-        }
-        
-        if (price.scale() > 2) {
-            throw new InvalidProductException("Product price cannot have more than 2 decimal places");
+            result.reject("Product price cannot be null");
+        } else if (price.signum() < 0) {
+            result.reject("Product price cannot be negative");
+        } else if (price.compareTo(MAX_PRICE) > 0) {
+            result.reject("Product price cannot exceed " + MAX_PRICE);
+        } else if (price.scale() > 2) {
+            result.reject("Product price cannot have more than 2 decimal places");
         }
     }
 
-    private void validateRating(Double rating) {
+    private void validateRating(Double rating, ValidationResult result) {
         if (rating == null) {
-            throw new InvalidProductException("Product rating cannot be null");
-        }
-        
-        if (rating < MIN_RATING || rating > MAX_RATING) {
-            throw new InvalidProductException(
-                String.format("Product rating must be between %.1f and %.1f", MIN_RATING, MAX_RATING)
-            );
+            result.reject("Product rating cannot be null");
+        } else if (rating < MIN_RATING || rating > MAX_RATING) {
+            result.reject(String.format("Product rating must be between %.1f and %.1f", MIN_RATING, MAX_RATING));
         }
     }
 
-    private void validateSpecifications(Product product) {
-        if (product.getSpecifications() == null) {
-            return;
-        }
-        
-        if (product.getSpecifications().size() > MAX_SPECIFICATIONS) {
-            throw new InvalidProductException(
-                "Product cannot have more than " + MAX_SPECIFICATIONS + " specifications"
-            );
+    private void validateSpecifications(Product product, ValidationResult result) {
+        if (product.getSpecifications() != null && product.getSpecifications().size() > MAX_SPECIFICATIONS) {
+            result.reject("Product cannot have more than " + MAX_SPECIFICATIONS + " specifications");
         }
     }
-}
\ No newline at end of file
+}
@@ -1,85 +1,113 @@
 package com.meli.technical.exam.api.products.domain.validator;
 
-import com.meli.technical.exam.api.products.domain.exception.InvalidProductException;
 import com.meli.technical.exam.api.products.domain.model.Product;
 import org.springframework.stereotype.Component;
 
-import java.net.MalformedURLException;
-import java.net.URL;
-
+/*
+ * Format checks are plain loops over the characters between the trimmed bounds of each field: no regex,
+ * no URL parsing and no substring copies, so a valid product is checked without allocating.
+ * */
 @Component
 public class ProductInputFormatValidator implements ProductValidator {
 
+    private static final int MAX_ID_LENGTH = 50;
+    private static final int MIN_NAME_LENGTH = 2;
+    private static final int MAX_NAME_LENGTH = 200;
+    private static final int MAX_URL_LENGTH = 2000;
+    private static final int MIN_DESCRIPTION_LENGTH = 10;
+    private static final int MAX_DESCRIPTION_LENGTH = 5000;
+
     @Override
-    public void validate(Product product) {
+    public void validate(Product product, ValidationResult result) {
         if (product == null) {
-            throw new InvalidProductException("Product cannot be null");
+            result.reject("Product cannot be null");
+            return;
         }
-        validateId(product.getId() != null ? product.getId().getValue() : null);
-        validateName(product.getName());
-        validateImageUrl(product.getImageUrl());
-        validateDescription(product.getDescription());
+        validateId(product.getId() != null ? product.getId().getValue() : null, result);
+        validateName(product.getName(), result);
+        validateImageUrl(product.getImageUrl(), result);
+        validateDescription(product.getDescription(), result);
     }
 
-    private void validateId(String id) {
-        if (id == null || id.trim().isEmpty()) {
-            throw new InvalidProductException("Product ID cannot be null or empty");
-        }
-        String trimmedId = id.trim();
-        if (trimmedId.length() > 50) {
-            throw new InvalidProductException("Product ID cannot exceed 50 characters");
-        }
-        if (!trimmedId.matches("^[a-zA-Z0-9\\-_]+$")) {
-            throw new InvalidProductException(
-                    "Product ID can only contain letters, numbers, hyphens, and underscores"
-            );
+    private void validateId(String id, ValidationResult result) {
+        int start = trimStart(id);
+        int end = trimEnd(id);
+        if (start >= end) {
+            result.reject("Product ID cannot be null or empty");
+        } else if (end - start > MAX_ID_LENGTH) {
+            result.reject("Product ID cannot exceed " + MAX_ID_LENGTH + " characters");
+        } else if (!isIdentifier(id, start, end)) {
+            result.reject("Product ID can only contain letters, numbers, hyphens, and underscores");
         }
     }
 
-    private void validateName(String name) {
-        if (name == null || name.trim().isEmpty()) {
-            throw new InvalidProductException("Product name cannot be null or empty");
+    private void validateName(String name, ValidationResult result) {
+        int length = trimEnd(name) - trimStart(name);
+        if (length <= 0) {
+            result.reject("Product name cannot be null or empty");
+        } else if (length < MIN_NAME_LENGTH) {
+            result.reject("Product name must be at least " + MIN_NAME_LENGTH + " characters long");
+        } else if (length > MAX_NAME_LENGTH) {
+            result.reject("Product name cannot exceed " + MAX_NAME_LENGTH + " characters");
         }
-        
-        String trimmedName = name.trim();
-        if (trimmedName.length() < 2) {
-            throw new InvalidProductException("Product name must be at least 2 characters long");
+    }
+
+    private void validateImageUrl(String imageUrl, ValidationResult result) {
+        int start = trimStart(imageUrl);
+        int end = trimEnd(imageUrl);
+        if (start >= end) {
+            result.reject("Product image URL cannot be null or empty");
+        } else if (!UrlSyntax.isValid(imageUrl, start, end)) {
+            result.reject("Product image URL format is invalid: " + imageUrl);
+        } else if (end - start > MAX_URL_LENGTH) {
+            result.reject("Product image URL cannot exceed " + MAX_URL_LENGTH + " characters");
         }
-        
-        if (trimmedName.length() > 200) {
-            throw new InvalidProductException("Product name cannot exceed 200 characters");
+    }
+
+    private void validateDescription(String description, ValidationResult result) {
+        int length = trimEnd(description) - trimStart(description);
+        if (length <= 0) {
+            result.reject("Product description cannot be null or empty");
+        } else if (length < MIN_DESCRIPTION_LENGTH) {
+            result.reject("Product description must be at least " + MIN_DESCRIPTION_LENGTH + " characters long");
+        } else if (length > MAX_DESCRIPTION_LENGTH) {
+            result.reject("Product description cannot exceed " + MAX_DESCRIPTION_LENGTH + " characters");
         }
     }
 
-    private void validateImageUrl(String imageUrl) {
-        if (imageUrl == null || imageUrl.trim().isEmpty()) {
-            throw new InvalidProductException("Product image URL cannot be null or empty");
+    // Letters, digits, '-' and '_' only
+    private static boolean isIdentifier(String value, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            boolean allowed = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_';
+            if (!allowed) {
+                return false;
+            }
         }
-        
-        try {
-            new URL(imageUrl.trim());
-        } catch (MalformedURLException e) {
-            throw new InvalidProductException("Product image URL format is invalid: " + imageUrl);
+        return true;
+    }
+
+    // The same bounds String.trim() would keep; null reads as empty
+    private static int trimStart(String value) {
+        if (value == null) {
+            return 0;
         }
-        
-        String trimmedUrl = imageUrl.trim();
-        if (trimmedUrl.length() > 2000) {
-            throw new InvalidProductException("Product image URL cannot exceed 2000 characters");
+        int start = 0;
+        while (start < value.length() && value.charAt(start) <= ' ') {
+            start++;
         }
+        return start;
     }
 
-    private void validateDescription(String description) {
-        if (description == null || description.trim().isEmpty()) {
-            throw new InvalidProductException("Product description cannot be null or empty");
-        }
-        
-        String trimmedDescription = description.trim();
-        if (trimmedDescription.length() < 10) {
-            throw new InvalidProductException("Product description must be at least 10 characters long");
+    private static int trimEnd(String value) {
+        if (value == null) {
+            return 0;
         }
-        
-        if (trimmedDescription.length() > 5000) {
-            throw new InvalidProductException("Product description cannot exceed 5000 characters");
+        int end = value.length();
+        while (end > 0 && value.charAt(end - 1) <= ' ') {
+            end--;
         }
+        return end;
     }
-}
\ No newline at end of file
+}
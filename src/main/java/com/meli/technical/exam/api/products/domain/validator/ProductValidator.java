@@ -2,14 +2,26 @@ package com.meli.technical.exam.api.products.domain.validator;
 
 import com.meli.technical.exam.api.products.domain.model.Product;
 
+/*
+ * Implementations add every rule the product breaks to the result instead of throwing, so bulk callers
+ * pay nothing for exceptions and see all errors of a record at once.
+ * */
 public interface ProductValidator {
-    void validate(Product product);
+
+    void validate(Product product, ValidationResult result);
+
+    default void validate(Product product) {
+        ValidationResult result = new ValidationResult();
+        validate(product, result);
+        result.throwIfInvalid();
+    }
+
     default boolean isValid(Product product) {
-        try {
-            validate(product);
-            return true;
-        } catch (RuntimeException e) {
+        if (product == null) {
             return false;
         }
+        ValidationResult result = new ValidationResult();
+        validate(product, result);
+        return result.isValid();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,108 @@
+package com.meli.technical.exam.api.products.domain.validator;
+
+/*
+ * Syntax-only URL check in a single pass, a cheap stand-in for new URL(...): a scheme java.net.URL always
+ * knows (http, https, ftp, file), no whitespace or control characters, and for the network schemes
+ * "//" followed by a host and an optional numeric port. Nothing is resolved or decoded.
+ * */
+final class UrlSyntax {
+
+    private UrlSyntax() {
+    }
+
+    static boolean isValid(String url, int start, int end) {
+        int colon = schemeEnd(url, start, end);
+        if (colon < 0) {
+            return false;
+        }
+        for (int i = colon + 1; i < end; i++) {
+            char c = url.charAt(i);
+            if (c <= ' ' || c == 0x7f) {
+                return false;
+            }
+        }
+        if (matches(url, start, colon, "file")) {
+            return true;
+        }
+        if (!matches(url, start, colon, "http") && !matches(url, start, colon, "https")
+                && !matches(url, start, colon, "ftp")) {
+            return false;
+        }
+        return hasAuthority(url, colon + 1, end);
+    }
+
+    // Index of the ':' after an RFC 3986 scheme, -1 when there is none
+    private static int schemeEnd(String url, int start, int end) {
+        if (start >= end || !isLetter(url.charAt(start))) {
+            return -1;
+        }
+        for (int i = start + 1; i < end; i++) {
+            char c = url.charAt(i);
+            if (c == ':') {
+                return i;
+            }
+            if (!isLetter(c) && !isDigit(c) && c != '+' && c != '-' && c != '.') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    // "//" [userinfo "@"] host [":" port], up to the first '/', '?' or '#'
+    private static boolean hasAuthority(String url, int start, int end) {
+        if (end - start < 2 || url.charAt(start) != '/' || url.charAt(start + 1) != '/') {
+            return false;
+        }
+        int hostStart = start + 2;
+        int authorityEnd = hostStart;
+        while (authorityEnd < end && "/?#".indexOf(url.charAt(authorityEnd)) < 0) {
+            authorityEnd++;
+        }
+        for (int i = authorityEnd - 1; i >= hostStart; i--) {
+            if (url.charAt(i) == '@') {
+                hostStart = i + 1;
+                break;
+            }
+        }
+        int hostEnd = authorityEnd;
+        if (hostStart < authorityEnd && url.charAt(hostStart) == '[') {
+            // IPv6 literal, the port can only follow the closing bracket
+            int close = url.indexOf(']', hostStart);
+            if (close < 0 || close >= authorityEnd) {
+                return false;
+            }
+            hostEnd = close + 1;
+            if (hostEnd < authorityEnd && url.charAt(hostEnd) != ':') {
+                return false;
+            }
+        } else {
+            for (int i = hostStart; i < authorityEnd; i++) {
+                if (url.charAt(i) == ':') {
+                    hostEnd = i;
+                    break;
+                }
+            }
+        }
+        if (hostEnd == hostStart) {
+            return false;
+        }
+        for (int i = hostEnd + 1; i < authorityEnd; i++) {
+            if (!isDigit(url.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(String url, int start, int end, String scheme) {
+        return end - start == scheme.length() && url.regionMatches(true, start, scheme, 0, scheme.length());
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,47 @@
+package com.meli.technical.exam.api.products.domain.validator;
+
+import com.meli.technical.exam.api.products.domain.exception.InvalidProductException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Errors collected while validating one product. Nothing is allocated until the first error, so a valid
+ * product costs no garbage; clear() lets a caller reuse one instance for a whole batch. Not thread-safe.
+ * */
+public final class ValidationResult {
+
+    private List<String> errors;
+
+    public void reject(String message) {
+        if (errors == null) {
+            errors = new ArrayList<>(2);
+        }
+        errors.add(message);
+    }
+
+    public boolean isValid() {
+        return errors == null || errors.isEmpty();
+    }
+
+    public List<String> errors() {
+        return errors == null ? List.of() : List.copyOf(errors);
+    }
+
+    // All errors in the order they were found, "; " separated
+    public String message() {
+        return errors == null ? "" : String.join("; ", errors);
+    }
+
+    public void throwIfInvalid() {
+        if (!isValid()) {
+            throw new InvalidProductException(message());
+        }
+    }
+
+    public void clear() {
+        if (errors != null) {
+            errors.clear();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.meli.technical.exam.api.products.infrastructure.actuator;
+
+import com.meli.technical.exam.api.products.infrastructure.web.trace.SlowRequestSample;
+import com.meli.technical.exam.api.products.infrastructure.web.trace.SlowRequestSampler;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/*
+ * GET /actuator/slowrequests lists the slowest recent requests per endpoint with their stage timings,
+ * DELETE resets the sampler.
+ * */
+@Component
+@Endpoint(id = "slowrequests")
+public class SlowRequestsEndpoint {
+
+    private final SlowRequestSampler slowRequestSampler;
+
+    public SlowRequestsEndpoint(SlowRequestSampler slowRequestSampler) {
+        this.slowRequestSampler = slowRequestSampler;
+    }
+
+    @ReadOperation
+    public Map<String, List<SlowRequestSample>> slowRequests() {
+        return slowRequestSampler.slowestByEndpoint();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        slowRequestSampler.clear();
+    }
+}
@@ -0,0 +1,37 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.in.web;
+
+import com.meli.technical.exam.api.products.domain.model.VersionedProduct;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.partition.ProductPartition;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.JsonProductRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/*
+ * Lookups the other instances of a partitioned catalog send here for the IDs this instance owns. It reads
+ * the local store directly rather than going through the partitioned repository, so a lookup is never
+ * forwarded a second time, even between instances configured with different node lists.
+ * */
+@RestController
+@RequestMapping(ProductPartition.LOOKUP_PATH)
+@ConditionalOnProperty(name = "app.products.partition.enabled", havingValue = "true")
+public class PartitionController {
+
+    private final JsonProductRepository localProducts;
+
+    public PartitionController(JsonProductRepository localProducts) {
+        this.localProducts = localProducts;
+    }
+
+    // Unknown IDs are left out
+    @PostMapping
+    public Flux<VersionedProduct> findOwned(@RequestBody List<String> ids) {
+        return Flux.fromIterable(ids)
+                .concatMap(localProducts::findVersionedById);
+    }
+}
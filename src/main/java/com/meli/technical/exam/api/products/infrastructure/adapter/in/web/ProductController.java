@@ -1,16 +1,43 @@
 package com.meli.technical.exam.api.products.infrastructure.adapter.in.web;
 
+import com.meli.technical.exam.api.products.application.dto.request.BatchRequestDto;
 import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.application.dto.response.BatchResponseDto;
+import com.meli.technical.exam.api.products.application.dto.response.BestValueResponseDto;
+import com.meli.technical.exam.api.products.application.dto.response.FacetsResponseDto;
+import com.meli.technical.exam.api.products.application.dto.response.ImportReportDto;
 import com.meli.technical.exam.api.products.application.dto.response.PaginatedResponseDto;
+import com.meli.technical.exam.api.products.application.dto.response.ProductResponseDto;
+import com.meli.technical.exam.api.products.application.dto.response.SearchResponseDto;
+import com.meli.technical.exam.api.products.application.dto.response.SimilarProductsResponseDto;
+import com.meli.technical.exam.api.products.application.dto.response.SuggestResponseDto;
 import com.meli.technical.exam.api.products.application.dto.response.comparison.ComparisonResponseDto;
 import com.meli.technical.exam.api.products.application.usecase.ProductComparisonUseCase;
+import com.meli.technical.exam.api.products.application.usecase.ProductImportUseCase;
+import com.meli.technical.exam.api.products.application.usecase.ProductWriteUseCase;
+import com.meli.technical.exam.api.products.domain.exception.ProductNotFoundException;
+import com.meli.technical.exam.api.products.domain.model.CatalogChange;
+import com.meli.technical.exam.api.products.domain.model.CatalogDelta;
+import com.meli.technical.exam.api.products.domain.model.ProductSortOrder;
+import com.meli.technical.exam.api.products.domain.model.VersionedProduct;
+import com.meli.technical.exam.api.products.infrastructure.adapter.in.web.utils.ProductBatchValidator;
 import com.meli.technical.exam.api.products.infrastructure.adapter.in.web.utils.ProductComparisonValidator;
+import com.meli.technical.exam.api.products.infrastructure.adapter.in.web.utils.ProductFacetValidator;
+import com.meli.technical.exam.api.products.infrastructure.adapter.in.web.utils.ProductSearchValidator;
+import com.meli.technical.exam.api.products.infrastructure.adapter.in.web.utils.ProductSortValidator;
+import com.meli.technical.exam.api.products.infrastructure.adapter.in.web.utils.ProductVersionValidator;
+import com.meli.technical.exam.api.products.infrastructure.adapter.in.web.utils.ProductWriteValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.net.URI;
 import java.util.Arrays;
 import java.util.List;
 
@@ -20,18 +47,109 @@ public class ProductController {
     
     private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
     private final ProductComparisonUseCase productComparisonUseCase;
+    private final ProductWriteUseCase productWriteUseCase;
+    private final ProductImportUseCase productImportUseCase;
     private static final int MAX_PAGE_SIZE = 100;
 
-    public ProductController(ProductComparisonUseCase productComparisonUseCase) {
+    public ProductController(ProductComparisonUseCase productComparisonUseCase,
+                             ProductWriteUseCase productWriteUseCase,
+                             ProductImportUseCase productImportUseCase) {
         this.productComparisonUseCase = productComparisonUseCase;
+        this.productWriteUseCase = productWriteUseCase;
+        this.productImportUseCase = productImportUseCase;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<ProductResponseDto>> createProduct(@RequestBody(required = false) ProductDto request) {
+
+        ProductWriteValidator.validateCreateRequest(request);
+
+        return productWriteUseCase.createProduct(request)
+                .map(created -> ResponseEntity.created(URI.create("/api/v1/products/" + created.product().id()))
+                        .eTag(ProductVersionValidator.toETag(created.version()))
+                        .body(ProductResponseDto.from(created.product())));
+    }
+
+    // One product per line in, one report line per rejected product plus a summary out; both sides stream
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ImportReportDto> importProducts(@RequestBody Flux<String> lines) {
+        return productImportUseCase.importProducts(lines);
+    }
+
+    /*
+     * Catalog changes as server-sent events whose id is the change's sequence, so a reconnecting EventSource
+     * resumes on its own through Last-Event-ID. since can also be a pagination snapshot token.
+     * */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<CatalogChange>> streamChanges(
+            @RequestParam(value = "since", required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return productComparisonUseCase.getChanges(since != null ? since : lastEventId)
+                .map(change -> ServerSentEvent.builder(change)
+                        .id(Long.toString(change.sequence()))
+                        .event("change")
+                        .build());
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CatalogChange> getChanges(@RequestParam(value = "since", required = false) Long since) {
+        return productComparisonUseCase.getChanges(since);
+    }
+
+    // With If-Match the update only applies to the version the client last saw, otherwise 412
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<ProductResponseDto>> updateProduct(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody(required = false) ProductDto request) {
+
+        ProductWriteValidator.validateUpdateRequest(request);
+        long expectedVersion = ProductVersionValidator.toExpectedVersion(ifMatch);
+
+        return productWriteUseCase.updateProduct(id, request, expectedVersion)
+                .map(ProductController::withETag);
+    }
+
+    // 204 once the deletion is durable; If-Match works as for updates
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteProduct(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        long expectedVersion = ProductVersionValidator.toExpectedVersion(ifMatch);
+
+        return productWriteUseCase.deleteProduct(id, expectedVersion)
+                .then(Mono.fromSupplier(() -> ResponseEntity.noContent().<Void>build()));
+    }
+
+    // Products upserted and IDs deleted since fromVersion, a snapshot token or the toVersion of the last delta
+    @GetMapping("/delta")
+    public Mono<ResponseEntity<CatalogDelta>> getDelta(@RequestParam("fromVersion") long fromVersion) {
+        return productComparisonUseCase.getDelta(fromVersion)
+                .map(ResponseEntity::ok);
     }
 
     @GetMapping("/{id}")
-    public Mono<ResponseEntity<ProductDto>> getProductById(@PathVariable String id) {
+    public Mono<ResponseEntity<ProductResponseDto>> getProductById(@PathVariable String id) {
         
-        return productComparisonUseCase.getProductById(id)
+        return productComparisonUseCase.getVersionedProductById(id)
+                .map(ProductController::withETag)
+                .doOnError(error -> !(error instanceof ProductNotFoundException),
+                        error -> logger.error("Error retrieving product by ID: {}", id, error));
+    }
+
+    @GetMapping("/{id}/similar")
+    public Mono<ResponseEntity<SimilarProductsResponseDto>> getSimilarProducts(
+            @PathVariable String id,
+            @RequestParam(value = "k", defaultValue = "5") int k) {
+
+        ProductSearchValidator.validateSimilarRequest(k);
+
+        return productComparisonUseCase.getSimilarProducts(id, k)
                 .map(ResponseEntity::ok)
-                .doOnError(error -> logger.error("Error retrieving product by ID: {}", id, error));
+                .doOnError(error -> !(error instanceof ProductNotFoundException),
+                        error -> logger.error("Error retrieving products similar to: {}", id, error));
     }
 
     @GetMapping("/compare")
@@ -55,10 +173,76 @@ public class ProductController {
                 .doOnError(error -> logger.error("Error comparing products: {}", cleanIds, error));
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<BatchResponseDto>> getProductsBatch(@RequestBody BatchRequestDto request) {
+
+        ProductBatchValidator.validateBatchRequest(request);
+
+        return productComparisonUseCase.getProductsBatch(request.getIds())
+                .map(ResponseEntity::ok)
+                .doOnError(error -> logger.error("Error retrieving products batch", error));
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<SearchResponseDto>> searchProducts(
+            @RequestParam(value = "q", required = false) String query,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+
+        ProductSearchValidator.validateSearchRequest(query, limit);
+
+        return productComparisonUseCase.searchProducts(query.trim(), limit)
+                .map(ResponseEntity::ok)
+                .doOnError(error -> logger.error("Error searching products: {}", query, error));
+    }
+
+    @GetMapping("/suggest")
+    public Mono<ResponseEntity<SuggestResponseDto>> suggestProducts(
+            @RequestParam(value = "prefix", required = false) String prefix,
+            @RequestParam(value = "limit", defaultValue = "5") int limit) {
+
+        ProductSearchValidator.validateSuggestRequest(prefix, limit);
+
+        return productComparisonUseCase.suggestProducts(prefix, limit)
+                .map(ResponseEntity::ok)
+                .doOnError(error -> logger.error("Error suggesting products: {}", prefix, error));
+    }
+
+    @GetMapping("/facets")
+    public Mono<ResponseEntity<FacetsResponseDto>> getFacets(
+            @RequestParam(value = "price", required = false) List<String> price,
+            @RequestParam(value = "rating", required = false) List<String> rating,
+            @RequestParam(value = "spec", required = false) List<String> spec) {
+
+        ProductFacetValidator.validateFacetRequest(price, rating, spec);
+
+        return productComparisonUseCase.getFacets(ProductFacetValidator.toFacetFilter(price, rating, spec))
+                .map(ResponseEntity::ok)
+                .doOnError(error -> logger.error("Error retrieving product facets", error));
+    }
+
+    @GetMapping("/best-value")
+    public Mono<ResponseEntity<BestValueResponseDto>> getBestValue(
+            @RequestParam(value = "limit", defaultValue = "10") int limit,
+            @RequestParam(value = "price", required = false) List<String> price,
+            @RequestParam(value = "rating", required = false) List<String> rating,
+            @RequestParam(value = "spec", required = false) List<String> spec) {
+
+        ProductFacetValidator.validateFacetRequest(price, rating, spec);
+        ProductFacetValidator.validateLimit(limit);
+
+        return productComparisonUseCase.getBestValue(ProductFacetValidator.toFacetFilter(price, rating, spec), limit)
+                .map(ResponseEntity::ok)
+                .doOnError(error -> logger.error("Error retrieving best value products", error));
+    }
+
+    // Each page returns a snapshot token; passing it back reads the next pages from the same catalog version
     @GetMapping
-    public Mono<ResponseEntity<PaginatedResponseDto<ProductDto>>> getProducts(
+    public Mono<ResponseEntity<PaginatedResponseDto<ProductResponseDto>>> getProducts(
             @RequestParam(value = "page", defaultValue = "0") int page,
-            @RequestParam(value = "size", defaultValue = "10") int size) {
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "direction", required = false) String direction,
+            @RequestParam(value = "snapshot", required = false) String snapshot) {
         
         // Validate pagination parameters
         final int validatedPage = page < 0 ? 0 : page;
@@ -72,13 +256,15 @@ public class ProductController {
             logger.warn("Invalid size parameter: {}. Using default size 10", size);
         }
 
-        if (validatedPage == 0 && validatedSize >= 50) {
-            return productComparisonUseCase.getAllProducts()
+        if (sort != null) {
+            ProductSortValidator.validateSortRequest(sort, direction);
+            ProductSortOrder order = ProductSortValidator.toSortOrder(sort, direction);
+            return productComparisonUseCase.getSortedProducts(validatedPage, validatedSize, order, snapshot)
                     .map(ResponseEntity::ok)
-                    .doOnError(error -> logger.error("Error retrieving all products", error));
+                    .doOnError(error -> logger.error("Error retrieving sorted products", error));
         }
 
-        return productComparisonUseCase.getAllProductsPaginated(validatedPage, validatedSize)
+        return productComparisonUseCase.getAllProductsPaginated(validatedPage, validatedSize, snapshot)
                 .map(ResponseEntity::ok)
                 .doOnError(error -> logger.error("Error retrieving paginated products", error));
     }
@@ -87,4 +273,10 @@ public class ProductController {
     public Mono<ResponseEntity<String>> healthCheck() {
         return Mono.just(ResponseEntity.ok("Products API is healthy"));
     }
+
+    private static ResponseEntity<ProductResponseDto> withETag(VersionedProduct versioned) {
+        return ResponseEntity.ok()
+                .eTag(ProductVersionValidator.toETag(versioned.version()))
+                .body(ProductResponseDto.from(versioned.product()));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.in.web;
+
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.JsonProductRepository;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.ReplicationFrame;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.ReplicationSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+
+/*
+ * What followers read from the instance they replicate: its catalog as of one log sequence, then its log
+ * from that sequence on. A since older than the retained change history gets 410, upon which the follower
+ * starts over from a fresh snapshot. Both read the local store, never another instance.
+ * */
+@RestController
+public class ReplicationController {
+
+    private final ReplicationSource source;
+    private final Duration heartbeat;
+
+    public ReplicationController(JsonProductRepository localProducts,
+                                 @Value("${app.products.replication.heartbeat:PT1S}") Duration heartbeat) {
+        this.source = localProducts.replicationSource();
+        this.heartbeat = heartbeat;
+    }
+
+    // Serialized off the event loop, the whole catalog is written in one go
+    @GetMapping(value = ReplicationFrame.SNAPSHOT_PATH, produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<byte[]> snapshot() {
+        return Mono.fromCallable(() -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            source.writeSnapshot(out);
+            return out.toByteArray();
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @GetMapping(value = ReplicationFrame.LOG_PATH, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ReplicationFrame> log(@RequestParam("since") long since) {
+        return source.log(since, heartbeat);
+    }
+}
@@ -0,0 +1,37 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.in.web.utils;
+
+import com.meli.technical.exam.api.products.application.dto.request.BatchRequestDto;
+import com.meli.technical.exam.api.products.application.dto.response.ValidationError;
+import com.meli.technical.exam.api.products.domain.exception.ProductValidationException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductBatchValidator {
+    public static void validateBatchRequest(BatchRequestDto request) {
+        List<ValidationError> validationErrors = new ArrayList<>();
+
+        if (request == null || request.getIds() == null || request.getIds().isEmpty()) {
+            validationErrors.add(ValidationError.builder()
+                    .field("ids")
+                    .rejectedValue("")
+                    .message("Product IDs cannot be empty")
+                    .build());
+        } else {
+            // One error per request is enough, a batch can hold thousands of IDs
+            boolean hasBlankId = request.getIds().stream().anyMatch(id -> id == null || id.isBlank());
+            if (hasBlankId) {
+                validationErrors.add(ValidationError.builder()
+                        .field("ids")
+                        .rejectedValue("")
+                        .message("Product IDs cannot be empty")
+                        .build());
+            }
+        }
+
+        if (!validationErrors.isEmpty()) {
+            throw new ProductValidationException("Invalid input provided", validationErrors);
+        }
+    }
+
+}
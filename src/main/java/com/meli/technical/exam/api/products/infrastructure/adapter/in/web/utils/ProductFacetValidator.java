@@ -0,0 +1,98 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.in.web.utils;
+
+import com.meli.technical.exam.api.products.application.dto.response.ValidationError;
+import com.meli.technical.exam.api.products.domain.exception.ProductValidationException;
+import com.meli.technical.exam.api.products.domain.model.FacetFilter;
+import com.meli.technical.exam.api.products.domain.model.PriceBucket;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class ProductFacetValidator {
+    private static final int MAX_STARS = 5;
+    private static final int MAX_LIMIT = 100;
+
+    public static void validateFacetRequest(List<String> price, List<String> rating, List<String> spec) {
+        List<ValidationError> validationErrors = new ArrayList<>();
+
+        for (String label : nullToEmpty(price)) {
+            if (PriceBucket.fromLabel(label.trim()).isEmpty()) {
+                validationErrors.add(ValidationError.builder()
+                        .field("price")
+                        .rejectedValue(label)
+                        .message("Unknown price range")
+                        .build());
+            }
+        }
+
+        for (String stars : nullToEmpty(rating)) {
+            if (parseStars(stars) < 0) {
+                validationErrors.add(ValidationError.builder()
+                        .field("rating")
+                        .rejectedValue(stars)
+                        .message("Rating must be a whole number of stars between 0 and " + MAX_STARS)
+                        .build());
+            }
+        }
+
+        for (String specification : nullToEmpty(spec)) {
+            int separator = specification.indexOf(':');
+            if (separator <= 0 || separator == specification.length() - 1) {
+                validationErrors.add(ValidationError.builder()
+                        .field("spec")
+                        .rejectedValue(specification)
+                        .message("Specification filters must look like key:value")
+                        .build());
+            }
+        }
+
+        if (!validationErrors.isEmpty()) {
+            throw new ProductValidationException("Invalid input provided", validationErrors);
+        }
+    }
+
+    public static void validateLimit(int limit) {
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new ProductValidationException("Invalid input provided", List.of(ValidationError.builder()
+                    .field("limit")
+                    .rejectedValue(String.valueOf(limit))
+                    .message("Limit must be between 1 and " + MAX_LIMIT)
+                    .build()));
+        }
+    }
+
+    // Expects a request that passed validateFacetRequest
+    public static FacetFilter toFacetFilter(List<String> price, List<String> rating, List<String> spec) {
+        Set<PriceBucket> priceBuckets = new LinkedHashSet<>();
+        nullToEmpty(price).forEach(label -> PriceBucket.fromLabel(label.trim()).ifPresent(priceBuckets::add));
+
+        Set<Integer> stars = new LinkedHashSet<>();
+        nullToEmpty(rating).forEach(value -> stars.add(parseStars(value)));
+
+        Map<String, Set<String>> specifications = new LinkedHashMap<>();
+        for (String specification : nullToEmpty(spec)) {
+            int separator = specification.indexOf(':');
+            specifications.computeIfAbsent(specification.substring(0, separator).trim(), key -> new LinkedHashSet<>())
+                    .add(specification.substring(separator + 1).trim());
+        }
+        return new FacetFilter(priceBuckets, stars, specifications);
+    }
+
+    private static int parseStars(String value) {
+        try {
+            int stars = Integer.parseInt(value.trim());
+            return stars >= 0 && stars <= MAX_STARS ? stars : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static List<String> nullToEmpty(List<String> values) {
+        return values != null ? values : List.of();
+    }
+
+}
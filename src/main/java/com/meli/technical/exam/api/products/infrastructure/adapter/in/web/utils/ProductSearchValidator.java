@@ -0,0 +1,86 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.in.web.utils;
+
+import com.meli.technical.exam.api.products.application.dto.response.ValidationError;
+import com.meli.technical.exam.api.products.domain.exception.ProductValidationException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductSearchValidator {
+    private static final int MAX_QUERY_LENGTH = 200;
+    private static final int MAX_LIMIT = 100;
+    private static final int MAX_PREFIX_LENGTH = 100;
+    private static final int MAX_SUGGEST_LIMIT = 10;
+    private static final int MAX_SIMILAR_LIMIT = 20;
+
+    public static void validateSearchRequest(String query, int limit) {
+        List<ValidationError> validationErrors = new ArrayList<>();
+
+        if (query == null || query.trim().isEmpty()) {
+            validationErrors.add(ValidationError.builder()
+                    .field("q")
+                    .rejectedValue(query == null ? "" : query)
+                    .message("Search query cannot be empty")
+                    .build());
+        } else if (query.length() > MAX_QUERY_LENGTH) {
+            validationErrors.add(ValidationError.builder()
+                    .field("q")
+                    .rejectedValue(query.substring(0, MAX_QUERY_LENGTH))
+                    .message("Search query cannot be longer than " + MAX_QUERY_LENGTH + " characters")
+                    .build());
+        }
+
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            validationErrors.add(ValidationError.builder()
+                    .field("limit")
+                    .rejectedValue(String.valueOf(limit))
+                    .message("Limit must be between 1 and " + MAX_LIMIT)
+                    .build());
+        }
+
+        if (!validationErrors.isEmpty()) {
+            throw new ProductValidationException("Invalid input provided", validationErrors);
+        }
+    }
+
+    public static void validateSuggestRequest(String prefix, int limit) {
+        List<ValidationError> validationErrors = new ArrayList<>();
+
+        if (prefix == null || prefix.trim().isEmpty()) {
+            validationErrors.add(ValidationError.builder()
+                    .field("prefix")
+                    .rejectedValue(prefix == null ? "" : prefix)
+                    .message("Prefix cannot be empty")
+                    .build());
+        } else if (prefix.length() > MAX_PREFIX_LENGTH) {
+            validationErrors.add(ValidationError.builder()
+                    .field("prefix")
+                    .rejectedValue(prefix.substring(0, MAX_PREFIX_LENGTH))
+                    .message("Prefix cannot be longer than " + MAX_PREFIX_LENGTH + " characters")
+                    .build());
+        }
+
+        if (limit <= 0 || limit > MAX_SUGGEST_LIMIT) {
+            validationErrors.add(ValidationError.builder()
+                    .field("limit")
+                    .rejectedValue(String.valueOf(limit))
+                    .message("Limit must be between 1 and " + MAX_SUGGEST_LIMIT)
+                    .build());
+        }
+
+        if (!validationErrors.isEmpty()) {
+            throw new ProductValidationException("Invalid input provided", validationErrors);
+        }
+    }
+
+    public static void validateSimilarRequest(int k) {
+        if (k <= 0 || k > MAX_SIMILAR_LIMIT) {
+            throw new ProductValidationException("Invalid input provided", List.of(ValidationError.builder()
+                    .field("k")
+                    .rejectedValue(String.valueOf(k))
+                    .message("k must be between 1 and " + MAX_SIMILAR_LIMIT)
+                    .build()));
+        }
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.in.web.utils;
+
+import com.meli.technical.exam.api.products.application.dto.response.ValidationError;
+import com.meli.technical.exam.api.products.domain.exception.ProductValidationException;
+import com.meli.technical.exam.api.products.domain.model.ProductSortField;
+import com.meli.technical.exam.api.products.domain.model.ProductSortOrder;
+import com.meli.technical.exam.api.products.domain.model.SortDirection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductSortValidator {
+    public static void validateSortRequest(String sort, String direction) {
+        List<ValidationError> validationErrors = new ArrayList<>();
+
+        if (ProductSortField.fromParameter(sort).isEmpty()) {
+            validationErrors.add(ValidationError.builder()
+                    .field("sort")
+                    .rejectedValue(sort == null ? "" : sort)
+                    .message("Sort must be one of price, rating or name")
+                    .build());
+        }
+
+        if (direction != null && SortDirection.fromParameter(direction).isEmpty()) {
+            validationErrors.add(ValidationError.builder()
+                    .field("direction")
+                    .rejectedValue(direction)
+                    .message("Direction must be asc or desc")
+                    .build());
+        }
+
+        if (!validationErrors.isEmpty()) {
+            throw new ProductValidationException("Invalid input provided", validationErrors);
+        }
+    }
+
+    // Expects a request that passed validateSortRequest; direction defaults to ascending
+    public static ProductSortOrder toSortOrder(String sort, String direction) {
+        return new ProductSortOrder(ProductSortField.fromParameter(sort).orElseThrow(),
+                SortDirection.fromParameter(direction).orElse(SortDirection.ASC));
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.in.web.utils;
+
+import com.meli.technical.exam.api.products.application.dto.response.ValidationError;
+import com.meli.technical.exam.api.products.domain.exception.ProductValidationException;
+import com.meli.technical.exam.api.products.domain.exception.ProductVersionMismatchException;
+import com.meli.technical.exam.api.products.domain.model.VersionedProduct;
+
+import java.util.List;
+
+/*
+ * Product ETags are the strong tag "<version>". If-Match takes one of them or "*"; a weak or foreign tag
+ * can never match a strong comparison, so it fails the precondition rather than the request syntax.
+ * */
+public class ProductVersionValidator {
+
+    public static String toETag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    // VersionedProduct.ANY_VERSION when the header is absent or "*"
+    public static long toExpectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return VersionedProduct.ANY_VERSION;
+        }
+        String tag = ifMatch.trim();
+        if (tag.indexOf(',') >= 0) {
+            throw new ProductValidationException("Invalid input provided", List.of(ValidationError.builder()
+                    .field("If-Match")
+                    .rejectedValue(ifMatch)
+                    .message("If-Match must be a single entity tag or *")
+                    .build()));
+        }
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            throw new ProductVersionMismatchException("If-Match " + tag + " is not a strong product entity tag");
+        }
+        long version = 0;
+        for (int i = 1; i < tag.length() - 1; i++) {
+            char c = tag.charAt(i);
+            if (c < '0' || c > '9' || i > 18) {
+                throw new ProductVersionMismatchException("If-Match " + tag + " is not a product entity tag");
+            }
+            version = version * 10 + (c - '0');
+        }
+        return version;
+    }
+}
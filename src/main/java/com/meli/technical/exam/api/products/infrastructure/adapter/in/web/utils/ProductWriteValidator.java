@@ -0,0 +1,81 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.in.web.utils;
+
+import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.application.dto.request.SpecificationDto;
+import com.meli.technical.exam.api.products.application.dto.response.ValidationError;
+import com.meli.technical.exam.api.products.domain.exception.ProductValidationException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductWriteValidator {
+    private static final double MAX_RATING = 5.0;
+
+    public static void validateCreateRequest(ProductDto request) {
+        List<ValidationError> validationErrors = new ArrayList<>();
+        if (request != null && isBlank(request.getId())) {
+            validationErrors.add(error("id", request.getId(), "Product ID cannot be blank"));
+        }
+        validateFields(request, validationErrors);
+    }
+
+    // The ID comes from the path, the body may leave it out
+    public static void validateUpdateRequest(ProductDto request) {
+        validateFields(request, new ArrayList<>());
+    }
+
+    private static void validateFields(ProductDto request, List<ValidationError> validationErrors) {
+        if (request == null) {
+            validationErrors.add(error("body", "", "Product cannot be empty"));
+            throw new ProductValidationException("Invalid input provided", validationErrors);
+        }
+
+        if (isBlank(request.getName())) {
+            validationErrors.add(error("name", request.getName(), "Product name cannot be blank"));
+        }
+        if (isBlank(request.getImageUrl())) {
+            validationErrors.add(error("imageUrl", request.getImageUrl(), "Image URL cannot be blank"));
+        }
+        if (isBlank(request.getDescription())) {
+            validationErrors.add(error("description", request.getDescription(), "Description cannot be blank"));
+        }
+
+        BigDecimal price = request.getPrice();
+        if (price == null || price.signum() < 0) {
+            validationErrors.add(error("price", String.valueOf(price), "Price must be non-negative"));
+        }
+
+        Double rating = request.getRating();
+        if (rating == null || rating < 0 || rating > MAX_RATING) {
+            validationErrors.add(error("rating", String.valueOf(rating), "Rating must be between 0 and 5"));
+        }
+
+        if (request.getSpecifications() != null) {
+            for (SpecificationDto specification : request.getSpecifications()) {
+                if (specification == null || isBlank(specification.getKey()) || isBlank(specification.getValue())) {
+                    validationErrors.add(error("specifications", "",
+                            "Specification keys and values cannot be blank"));
+                    break;
+                }
+            }
+        }
+
+        if (!validationErrors.isEmpty()) {
+            throw new ProductValidationException("Invalid input provided", validationErrors);
+        }
+    }
+
+    private static ValidationError error(String field, String rejectedValue, String message) {
+        return ValidationError.builder()
+                .field(field)
+                .rejectedValue(rejectedValue != null ? rejectedValue : "")
+                .message(message)
+                .build();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+}
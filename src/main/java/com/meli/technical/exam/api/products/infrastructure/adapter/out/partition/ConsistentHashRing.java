@@ -0,0 +1,71 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.partition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/*
+ * Consistent hashing of product IDs over the nodes of a partitioned catalog. Each node is placed on a
+ * 64-bit ring at virtualNodes points hashed from its URL, and an ID belongs to the node of the first point
+ * at or after the ID's own hash. Every node owns many small arcs, so the IDs spread evenly, and adding or
+ * removing a node only moves the IDs on that node's arcs. The ring depends on nothing but the node list,
+ * so every node that is given the same list agrees on the owners without asking the others.
+ * */
+public final class ConsistentHashRing {
+
+    private final long[] points;
+    private final String[] owners;
+    private final List<String> nodes;
+
+    public ConsistentHashRing(List<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty() || virtualNodes <= 0) {
+            throw new IllegalArgumentException("A hash ring needs at least one node and one point per node");
+        }
+        List<Point> ring = new ArrayList<>(nodes.size() * virtualNodes);
+        for (String node : nodes) {
+            for (int replica = 0; replica < virtualNodes; replica++) {
+                ring.add(new Point(hash(node + "#" + replica), node));
+            }
+        }
+        // Ties are broken by URL so the order does not depend on the order of the node list
+        ring.sort(Comparator.comparingLong(Point::hash).thenComparing(Point::node));
+        this.points = new long[ring.size()];
+        this.owners = new String[ring.size()];
+        for (int i = 0; i < ring.size(); i++) {
+            points[i] = ring.get(i).hash();
+            owners[i] = ring.get(i).node();
+        }
+        this.nodes = List.copyOf(nodes);
+    }
+
+    public String ownerOf(String id) {
+        int index = Arrays.binarySearch(points, hash(id));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    // FNV-1a over the chars followed by the murmur3 finalizer, as for the ID Bloom filter: well mixed in all 64 bits
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private record Point(long hash, String node) {
+    }
+}
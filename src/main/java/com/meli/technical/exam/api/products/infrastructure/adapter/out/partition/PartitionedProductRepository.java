@@ -0,0 +1,293 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.partition;
+
+import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.application.mapper.ProductMapper;
+import com.meli.technical.exam.api.products.domain.exception.PartitionUnavailableException;
+import com.meli.technical.exam.api.products.domain.exception.ProductOwnedElsewhereException;
+import com.meli.technical.exam.api.products.domain.model.BestValuePick;
+import com.meli.technical.exam.api.products.domain.model.CatalogChange;
+import com.meli.technical.exam.api.products.domain.model.CatalogDelta;
+import com.meli.technical.exam.api.products.domain.model.CatalogPage;
+import com.meli.technical.exam.api.products.domain.model.FacetFilter;
+import com.meli.technical.exam.api.products.domain.model.ImportBatchResult;
+import com.meli.technical.exam.api.products.domain.model.Product;
+import com.meli.technical.exam.api.products.domain.model.ProductBatch;
+import com.meli.technical.exam.api.products.domain.model.ProductFacets;
+import com.meli.technical.exam.api.products.domain.model.ProductSearchResult;
+import com.meli.technical.exam.api.products.domain.model.ProductSortOrder;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.domain.model.SimilarProduct;
+import com.meli.technical.exam.api.products.domain.model.VersionedProduct;
+import com.meli.technical.exam.api.products.domain.repository.ProductRepository;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.JsonProductRepository;
+import com.meli.technical.exam.api.products.infrastructure.metrics.ProductMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * The catalog split over several instances by ProductPartition. Lookups by ID are scattered to the
+ * instances owning the IDs, all of them at once and each with its own timeout, and gathered back in request
+ * order; this instance's share is read locally. An instance that fails or does not answer in time only
+ * costs its own IDs, which a batch or a comparison reports as unavailable; a single lookup fails with
+ * PartitionUnavailableException. Writes are only accepted for owned IDs, anything else fails with
+ * ProductOwnedElsewhereException naming the owner. Every other query (search, facets, pages, changes)
+ * answers from this instance's partition alone. Products other instances return are kept in a
+ * RemoteProductCache, and IDs found there skip the hop.
+ * */
+@Primary
+@Repository
+@ConditionalOnProperty(name = "app.products.partition.enabled", havingValue = "true")
+public class PartitionedProductRepository implements ProductRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionedProductRepository.class);
+
+    private final JsonProductRepository local;
+    private final ProductPartition partition;
+    private final WebClient client;
+    private final RemoteProductCache cache;
+    private final ProductMapper productMapper;
+    private final ProductMetrics productMetrics;
+    private final Duration hopTimeout;
+
+    public PartitionedProductRepository(JsonProductRepository local, ProductPartition partition,
+                                        WebClient.Builder webClientBuilder, RemoteProductCache cache,
+                                        ProductMapper productMapper,
+                                        ProductMetrics productMetrics,
+                                        @Value("${app.products.partition.hop-timeout:PT0.5S}") Duration hopTimeout) {
+        this.local = local;
+        this.partition = partition;
+        this.client = webClientBuilder.build();
+        this.cache = cache;
+        this.productMapper = productMapper;
+        this.productMetrics = productMetrics;
+        this.hopTimeout = hopTimeout;
+    }
+
+    @Override
+    public Mono<ProductView> findById(String id) {
+        return findVersionedById(id).map(VersionedProduct::product);
+    }
+
+    @Override
+    public Mono<VersionedProduct> findVersionedById(String id) {
+
+        if (id == null || id.isBlank()) {
+            return Mono.empty();
+        }
+
+        String trimmed = id.trim();
+        String owner = partition.ownerOf(trimmed);
+        if (owner.equals(partition.self())) {
+            return local.findVersionedById(trimmed);
+        }
+        // Not found would be a lie about a product that may well exist
+        return fetch(owner, List.of(trimmed))
+                .flatMap(hop -> hop.unreached().isEmpty()
+                        ? Mono.justOrEmpty(hop.found().get(trimmed))
+                        : Mono.error(PartitionUnavailableException.forId(trimmed, owner)));
+    }
+
+    @Override
+    public Mono<ProductBatch> findBatch(List<String> ids) {
+
+        if (ids == null || ids.isEmpty()) {
+            return Mono.just(ProductBatch.EMPTY);
+        }
+
+        return gather(ids);
+    }
+
+    // IDs are trimmed and de-duplicated, blank ones are ignored, as for a local lookup
+    private Mono<ProductBatch> gather(List<String> ids) {
+        Set<String> requested = new LinkedHashSet<>();
+        Map<String, List<String>> byOwner = new LinkedHashMap<>();
+        for (String id : ids) {
+            if (id != null && !id.isBlank() && requested.add(id.trim())) {
+                byOwner.computeIfAbsent(partition.ownerOf(id.trim()), owner -> new ArrayList<>()).add(id.trim());
+            }
+        }
+        if (requested.isEmpty()) {
+            return Mono.just(ProductBatch.EMPTY);
+        }
+        return Flux.fromIterable(byOwner.entrySet())
+                .flatMap(owned -> fetch(owned.getKey(), owned.getValue()), Math.max(1, byOwner.size()))
+                .collectList()
+                .map(hops -> merge(requested, hops));
+    }
+
+    private static ProductBatch merge(Set<String> requested, List<Hop> hops) {
+        Map<String, VersionedProduct> found = new HashMap<>();
+        Set<String> unreachable = new HashSet<>();
+        for (Hop hop : hops) {
+            found.putAll(hop.found());
+            unreachable.addAll(hop.unreached());
+        }
+        List<ProductView> products = new ArrayList<>(found.size());
+        List<String> missing = new ArrayList<>();
+        List<String> unavailable = new ArrayList<>(unreachable.size());
+        for (String id : requested) {
+            VersionedProduct product = found.get(id);
+            if (product != null) {
+                products.add(product.product());
+            } else if (unreachable.contains(id)) {
+                unavailable.add(id);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new ProductBatch(products, missing, unavailable);
+    }
+
+    // Never fails: the IDs of an owner that errors or times out come back unreached, unless cached
+    private Mono<Hop> fetch(String owner, List<String> ids) {
+        if (owner.equals(partition.self())) {
+            return Flux.fromIterable(ids)
+                    .concatMap(local::findVersionedById)
+                    .collectList()
+                    .map(found -> Hop.of(found, List.of()));
+        }
+        List<VersionedProduct> cached = new ArrayList<>();
+        List<String> uncached = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            VersionedProduct product = cache.get(id);
+            if (product != null) {
+                cached.add(product);
+            } else {
+                uncached.add(id);
+            }
+        }
+        if (uncached.isEmpty()) {
+            return Mono.just(Hop.of(cached, List.of()));
+        }
+        long generation = cache.generation();
+        Mono<List<VersionedProduct>> remote = client.post()
+                .uri(owner + ProductPartition.LOOKUP_PATH)
+                .bodyValue(uncached)
+                .retrieve()
+                .bodyToFlux(RemoteProduct.class)
+                .map(this::toVersioned)
+                .doOnNext(product -> cache.put(product, generation))
+                .collectList()
+                .timeout(hopTimeout);
+        return productMetrics.timeStage(ProductMetrics.STAGE_PARTITION_HOP, remote)
+                .map(found -> {
+                    found.addAll(cached);
+                    return Hop.of(found, List.of());
+                })
+                .onErrorResume(error -> {
+                    logger.warn("Partition {} did not answer for {} IDs within {}: {}", owner, uncached.size(), hopTimeout, error.toString());
+                    productMetrics.incrementPartitionHopFailure(owner);
+                    return Mono.just(Hop.of(cached, uncached));
+                });
+    }
+
+    private VersionedProduct toVersioned(RemoteProduct remote) {
+        return new VersionedProduct(ProductView.from(productMapper.toDomain(remote.product())), remote.version());
+    }
+
+    @Override
+    public Mono<VersionedProduct> create(Product product) {
+        return requireOwned(product.getId().getValue()).then(local.create(product));
+    }
+
+    @Override
+    public Mono<VersionedProduct> update(Product product, long expectedVersion) {
+        return requireOwned(product.getId().getValue()).then(local.update(product, expectedVersion));
+    }
+
+    @Override
+    public Mono<Void> delete(String id, long expectedVersion) {
+        return requireOwned(id).then(local.delete(id, expectedVersion));
+    }
+
+    // The batch is one atomic write on one instance, so all of it must belong here
+    @Override
+    public Mono<ImportBatchResult> importBatch(List<Product> products) {
+        for (Product product : products) {
+            String id = product.getId().getValue();
+            if (!partition.owns(id)) {
+                return Mono.error(ProductOwnedElsewhereException.forId(id, partition.ownerOf(id)));
+            }
+        }
+        return local.importBatch(products);
+    }
+
+    private Mono<Void> requireOwned(String id) {
+        return partition.owns(id)
+                ? Mono.empty()
+                : Mono.error(ProductOwnedElsewhereException.forId(id, partition.ownerOf(id)));
+    }
+
+    @Override
+    public Mono<ProductSearchResult> search(String query, int limit) {
+        return local.search(query, limit);
+    }
+
+    @Override
+    public Flux<ProductView> suggest(String prefix, int limit) {
+        return local.suggest(prefix, limit);
+    }
+
+    @Override
+    public Mono<ProductFacets> facets(FacetFilter filter) {
+        return local.facets(filter);
+    }
+
+    @Override
+    public Flux<BestValuePick> findBestValue(FacetFilter filter, int limit) {
+        return local.findBestValue(filter, limit);
+    }
+
+    @Override
+    public Mono<List<SimilarProduct>> findSimilar(String id, int limit) {
+        return local.findSimilar(id, limit);
+    }
+
+    @Override
+    public Mono<CatalogPage> findPage(ProductSortOrder order, int page, int size, String snapshot) {
+        return local.findPage(order, page, size, snapshot);
+    }
+
+    @Override
+    public Flux<CatalogChange> findChanges(Long since) {
+        return local.findChanges(since);
+    }
+
+    @Override
+    public Mono<CatalogDelta> findDelta(long fromVersion) {
+        return local.findDelta(fromVersion);
+    }
+
+    // VersionedProduct as another instance serializes it; ProductDto is the shape products are read in
+    record RemoteProduct(ProductDto product, long version) {
+    }
+
+    // What one owner returned, and the IDs it was asked for but did not answer
+    private record Hop(Map<String, VersionedProduct> found, List<String> unreached) {
+
+        static Hop of(List<VersionedProduct> products, List<String> unreached) {
+            Map<String, VersionedProduct> found = new HashMap<>();
+            for (VersionedProduct product : products) {
+                found.put(product.product().id(), product);
+            }
+            return new Hop(found, unreached);
+        }
+    }
+}
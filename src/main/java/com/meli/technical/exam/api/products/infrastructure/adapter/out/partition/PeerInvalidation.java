@@ -0,0 +1,245 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.partition;
+
+import com.meli.technical.exam.api.products.domain.model.CatalogChange;
+import com.meli.technical.exam.api.products.domain.model.ProductChange;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.JsonProductRepository;
+import com.meli.technical.exam.api.products.infrastructure.metrics.ProductMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Tells the other partitions which products this one wrote, so they evict them from their
+ * RemoteProductCache within a datagram's flight rather than a TTL. Every change this instance commits is
+ * sent as its product IDs in UDP datagrams to each peer in app.products.partition.invalidation.peers,
+ * from the port in app.products.partition.invalidation.port, where this instance also listens for the
+ * peers' IDs. Delivery is best effort: a lost datagram leaves an entry stale until its TTL, and when this
+ * instance falls too far behind its own changes to name them all it tells the peers to drop everything
+ * instead. Losing track of the changes altogether, as when the change stream fails, does the same, and the
+ * stream is followed again after a backoff from retryDelay doubling up to maxRetryDelay, so a stream that
+ * keeps failing is neither spun on nor given up. Datagrams from anything but a configured peer are
+ * dropped. Port 0 turns the channel off.
+ * */
+@Component
+@ConditionalOnProperty(name = "app.products.partition.enabled", havingValue = "true")
+public class PeerInvalidation implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PeerInvalidation.class);
+
+    static final int MAGIC = 0x50494e56;
+    static final byte INVALIDATE = 1;
+    static final byte CLEAR = 2;
+    // Stays under the usual Ethernet MTU, so a datagram is never fragmented
+    static final int MAX_DATAGRAM = 1400;
+    // magic, type, sequence, ID count
+    private static final int HEADER_BYTES = 4 + 1 + 8 + 2;
+
+    private final RemoteProductCache cache;
+    private final ProductMetrics productMetrics;
+    private final List<InetSocketAddress> peers;
+    private final DatagramChannel channel;
+    private final Thread receiver;
+    private final Disposable subscription;
+    private volatile boolean running = true;
+
+    public PeerInvalidation(JsonProductRepository local, RemoteProductCache cache, ProductMetrics productMetrics,
+                            @Value("${app.products.partition.invalidation.port:0}") int port,
+                            @Value("${app.products.partition.invalidation.peers:}") List<String> peers,
+                            @Value("${app.products.partition.invalidation.retry-delay:PT0.1S}") Duration retryDelay,
+                            @Value("${app.products.partition.invalidation.max-retry-delay:PT30S}") Duration maxRetryDelay)
+            throws IOException {
+        this.cache = cache;
+        this.productMetrics = productMetrics;
+        this.peers = parsePeers(peers);
+        if (port <= 0) {
+            logger.info("Peer invalidation is off, cached products of other partitions expire by TTL only");
+            this.channel = null;
+            this.receiver = null;
+            this.subscription = null;
+            return;
+        }
+        this.channel = DatagramChannel.open().bind(new InetSocketAddress(port));
+        this.receiver = new Thread(this::receive, "partition-invalidation");
+        this.receiver.setDaemon(true);
+        this.receiver.start();
+        // Resubscribing after an error starts from the live changes, so whatever was skipped is cleared;
+        // a change that gets through resets the backoff
+        this.subscription = Flux.defer(() -> local.findChanges(null))
+                .publishOn(Schedulers.boundedElastic())
+                .doOnError(error -> {
+                    logger.warn("Lost track of this instance's changes, peers will drop their cached products; "
+                            + "following them again in at most {}: {}", maxRetryDelay, error.toString());
+                    send(clear(0));
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, retryDelay)
+                        .maxBackoff(maxRetryDelay)
+                        .transientErrors(true))
+                .subscribe(this::broadcast);
+        logger.info("Peer invalidation listening on UDP port {} for {} peers", port, this.peers.size());
+    }
+
+    @PreDestroy
+    @Override
+    public void close() throws IOException {
+        running = false;
+        if (subscription != null) {
+            subscription.dispose();
+        }
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private void broadcast(CatalogChange change) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (ProductChange productChange : change.changes()) {
+            ids.add(productChange.product().id());
+        }
+        encode(change.sequence(), List.copyOf(ids)).forEach(this::send);
+        productMetrics.incrementPeerInvalidation("sent", ids.size());
+    }
+
+    private void send(ByteBuffer datagram) {
+        for (InetSocketAddress peer : peers) {
+            try {
+                channel.send(datagram.duplicate(), peer);
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                logger.warn("Failed to send an invalidation to {}: {}", peer, e.toString());
+            }
+        }
+    }
+
+    private void receive() {
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_DATAGRAM);
+        while (running) {
+            SocketAddress from;
+            try {
+                buffer.clear();
+                from = channel.receive(buffer);
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                logger.warn("Failed to receive an invalidation: {}", e.toString());
+                continue;
+            }
+            buffer.flip();
+            Message message = peers.contains(from) ? decode(buffer) : null;
+            if (message == null) {
+                productMetrics.incrementPeerInvalidation("dropped", 1);
+                continue;
+            }
+            if (message.type() == CLEAR) {
+                cache.clear();
+            } else {
+                cache.invalidate(message.ids());
+                productMetrics.incrementPeerInvalidation("received", message.ids().size());
+            }
+        }
+    }
+
+    // As many datagrams as the IDs need; an ID too long for one datagram clears the peers' caches instead
+    static List<ByteBuffer> encode(long sequence, List<String> ids) {
+        List<ByteBuffer> datagrams = new ArrayList<>(1);
+        List<byte[]> pending = new ArrayList<>();
+        int size = HEADER_BYTES;
+        for (String id : ids) {
+            byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+            if (HEADER_BYTES + 2 + bytes.length > MAX_DATAGRAM) {
+                return List.of(clear(sequence));
+            }
+            if (size + 2 + bytes.length > MAX_DATAGRAM) {
+                datagrams.add(datagram(INVALIDATE, sequence, pending, size));
+                pending = new ArrayList<>();
+                size = HEADER_BYTES;
+            }
+            pending.add(bytes);
+            size += 2 + bytes.length;
+        }
+        if (!pending.isEmpty()) {
+            datagrams.add(datagram(INVALIDATE, sequence, pending, size));
+        }
+        return datagrams;
+    }
+
+    static ByteBuffer clear(long sequence) {
+        return datagram(CLEAR, sequence, List.of(), HEADER_BYTES);
+    }
+
+    // null when the datagram is not one of ours
+    static Message decode(ByteBuffer datagram) {
+        try {
+            if (datagram.getInt() != MAGIC) {
+                return null;
+            }
+            byte type = datagram.get();
+            long sequence = datagram.getLong();
+            int count = Short.toUnsignedInt(datagram.getShort());
+            if (type != INVALIDATE && type != CLEAR) {
+                return null;
+            }
+            List<String> ids = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                byte[] bytes = new byte[Short.toUnsignedInt(datagram.getShort())];
+                datagram.get(bytes);
+                ids.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+            return datagram.hasRemaining() ? null : new Message(type, sequence, ids);
+        } catch (BufferUnderflowException e) {
+            return null;
+        }
+    }
+
+    private static ByteBuffer datagram(byte type, long sequence, List<byte[]> ids, int size) {
+        ByteBuffer datagram = ByteBuffer.allocate(size)
+                .putInt(MAGIC)
+                .put(type)
+                .putLong(sequence)
+                .putShort((short) ids.size());
+        ids.forEach(bytes -> datagram.putShort((short) bytes.length).put(bytes));
+        return datagram.flip();
+    }
+
+    private static List<InetSocketAddress> parsePeers(List<String> peers) {
+        List<InetSocketAddress> addresses = new ArrayList<>(peers.size());
+        for (String peer : peers) {
+            if (peer.isBlank()) {
+                continue;
+            }
+            int colon = peer.lastIndexOf(':');
+            try {
+                addresses.add(new InetSocketAddress(peer.substring(0, colon).trim(),
+                        Integer.parseInt(peer.substring(colon + 1).trim())));
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("app.products.partition.invalidation.peers entries must be host:port, got " + peer);
+            }
+        }
+        return addresses;
+    }
+
+    record Message(byte type, long sequence, List<String> ids) {
+    }
+}
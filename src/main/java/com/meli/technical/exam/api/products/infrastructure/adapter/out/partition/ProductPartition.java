@@ -0,0 +1,72 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.partition;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Which products this instance owns. With app.products.partition.enabled the catalog is split over the
+ * instances listed in app.products.partition.nodes by a ConsistentHashRing, and self is this instance's
+ * own entry in that list; every instance must be given the same list. Otherwise this instance owns
+ * everything.
+ * */
+@Component
+public class ProductPartition {
+
+    // Where an instance answers lookups from its own partition for the others
+    public static final String LOOKUP_PATH = "/internal/partition/products";
+
+    private final boolean enabled;
+    private final String self;
+    private final ConsistentHashRing ring;
+
+    public ProductPartition(@Value("${app.products.partition.enabled:false}") boolean enabled,
+                            @Value("${app.products.partition.self:}") String self,
+                            @Value("${app.products.partition.nodes:}") List<String> nodes,
+                            @Value("${app.products.partition.virtual-nodes:128}") int virtualNodes) {
+        this.enabled = enabled;
+        this.self = normalize(self);
+        if (!enabled) {
+            this.ring = null;
+            return;
+        }
+        List<String> normalized = new ArrayList<>(nodes.size());
+        for (String node : nodes) {
+            if (!node.isBlank()) {
+                normalized.add(normalize(node));
+            }
+        }
+        if (!normalized.contains(this.self)) {
+            throw new IllegalStateException("app.products.partition.self (" + self
+                    + ") must be one of app.products.partition.nodes " + normalized);
+        }
+        this.ring = new ConsistentHashRing(normalized, virtualNodes);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String self() {
+        return self;
+    }
+
+    public String ownerOf(String id) {
+        return enabled ? ring.ownerOf(id) : self;
+    }
+
+    public boolean owns(String id) {
+        return !enabled || ring.ownerOf(id).equals(self);
+    }
+
+    // Trailing slashes would otherwise place the same node twice on the ring
+    private static String normalize(String url) {
+        String trimmed = url.trim();
+        while (trimmed.endsWith("/")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        return trimmed;
+    }
+}
@@ -0,0 +1,114 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.partition;
+
+import com.meli.technical.exam.api.products.domain.model.VersionedProduct;
+import com.meli.technical.exam.api.products.infrastructure.metrics.ProductMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/*
+ * Products owned by other partitions, kept after a lookup so the next one skips the hop. The owner
+ * broadcasts the IDs it writes (PeerInvalidation) and they are evicted here as they arrive; the TTL bounds
+ * how stale an entry can get when such a datagram is lost. A fill is dropped when any invalidation
+ * arrived after its lookup started, since the product it carries may be the one just invalidated. At most
+ * maxEntries products are kept: when full, expired entries are swept and otherwise nothing new is cached.
+ * A sweep walks every entry, so a cache full of live ones is swept at most SWEEPS_PER_TTL times per TTL
+ * rather than on every put.
+ * */
+@Component
+@ConditionalOnProperty(name = "app.products.partition.enabled", havingValue = "true")
+public class RemoteProductCache {
+
+    static final int SWEEPS_PER_TTL = 8;
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Bumped by every invalidation, fills started under an older generation are dropped
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong nextSweep;
+
+    public RemoteProductCache(@Value("${app.products.partition.cache.max-entries:10000}") int maxEntries,
+                              @Value("${app.products.partition.cache.ttl:PT10S}") Duration ttl,
+                              ProductMetrics productMetrics) {
+        this(maxEntries, ttl, System::nanoTime);
+        productMetrics.registerRemoteCacheGauge(entries::size);
+    }
+
+    RemoteProductCache(int maxEntries, Duration ttl, LongSupplier nanoClock) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+        this.nextSweep = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    public VersionedProduct get(String id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (nanoClock.getAsLong() - entry.expiresAt() >= 0) {
+            entries.remove(id, entry);
+            return null;
+        }
+        return entry.product();
+    }
+
+    // Taken before a lookup and handed back with its results to put
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(VersionedProduct product, long lookupGeneration) {
+        if (maxEntries <= 0 || lookupGeneration != generation.get()) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        if (entries.size() >= maxEntries) {
+            sweepIfDue(now);
+            if (entries.size() >= maxEntries) {
+                return;
+            }
+        }
+        Entry entry = new Entry(product, now + ttlNanos);
+        entries.merge(product.product().id(), entry,
+                (cached, fresh) -> cached.product().version() > fresh.product().version() ? cached : fresh);
+        // An invalidation that raced with the put may have missed the new entry
+        if (lookupGeneration != generation.get()) {
+            entries.remove(product.product().id(), entry);
+        }
+    }
+
+    public void invalidate(Collection<String> ids) {
+        generation.incrementAndGet();
+        ids.forEach(entries::remove);
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // At most one sweep per TTL / SWEEPS_PER_TTL, by whichever put gets there first
+    private void sweepIfDue(long now) {
+        long due = nextSweep.get();
+        if (now - due >= 0 && nextSweep.compareAndSet(due, now + ttlNanos / SWEEPS_PER_TTL)) {
+            entries.values().removeIf(entry -> now - entry.expiresAt() >= 0);
+        }
+    }
+
+    private record Entry(VersionedProduct product, long expiresAt) {
+    }
+}
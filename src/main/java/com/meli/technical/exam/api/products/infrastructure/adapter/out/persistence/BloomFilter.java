@@ -0,0 +1,109 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence;
+
+import java.util.Collection;
+
+/*
+ * Fixed-size Bloom filter over the catalog IDs, built with a full snapshot build. A negative answer is
+ * definite, so lookups for IDs that were never loaded are rejected without touching the position map.
+ * It is sized for ~1% false positives at its capacity, HEADROOM times the IDs it was built with, using two
+ * 32-bit halves of one 64-bit hash. Later snapshots share it: IDs created by a write set their bits in
+ * place, which can only turn an older snapshot's "no" for such an ID into a "maybe" that its position map
+ * then rejects. Deleted IDs keep their bits until the next full build. Only the single writer adds.
+ * */
+final class BloomFilter {
+
+    static final BloomFilter EMPTY = new BloomFilter(new long[1], 1, 0);
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final double LN2 = Math.log(2);
+    // Room for IDs created after the build, as a multiple of the IDs built with
+    private static final double HEADROOM = 1.5;
+    private static final int MIN_CAPACITY = 64;
+
+    private final long[] words;
+    private final int bitCount;
+    private final int hashCount;
+    private final int capacity;
+    private int added;
+
+    private BloomFilter(long[] words, int hashCount, int capacity) {
+        this.words = words;
+        this.bitCount = words.length * Long.SIZE;
+        this.hashCount = hashCount;
+        this.capacity = capacity;
+    }
+
+    static BloomFilter of(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return EMPTY;
+        }
+        int capacity = (int) Math.min(Integer.MAX_VALUE, Math.max(MIN_CAPACITY, (long) (ids.size() * HEADROOM)));
+        long bits = (long) Math.ceil(-capacity * Math.log(FALSE_POSITIVE_RATE) / (LN2 * LN2));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE / Long.SIZE, Math.max(1, (bits + Long.SIZE - 1) / Long.SIZE));
+        int hashCount = Math.max(1, (int) Math.round((double) wordCount * Long.SIZE / capacity * LN2));
+
+        BloomFilter filter = new BloomFilter(new long[wordCount], hashCount, capacity);
+        ids.forEach(filter::put);
+        filter.added = ids.size();
+        return filter;
+    }
+
+    /*
+     * Adds a newly created ID in place. False when the filter is at capacity and nothing was changed, the
+     * writer then builds a bigger one with of().
+     * */
+    boolean add(String id) {
+        if (added >= capacity) {
+            return false;
+        }
+        put(id);
+        added++;
+        return true;
+    }
+
+    boolean mightContain(String id) {
+        long hash = hash(id);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int bitCount() {
+        return bitCount;
+    }
+
+    int hashCount() {
+        return hashCount;
+    }
+
+    private void put(String id) {
+        long hash = hash(id);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitCount);
+            words[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    // FNV-1a over the chars followed by the murmur3 finalizer so both halves are well mixed
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
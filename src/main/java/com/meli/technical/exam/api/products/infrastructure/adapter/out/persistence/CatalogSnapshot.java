@@ -0,0 +1,610 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence;
+
+import com.meli.technical.exam.api.products.domain.model.Product;
+import com.meli.technical.exam.api.products.domain.model.BestValuePick;
+import com.meli.technical.exam.api.products.domain.model.CatalogDelta;
+import com.meli.technical.exam.api.products.domain.model.FacetFilter;
+import com.meli.technical.exam.api.products.domain.model.ProductBatch;
+import com.meli.technical.exam.api.products.domain.model.ProductFacets;
+import com.meli.technical.exam.api.products.domain.model.ProductSearchHit;
+import com.meli.technical.exam.api.products.domain.model.ProductSearchResult;
+import com.meli.technical.exam.api.products.domain.model.ProductSortOrder;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.domain.model.SimilarProduct;
+import com.meli.technical.exam.api.products.domain.model.Specification;
+import com.meli.technical.exam.api.products.domain.model.VersionedProduct;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index.Bitmap;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index.FacetIndex;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index.InvertedIndex;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index.ShardedMap;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index.SimilarityIndex;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index.SortIndex;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index.ValueRanking;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/*
+ * Immutable, point-in-time view of the whole catalog. Products are kept in load order in a plain array
+ * with an id -> position map next to it, so lookups, pages and full scans never copy the catalog.
+ * The repository swaps whole snapshots, readers keep using the one they started with.
+ * A write keeps every product at its position: a replaced product is swapped in place, new ones are
+ * appended and a deleted one leaves a hole (a null entry) that all(), page() and size() skip. It edits the
+ * position map and the indexes for just the products it changes, and once the holes pass a quarter of the
+ * array (and MIN_HOLES_TO_COMPACT) it compacts them away with a full build instead.
+ * A Bloom filter over the IDs answers most lookups for unknown IDs before the map is probed, and the
+ * search, typeahead, facet, sort, best-value and similarity indexes are built from the same array so they
+ * work on plain positions. sequence() is the last write-ahead log record applied, 0 for the seed data,
+ * and each product's version is the sequence of the record that last wrote it, kept in an array beside it.
+ * Deleted IDs leave a tombstone with the sequence of their deletion so deltas can report them; only the
+ * newest ones are kept, and tombstoneFloor() is the newest deletion that may have been forgotten.
+ * */
+public final class CatalogSnapshot {
+
+    static final CatalogSnapshot EMPTY = new CatalogSnapshot(new ProductView[0], new long[0], new int[0],
+            ShardedMap.empty(), SnapshotIndexes.EMPTY, SpecificationPool.EMPTY, Map.of(), 0, 0);
+
+    static final int MIN_HOLES_TO_COMPACT = 1024;
+
+    private final ProductView[] products;
+    private final long[] versions;
+    // Positions of deleted products, ascending
+    private final int[] holes;
+    private final ShardedMap<String, Integer> positions;
+    private final SnapshotIndexes indexes;
+    private final SpecificationPool specifications;
+    private final Map<String, Long> tombstones;
+    private final long tombstoneFloor;
+    private final long sequence;
+
+    private CatalogSnapshot(ProductView[] products, long[] versions, int[] holes, ShardedMap<String, Integer> positions,
+                            SnapshotIndexes indexes, SpecificationPool specifications,
+                            Map<String, Long> tombstones, long tombstoneFloor, long sequence) {
+        this.products = products;
+        this.versions = versions;
+        this.holes = holes;
+        this.positions = positions;
+        this.indexes = indexes;
+        this.specifications = specifications;
+        this.tombstones = tombstones;
+        this.tombstoneFloor = tombstoneFloor;
+        this.sequence = sequence;
+    }
+
+    public static CatalogSnapshot of(List<Product> products) {
+        return of(products, 0);
+    }
+
+    public static CatalogSnapshot of(List<Product> products, long sequence) {
+        return of(products, Map.of(), sequence);
+    }
+
+    public static CatalogSnapshot of(List<Product> products, Map<String, Long> versions, long sequence) {
+        return of(products, versions, Map.of(), 0, sequence);
+    }
+
+    // Products missing from versions are at version 0
+    public static CatalogSnapshot of(List<Product> products, Map<String, Long> versions,
+                                     Map<String, Long> tombstones, long tombstoneFloor, long sequence) {
+        Builder builder = new Builder(products.size());
+        for (Product product : products) {
+            builder.add(product, versions.getOrDefault(product.getId().getValue(), 0L));
+        }
+        return builder.build(Map.copyOf(tombstones), tombstoneFloor, sequence);
+    }
+
+    /*
+     * A new snapshot with the products added, or replaced in place when their ID is already present, and
+     * the deleted ones removed, in the order given. Only the changed products are re-indexed. At most
+     * maxTombstones deletions are remembered, the oldest go first. This one is left as it is for the readers
+     * still using it.
+     * */
+    CatalogSnapshot withChanges(Collection<Change> changed, long sequence, int maxTombstones) {
+        Map<String, Long> nextTombstones = new HashMap<>(tombstones);
+        Editor editor = new Editor(createdBy(changed));
+        for (Change change : changed) {
+            if (change.deleted()) {
+                editor.remove(change.id());
+                nextTombstones.put(change.id(), change.version());
+            } else {
+                editor.put(change.product(), change.version());
+                nextTombstones.remove(change.id());
+            }
+        }
+        long floor = tombstoneFloor;
+        if (nextTombstones.size() > maxTombstones) {
+            List<Map.Entry<String, Long>> oldestFirst = new ArrayList<>(nextTombstones.entrySet());
+            oldestFirst.sort(Map.Entry.comparingByValue());
+            for (Map.Entry<String, Long> evicted : oldestFirst.subList(0, oldestFirst.size() - maxTombstones)) {
+                nextTombstones.remove(evicted.getKey());
+                floor = Math.max(floor, evicted.getValue());
+            }
+        }
+        return editor.build(Map.copyOf(nextTombstones), floor, sequence);
+    }
+
+    // How many changes create a product, each of them takes a new position
+    private int createdBy(Collection<Change> changed) {
+        Map<String, Boolean> present = new HashMap<>();
+        int created = 0;
+        for (Change change : changed) {
+            boolean exists = present.computeIfAbsent(change.id(), positions::containsKey);
+            if (change.deleted()) {
+                present.put(change.id(), false);
+            } else if (!exists) {
+                present.put(change.id(), true);
+                created++;
+            }
+        }
+        return created;
+    }
+
+    /*
+     * What changed after fromVersion: the products written since, in catalog order, and the IDs deleted
+     * since. A resync instead when this snapshot cannot tell, because fromVersion is ahead of it or older
+     * than a forgotten deletion, or when more than maxChanges changed and a full copy is no bigger.
+     * */
+    public CatalogDelta delta(long fromVersion, int maxChanges) {
+        if (fromVersion > sequence || fromVersion < tombstoneFloor) {
+            return CatalogDelta.resync(fromVersion, sequence);
+        }
+        if (fromVersion == sequence) {
+            return new CatalogDelta(fromVersion, sequence, false, List.of(), List.of());
+        }
+        List<String> deleted = new ArrayList<>();
+        for (Map.Entry<String, Long> tombstone : tombstones.entrySet()) {
+            if (tombstone.getValue() > fromVersion) {
+                deleted.add(tombstone.getKey());
+            }
+        }
+        if (deleted.size() > maxChanges) {
+            return CatalogDelta.resync(fromVersion, sequence);
+        }
+        List<ProductView> upserted = new ArrayList<>();
+        for (int doc = 0; doc < products.length; doc++) {
+            if (products[doc] != null && versions[doc] > fromVersion) {
+                if (upserted.size() + deleted.size() >= maxChanges) {
+                    return CatalogDelta.resync(fromVersion, sequence);
+                }
+                upserted.add(products[doc]);
+            }
+        }
+        Collections.sort(deleted);
+        return new CatalogDelta(fromVersion, sequence, false, upserted, deleted);
+    }
+
+    public ProductView get(String id) {
+        if (!indexes.ids().mightContain(id)) {
+            return null;
+        }
+        Integer position = positions.get(id);
+        return position != null ? products[position] : null;
+    }
+
+    public VersionedProduct versioned(String id) {
+        if (!indexes.ids().mightContain(id)) {
+            return null;
+        }
+        Integer position = positions.get(id);
+        return position != null ? new VersionedProduct(products[position], versions[position]) : null;
+    }
+
+    // Version of the product at a position of all()
+    long versionAt(int position) {
+        return versions[slot(Objects.checkIndex(position, size()))];
+    }
+
+    // IDs are trimmed and de-duplicated, blank ones are ignored; found products keep the request order
+    public ProductBatch lookup(Collection<String> ids) {
+        Set<String> distinctIds = new LinkedHashSet<>(Math.max(16, (int) (ids.size() / 0.75f) + 1));
+        for (String id : ids) {
+            if (id != null && !id.isBlank()) {
+                distinctIds.add(id.trim());
+            }
+        }
+        List<ProductView> found = new ArrayList<>(distinctIds.size());
+        List<String> missing = new ArrayList<>();
+        for (String id : distinctIds) {
+            ProductView product = get(id);
+            if (product != null) {
+                found.add(product);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new ProductBatch(found, missing);
+    }
+
+    public ProductSearchResult search(String query, int limit) {
+        InvertedIndex.Hits hits = indexes.search().search(query, limit);
+        if (hits.totalHits() == 0) {
+            return ProductSearchResult.EMPTY;
+        }
+        List<ProductSearchHit> results = new ArrayList<>(hits.docs().length);
+        for (int i = 0; i < hits.docs().length; i++) {
+            results.add(new ProductSearchHit(products[hits.docs()[i]], hits.scores()[i]));
+        }
+        return new ProductSearchResult(results, hits.totalHits());
+    }
+
+    // Names starting with the prefix at any word, best rated first
+    public List<ProductView> suggest(String prefix, int limit) {
+        int[] docs = indexes.suggest().complete(prefix, limit);
+        if (docs.length == 0) {
+            return List.of();
+        }
+        ProductView[] suggestions = new ProductView[docs.length];
+        for (int i = 0; i < docs.length; i++) {
+            suggestions[i] = products[docs[i]];
+        }
+        return Arrays.asList(suggestions);
+    }
+
+    public ProductFacets facets(FacetFilter filter) {
+        return indexes.facets().count(filter);
+    }
+
+    // Filters use the facet bitmaps, the ranking itself is never re-sorted per request
+    public List<BestValuePick> bestValue(FacetFilter filter, int limit) {
+        Bitmap candidates = filter == null || filter.equals(FacetFilter.NONE) ? null : indexes.facets().matching(filter);
+        ValueRanking ranking = indexes.value();
+        int[] docs = ranking.top(limit, candidates);
+        List<BestValuePick> picks = new ArrayList<>(docs.length);
+        for (int doc : docs) {
+            picks.add(new BestValuePick(products[doc], ranking.valueScore(doc)));
+        }
+        return picks;
+    }
+
+    // null when the ID is not in this snapshot
+    public List<SimilarProduct> similar(String id, int limit) {
+        if (!indexes.ids().mightContain(id)) {
+            return null;
+        }
+        Integer position = positions.get(id);
+        if (position == null) {
+            return null;
+        }
+        SimilarityIndex.Neighbors neighbors = indexes.similar().similar(position, limit);
+        List<SimilarProduct> similar = new ArrayList<>(neighbors.docs().length);
+        for (int i = 0; i < neighbors.docs().length; i++) {
+            similar.add(new SimilarProduct(products[neighbors.docs()[i]], neighbors.similarities()[i]));
+        }
+        return similar;
+    }
+
+    public int size() {
+        return products.length - holes.length;
+    }
+
+    public long sequence() {
+        return sequence;
+    }
+
+    public List<ProductView> all() {
+        if (holes.length == 0) {
+            return Collections.unmodifiableList(Arrays.asList(products));
+        }
+        return new AbstractList<>() {
+            @Override
+            public ProductView get(int index) {
+                return products[slot(Objects.checkIndex(index, size()))];
+            }
+
+            @Override
+            public int size() {
+                return CatalogSnapshot.this.size();
+            }
+        };
+    }
+
+    public List<ProductView> page(int page, int size) {
+        long from = (long) page * size;
+        if (from >= size()) {
+            return List.of();
+        }
+        int to = (int) Math.min(from + size, size());
+        return all().subList((int) from, to);
+    }
+
+    // A view over the sort permutation, nothing is sorted or copied per call
+    public List<ProductView> sortedPage(ProductSortOrder order, int page, int size) {
+        long from = (long) page * size;
+        if (from >= size()) {
+            return List.of();
+        }
+        int start = (int) from;
+        int count = (int) Math.min(size, size() - from);
+        SortIndex sort = indexes.sort();
+        return new AbstractList<>() {
+            @Override
+            public ProductView get(int index) {
+                return products[sort.doc(order, start + Objects.checkIndex(index, count))];
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    // False means the ID is definitely not in this snapshot
+    public boolean mightContain(String id) {
+        return indexes.ids().mightContain(id);
+    }
+
+    public StringPoolStats stringPoolStats() {
+        return specifications.stats();
+    }
+
+    SnapshotIndexes indexes() {
+        return indexes;
+    }
+
+    // ID -> sequence of its deletion
+    Map<String, Long> tombstones() {
+        return tombstones;
+    }
+
+    long tombstoneFloor() {
+        return tombstoneFloor;
+    }
+
+    // Array position of the product at a position of all(), stepping over the holes before it
+    private int slot(int rank) {
+        // holes[i] - i is the number of products before the i-th hole, it never decreases
+        int low = 0;
+        int high = holes.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (holes[mid] - mid <= rank) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return rank + low;
+    }
+
+    private static int[] withDeleted(int[] holes, List<Integer> deleted) {
+        if (deleted.isEmpty()) {
+            return holes;
+        }
+        int[] merged = Arrays.copyOf(holes, holes.length + deleted.size());
+        for (int i = 0; i < deleted.size(); i++) {
+            merged[holes.length + i] = deleted.get(i);
+        }
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    /*
+     * One write applied to copies of the product and version arrays. The position map, the specification
+     * pool and the search, facet, sort and best-value indexes are edited for the changed products only, the Bloom filter
+     * gets the new IDs in place while it has room.
+     * */
+    private final class Editor {
+
+        private final ProductView[] editedProducts;
+        private final long[] editedVersions;
+        private final List<Integer> deleted = new ArrayList<>();
+        private final ShardedMap<String, Integer>.Editor editedPositions = positions.edit();
+        private final SpecificationPool.Editor editedSpecifications = specifications.edit();
+        private final InvertedIndex.Editor search;
+        private final FacetIndex.Editor facets;
+        private final SortIndex.Editor sort;
+        private final ValueRanking.Editor value;
+        private int size = products.length;
+        private boolean idsFull;
+        private boolean keepsSuggest = true;
+        private boolean keepsSimilar = true;
+
+        private Editor(int created) {
+            editedProducts = Arrays.copyOf(products, products.length + created);
+            editedVersions = Arrays.copyOf(versions, editedProducts.length);
+            search = indexes.search().edit(editedProducts.length);
+            facets = indexes.facets().edit(editedProducts.length);
+            sort = indexes.sort().edit(Arrays.asList(editedProducts));
+            value = indexes.value().edit(editedProducts.length);
+        }
+
+        void put(Product product, long version) {
+            ProductView view = ProductView.from(product, editedSpecifications::acquire);
+            Integer position = editedPositions.get(view.id());
+            if (position != null) {
+                ProductView previous = editedProducts[position];
+                unindex(position, previous);
+                keepsSuggest &= Objects.equals(previous.name(), view.name()) && previous.rating() == view.rating();
+                keepsSimilar &= previous.specifications().equals(view.specifications());
+            } else {
+                position = size++;
+                editedPositions.put(view.id(), position);
+                idsFull = idsFull || !indexes.ids().add(view.id());
+                keepsSuggest = false;
+                keepsSimilar = false;
+            }
+            editedProducts[position] = view;
+            editedVersions[position] = version;
+            search.add(position, view);
+            facets.add(position, view);
+            sort.add(position);
+            value.add(position, view);
+        }
+
+        void remove(String id) {
+            Integer position = editedPositions.get(id);
+            if (position == null) {
+                return;
+            }
+            unindex(position, editedProducts[position]);
+            editedProducts[position] = null;
+            editedVersions[position] = 0;
+            editedPositions.remove(id);
+            deleted.add(position);
+            keepsSuggest = false;
+            keepsSimilar = false;
+        }
+
+        CatalogSnapshot build(Map<String, Long> tombstones, long tombstoneFloor, long sequence) {
+            int[] editedHoles = withDeleted(holes, deleted);
+            if (editedHoles.length > Math.max(MIN_HOLES_TO_COMPACT, editedProducts.length / 4)) {
+                return compacted(tombstones, tombstoneFloor, sequence);
+            }
+            ShardedMap<String, Integer> builtPositions = editedPositions.build();
+            BloomFilter ids = indexes.ids();
+            if (idsFull) {
+                List<String> live = new ArrayList<>(builtPositions.size());
+                builtPositions.forEach((id, position) -> live.add(id));
+                ids = BloomFilter.of(live);
+            }
+            List<ProductView> builtProducts = Collections.unmodifiableList(Arrays.asList(editedProducts));
+            SnapshotIndexes builtIndexes = new SnapshotIndexes(ids, search.build(), facets.build(), sort.build(),
+                    value.build(), builtProducts,
+                    keepsSuggest ? indexes.builtSuggest() : null, keepsSimilar ? indexes.builtSimilar() : null);
+            return new CatalogSnapshot(editedProducts, editedVersions, editedHoles, builtPositions, builtIndexes,
+                    editedSpecifications.build(), tombstones, tombstoneFloor, sequence);
+        }
+
+        private void unindex(int position, ProductView previous) {
+            search.remove(position, previous);
+            facets.remove(position, previous);
+            sort.remove(position);
+            value.remove(position);
+            for (Specification specification : previous.specifications()) {
+                editedSpecifications.release(specification);
+            }
+        }
+
+        private CatalogSnapshot compacted(Map<String, Long> tombstones, long tombstoneFloor, long sequence) {
+            Builder builder = new Builder(editedProducts.length);
+            for (int position = 0; position < editedProducts.length; position++) {
+                if (editedProducts[position] != null) {
+                    builder.add(editedProducts[position], editedVersions[position]);
+                }
+            }
+            return builder.build(tombstones, tombstoneFloor, sequence);
+        }
+    }
+
+    /*
+     * Spec keys and values go through a StringPool and identical key/value pairs share one Specification
+     * instance. Both canonicalizing maps only live while the snapshot is built, only their stats are kept.
+     * */
+    static final class Builder {
+
+        private final List<ProductView> products;
+        private long[] versions;
+        private final Map<String, Integer> positions;
+        private final StringPool strings = new StringPool();
+        private final Map<Specification, Specification> specifications = new HashMap<>();
+
+        Builder(int expectedSize) {
+            this.products = new ArrayList<>(expectedSize);
+            this.versions = new long[expectedSize];
+            this.positions = new HashMap<>(Math.max(16, (int) (expectedSize / 0.75f) + 1));
+        }
+
+        // A repeated ID replaces the earlier product, keeping its position
+        Builder add(Product product) {
+            return add(product, 0);
+        }
+
+        Builder add(Product product, long version) {
+            return put(ProductView.from(product, this::canonical), version);
+        }
+
+        // Views of an earlier snapshot are kept as they are, their specifications seed the pools
+        Builder add(ProductView view, long version) {
+            for (Specification specification : view.specifications()) {
+                register(specification);
+            }
+            return put(view, version);
+        }
+
+        private Builder put(ProductView view, long version) {
+            Integer position = positions.get(view.id());
+            if (position == null) {
+                position = products.size();
+                positions.put(view.id(), position);
+                products.add(view);
+                if (position == versions.length) {
+                    versions = Arrays.copyOf(versions, Math.max(16, versions.length * 2));
+                }
+            } else {
+                products.set(position, view);
+            }
+            versions[position] = version;
+            return this;
+        }
+
+        CatalogSnapshot build(Map<String, Long> tombstones, long tombstoneFloor, long sequence) {
+            ProductView[] built = products.toArray(ProductView[]::new);
+            return new CatalogSnapshot(built, Arrays.copyOf(versions, built.length), new int[0],
+                    ShardedMap.copyOf(positions), SnapshotIndexes.build(Arrays.asList(built), positions.keySet()),
+                    SpecificationPool.of(uses(), strings.stats()), tombstones, tombstoneFloor, sequence);
+        }
+
+        // How many of the products hold each shared specification, for the pool later writes edit
+        private Map<Specification, Integer> uses() {
+            Map<Specification, Integer> uses = new HashMap<>(specifications.size() * 2);
+            for (ProductView product : products) {
+                for (Specification specification : product.specifications()) {
+                    uses.merge(specification, 1, Integer::sum);
+                }
+            }
+            return uses;
+        }
+
+        // An earlier snapshot already shares these, so they are counted as the load that shared them did
+        private void register(Specification specification) {
+            if (specifications.putIfAbsent(specification, specification) == null) {
+                strings.share(specification.getKey());
+                strings.share(specification.getValue());
+            } else {
+                recordShared(specification);
+            }
+        }
+
+        private Specification canonical(Specification specification) {
+            Specification shared = specifications.get(specification);
+            if (shared == null) {
+                shared = new Specification(strings.canonical(specification.getKey()), strings.canonical(specification.getValue()));
+                specifications.put(shared, shared);
+            } else if (shared != specification) {
+                recordShared(specification);
+            }
+            return shared;
+        }
+
+        private void recordShared(Specification specification) {
+            strings.recordShared(SpecificationPool.SPECIFICATION_BYTES + StringPool.retainedBytes(specification.getKey())
+                    + StringPool.retainedBytes(specification.getValue()));
+        }
+    }
+
+    // A product written, or with a null product the ID deleted, by the log record at sequence version
+    record Change(String id, Product product, long version) {
+
+        Change(Product product, long version) {
+            this(product.getId().getValue(), product, version);
+        }
+
+        static Change deleted(String id, long version) {
+            return new Change(id, null, version);
+        }
+
+        boolean deleted() {
+            return product == null;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence;
+
+import com.meli.technical.exam.api.products.domain.exception.ChangeHistoryExpiredException;
+import com.meli.technical.exam.api.products.domain.model.CatalogChange;
+import com.meli.technical.exam.api.products.domain.model.ProductChange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+/*
+ * Catalog changes as they are published, one per write-ahead log record. A single replay sink fans them
+ * out to every subscriber and keeps the last historySize of them, so a consumer that reconnects with the
+ * sequence it last applied gets what it missed followed by the live changes, without a gap between the
+ * two. An older offset, which includes anything from before this process started, is read back from the
+ * log segments a checkpoint has not deleted yet (see LogHistory) before switching to the sink; without a
+ * log, as on a follower, it fails with ChangeHistoryExpiredException. So does a subscriber that falls more
+ * than historySize changes behind, rather than holding on to ever more history for it. Only the writer
+ * thread publishes.
+ * */
+final class ChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeed.class);
+
+    private final Sinks.Many<CatalogChange> sink;
+    private final int historySize;
+    // previousSequence of each retained change, oldest first, evicted in step with the sink's buffer
+    private final ArrayDeque<Long> retained;
+    // null when there is no log to read older changes from
+    private final LogHistory history;
+    private long lastSequence;
+
+    ChangeFeed(long startSequence, int historySize) {
+        this(startSequence, historySize, null);
+    }
+
+    ChangeFeed(long startSequence, int historySize, LogHistory history) {
+        this.sink = Sinks.many().replay().limit(historySize);
+        this.historySize = historySize;
+        this.retained = new ArrayDeque<>(historySize);
+        this.history = history;
+        this.lastSequence = startSequence;
+    }
+
+    void publish(long sequence, List<ProductChange> changes) {
+        CatalogChange change;
+        synchronized (this) {
+            change = new CatalogChange(sequence, lastSequence, changes);
+            if (retained.size() == historySize) {
+                retained.removeFirst();
+            }
+            retained.addLast(lastSequence);
+            lastSequence = sequence;
+        }
+        Sinks.EmitResult result = sink.tryEmitNext(change);
+        if (result.isFailure()) {
+            // The write itself is durable and visible, only its change event is lost
+            logger.warn("Failed to publish the change at sequence {}: {}", sequence, result);
+        }
+    }
+
+    // Changes after since, then live ones; null since means only changes from now on
+    Flux<CatalogChange> since(Long since) {
+        return Flux.defer(() -> {
+            long from;
+            long oldest;
+            long through;
+            synchronized (this) {
+                from = since != null ? since : lastSequence;
+                if (from > lastSequence) {
+                    return Flux.error(new IllegalArgumentException(
+                            "Sequence " + from + " is ahead of the last change " + lastSequence));
+                }
+                oldest = retained.isEmpty() ? lastSequence : retained.peekFirst();
+                through = lastSequence;
+            }
+            if (from >= oldest) {
+                return live(from);
+            }
+            if (history == null || from < history.oldestSequence()) {
+                return Flux.error(ChangeHistoryExpiredException.since(from,
+                        history == null ? oldest : Math.min(oldest, history.oldestSequence())));
+            }
+            // The sink picks up where the log leaves off, unless it moved on by more than historySize meanwhile
+            return Flux.concat(history.read(from, through), live(through));
+        });
+    }
+
+    private Flux<CatalogChange> live(long from) {
+        return Flux.defer(() -> {
+            // The history may have moved on between the check and the subscription, the first change tells
+            boolean[] first = {true};
+            return sink.asFlux()
+                    .filter(change -> change.sequence() > from)
+                    .<CatalogChange>handle((change, out) -> {
+                        if (first[0] && change.previousSequence() > from) {
+                            out.error(ChangeHistoryExpiredException.since(from, change.previousSequence()));
+                            return;
+                        }
+                        first[0] = false;
+                        out.next(change);
+                    })
+                    .onBackpressureBuffer(historySize, BufferOverflowStrategy.ERROR)
+                    .onErrorMap(Exceptions::isOverflow, error -> new ChangeHistoryExpiredException(
+                            "Subscriber fell more than " + historySize + " changes behind; resume from the last applied sequence"));
+        });
+    }
+
+    int subscribers() {
+        return sink.currentSubscriberCount();
+    }
+
+    synchronized long lastSequence() {
+        return lastSequence;
+    }
+}
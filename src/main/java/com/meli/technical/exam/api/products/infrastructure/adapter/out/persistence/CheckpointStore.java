@@ -0,0 +1,118 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal.WriteAheadLog;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * The whole catalog as of one log sequence, products in the same JSON shape as the seed file, plus the
+ * version of every product that has one (the seed products are at 0 and left out) and the deletion
+ * tombstones the snapshot still keeps. A checkpoint is
+ * written to a temporary file, forced to disk and renamed over the previous one, so the file on disk is
+ * always either the old or the new complete checkpoint; a crash mid-write only leaves the temporary file
+ * behind, which the next load removes. A follower starts from the same JSON, streamed by its leader.
+ * */
+final class CheckpointStore {
+
+    static final String FILE_NAME = "checkpoint.json";
+    private static final String TEMP_FILE_NAME = FILE_NAME + ".tmp";
+
+    private final Path directory;
+    private final Path file;
+    private final Path temp;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter productWriter;
+
+    CheckpointStore(Path directory, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.file = directory.resolve(FILE_NAME);
+        this.temp = directory.resolve(TEMP_FILE_NAME);
+        this.objectMapper = objectMapper;
+        // One flush for the whole file rather than one per product
+        this.productWriter = objectMapper.writerFor(ProductView.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    boolean exists() {
+        return Files.exists(file);
+    }
+
+    Checkpoint load() throws IOException {
+        Files.deleteIfExists(temp);
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return objectMapper.readValue(in, Checkpoint.class);
+        }
+    }
+
+    void write(CatalogSnapshot snapshot) throws IOException {
+        Files.createDirectories(directory);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeTo(snapshot, new BufferedOutputStream(Channels.newOutputStream(channel)));
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        WriteAheadLog.syncDirectory(directory);
+    }
+
+    // Streams the snapshot's products, the catalog is never copied; out is flushed but left open
+    void writeTo(CatalogSnapshot snapshot, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.writeStartObject();
+        generator.writeNumberField("sequence", snapshot.sequence());
+        generator.writeArrayFieldStart("products");
+        for (ProductView product : snapshot.all()) {
+            productWriter.writeValue(generator, product);
+        }
+        generator.writeEndArray();
+        generator.writeObjectFieldStart("versions");
+        List<ProductView> products = snapshot.all();
+        for (int position = 0; position < products.size(); position++) {
+            long version = snapshot.versionAt(position);
+            if (version > 0) {
+                generator.writeNumberField(products.get(position).id(), version);
+            }
+        }
+        generator.writeEndObject();
+        generator.writeObjectFieldStart("tombstones");
+        for (Map.Entry<String, Long> tombstone : snapshot.tombstones().entrySet()) {
+            generator.writeNumberField(tombstone.getKey(), tombstone.getValue());
+        }
+        generator.writeEndObject();
+        generator.writeNumberField("tombstoneFloor", snapshot.tombstoneFloor());
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    Path file() {
+        return file;
+    }
+
+    // versions and tombstones are absent from checkpoints written before products had them
+    record Checkpoint(long sequence, List<ProductDto> products, Map<String, Long> versions,
+                      Map<String, Long> tombstones, long tombstoneFloor) {
+
+        Checkpoint {
+            versions = versions != null ? versions : Map.of();
+            tombstones = tombstones != null ? tombstones : Map.of();
+        }
+    }
+}
@@ -1,127 +1,307 @@
 package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
 import com.meli.technical.exam.api.products.application.mapper.ProductMapper;
-import com.meli.technical.exam.api.products.domain.exception.ProductDataException;
+import com.meli.technical.exam.api.products.domain.exception.ReadOnlyReplicaException;
 import com.meli.technical.exam.api.products.domain.model.Product;
+import com.meli.technical.exam.api.products.domain.model.BestValuePick;
+import com.meli.technical.exam.api.products.domain.model.CatalogChange;
+import com.meli.technical.exam.api.products.domain.model.CatalogDelta;
+import com.meli.technical.exam.api.products.domain.model.CatalogPage;
+import com.meli.technical.exam.api.products.domain.model.FacetFilter;
+import com.meli.technical.exam.api.products.domain.model.ImportBatchResult;
+import com.meli.technical.exam.api.products.domain.model.ProductBatch;
+import com.meli.technical.exam.api.products.domain.model.ProductFacets;
+import com.meli.technical.exam.api.products.domain.model.ProductSearchResult;
+import com.meli.technical.exam.api.products.domain.model.ProductSortOrder;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.domain.model.SimilarProduct;
+import com.meli.technical.exam.api.products.domain.model.VersionedProduct;
 import com.meli.technical.exam.api.products.domain.repository.ProductRepository;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.core.io.ClassPathResource;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.partition.ProductPartition;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.SnapshotWriter.WriteKind;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal.WriteAheadLog;
+import com.meli.technical.exam.api.products.infrastructure.jfr.ProductFlightRecorder;
+import com.meli.technical.exam.api.products.infrastructure.metrics.ProductMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
-/*this would be more useful when implementig the POST and PUT methods, to interact with the repo or file in this case*/
+/*
+ * The catalog this instance serves, as immutable snapshots that reads take whole. On a leader, created,
+ * updated and deleted products are appended to a write-ahead log under app.products.store.directory; after
+ * startup a single writer thread applies them to new snapshots (see SnapshotWriter). StoreCompactor
+ * periodically checkpoints the catalog next to the log and drops the segments it covers, so startup loads
+ * the latest checkpoint and replays only the log after it (see StoreRecovery). With
+ * app.products.replication.leader set the instance is a read-only follower instead: it has no log of its
+ * own, takes its catalog from the leader (see ReplicationFollower) and rejects every write with
+ * ReadOnlyReplicaException. Any instance, follower or not, can lead others through its ReplicationSource.
+ * */
 @Repository
 public class JsonProductRepository implements ProductRepository {
-    
-    private static final Logger logger = LoggerFactory.getLogger(JsonProductRepository.class);
-    private static final String PRODUCTS_DATA_PATH = "data/products.json";
-    
-    private final ObjectMapper objectMapper;
-    private final ProductMapper productMapper;
-    private final Map<String, Product> productsCache;
-
-    public JsonProductRepository(ObjectMapper objectMapper, ProductMapper productMapper) {
-        this.objectMapper = objectMapper;
-        this.productMapper = productMapper;
-        this.productsCache = new HashMap<>();
-        loadProductsFromFile();
-    }
-
-    private void loadProductsFromFile() {
-        try {
-            ClassPathResource resource = new ClassPathResource(PRODUCTS_DATA_PATH);
-            
-            if (!resource.exists()) {
-                logger.warn("Products file not found: {}. Using empty dataset.", PRODUCTS_DATA_PATH);
-                return;
-            }
 
-            try (InputStream inputStream = resource.getInputStream()) {
-                List<ProductDto> productDtos = objectMapper.readValue(
-                    inputStream, 
-                    new TypeReference<List<ProductDto>>() {}
-                );
-                
-                for (ProductDto dto : productDtos) {
-                    Product product = productMapper.toDomain(dto);
-                    productsCache.put(product.getId().getValue(), product);
-                }
-            }
-            
-        } catch (IOException e) {
-            throw new ProductDataException("Failed to initialize product data", e);
+    private final ProductMetrics productMetrics;
+    private final ProductFlightRecorder flightRecorder;
+    private final AtomicReference<CatalogSnapshot> snapshot = new AtomicReference<>(CatalogSnapshot.EMPTY);
+    // writer and compactor are null on a follower, follower on a leader
+    private final SnapshotWriter writer;
+    private final StoreCompactor compactor;
+    private final ReplicationFollower follower;
+    private final SnapshotPins pins;
+    private final ChangeFeed changes;
+    private final ReplicationSource replicationSource;
+    private final int maxDeltaChanges;
+
+    public JsonProductRepository(ObjectMapper objectMapper, ProductMapper productMapper,
+                                 ProductMetrics productMetrics, ProductFlightRecorder flightRecorder,
+                                 ProductPartition partition, WebClient.Builder webClientBuilder,
+                                 @Value("${app.products.store.directory:store}") String storeDirectory,
+                                 @Value("${app.products.store.segment-size:64MB}") DataSize segmentSize,
+                                 @Value("${app.products.store.max-batch:256}") int maxBatch,
+                                 @Value("${app.products.store.checkpoint-interval:PT5M}") Duration checkpointInterval,
+                                 @Value("${app.products.snapshot.ttl:PT5M}") Duration snapshotTtl,
+                                 @Value("${app.products.snapshot.first-page-ttl:PT30S}") Duration firstPageTtl,
+                                 @Value("${app.products.snapshot.max-pinned:8}") int maxPinnedSnapshots,
+                                 @Value("${app.products.changes.history:1000}") int changeHistory,
+                                 @Value("${app.products.delta.max-changes:1000}") int maxDeltaChanges,
+                                 @Value("${app.products.delta.max-tombstones:10000}") int maxTombstones,
+                                 @Value("${app.products.replication.leader:}") String leader,
+                                 @Value("${app.products.replication.heartbeat:PT1S}") Duration heartbeat,
+                                 @Value("${app.products.replication.retry-delay:PT1S}") Duration retryDelay) {
+        this.productMetrics = productMetrics;
+        this.flightRecorder = flightRecorder;
+        this.maxDeltaChanges = maxDeltaChanges;
+        Path directory = Path.of(storeDirectory);
+        CheckpointStore checkpoints = new CheckpointStore(directory, objectMapper);
+        if (leader.isBlank()) {
+            StoreRecovery recovery = new StoreRecovery(objectMapper, productMapper, flightRecorder, checkpoints);
+            StoreRecovery.Recovered recovered = recovery.recover(partition, directory, segmentSize.toBytes(), maxTombstones);
+            snapshot.set(recovered.current());
+            WriteAheadLog log = recovered.log();
+            LogHistory history = new LogHistory(directory, recovered.checkpointed(), recovery::decode);
+            this.changes = new ChangeFeed(log.lastSequence(), changeHistory, history);
+            this.writer = new SnapshotWriter(log, snapshot, recovery::encode, maxBatch, maxTombstones, changes);
+            this.compactor = new StoreCompactor(checkpoints, log, history, snapshot,
+                    recovered.checkpointed().sequence(), checkpointInterval);
+            this.follower = null;
+        } else {
+            this.changes = new ChangeFeed(0, changeHistory);
+            this.writer = null;
+            this.compactor = null;
+            this.follower = ReplicationFollower.connect(leader, webClientBuilder, snapshot, changes,
+                    productMapper::toDomain, maxBatch, maxTombstones, heartbeat, retryDelay, productMetrics);
         }
+        this.pins = new SnapshotPins(snapshot, snapshotTtl, firstPageTtl, maxPinnedSnapshots);
+        this.replicationSource = new ReplicationSource(checkpoints, pins, changes);
+        productMetrics.registerCatalogGauges(
+                () -> snapshot.get().size(),
+                () -> snapshot.get().stringPoolStats().unique(),
+                () -> snapshot.get().stringPoolStats().savedBytes());
+        productMetrics.registerPinnedSnapshotsGauge(pins::size);
+        productMetrics.registerChangeSubscribersGauge(changes::subscribers);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (follower != null) {
+            follower.close();
+            return;
+        }
+        writer.close();
+        compactor.close();
+    }
+
+    // null on the leader
+    ReplicationFollower follower() {
+        return follower;
+    }
+
+    public ReplicationSource replicationSource() {
+        return replicationSource;
     }
 
     @Override
-    public Mono<Product> findById(String id) {
+    public Mono<ProductView> findById(String id) {
         
         if (id == null || id.trim().isEmpty()) {
             return Mono.empty();
         }
         
-        Product product = productsCache.get(id.trim());
-        return product != null ? Mono.just(product) : Mono.empty();
+        CatalogSnapshot current = snapshot.get();
+        String trimmed = id.trim();
+        // Unknown IDs (scrapers, stale links) are the common miss, they skip the position map
+        ProductView product = current.mightContain(trimmed) ? current.get(trimmed) : null;
+        return flightRecorder.recordLookup("findById", product != null ? Mono.just(product) : Mono.empty());
     }
 
     @Override
-    public Flux<Product> findByIds(List<String> ids) {
-        
+    public Mono<VersionedProduct> findVersionedById(String id) {
+
+        if (id == null || id.isBlank()) {
+            return Mono.empty();
+        }
+
+        return Mono.justOrEmpty(snapshot.get().versioned(id.trim()));
+    }
+
+    @Override
+    public Mono<ProductBatch> findBatch(List<String> ids) {
+
         if (ids == null || ids.isEmpty()) {
+            return Mono.just(ProductBatch.EMPTY);
+        }
+
+        // All IDs of one request are resolved against the same snapshot
+        Mono<ProductBatch> batch = Mono.fromSupplier(() -> snapshot.get().lookup(ids));
+        return productMetrics.timeStage(ProductMetrics.STAGE_REPOSITORY_FETCH,
+                flightRecorder.recordLookup("findBatch", ids.size(), batch, found -> found.found().size()));
+    }
+
+    @Override
+    public Mono<ProductSearchResult> search(String query, int limit) {
+
+        if (query == null || query.isBlank() || limit <= 0) {
+            return Mono.just(ProductSearchResult.EMPTY);
+        }
+
+        return productMetrics.timeStage(ProductMetrics.STAGE_SEARCH,
+                Mono.fromSupplier(() -> snapshot.get().search(query, limit)));
+    }
+
+    @Override
+    public Flux<ProductView> suggest(String prefix, int limit) {
+
+        if (prefix == null || prefix.isBlank() || limit <= 0) {
             return Flux.empty();
         }
 
-        return Flux.fromIterable(ids)
-                .distinct()
-                .mapNotNull(id -> {
-                    if (id == null || id.trim().isEmpty()) {
-                        return null;
-                    }
-                    return productsCache.get(id.trim());
-                });
+        return productMetrics.timeStage(ProductMetrics.STAGE_SUGGEST,
+                Flux.defer(() -> Flux.fromIterable(snapshot.get().suggest(prefix, limit))));
     }
 
     @Override
-    public Flux<Product> findAll() {
-        return Flux.fromIterable(new ArrayList<>(productsCache.values()));
+    public Mono<ProductFacets> facets(FacetFilter filter) {
+        FacetFilter effective = filter != null ? filter : FacetFilter.NONE;
+        return productMetrics.timeStage(ProductMetrics.STAGE_FACETS,
+                Mono.fromSupplier(() -> snapshot.get().facets(effective)));
     }
 
     @Override
-    public Mono<Long> count() {
-        long count = productsCache.size();
-        return Mono.just(count);
+    public Flux<BestValuePick> findBestValue(FacetFilter filter, int limit) {
+
+        if (limit <= 0) {
+            return Flux.empty();
+        }
+
+        return productMetrics.timeStage(ProductMetrics.STAGE_BEST_VALUE,
+                Flux.defer(() -> Flux.fromIterable(snapshot.get().bestValue(filter, limit))));
     }
 
     @Override
-    public Flux<Product> findAllPaginated(int page, int size) {
-        
-        if (page < 0 || size <= 0) {
-            return Flux.error(new IllegalArgumentException("Page must be non-negative and size must be positive"));
+    public Mono<List<SimilarProduct>> findSimilar(String id, int limit) {
+
+        if (id == null || limit <= 0) {
+            return Mono.empty();
         }
 
-        int startIndex = page * size;
-        List<Product> allProducts = new ArrayList<>(productsCache.values());
-        
-        if (startIndex >= allProducts.size()) {
-            return Flux.empty();
+        return productMetrics.timeStage(ProductMetrics.STAGE_SIMILAR,
+                Mono.fromSupplier(() -> snapshot.get().similar(id, limit)));
+    }
+
+    @Override
+    public Mono<VersionedProduct> create(Product product) {
+        return write(WriteKind.CREATE, product, VersionedProduct.ANY_VERSION);
+    }
+
+    @Override
+    public Mono<VersionedProduct> update(Product product, long expectedVersion) {
+        return write(WriteKind.UPDATE, product, expectedVersion);
+    }
+
+    @Override
+    public Mono<Void> delete(String id, long expectedVersion) {
+        if (follower != null) {
+            return readOnly();
         }
-        
-        int endIndex = Math.min(startIndex + size, allProducts.size());
-        List<Product> paginatedProducts = allProducts.subList(startIndex, endIndex);
-        
-        return Flux.fromIterable(paginatedProducts);
+        return productMetrics.timeStage(ProductMetrics.STAGE_WRITE,
+                Mono.fromFuture(() -> writer.submitDelete(id, expectedVersion)));
+    }
+
+    @Override
+    public Mono<ImportBatchResult> importBatch(List<Product> products) {
+        if (follower != null) {
+            return readOnly();
+        }
+        if (products.isEmpty()) {
+            return Mono.just(ImportBatchResult.EMPTY);
+        }
+        return productMetrics.timeStage(ProductMetrics.STAGE_IMPORT_WRITE,
+                Mono.fromFuture(() -> writer.submitImport(products)));
+    }
+
+    @Override
+    public Flux<CatalogChange> findChanges(Long since) {
+        return changes.since(since);
+    }
+
+    // A client told to resync pages through the answering snapshot next, so it stays pinned for a while
+    @Override
+    public Mono<CatalogDelta> findDelta(long fromVersion) {
+
+        if (fromVersion < 0) {
+            return Mono.error(new IllegalArgumentException("fromVersion must be non-negative"));
+        }
+
+        return productMetrics.timeStage(ProductMetrics.STAGE_DELTA, Mono.fromSupplier(() -> {
+            try (SnapshotPins.Lease lease = pins.current()) {
+                CatalogDelta delta = lease.snapshot().delta(fromVersion, maxDeltaChanges);
+                if (delta.resync()) {
+                    pins.pin(lease.snapshot());
+                }
+                return delta;
+            }
+        }));
+    }
+
+    private Mono<VersionedProduct> write(WriteKind kind, Product product, long expectedVersion) {
+        if (follower != null) {
+            return readOnly();
+        }
+        return productMetrics.timeStage(ProductMetrics.STAGE_WRITE,
+                Mono.fromFuture(() -> writer.submit(kind, product, expectedVersion)));
+    }
+
+    private <T> Mono<T> readOnly() {
+        return Mono.error(ReadOnlyReplicaException.forLeader(follower.leader()));
+    }
+
+    @Override
+    public Mono<CatalogPage> findPage(ProductSortOrder order, int page, int size, String snapshotToken) {
+
+        if (page < 0 || size <= 0) {
+            return Mono.error(new IllegalArgumentException("Page must be non-negative and size must be positive"));
+        }
+
+        return Mono.fromSupplier(() -> {
+            // Most clients stop at the first page, so it pins its version for a short while only
+            try (SnapshotPins.Lease lease = page == 0 && snapshotToken == null
+                    ? pins.firstPage() : pins.acquire(snapshotToken)) {
+                CatalogSnapshot pinned = lease.snapshot();
+                List<ProductView> content = order != null
+                        ? pinned.sortedPage(order, page, size) : pinned.page(page, size);
+                return new CatalogPage(content, pinned.size(), lease.token());
+            }
+        });
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,161 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence;
+
+import com.meli.technical.exam.api.products.domain.exception.ChangeHistoryExpiredException;
+import com.meli.technical.exam.api.products.domain.exception.ProductDataException;
+import com.meli.technical.exam.api.products.domain.model.CatalogChange;
+import com.meli.technical.exam.api.products.domain.model.Product;
+import com.meli.technical.exam.api.products.domain.model.ProductChange;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal.BatchAssembler;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal.WalOperation;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal.WalRecord;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal.WriteAheadLog;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/*
+ * Catalog changes read back from the write-ahead log, for consumers resuming from further back than the
+ * change feed keeps in memory. A record only holds products as they were written, so what they replaced
+ * comes from the records read before them and, for the first write of an ID, from the snapshot of the
+ * last checkpoint. That snapshot is kept until the next checkpoint replaces it; offsets older than it
+ * went with the segments the checkpoint deleted.
+ * */
+final class LogHistory {
+
+    private final Path directory;
+    // null for a payload that cannot be read, which recovery skips as well
+    private final BiFunction<WalRecord, byte[], Product> decoder;
+    private volatile CatalogSnapshot base;
+
+    LogHistory(Path directory, CatalogSnapshot base, BiFunction<WalRecord, byte[], Product> decoder) {
+        this.directory = directory;
+        this.base = base;
+        this.decoder = decoder;
+    }
+
+    // Called once a checkpoint of checkpointed is durable, before the segments it covers are deleted
+    void rebase(CatalogSnapshot checkpointed) {
+        base = checkpointed;
+    }
+
+    long oldestSequence() {
+        return base.sequence();
+    }
+
+    // The changes after from through through, oldest first; through must be durable and published
+    Flux<CatalogChange> read(long from, long through) {
+        return Flux.defer(() -> {
+            CatalogSnapshot start = base;
+            if (from < start.sequence()) {
+                return Flux.error(ChangeHistoryExpiredException.since(from, start.sequence()));
+            }
+            return Flux.using(() -> WriteAheadLog.read(directory, start.sequence(), through),
+                    reader -> Flux.<CatalogChange, Replay>generate(() -> new Replay(start, from), (replay, sink) -> {
+                        try {
+                            CatalogChange change = replay.next(reader);
+                            if (change != null) {
+                                sink.next(change);
+                            } else {
+                                sink.complete();
+                            }
+                        } catch (NoSuchFileException e) {
+                            // A checkpoint deleted the segments under the read, mapped below
+                            sink.error(e);
+                        } catch (IOException e) {
+                            sink.error(new ProductDataException("Failed to read the product log in " + directory, e));
+                        }
+                        return replay;
+                    }),
+                    reader -> {
+                        try {
+                            reader.close();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        }).onErrorMap(NoSuchFileException.class, e -> ChangeHistoryExpiredException.since(from, base.sequence()))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /*
+     * Each product touched so far as it was left, null once deleted; the rest is still as in the snapshot.
+     * A write is one change at the sequence of its last record, like the feed published it; an import batch
+     * cut off by a crash was never published and only leaves an empty change, so the sequences still chain.
+     * */
+    private final class Replay {
+
+        private final CatalogSnapshot snapshot;
+        private final long from;
+        private final Map<String, ProductView> written = new HashMap<>();
+        private final ArrayDeque<CatalogChange> ready = new ArrayDeque<>();
+        private final BatchAssembler batches = new BatchAssembler(
+                records -> emit(records, apply(records)), records -> emit(records, List.of()));
+        private long previous;
+
+        private Replay(CatalogSnapshot snapshot, long from) {
+            this.snapshot = snapshot;
+            this.from = from;
+            this.previous = snapshot.sequence();
+        }
+
+        // The next change after from, null at the end; the records up to from only fill in what was written
+        CatalogChange next(WriteAheadLog.Reader reader) throws IOException {
+            while (ready.isEmpty()) {
+                WalRecord record = reader.next();
+                if (record == null) {
+                    batches.end();
+                    break;
+                }
+                batches.accept(record);
+            }
+            return ready.poll();
+        }
+
+        private void emit(List<WalRecord> records, List<ProductChange> changes) {
+            long sequence = records.get(records.size() - 1).sequence();
+            if (sequence > from) {
+                ready.add(new CatalogChange(sequence, previous, changes));
+            }
+            previous = sequence;
+        }
+
+        private List<ProductChange> apply(List<WalRecord> records) {
+            List<ProductChange> changes = new ArrayList<>();
+            for (WalRecord record : records) {
+                if (record.operation() == WalOperation.DELETE) {
+                    ProductView before = viewOf(record.productId());
+                    written.put(record.productId(), null);
+                    if (before != null) {
+                        changes.add(ProductChange.deleted(before));
+                    }
+                    continue;
+                }
+                for (byte[] payload : record.productPayloads()) {
+                    Product product = decoder.apply(record, payload);
+                    if (product != null) {
+                        String id = product.getId().getValue();
+                        ProductView after = ProductView.from(product);
+                        changes.add(ProductChange.between(viewOf(id), after));
+                        written.put(id, after);
+                    }
+                }
+            }
+            return changes;
+        }
+
+        private ProductView viewOf(String id) {
+            return written.containsKey(id) ? written.get(id) : snapshot.get(id);
+        }
+    }
+}
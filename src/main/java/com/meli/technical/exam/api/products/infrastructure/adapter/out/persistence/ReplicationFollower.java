@@ -0,0 +1,400 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence;
+
+import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.domain.model.ChangeType;
+import com.meli.technical.exam.api.products.domain.model.Product;
+import com.meli.technical.exam.api.products.domain.model.ProductChange;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.domain.model.VersionedProduct;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.CatalogSnapshot.Change;
+import com.meli.technical.exam.api.products.infrastructure.metrics.ProductMetrics;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/*
+ * Keeps a read-only copy of a leader's catalog. It starts from the leader's snapshot, then follows the
+ * leader's log over one streaming HTTP connection and applies each record with the leader's sequence, so
+ * versions, ETags, snapshot tokens and deltas mean the same on both. Like SnapshotWriter it is the only
+ * thread that changes the catalog: records queue up while a batch is applied and the next batch takes all
+ * of them, one new snapshot per batch. The queue never holds more than the records requested from the
+ * connection, so a follower that cannot keep up slows its leader's stream down until the leader gives up
+ * on it; the follower then starts over from a fresh snapshot, as it does when the leader no longer has the
+ * records it needs or a record does not follow the last one applied. A dropped or silent connection is
+ * resumed from the last applied record. Applied records are published to this instance's own change feed,
+ * and a fresh snapshot as a single change from the old one. Nothing is stored locally; a restarted
+ * follower starts from the leader's snapshot again.
+ * */
+final class ReplicationFollower implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicationFollower.class);
+    private static final long POLL_MILLIS = 100;
+    // A snapshot is the whole catalog, it gets longer than a log connection to go quiet
+    private static final Duration SNAPSHOT_TIMEOUT = Duration.ofMinutes(1);
+    private static final int PREFETCH_BATCHES = 4;
+
+    private final String leader;
+    private final WebClient client;
+    private final AtomicReference<CatalogSnapshot> snapshot;
+    private final ChangeFeed changes;
+    private final Function<ProductDto, Product> decoder;
+    private final int maxBatch;
+    private final int maxTombstones;
+    private final Duration idleTimeout;
+    private final Duration retryDelay;
+    private final LongSupplier nanoClock;
+    private final BlockingQueue<Received> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile boolean bootstrapped;
+    private volatile long leaderSequence;
+    private volatile long caughtUpAt;
+    // Only touched by the follower thread
+    private boolean needsSnapshot = true;
+    private LogSubscriber connection;
+    private int connections;
+
+    ReplicationFollower(String leader, WebClient client, AtomicReference<CatalogSnapshot> snapshot,
+                        ChangeFeed changes, Function<ProductDto, Product> decoder, int maxBatch, int maxTombstones,
+                        Duration idleTimeout, Duration retryDelay) {
+        this(leader, client, snapshot, changes, decoder, maxBatch, maxTombstones, idleTimeout, retryDelay,
+                System::nanoTime);
+    }
+
+    ReplicationFollower(String leader, WebClient client, AtomicReference<CatalogSnapshot> snapshot,
+                        ChangeFeed changes, Function<ProductDto, Product> decoder, int maxBatch, int maxTombstones,
+                        Duration idleTimeout, Duration retryDelay, LongSupplier nanoClock) {
+        this.leader = leader;
+        this.client = client;
+        this.snapshot = snapshot;
+        this.changes = changes;
+        this.decoder = decoder;
+        this.maxBatch = maxBatch;
+        this.maxTombstones = maxTombstones;
+        this.idleTimeout = idleTimeout;
+        this.retryDelay = retryDelay;
+        this.nanoClock = nanoClock;
+        // Lag counts from startup until the first catch-up
+        this.caughtUpAt = nanoClock.getAsLong();
+        this.thread = new Thread(this::run, "product-follower");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /*
+     * A follower of the instance at leader, reporting its lag to productMetrics. Three missed heartbeats
+     * and the connection is taken for dead.
+     * */
+    static ReplicationFollower connect(String leader, WebClient.Builder webClientBuilder,
+                                       AtomicReference<CatalogSnapshot> snapshot, ChangeFeed changes,
+                                       Function<ProductDto, Product> decoder, int maxBatch, int maxTombstones,
+                                       Duration heartbeat, Duration retryDelay, ProductMetrics productMetrics) {
+        // Snapshots and import records are far larger than the default in-memory limit
+        WebClient client = webClientBuilder.codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(-1)).build();
+        ReplicationFollower follower = new ReplicationFollower(trimTrailingSlashes(leader), client, snapshot,
+                changes, decoder, maxBatch, maxTombstones, heartbeat.multipliedBy(3), retryDelay);
+        productMetrics.registerReplicationGauges(() -> follower.lag().toNanos() / 1e9, follower::lagRecords);
+        return follower;
+    }
+
+    private static String trimTrailingSlashes(String url) {
+        String trimmed = url.trim();
+        while (trimmed.endsWith("/")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        return trimmed;
+    }
+
+    String leader() {
+        return leader;
+    }
+
+    // Whether a leader snapshot has been loaded; before that the catalog is empty
+    boolean bootstrapped() {
+        return bootstrapped;
+    }
+
+    // Time since this follower last had every record the leader had reported
+    Duration lag() {
+        return Duration.ofNanos(nanoClock.getAsLong() - caughtUpAt);
+    }
+
+    // Records the leader has reported and this follower has not applied yet
+    long lagRecords() {
+        return Math.max(0, leaderSequence - snapshot.get().sequence());
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        disconnect();
+    }
+
+    private void run() {
+        List<Received> batch = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                if (needsSnapshot) {
+                    disconnect();
+                    loadSnapshot();
+                    needsSnapshot = false;
+                }
+                if (connection == null) {
+                    connect();
+                }
+                Received first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                apply(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("Replication from {} failed, retrying in {}: {}", leader, retryDelay, e.toString());
+                disconnect();
+                pause();
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void loadSnapshot() {
+        CheckpointStore.Checkpoint checkpoint = client.get()
+                .uri(leader + ReplicationFrame.SNAPSHOT_PATH)
+                .retrieve()
+                .bodyToMono(CheckpointStore.Checkpoint.class)
+                .block(SNAPSHOT_TIMEOUT);
+        List<Product> products = new ArrayList<>(checkpoint.products().size());
+        for (ProductDto dto : checkpoint.products()) {
+            products.add(decoder.apply(dto));
+        }
+        CatalogSnapshot loaded = CatalogSnapshot.of(products, checkpoint.versions(), checkpoint.tombstones(),
+                checkpoint.tombstoneFloor(), checkpoint.sequence());
+        CatalogSnapshot previous = snapshot.getAndSet(loaded);
+        if (loaded.sequence() > previous.sequence()) {
+            changes.publish(loaded.sequence(), difference(previous, loaded));
+        } else if (loaded.sequence() < previous.sequence()) {
+            logger.warn("Leader {} is at sequence {}, behind this follower's {}; its catalog replaced this one",
+                    leader, loaded.sequence(), previous.sequence());
+        }
+        leaderSequence = loaded.sequence();
+        bootstrapped = true;
+        logger.info("Loaded {} products from leader {} at sequence {}", loaded.size(), leader, loaded.sequence());
+    }
+
+    private void connect() {
+        long since = snapshot.get().sequence();
+        connection = new LogSubscriber(++connections, maxBatch * PREFETCH_BATCHES);
+        client.get()
+                .uri(leader + ReplicationFrame.LOG_PATH + "?since={since}", since)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .retrieve()
+                .bodyToFlux(LoggedFrame.class)
+                .timeout(idleTimeout)
+                .subscribe(connection);
+        logger.debug("Following the log of {} from sequence {}", leader, since);
+    }
+
+    private void disconnect() {
+        if (connection != null) {
+            connection.dispose();
+            connection = null;
+        }
+        queue.clear();
+    }
+
+    // Consecutive records become one snapshot; anything that breaks the sequence ends the batch
+    private void apply(List<Received> batch) {
+        CatalogSnapshot current = snapshot.get();
+        long applied = current.sequence();
+        Map<String, Change> staged = new LinkedHashMap<>();
+        List<LoggedChange> logged = new ArrayList<>(batch.size());
+        int consumed = 0;
+        boolean ended = false;
+        Throwable error = null;
+        boolean broken = false;
+        for (Received received : batch) {
+            if (connection == null || received.connection() != connection.id) {
+                continue;
+            }
+            if (received.ended()) {
+                ended = true;
+                error = received.error();
+                break;
+            }
+            consumed++;
+            LoggedFrame frame = received.frame();
+            if (frame.heartbeat() != null) {
+                leaderSequence = Math.max(leaderSequence, frame.heartbeat());
+                continue;
+            }
+            LoggedRecord record = frame.change();
+            if (record.sequence() <= applied) {
+                continue;
+            }
+            if (record.previousSequence() != applied) {
+                logger.warn("Leader {} sent sequence {} after {}, but {} was applied last; reloading its snapshot",
+                        leader, record.sequence(), record.previousSequence(), applied);
+                broken = true;
+                break;
+            }
+            logged.add(stage(record, current, staged));
+            applied = record.sequence();
+            leaderSequence = Math.max(leaderSequence, applied);
+        }
+        if (applied > current.sequence()) {
+            snapshot.set(current.withChanges(staged.values(), applied, maxTombstones));
+            for (LoggedChange change : logged) {
+                changes.publish(change.sequence(), change.products());
+            }
+        }
+        if (applied >= leaderSequence) {
+            caughtUpAt = nanoClock.getAsLong();
+        }
+        if (broken) {
+            needsSnapshot = true;
+        } else if (ended) {
+            onEnded(error);
+        } else if (consumed > 0) {
+            connection.request(consumed);
+        }
+    }
+
+    private LoggedChange stage(LoggedRecord record, CatalogSnapshot current, Map<String, Change> staged) {
+        List<ProductChange> products = new ArrayList<>(record.changes().size());
+        for (LoggedProduct item : record.changes()) {
+            String id = item.product().getId();
+            ProductView before = SnapshotWriter.viewOf(id, current, staged);
+            if (item.type() == ChangeType.DELETED) {
+                staged.put(id, Change.deleted(id, record.sequence()));
+                if (before != null) {
+                    products.add(ProductChange.deleted(before));
+                }
+            } else {
+                Product product = decoder.apply(item.product());
+                staged.put(id, new Change(product, record.sequence()));
+                products.add(ProductChange.between(before, ProductView.from(product)));
+            }
+        }
+        return new LoggedChange(record.sequence(), products);
+    }
+
+    // The leader closed the log, timed out or answered with an error; 410 means it no longer has our position
+    private void onEnded(Throwable error) {
+        disconnect();
+        if (error instanceof WebClientResponseException.Gone) {
+            logger.warn("Leader {} no longer has the log after sequence {}; reloading its snapshot",
+                    leader, snapshot.get().sequence());
+            needsSnapshot = true;
+            return;
+        }
+        if (error != null) {
+            logger.warn("Lost the log of {}, resuming in {}: {}", leader, retryDelay, error.toString());
+        }
+        pause();
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(retryDelay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    // What a fresh snapshot changed: new and rewritten products by version, deleted ones by absence
+    static List<ProductChange> difference(CatalogSnapshot before, CatalogSnapshot after) {
+        List<ProductChange> changed = new ArrayList<>();
+        List<ProductView> products = after.all();
+        for (int position = 0; position < products.size(); position++) {
+            ProductView product = products.get(position);
+            VersionedProduct previous = before.versioned(product.id());
+            if (previous == null) {
+                changed.add(ProductChange.between(null, product));
+            } else if (previous.version() != after.versionAt(position)) {
+                changed.add(ProductChange.between(previous.product(), product));
+            }
+        }
+        for (ProductView product : before.all()) {
+            if (after.get(product.id()) == null) {
+                changed.add(ProductChange.deleted(product));
+            }
+        }
+        return changed;
+    }
+
+    // Hands the connection's frames to the follower thread, requesting only as many as it has consumed
+    private final class LogSubscriber extends BaseSubscriber<LoggedFrame> {
+
+        private final int id;
+        private final int prefetch;
+
+        private LogSubscriber(int id, int prefetch) {
+            this.id = id;
+            this.prefetch = prefetch;
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            subscription.request(prefetch);
+        }
+
+        @Override
+        protected void hookOnNext(LoggedFrame frame) {
+            queue.add(new Received(id, frame, false, null));
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            queue.add(new Received(id, null, true, null));
+        }
+
+        @Override
+        protected void hookOnError(Throwable error) {
+            queue.add(new Received(id, null, true, error));
+        }
+    }
+
+    private record Received(int connection, LoggedFrame frame, boolean ended, Throwable error) {
+    }
+
+    private record LoggedChange(long sequence, List<ProductChange> products) {
+    }
+
+    // ReplicationFrame as the leader serializes it; ProductDto is the shape products are read in
+    record LoggedFrame(LoggedRecord change, Long heartbeat) {
+    }
+
+    record LoggedRecord(long sequence, long previousSequence, List<LoggedProduct> changes) {
+    }
+
+    record LoggedProduct(ChangeType type, ProductDto product) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence;
+
+import com.meli.technical.exam.api.products.domain.model.CatalogChange;
+
+/*
+ * One line of the log a leader streams to its followers: either a change, exactly as the change stream
+ * publishes it, or a heartbeat carrying the leader's last log sequence, so an idle follower still knows
+ * it is caught up and a silent connection can be told from a dead one.
+ * */
+public record ReplicationFrame(
+        CatalogChange change,
+        Long heartbeat
+) {
+
+    // The catalog in checkpoint form, as of one log sequence
+    public static final String SNAPSHOT_PATH = "/internal/replication/snapshot";
+    // Frames after the since sequence, then live ones
+    public static final String LOG_PATH = "/internal/replication/log";
+
+    public static ReplicationFrame of(CatalogChange change) {
+        return new ReplicationFrame(change, null);
+    }
+
+    public static ReplicationFrame heartbeat(long lastSequence) {
+        return new ReplicationFrame(null, lastSequence);
+    }
+}
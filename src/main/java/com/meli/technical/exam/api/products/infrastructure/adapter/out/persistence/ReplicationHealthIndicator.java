@@ -0,0 +1,42 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/*
+ * The "replication" component of /actuator/health. A follower is out of service until it has loaded its
+ * leader's snapshot and whenever it lags more than app.products.replication.max-lag behind, so a load
+ * balancer checking health only sends reads to followers within that bound. A leader is always up here.
+ * */
+@Component
+public class ReplicationHealthIndicator implements HealthIndicator {
+
+    private final JsonProductRepository products;
+    private final Duration maxLag;
+
+    public ReplicationHealthIndicator(JsonProductRepository products,
+                                      @Value("${app.products.replication.max-lag:PT10S}") Duration maxLag) {
+        this.products = products;
+        this.maxLag = maxLag;
+    }
+
+    @Override
+    public Health health() {
+        ReplicationFollower follower = products.follower();
+        if (follower == null) {
+            return Health.up().withDetail("role", "leader").build();
+        }
+        Duration lag = follower.lag();
+        Health.Builder health = follower.bootstrapped() && lag.compareTo(maxLag) <= 0
+                ? Health.up() : Health.outOfService();
+        return health.withDetail("role", "follower")
+                .withDetail("leader", follower.leader())
+                .withDetail("lag", lag.toString())
+                .withDetail("lagRecords", follower.lagRecords())
+                .build();
+    }
+}
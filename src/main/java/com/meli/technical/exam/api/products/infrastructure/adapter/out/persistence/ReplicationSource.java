@@ -0,0 +1,38 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence;
+
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+
+/*
+ * The leader side of replication, what a ReplicationFollower reads from this instance: the current catalog
+ * in checkpoint form, then the changes after its sequence. A follower can lead others too, it serves the
+ * catalog and changes it has applied.
+ * */
+public final class ReplicationSource {
+
+    private final CheckpointStore checkpoints;
+    private final SnapshotPins pins;
+    private final ChangeFeed changes;
+
+    ReplicationSource(CheckpointStore checkpoints, SnapshotPins pins, ChangeFeed changes) {
+        this.checkpoints = checkpoints;
+        this.pins = pins;
+        this.changes = changes;
+    }
+
+    public void writeSnapshot(OutputStream out) throws IOException {
+        try (SnapshotPins.Lease lease = pins.current()) {
+            checkpoints.writeTo(lease.snapshot(), out);
+        }
+    }
+
+    // The changes after since, interleaved with a heartbeat of the last sequence every heartbeat
+    public Flux<ReplicationFrame> log(long since, Duration heartbeat) {
+        return Flux.merge(
+                changes.since(since).map(ReplicationFrame::of),
+                Flux.interval(heartbeat).map(tick -> ReplicationFrame.heartbeat(changes.lastSequence())));
+    }
+}
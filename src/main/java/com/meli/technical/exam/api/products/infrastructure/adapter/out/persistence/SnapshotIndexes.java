@@ -0,0 +1,110 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence;
+
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index.FacetIndex;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index.InvertedIndex;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index.PrefixIndex;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index.SimilarityIndex;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index.SortIndex;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index.ValueRanking;
+
+import java.util.Collection;
+import java.util.List;
+
+/*
+ * Read-side structures derived from one snapshot's product array. They address products by array position,
+ * so they are only meaningful next to the snapshot they were built for. A write edits the ID filter, search,
+ * facet, sort and best-value structures in place of a rebuild. The typeahead trie and the similarity buckets
+ * have no cheap edit. A full build makes them right away; after a write they are built on first use, unless
+ * the write changed none of the names, ratings or specifications they were built from and handed them on.
+ * */
+final class SnapshotIndexes {
+
+    static final SnapshotIndexes EMPTY = new SnapshotIndexes(BloomFilter.EMPTY, InvertedIndex.EMPTY, FacetIndex.EMPTY,
+            SortIndex.EMPTY, ValueRanking.EMPTY, List.of(), PrefixIndex.EMPTY, SimilarityIndex.EMPTY);
+
+    private final BloomFilter ids;
+    private final InvertedIndex search;
+    private final FacetIndex facets;
+    private final SortIndex sort;
+    private final ValueRanking value;
+    // Positions of the snapshot, null where a product was deleted; the lazy indexes are built from it
+    private final List<ProductView> products;
+    private volatile PrefixIndex suggest;
+    private volatile SimilarityIndex similar;
+
+    SnapshotIndexes(BloomFilter ids, InvertedIndex search, FacetIndex facets, SortIndex sort, ValueRanking value,
+                    List<ProductView> products, PrefixIndex suggest, SimilarityIndex similar) {
+        this.ids = ids;
+        this.search = search;
+        this.facets = facets;
+        this.sort = sort;
+        this.value = value;
+        this.products = products;
+        this.suggest = suggest;
+        this.similar = similar;
+    }
+
+    static SnapshotIndexes build(List<ProductView> products, Collection<String> ids) {
+        return new SnapshotIndexes(BloomFilter.of(ids), InvertedIndex.build(products), FacetIndex.build(products),
+                SortIndex.build(products), ValueRanking.build(products), products, PrefixIndex.build(products),
+                SimilarityIndex.build(products));
+    }
+
+    BloomFilter ids() {
+        return ids;
+    }
+
+    InvertedIndex search() {
+        return search;
+    }
+
+    PrefixIndex suggest() {
+        PrefixIndex built = suggest;
+        if (built == null) {
+            synchronized (this) {
+                built = suggest;
+                if (built == null) {
+                    built = PrefixIndex.build(products);
+                    suggest = built;
+                }
+            }
+        }
+        return built;
+    }
+
+    FacetIndex facets() {
+        return facets;
+    }
+
+    SortIndex sort() {
+        return sort;
+    }
+
+    ValueRanking value() {
+        return value;
+    }
+
+    SimilarityIndex similar() {
+        SimilarityIndex built = similar;
+        if (built == null) {
+            synchronized (this) {
+                built = similar;
+                if (built == null) {
+                    built = SimilarityIndex.build(products);
+                    similar = built;
+                }
+            }
+        }
+        return built;
+    }
+
+    // Already built, for a write to hand on; null when nobody has used it yet
+    PrefixIndex builtSuggest() {
+        return suggest;
+    }
+
+    SimilarityIndex builtSimilar() {
+        return similar;
+    }
+}
@@ -0,0 +1,228 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence;
+
+import com.meli.technical.exam.api.products.domain.exception.SnapshotExpiredException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/*
+ * Keeps older catalog snapshots readable for clients that page through the catalog while it changes. A
+ * snapshot is named by its log sequence, which is the token a read returns; reads with that token get
+ * the same snapshot back as long as it is pinned. Every pin counts the reads using it and remembers when
+ * it was last used; it is reclaimed once no read holds it and it has been idle for the TTL, and from then
+ * on the snapshot is garbage once the writer has moved on. Clients reading the same version share one
+ * pin, and at most maxPinned versions are kept: when all of them are in use a read still works, but its
+ * token only stays valid while the catalog does not change.
+ *
+ * Most clients never look past the first page, so firstPage() pins for the shorter firstPageTtl only. The
+ * first read with its token shows the client is paging and keeps the pin for the full TTL from then on.
+ * A first-page pin never takes the place of a paging one: when the pins are full, a first page goes
+ * unpinned, and a paging read reclaims the oldest first-page pin no read holds.
+ *
+ * Memory: a pinned version shares the products, postings, bitmaps and map shards that the writes after it
+ * left alone with the live catalog, and keeps its own per-position arrays (positions, versions, sort and
+ * best-value order, roughly 60 bytes a product) plus the products replaced since. maxPinned versions cost
+ * about maxPinned times that; a version pinned across a compaction or a reload holds a full set of
+ * indexes of its own, so the bound is maxPinned extra catalogs in the worst case.
+ * */
+final class SnapshotPins {
+
+    private final AtomicReference<CatalogSnapshot> current;
+    private final long ttlNanos;
+    private final long firstPageTtlNanos;
+    private final int maxPinned;
+    private final LongSupplier nanoClock;
+    private final Map<Long, Pin> pins = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep;
+
+    SnapshotPins(AtomicReference<CatalogSnapshot> current, Duration ttl, Duration firstPageTtl, int maxPinned) {
+        this(current, ttl, firstPageTtl, maxPinned, System::nanoTime);
+    }
+
+    SnapshotPins(AtomicReference<CatalogSnapshot> current, Duration ttl, Duration firstPageTtl, int maxPinned,
+                 LongSupplier nanoClock) {
+        this.current = current;
+        this.ttlNanos = ttl.toNanos();
+        this.firstPageTtlNanos = Math.min(firstPageTtl.toNanos(), ttlNanos);
+        this.maxPinned = maxPinned;
+        this.nanoClock = nanoClock;
+        this.nextSweep = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    // The snapshot of token, or the current one when token is null; the lease must be closed after the read
+    Lease acquire(String token) {
+        long now = nanoClock.getAsLong();
+        sweepIfDue(now);
+        CatalogSnapshot latest = current.get();
+        if (token == null) {
+            return pin(latest, now, true);
+        }
+        long sequence = parse(token);
+        Pin pin = pins.get(sequence);
+        if (pin != null && pin.retain(now, true)) {
+            return new Lease(pin.snapshot, pin);
+        }
+        if (latest.sequence() == sequence) {
+            return pin(latest, now, true);
+        }
+        throw SnapshotExpiredException.forToken(token);
+    }
+
+    // The current snapshot for a first page, pinned for firstPageTtl in case its token comes back
+    Lease firstPage() {
+        long now = nanoClock.getAsLong();
+        sweepIfDue(now);
+        return pin(current.get(), now, false);
+    }
+
+    // The current snapshot without a pin, for a read that is not known to be paging
+    Lease current() {
+        return new Lease(current.get(), null);
+    }
+
+    // Pins a snapshot read through current() once a client is going to page through it
+    void pin(CatalogSnapshot snapshot) {
+        pin(snapshot, nanoClock.getAsLong(), true).close();
+    }
+
+    int size() {
+        return pins.size();
+    }
+
+    // Drops the pins nobody holds that have been idle for the TTL
+    void sweep() {
+        long now = nanoClock.getAsLong();
+        pins.forEach((sequence, pin) -> {
+            if (pin.reclaimIfIdle(now)) {
+                pins.remove(sequence, pin);
+            }
+        });
+    }
+
+    private Lease pin(CatalogSnapshot snapshot, long now, boolean paging) {
+        while (true) {
+            Pin pin = pins.get(snapshot.sequence());
+            if (pin == null) {
+                if (pins.size() >= maxPinned) {
+                    sweep();
+                    if (pins.size() >= maxPinned && !(paging && reclaimFirstPage())) {
+                        return new Lease(snapshot, null);
+                    }
+                }
+                pin = pins.computeIfAbsent(snapshot.sequence(), sequence -> new Pin(snapshot));
+            }
+            if (pin.retain(now, paging)) {
+                return new Lease(pin.snapshot, pin);
+            }
+            // Reclaimed between the lookup and now
+            pins.remove(snapshot.sequence(), pin);
+        }
+    }
+
+    // The oldest pin only first pages have read, if no read holds it
+    private boolean reclaimFirstPage() {
+        return pins.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .filter(entry -> entry.getValue().reclaimIfFirstPage())
+                .findFirst()
+                .map(entry -> pins.remove(entry.getKey(), entry.getValue()))
+                .orElse(false);
+    }
+
+    // At most one sweep per first-page TTL, by whichever read gets there first
+    private void sweepIfDue(long now) {
+        long due = nextSweep.get();
+        if (now - due >= 0 && nextSweep.compareAndSet(due, now + firstPageTtlNanos)) {
+            sweep();
+        }
+    }
+
+    private static long parse(String token) {
+        try {
+            long sequence = Long.parseLong(token.trim());
+            if (sequence >= 0) {
+                return sequence;
+            }
+        } catch (NumberFormatException e) {
+            // rejected below
+        }
+        throw new IllegalArgumentException("Invalid snapshot token: " + token);
+    }
+
+    private final class Pin {
+
+        private final CatalogSnapshot snapshot;
+        private int references;
+        private long idleUntil;
+        // Set by the first read that is not a first page, never cleared
+        private boolean paging;
+        private boolean reclaimed;
+
+        private Pin(CatalogSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        synchronized boolean retain(long now, boolean pagingRead) {
+            if (reclaimed) {
+                return false;
+            }
+            paging |= pagingRead;
+            references++;
+            idleUntil = now + idleTtl();
+            return true;
+        }
+
+        synchronized void release(long now) {
+            references--;
+            idleUntil = now + idleTtl();
+        }
+
+        synchronized boolean reclaimIfFirstPage() {
+            if (references == 0 && !paging) {
+                reclaimed = true;
+            }
+            return reclaimed;
+        }
+
+        synchronized boolean reclaimIfIdle(long now) {
+            if (references == 0 && now - idleUntil >= 0) {
+                reclaimed = true;
+            }
+            return reclaimed;
+        }
+
+        private long idleTtl() {
+            return paging ? ttlNanos : firstPageTtlNanos;
+        }
+    }
+
+    final class Lease implements AutoCloseable {
+
+        private final CatalogSnapshot snapshot;
+        private final Pin pin;
+
+        private Lease(CatalogSnapshot snapshot, Pin pin) {
+            this.snapshot = snapshot;
+            this.pin = pin;
+        }
+
+        CatalogSnapshot snapshot() {
+            return snapshot;
+        }
+
+        String token() {
+            return Long.toString(snapshot.sequence());
+        }
+
+        @Override
+        public void close() {
+            if (pin != null) {
+                pin.release(nanoClock.getAsLong());
+            }
+        }
+    }
+}
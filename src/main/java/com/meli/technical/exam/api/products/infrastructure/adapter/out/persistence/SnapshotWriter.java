@@ -0,0 +1,423 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence;
+
+import com.meli.technical.exam.api.products.domain.exception.ProductAlreadyExistsException;
+import com.meli.technical.exam.api.products.domain.exception.ProductDataException;
+import com.meli.technical.exam.api.products.domain.exception.ProductNotFoundException;
+import com.meli.technical.exam.api.products.domain.exception.ProductVersionMismatchException;
+import com.meli.technical.exam.api.products.domain.model.ImportBatchResult;
+import com.meli.technical.exam.api.products.domain.model.Product;
+import com.meli.technical.exam.api.products.domain.model.ProductChange;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.domain.model.VersionedProduct;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.CatalogSnapshot.Change;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal.WalOperation;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal.WalRecord;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal.WriteAheadLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/*
+ * The only thread that changes the catalog after startup. Writes queue up while a batch is being
+ * committed; the next batch takes all of them (up to maxBatch), appends one log record each, pays a
+ * single fsync and then publishes one new snapshot with all of them applied. A write is acknowledged
+ * only after its record is durable and its snapshot is visible, so a reader that gets the response
+ * can read its own write. Create/update checks, including an update's expected version, run here too,
+ * against the snapshot plus the batch so far, which is what makes them race free: a compare-and-set
+ * needs no lock because nothing else writes. Each product's version is the sequence of its record. An
+ * import batch is a single write of many products, creating new IDs and replacing existing ones. It is
+ * logged as one record, or as several when it does not fit under the log's record size limit, and
+ * applied to the snapshot all or nothing at the sequence of its last record. Replay waits for that
+ * record as well, so a crash between its records does not bring back part of it (see BatchAssembler). A
+ * delete logs the ID alone and leaves a tombstone in the snapshot, at most maxTombstones of them are kept.
+ * Once a snapshot is published, every write in it goes to the change feed, in log order. A batch that
+ * fails before its snapshot is published (the fsync, or anything thrown after its first append) is
+ * truncated out of the log again, so neither a later fsync nor a restart brings back writes that were
+ * reported as failed. If even that fails the writer stops.
+ * */
+final class SnapshotWriter implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotWriter.class);
+    private static final long POLL_MILLIS = 100;
+    // Room a split batch's records keep for their product ID, a sequence in decimal
+    private static final int BATCH_ID_BYTES = 20;
+
+    private final WriteAheadLog log;
+    private final AtomicReference<CatalogSnapshot> snapshot;
+    private final Function<Product, byte[]> encoder;
+    private final int maxBatch;
+    private final int maxTombstones;
+    private final int maxRecordBytes;
+    private final ChangeFeed changes;
+    private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    SnapshotWriter(WriteAheadLog log, AtomicReference<CatalogSnapshot> snapshot,
+                   Function<Product, byte[]> encoder, int maxBatch, int maxTombstones, ChangeFeed changes) {
+        this(log, snapshot, encoder, maxBatch, maxTombstones,
+                WriteAheadLog.MAX_PAYLOAD_BYTES - BATCH_ID_BYTES, changes);
+    }
+
+    // maxRecordBytes caps the packed payload of one UPSERT_BATCH or UPSERT_BATCH_PART record
+    SnapshotWriter(WriteAheadLog log, AtomicReference<CatalogSnapshot> snapshot, Function<Product, byte[]> encoder,
+                   int maxBatch, int maxTombstones, int maxRecordBytes, ChangeFeed changes) {
+        this.log = log;
+        this.snapshot = snapshot;
+        this.encoder = encoder;
+        this.maxBatch = maxBatch;
+        this.maxTombstones = maxTombstones;
+        this.maxRecordBytes = maxRecordBytes;
+        this.changes = changes;
+        this.thread = new Thread(this::run, "product-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    CompletableFuture<VersionedProduct> submit(WriteKind kind, Product product) {
+        return submit(kind, product, VersionedProduct.ANY_VERSION);
+    }
+
+    // expectedVersion is only checked for updates
+    CompletableFuture<VersionedProduct> submit(WriteKind kind, Product product, long expectedVersion) {
+        SingleWrite write = new SingleWrite(kind, product, expectedVersion, new CompletableFuture<>());
+        enqueue(write);
+        return write.result();
+    }
+
+    // expectedVersion is checked unless it is VersionedProduct.ANY_VERSION
+    CompletableFuture<Void> submitDelete(String id, long expectedVersion) {
+        DeleteWrite write = new DeleteWrite(id, expectedVersion, new CompletableFuture<>());
+        enqueue(write);
+        return write.result();
+    }
+
+    CompletableFuture<ImportBatchResult> submitImport(List<Product> products) {
+        ImportWrite write = new ImportWrite(products, new CompletableFuture<>());
+        enqueue(write);
+        return write.result();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        PendingWrite write;
+        while ((write = queue.poll()) != null) {
+            write.fail(closed());
+        }
+        log.close();
+    }
+
+    private void enqueue(PendingWrite write) {
+        if (!running) {
+            write.fail(closed());
+            return;
+        }
+        queue.add(write);
+        // Stopped in between, nothing is going to take it off the queue any more
+        if (!running && queue.remove(write)) {
+            write.fail(closed());
+        }
+    }
+
+    private void run() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                PendingWrite first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Product write batch failed", e);
+                batch.forEach(write -> write.fail(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingWrite> batch) {
+        WriteAheadLog.Position start;
+        try {
+            start = log.position();
+        } catch (IOException e) {
+            ProductDataException failure = new ProductDataException("Failed to roll the product log", e);
+            batch.forEach(write -> write.fail(failure));
+            return;
+        }
+        CatalogSnapshot current = snapshot.get();
+        Map<String, Change> staged = new LinkedHashMap<>();
+        List<PendingWrite> accepted = new ArrayList<>(batch.size());
+        Map<ImportWrite, ImportBatchResult> imported = new IdentityHashMap<>();
+        List<LoggedChange> logged = new ArrayList<>(batch.size());
+        CatalogSnapshot next;
+        try {
+            for (PendingWrite write : batch) {
+                boolean appended;
+                if (write instanceof SingleWrite single) {
+                    appended = stage(single, current, staged, logged);
+                } else if (write instanceof DeleteWrite delete) {
+                    appended = stage(delete, current, staged, logged);
+                } else {
+                    appended = stage((ImportWrite) write, current, staged, imported, logged);
+                }
+                if (appended) {
+                    accepted.add(write);
+                }
+            }
+            if (accepted.isEmpty()) {
+                return;
+            }
+            try {
+                log.sync();
+            } catch (IOException e) {
+                discard(start);
+                ProductDataException failure = new ProductDataException("Failed to sync the product log", e);
+                accepted.forEach(write -> write.fail(failure));
+                return;
+            }
+            next = current.withChanges(staged.values(), log.lastSequence(), maxTombstones);
+        } catch (RuntimeException e) {
+            discard(start);
+            throw e;
+        }
+        snapshot.set(next);
+        for (LoggedChange change : logged) {
+            changes.publish(change.sequence(), change.products());
+        }
+        for (PendingWrite write : accepted) {
+            if (write instanceof SingleWrite single) {
+                single.result().complete(next.versioned(single.product().getId().getValue()));
+            } else if (write instanceof DeleteWrite delete) {
+                delete.result().complete(null);
+            } else {
+                ImportWrite importWrite = (ImportWrite) write;
+                importWrite.result().complete(imported.get(importWrite));
+            }
+        }
+    }
+
+    // Takes an unpublished batch back out of the log; a log that cannot be put back in order stops the writer
+    private void discard(WriteAheadLog.Position start) {
+        try {
+            log.truncateTo(start);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to truncate the product log back to sequence {}, no longer accepting writes",
+                    start.sequence(), e);
+            running = false;
+            PendingWrite write;
+            while ((write = queue.poll()) != null) {
+                write.fail(closed());
+            }
+        }
+    }
+
+    // Checks the precondition and appends the record; false when the write already failed
+    private boolean stage(SingleWrite write, CatalogSnapshot current, Map<String, Change> staged,
+                          List<LoggedChange> logged) {
+        String id = write.product().getId().getValue();
+        long version = versionOf(id, current, staged);
+        if (write.kind() == WriteKind.CREATE && version >= 0) {
+            write.fail(ProductAlreadyExistsException.forId(id));
+            return false;
+        }
+        if (write.kind() == WriteKind.UPDATE && version < 0) {
+            write.fail(ProductNotFoundException.forId(id));
+            return false;
+        }
+        if (write.kind() == WriteKind.UPDATE && write.expectedVersion() != VersionedProduct.ANY_VERSION
+                && write.expectedVersion() != version) {
+            write.fail(ProductVersionMismatchException.forId(id, write.expectedVersion(), version));
+            return false;
+        }
+        long sequence;
+        try {
+            sequence = log.append(WalOperation.UPSERT, id, encoder.apply(write.product()));
+        } catch (IOException | RuntimeException e) {
+            write.fail(new ProductDataException("Failed to log product " + id, e));
+            return false;
+        }
+        ProductView before = viewOf(id, current, staged);
+        staged.put(id, new Change(write.product(), sequence));
+        logged.add(new LoggedChange(sequence, List.of(ProductChange.between(before, ProductView.from(write.product())))));
+        return true;
+    }
+
+    private boolean stage(DeleteWrite write, CatalogSnapshot current, Map<String, Change> staged,
+                          List<LoggedChange> logged) {
+        String id = write.id();
+        long version = versionOf(id, current, staged);
+        if (version < 0) {
+            write.fail(ProductNotFoundException.forId(id));
+            return false;
+        }
+        if (write.expectedVersion() != VersionedProduct.ANY_VERSION && write.expectedVersion() != version) {
+            write.fail(ProductVersionMismatchException.forId(id, write.expectedVersion(), version));
+            return false;
+        }
+        long sequence;
+        try {
+            sequence = log.append(WalOperation.DELETE, id, new byte[0]);
+        } catch (IOException | RuntimeException e) {
+            write.fail(new ProductDataException("Failed to log the deletion of product " + id, e));
+            return false;
+        }
+        ProductView before = viewOf(id, current, staged);
+        staged.put(id, Change.deleted(id, sequence));
+        logged.add(new LoggedChange(sequence, List.of(ProductChange.deleted(before))));
+        return true;
+    }
+
+    // -1 when the product exists neither in the batch so far nor in the snapshot
+    private static long versionOf(String id, CatalogSnapshot current, Map<String, Change> staged) {
+        Change change = staged.get(id);
+        if (change != null) {
+            return change.deleted() ? -1 : change.version();
+        }
+        VersionedProduct existing = current.versioned(id);
+        return existing != null ? existing.version() : -1;
+    }
+
+    // null when the product exists neither in the batch so far nor in the snapshot
+    static ProductView viewOf(String id, CatalogSnapshot current, Map<String, Change> staged) {
+        Change change = staged.get(id);
+        if (change != null) {
+            return change.deleted() ? null : ProductView.from(change.product());
+        }
+        return current.get(id);
+    }
+
+    /*
+     * Logs the products in one UPSERT_BATCH record, or in UPSERT_BATCH_PART records closed by an
+     * UPSERT_BATCH when they need more than maxRecordBytes; all of them share this batch's fsync and
+     * snapshot. The products' version and their change are the sequence of the last record, which is
+     * where replay applies them. When one cannot be logged, the ones logged before it are taken back.
+     * */
+    private boolean stage(ImportWrite write, CatalogSnapshot current, Map<String, Change> staged,
+                          Map<ImportWrite, ImportBatchResult> imported, List<LoggedChange> logged) {
+        List<Product> products = write.products();
+        long sequence;
+        Set<String> seen = new HashSet<>();
+        int created = 0;
+        WriteAheadLog.Position start = null;
+        try {
+            start = log.position();
+            // Every record of a split batch names its first one
+            String batchId = Long.toString(log.lastSequence() + 1);
+            boolean split = false;
+            List<byte[]> payloads = new ArrayList<>();
+            long packedBytes = Integer.BYTES;
+            for (int i = 0; i < products.size(); i++) {
+                String id = products.get(i).getId().getValue();
+                if (seen.add(id) && versionOf(id, current, staged) < 0) {
+                    created++;
+                }
+                byte[] payload = encoder.apply(products.get(i));
+                if (!payloads.isEmpty() && packedBytes + Integer.BYTES + payload.length > maxRecordBytes) {
+                    log.append(WalOperation.UPSERT_BATCH_PART, batchId, WalRecord.pack(payloads));
+                    split = true;
+                    payloads.clear();
+                    packedBytes = Integer.BYTES;
+                }
+                payloads.add(payload);
+                packedBytes += Integer.BYTES + payload.length;
+            }
+            sequence = log.append(WalOperation.UPSERT_BATCH, split ? batchId : "", WalRecord.pack(payloads));
+        } catch (IOException | RuntimeException e) {
+            if (start != null) {
+                truncateTo(start);
+            }
+            write.fail(new ProductDataException("Failed to log an import batch of " + products.size() + " products", e));
+            return false;
+        }
+        List<ProductChange> changed = new ArrayList<>(products.size());
+        for (Product product : products) {
+            String id = product.getId().getValue();
+            ProductView before = viewOf(id, current, staged);
+            staged.put(id, new Change(product, sequence));
+            changed.add(ProductChange.between(before, ProductView.from(product)));
+        }
+        logged.add(new LoggedChange(sequence, changed));
+        imported.put(write, new ImportBatchResult(created, seen.size() - created));
+        return true;
+    }
+
+    // Failing here fails the whole batch, which then tries once more before it stops the writer
+    private void truncateTo(WriteAheadLog.Position position) {
+        try {
+            log.truncateTo(position);
+        } catch (IOException e) {
+            throw new ProductDataException("Failed to truncate the product log back to sequence " + position.sequence(), e);
+        }
+    }
+
+    private static ProductDataException closed() {
+        return new ProductDataException("Product store is closed", null);
+    }
+
+    enum WriteKind {
+        CREATE, UPDATE
+    }
+
+    private record LoggedChange(long sequence, List<ProductChange> products) {
+    }
+
+    private sealed interface PendingWrite permits SingleWrite, DeleteWrite, ImportWrite {
+
+        void fail(Throwable error);
+    }
+
+    private record SingleWrite(WriteKind kind, Product product, long expectedVersion,
+                               CompletableFuture<VersionedProduct> result) implements PendingWrite {
+
+        @Override
+        public void fail(Throwable error) {
+            result.completeExceptionally(error);
+        }
+    }
+
+    private record DeleteWrite(String id, long expectedVersion, CompletableFuture<Void> result)
+            implements PendingWrite {
+
+        @Override
+        public void fail(Throwable error) {
+            result.completeExceptionally(error);
+        }
+    }
+
+    private record ImportWrite(List<Product> products, CompletableFuture<ImportBatchResult> result)
+            implements PendingWrite {
+
+        @Override
+        public void fail(Throwable error) {
+            result.completeExceptionally(error);
+        }
+    }
+}
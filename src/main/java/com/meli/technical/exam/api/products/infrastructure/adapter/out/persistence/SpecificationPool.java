@@ -0,0 +1,153 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence;
+
+import com.meli.technical.exam.api.products.domain.model.Specification;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index.ShardedMap;
+
+import java.util.Map;
+
+/*
+ * The shared Specification instances and spec strings of one snapshot, each with the number of products
+ * (for strings, distinct specifications) using it. A write shares a new product's specifications with the
+ * catalog through it and lets go of the ones the last product using them dropped, copying only the shards
+ * it touches. The stats move with every acquire and release, so they stay what a StringPool would report
+ * for loading the current catalog at once. Only used by the single writer.
+ * */
+final class SpecificationPool {
+
+    static final SpecificationPool EMPTY = new SpecificationPool(ShardedMap.empty(), ShardedMap.empty(), StringPoolStats.EMPTY);
+
+    // 12 byte header + two compressed references, padded to 8
+    static final int SPECIFICATION_BYTES = 24;
+
+    private final ShardedMap<Specification, Shared<Specification>> specifications;
+    private final ShardedMap<String, Shared<String>> strings;
+    private final StringPoolStats stats;
+
+    private SpecificationPool(ShardedMap<Specification, Shared<Specification>> specifications,
+                              ShardedMap<String, Shared<String>> strings, StringPoolStats stats) {
+        this.specifications = specifications;
+        this.strings = strings;
+        this.stats = stats;
+    }
+
+    // uses maps each canonical instance to the number of products holding it, stats is what the load reported
+    static SpecificationPool of(Map<Specification, Integer> uses, StringPoolStats stats) {
+        ShardedMap<Specification, Shared<Specification>>.Editor specifications = ShardedMap.<Specification, Shared<Specification>>empty().edit();
+        ShardedMap<String, Shared<String>>.Editor strings = ShardedMap.<String, Shared<String>>empty().edit();
+        uses.forEach((specification, count) -> {
+            specifications.put(specification, new Shared<>(specification, count));
+            use(strings, specification.getKey());
+            use(strings, specification.getValue());
+        });
+        return new SpecificationPool(specifications.build(), strings.build(), stats);
+    }
+
+    StringPoolStats stats() {
+        return stats;
+    }
+
+    Editor edit() {
+        return new Editor();
+    }
+
+    private static void use(ShardedMap<String, Shared<String>>.Editor strings, String value) {
+        if (value != null) {
+            Shared<String> shared = strings.get(value);
+            strings.put(value, shared == null ? new Shared<>(value, 1) : shared.plus(1));
+        }
+    }
+
+    private record Shared<T>(T value, int uses) {
+
+        Shared<T> plus(int delta) {
+            return new Shared<>(value, uses + delta);
+        }
+    }
+
+    final class Editor {
+
+        private final ShardedMap<Specification, Shared<Specification>>.Editor editedSpecifications = specifications.edit();
+        private final ShardedMap<String, Shared<String>>.Editor editedStrings = strings.edit();
+        private long lookups = stats.lookups();
+        private long deduplicated = stats.deduplicated();
+        private long savedBytes = stats.savedBytes();
+
+        // The catalog's instance of an equal specification, or this one with shared strings when it is new
+        Specification acquire(Specification specification) {
+            Shared<Specification> shared = editedSpecifications.get(specification);
+            if (shared != null) {
+                editedSpecifications.put(shared.value(), shared.plus(1));
+                deduplicated++;
+                savedBytes += bytesOf(specification);
+                return shared.value();
+            }
+            String key = acquire(specification.getKey());
+            String value = acquire(specification.getValue());
+            Specification canonical = key == specification.getKey() && value == specification.getValue()
+                    ? specification : new Specification(key, value);
+            editedSpecifications.put(canonical, new Shared<>(canonical, 1));
+            return canonical;
+        }
+
+        // For every specification of a product that leaves the catalog or is replaced
+        void release(Specification specification) {
+            Shared<Specification> shared = editedSpecifications.get(specification);
+            if (shared == null) {
+                return;
+            }
+            if (shared.uses() > 1) {
+                editedSpecifications.put(shared.value(), shared.plus(-1));
+                deduplicated--;
+                savedBytes -= bytesOf(specification);
+                return;
+            }
+            editedSpecifications.remove(specification);
+            release(specification.getKey());
+            release(specification.getValue());
+        }
+
+        SpecificationPool build() {
+            StringPoolStats edited = new StringPoolStats(lookups, editedStrings.size(), deduplicated, savedBytes);
+            return new SpecificationPool(editedSpecifications.build(), editedStrings.build(), edited);
+        }
+
+        private String acquire(String value) {
+            if (value == null) {
+                return null;
+            }
+            lookups++;
+            Shared<String> shared = editedStrings.get(value);
+            if (shared == null) {
+                editedStrings.put(value, new Shared<>(value, 1));
+                return value;
+            }
+            editedStrings.put(shared.value(), shared.plus(1));
+            deduplicated++;
+            savedBytes += StringPool.retainedBytes(value);
+            return shared.value();
+        }
+
+        private void release(String value) {
+            if (value == null) {
+                return;
+            }
+            lookups--;
+            Shared<String> shared = editedStrings.get(value);
+            if (shared == null) {
+                return;
+            }
+            if (shared.uses() > 1) {
+                editedStrings.put(shared.value(), shared.plus(-1));
+                deduplicated--;
+                savedBytes -= StringPool.retainedBytes(value);
+            } else {
+                editedStrings.remove(value);
+            }
+        }
+
+        private long bytesOf(Specification specification) {
+            return SPECIFICATION_BYTES + StringPool.retainedBytes(specification.getKey())
+                    + StringPool.retainedBytes(specification.getValue());
+        }
+    }
+}
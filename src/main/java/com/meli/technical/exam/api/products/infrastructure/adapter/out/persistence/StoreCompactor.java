@@ -0,0 +1,92 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence;
+
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal.WriteAheadLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+ * Keeps startup replay short. Every interval the current snapshot is written out as a checkpoint and the
+ * log segments it covers are deleted. Snapshots are immutable, so this runs on its own thread next to
+ * readers and the writer without taking any lock they use. Each step is safe to interrupt: the checkpoint
+ * replaces the old one atomically and segments are only deleted after the checkpoint covering them is
+ * durable, so a crash at any point leaves a checkpoint plus a log that replays to the same catalog.
+ * The change history moves on to the new checkpoint before its segments go, see LogHistory.
+ * */
+final class StoreCompactor implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(StoreCompactor.class);
+
+    private final CheckpointStore checkpoints;
+    private final WriteAheadLog log;
+    private final LogHistory history;
+    private final AtomicReference<CatalogSnapshot> snapshot;
+    private final ScheduledExecutorService scheduler;
+    private long checkpointedSequence;
+
+    StoreCompactor(CheckpointStore checkpoints, WriteAheadLog log, LogHistory history,
+                   AtomicReference<CatalogSnapshot> snapshot, long checkpointedSequence, Duration interval) {
+        this.checkpoints = checkpoints;
+        this.log = log;
+        this.history = history;
+        this.snapshot = snapshot;
+        this.checkpointedSequence = checkpointedSequence;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "product-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::compactQuietly, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    // Returns the number of deleted log segments; the checkpoint is skipped when nothing was written since the last one
+    synchronized int compact() throws IOException {
+        CatalogSnapshot current = snapshot.get();
+        if (current.sequence() > checkpointedSequence) {
+            long start = System.nanoTime();
+            checkpoints.write(current);
+            checkpointedSequence = current.sequence();
+            history.rebase(current);
+            logger.info("Checkpointed {} products at log sequence {} in {} ms", current.size(), current.sequence(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        int deleted = log.deleteSegmentsThrough(checkpointedSequence);
+        if (deleted > 0) {
+            logger.info("Deleted {} log segments covered by the checkpoint at sequence {}", deleted, checkpointedSequence);
+        }
+        return deleted;
+    }
+
+    synchronized long checkpointedSequence() {
+        return checkpointedSequence;
+    }
+
+    // Stops the schedule and takes a last checkpoint, so the next start has nothing to replay
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        compactQuietly();
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (IOException | RuntimeException e) {
+            // The log still has every record, the next run tries again
+            logger.error("Product store compaction failed", e);
+        }
+    }
+}
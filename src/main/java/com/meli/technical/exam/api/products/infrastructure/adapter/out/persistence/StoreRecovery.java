@@ -0,0 +1,185 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.application.mapper.ProductMapper;
+import com.meli.technical.exam.api.products.domain.exception.ProductDataException;
+import com.meli.technical.exam.api.products.domain.model.Product;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.partition.ProductPartition;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.CatalogSnapshot.Change;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal.BatchAssembler;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal.WalOperation;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal.WalRecord;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal.WriteAheadLog;
+import com.meli.technical.exam.api.products.infrastructure.jfr.ProductFlightRecorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Brings a leader's store back at startup: the latest checkpoint, or the classpath JSON file before the
+ * first one, then the write-ahead log after it. The JSON file is the initial catalog and is never
+ * rewritten; in a partitioned catalog only the products of it this instance owns are loaded. Also holds
+ * the JSON form products take in log records, for the writer appending them and for whatever reads the
+ * log back.
+ * */
+final class StoreRecovery {
+
+    private static final Logger logger = LoggerFactory.getLogger(StoreRecovery.class);
+    private static final String PRODUCTS_DATA_PATH = "data/products.json";
+
+    private final ObjectMapper objectMapper;
+    private final ProductMapper productMapper;
+    private final ProductFlightRecorder flightRecorder;
+    private final CheckpointStore checkpoints;
+
+    StoreRecovery(ObjectMapper objectMapper, ProductMapper productMapper, ProductFlightRecorder flightRecorder,
+                  CheckpointStore checkpoints) {
+        this.objectMapper = objectMapper;
+        this.productMapper = productMapper;
+        this.flightRecorder = flightRecorder;
+        this.checkpoints = checkpoints;
+    }
+
+    // The log is left open for appends after its last record
+    Recovered recover(ProductPartition partition, Path directory, long segmentBytes, int maxTombstones) {
+        CatalogSnapshot checkpointed = checkpoints.exists() ? loadCheckpoint() : loadFile(partition);
+        return replayLog(checkpointed, directory, segmentBytes, maxTombstones);
+    }
+
+    byte[] encode(Product product) {
+        try {
+            return objectMapper.writeValueAsBytes(productMapper.toDto(product));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // null for a record that cannot be read any more
+    Product decode(WalRecord record, byte[] payload) {
+        try {
+            return productMapper.toDomain(objectMapper.readValue(payload, ProductDto.class));
+        } catch (IOException | RuntimeException e) {
+            // Skipping keeps the service up if validation rules changed since the record was written
+            logger.error("Skipping unreadable log record {} for product {}", record.sequence(), record.productId(), e);
+            return null;
+        }
+    }
+
+    // The checkpoint already contains the JSON file and every write up to its sequence
+    private CatalogSnapshot loadCheckpoint() {
+        ProductFlightRecorder.CountRecording reload = flightRecorder.beginSnapshotReload(checkpoints.file().toString());
+        CatalogSnapshot loaded = CatalogSnapshot.EMPTY;
+        try {
+            CheckpointStore.Checkpoint checkpoint = checkpoints.load();
+            List<Product> products = new ArrayList<>(checkpoint.products().size());
+            for (ProductDto dto : checkpoint.products()) {
+                products.add(productMapper.toDomain(dto));
+            }
+            loaded = CatalogSnapshot.of(products, checkpoint.versions(), checkpoint.tombstones(),
+                    checkpoint.tombstoneFloor(), checkpoint.sequence());
+            logger.info("Loaded checkpoint at log sequence {} from {}", loaded.sequence(), checkpoints.file());
+            logLoaded(loaded);
+            return loaded;
+        } catch (IOException e) {
+            throw new ProductDataException("Failed to load the product checkpoint " + checkpoints.file(), e);
+        } finally {
+            reload.end(loaded.size());
+        }
+    }
+
+    private CatalogSnapshot loadFile(ProductPartition partition) {
+        ProductFlightRecorder.CountRecording reload = flightRecorder.beginSnapshotReload("classpath:" + PRODUCTS_DATA_PATH);
+        CatalogSnapshot loaded = CatalogSnapshot.EMPTY;
+        try {
+            ClassPathResource resource = new ClassPathResource(PRODUCTS_DATA_PATH);
+
+            if (!resource.exists()) {
+                logger.warn("Products file not found: {}. Using empty dataset.", PRODUCTS_DATA_PATH);
+                return loaded;
+            }
+
+            try (InputStream inputStream = resource.getInputStream()) {
+                List<ProductDto> productDtos = objectMapper.readValue(
+                    inputStream,
+                    new TypeReference<List<ProductDto>>() {}
+                );
+
+                List<Product> products = new ArrayList<>(productDtos.size());
+                for (ProductDto dto : productDtos) {
+                    if (partition.owns(dto.getId())) {
+                        products.add(productMapper.toDomain(dto));
+                    }
+                }
+                loaded = CatalogSnapshot.of(products);
+                logLoaded(loaded);
+                return loaded;
+            }
+
+        } catch (IOException e) {
+            throw new ProductDataException("Failed to initialize product data", e);
+        } finally {
+            reload.end(loaded.size());
+        }
+    }
+
+    /*
+     * Replays the log after the loaded sequence; the last record of an ID wins, new IDs keep their creation
+     * order. An import batch cut off by a crash before its last record is left out.
+     * */
+    private Recovered replayLog(CatalogSnapshot loaded, Path directory, long segmentBytes, int maxTombstones) {
+        Map<String, Change> replayed = new LinkedHashMap<>();
+        BatchAssembler batches = new BatchAssembler(records -> replay(records, replayed), records -> { });
+        try {
+            WriteAheadLog log = WriteAheadLog.open(directory, segmentBytes, loaded.sequence(), batches::accept);
+            batches.end();
+            CatalogSnapshot current = log.lastSequence() > loaded.sequence()
+                    ? loaded.withChanges(replayed.values(), log.lastSequence(), maxTombstones) : loaded;
+            logger.info("Replayed {} logged products from {}, last sequence {}", replayed.size(), directory, log.lastSequence());
+            return new Recovered(loaded, current, log);
+        } catch (IOException e) {
+            throw new ProductDataException("Failed to recover the product log in " + directory, e);
+        }
+    }
+
+    // One write: a record, or the records of a split import batch, all at the sequence of the last one
+    private void replay(List<WalRecord> records, Map<String, Change> replayed) {
+        long sequence = records.get(records.size() - 1).sequence();
+        for (WalRecord record : records) {
+            if (record.operation() == WalOperation.DELETE) {
+                replayed.put(record.productId(), Change.deleted(record.productId(), sequence));
+                continue;
+            }
+            for (byte[] payload : record.productPayloads()) {
+                Product product = decode(record, payload);
+                if (product != null) {
+                    replayed.put(product.getId().getValue(), new Change(product, sequence));
+                }
+            }
+        }
+    }
+
+    private static void logLoaded(CatalogSnapshot loaded) {
+        StringPoolStats strings = loaded.stringPoolStats();
+        logger.info("Loaded {} products. Specifications: {} strings looked up, {} unique, {} duplicates dropped, ~{} KB of heap saved",
+                loaded.size(), strings.lookups(), strings.unique(), strings.deduplicated(), strings.savedBytes() / 1024);
+        SnapshotIndexes indexes = loaded.indexes();
+        logger.debug("ID Bloom filter: {} bits, {} hashes", indexes.ids().bitCount(), indexes.ids().hashCount());
+        logger.info("Search index: {} terms, {} KB of postings. Typeahead trie: {} nodes",
+                indexes.search().termCount(), indexes.search().postingBytes() / 1024, indexes.suggest().nodeCount());
+    }
+
+    // checkpointed is what was loaded before the log was replayed on top of it into current
+    record Recovered(CatalogSnapshot checkpointed, CatalogSnapshot current, WriteAheadLog log) {
+    }
+}
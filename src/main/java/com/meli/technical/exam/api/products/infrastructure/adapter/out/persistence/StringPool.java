@@ -0,0 +1,80 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Load-time canonicalizing map for strings that repeat across products (spec keys like "RAM" and values
+ * like "256GB"). Unlike String.intern() it is a plain HashMap that is dropped with the snapshot builder,
+ * and it counts what it saved so the effect can be reported.
+ * Not thread-safe, it is only used while a snapshot is being built.
+ * */
+final class StringPool {
+
+    // Compressed oops layout: 12 byte header + hash/coder/flags + value reference, padded to 8
+    private static final int STRING_SHALLOW_BYTES = 24;
+    // byte[] header including the length field
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private final Map<String, String> pool = new HashMap<>();
+    private long lookups;
+    private long deduplicated;
+    private long savedBytes;
+
+    String canonical(String value) {
+        return pool(value, false);
+    }
+
+    /*
+     * For strings that are already shared, such as those of an earlier snapshot's products. Every repeat
+     * counts as a duplicate even when it is the same instance, because the pool that first shared it dropped
+     * a copy for it, so rebuilding from shared strings reports what the original load did.
+     * */
+    String share(String value) {
+        return pool(value, true);
+    }
+
+    private String pool(String value, boolean alreadyShared) {
+        if (value == null) {
+            return null;
+        }
+        lookups++;
+        String existing = pool.putIfAbsent(value, value);
+        if (existing == null) {
+            return value;
+        }
+        if (alreadyShared || existing != value) {
+            deduplicated++;
+            savedBytes += retainedBytes(value);
+        }
+        return existing;
+    }
+
+    // Lets callers account for their own flyweights (e.g. shared Specification instances) in the same report
+    void recordShared(long bytes) {
+        deduplicated++;
+        savedBytes += bytes;
+    }
+
+    StringPoolStats stats() {
+        return new StringPoolStats(lookups, pool.size(), deduplicated, savedBytes);
+    }
+
+    static long retainedBytes(String value) {
+        if (value == null) {
+            return 0;
+        }
+        int bytesPerChar = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        return STRING_SHALLOW_BYTES + align(ARRAY_HEADER_BYTES + (long) value.length() * bytesPerChar);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
@@ -0,0 +1,16 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence;
+
+/*
+ * What the load-time dedup pool did for one snapshot: how many strings went through it, how many distinct
+ * ones are retained, how many duplicates (strings and shared Specification instances) were dropped and the
+ * estimated heap those duplicates would have retained.
+ * */
+public record StringPoolStats(
+        long lookups,
+        int unique,
+        long deduplicated,
+        long savedBytes
+) {
+
+    static final StringPoolStats EMPTY = new StringPoolStats(0, 0, 0, 0);
+}
@@ -0,0 +1,117 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index;
+
+import java.util.Arrays;
+
+/*
+ * Set of snapshot positions as a plain long[], one bit per product. Unlike java.util.BitSet it can count
+ * an intersection without materializing it, which is what facet counting does for every facet value.
+ * Bitmaps held by an index are never modified after the index is built, a write works on a copy().
+ * Bitmaps of different lengths combine as if the shorter one were padded with zeros, so an index can keep
+ * the bitmaps a write did not touch at the size they were built with.
+ * */
+public final class Bitmap {
+
+    private final long[] words;
+
+    private Bitmap(long[] words) {
+        this.words = words;
+    }
+
+    public static Bitmap empty(int size) {
+        return new Bitmap(new long[wordCount(size)]);
+    }
+
+    public static Bitmap full(int size) {
+        Bitmap bitmap = empty(size);
+        Arrays.fill(bitmap.words, -1L);
+        int tail = size & 63;
+        if (tail != 0) {
+            bitmap.words[bitmap.words.length - 1] = (1L << tail) - 1;
+        }
+        return bitmap;
+    }
+
+    // Same bits, room for size positions
+    Bitmap copy(int size) {
+        return new Bitmap(Arrays.copyOf(words, Math.max(words.length, wordCount(size))));
+    }
+
+    void set(int position) {
+        words[position >>> 6] |= 1L << position;
+    }
+
+    void clear(int position) {
+        words[position >>> 6] &= ~(1L << position);
+    }
+
+    public boolean get(int position) {
+        int index = position >>> 6;
+        return index < words.length && (words[index] & (1L << position)) != 0;
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public int andCardinality(Bitmap other) {
+        int count = 0;
+        int length = Math.min(words.length, other.words.length);
+        for (int i = 0; i < length; i++) {
+            count += Long.bitCount(words[i] & other.words[i]);
+        }
+        return count;
+    }
+
+    public Bitmap and(Bitmap other) {
+        long[] result = new long[Math.min(words.length, other.words.length)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = words[i] & other.words[i];
+        }
+        return new Bitmap(result);
+    }
+
+    public Bitmap or(Bitmap other) {
+        long[] longer = words.length >= other.words.length ? words : other.words;
+        long[] shorter = longer == words ? other.words : words;
+        long[] result = Arrays.copyOf(longer, longer.length);
+        for (int i = 0; i < shorter.length; i++) {
+            result[i] |= shorter[i];
+        }
+        return new Bitmap(result);
+    }
+
+    // Next set position at or after from, -1 when there is none
+    public int nextSetBit(int from) {
+        int index = from >>> 6;
+        if (index >= words.length) {
+            return -1;
+        }
+        long word = words[index] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return index * 64 + Long.numberOfTrailingZeros(word);
+            }
+            if (++index == words.length) {
+                return -1;
+            }
+            word = words[index];
+        }
+    }
+
+    private static int wordCount(int size) {
+        return (size + 63) >>> 6;
+    }
+}
@@ -0,0 +1,274 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index;
+
+import com.meli.technical.exam.api.products.domain.model.FacetCount;
+import com.meli.technical.exam.api.products.domain.model.FacetFilter;
+import com.meli.technical.exam.api.products.domain.model.PriceBucket;
+import com.meli.technical.exam.api.products.domain.model.ProductFacets;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.domain.model.Specification;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * One bitmap per facet value (price bucket, whole-star rating, specification key/value), built with the
+ * catalog snapshot. Filtering is OR within a facet and AND across facets, and every count is an
+ * intersection count over bitmaps, so a request never looks at the products themselves. Positions left
+ * empty by deleted products are not in any bitmap, all() is the set of positions that hold a product.
+ * A write goes through an Editor that copies only the bitmaps of the facet values it touches.
+ * */
+public final class FacetIndex {
+
+    public static final FacetIndex EMPTY = build(List.of());
+
+    static final int MAX_STARS = 5;
+
+    private final int size;
+    private final Bitmap all;
+    private final Bitmap[] priceBuckets;
+    private final Bitmap[] stars;
+    private final Map<String, Map<String, Bitmap>> specifications;
+
+    private FacetIndex(int size, Bitmap all, Bitmap[] priceBuckets, Bitmap[] stars,
+                       Map<String, Map<String, Bitmap>> specifications) {
+        this.size = size;
+        this.all = all;
+        this.priceBuckets = priceBuckets;
+        this.stars = stars;
+        this.specifications = specifications;
+    }
+
+    public static FacetIndex build(List<ProductView> products) {
+        int size = products.size();
+        Bitmap[] priceBuckets = new Bitmap[PriceBucket.values().length];
+        for (int i = 0; i < priceBuckets.length; i++) {
+            priceBuckets[i] = Bitmap.empty(size);
+        }
+        Bitmap[] stars = new Bitmap[MAX_STARS + 1];
+        for (int i = 0; i < stars.length; i++) {
+            stars[i] = Bitmap.empty(size);
+        }
+        Map<String, Map<String, Bitmap>> specifications = new LinkedHashMap<>();
+        Bitmap all = Bitmap.empty(size);
+        for (int doc = 0; doc < size; doc++) {
+            ProductView product = products.get(doc);
+            if (product == null) {
+                continue;
+            }
+            all.set(doc);
+            if (product.price() != null) {
+                priceBuckets[PriceBucket.of(product.price()).ordinal()].set(doc);
+            }
+            stars[starsOf(product.rating())].set(doc);
+            for (Specification specification : product.specifications()) {
+                if (specification.getKey() != null && specification.getValue() != null) {
+                    specifications.computeIfAbsent(specification.getKey(), key -> new LinkedHashMap<>())
+                            .computeIfAbsent(specification.getValue(), value -> Bitmap.empty(size))
+                            .set(doc);
+                }
+            }
+        }
+        return new FacetIndex(size, all, priceBuckets, stars, specifications);
+    }
+
+    // size is the number of positions once the edit is built, positions past this index's end are new
+    public Editor edit(int size) {
+        return new Editor(size);
+    }
+
+    public static int starsOf(double rating) {
+        return (int) Math.max(0, Math.min(MAX_STARS, Math.floor(rating)));
+    }
+
+    public ProductFacets count(FacetFilter filter) {
+        Bitmap priceSelection = priceSelection(filter.priceBuckets());
+        Bitmap starSelection = starSelection(filter.ratings());
+        Map<String, Bitmap> specSelections = new LinkedHashMap<>();
+        filter.specifications().forEach((key, values) -> specSelections.put(key, specSelection(key, values)));
+
+        Bitmap withoutPrice = intersect(null, starSelection, specSelections, null);
+        Bitmap withoutStars = intersect(priceSelection, null, specSelections, null);
+        Bitmap matches = intersect(priceSelection, starSelection, specSelections, null);
+
+        List<FacetCount> price = new ArrayList<>(priceBuckets.length);
+        for (PriceBucket bucket : PriceBucket.values()) {
+            price.add(new FacetCount(bucket.label(), priceBuckets[bucket.ordinal()].andCardinality(withoutPrice)));
+        }
+        List<FacetCount> rating = new ArrayList<>(stars.length);
+        for (int star = MAX_STARS; star >= 0; star--) {
+            rating.add(new FacetCount(String.valueOf(star), stars[star].andCardinality(withoutStars)));
+        }
+        Map<String, List<FacetCount>> specs = new LinkedHashMap<>();
+        specifications.forEach((key, values) -> {
+            Bitmap base = intersect(priceSelection, starSelection, specSelections, key);
+            List<FacetCount> counts = new ArrayList<>();
+            values.forEach((value, bitmap) -> {
+                int count = bitmap.andCardinality(base);
+                if (count > 0) {
+                    counts.add(new FacetCount(value, count));
+                }
+            });
+            if (!counts.isEmpty()) {
+                counts.sort(Comparator.comparingInt(FacetCount::count).reversed());
+                specs.put(key, counts);
+            }
+        });
+        return new ProductFacets(matches.cardinality(), price, rating, specs);
+    }
+
+    // Positions matching the filter, the same semantics as the counts
+    public Bitmap matching(FacetFilter filter) {
+        Map<String, Bitmap> specSelections = new LinkedHashMap<>();
+        filter.specifications().forEach((key, values) -> specSelections.put(key, specSelection(key, values)));
+        return intersect(priceSelection(filter.priceBuckets()), starSelection(filter.ratings()), specSelections, null);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private Bitmap priceSelection(Set<PriceBucket> selected) {
+        Bitmap selection = null;
+        for (PriceBucket bucket : selected) {
+            selection = union(selection, priceBuckets[bucket.ordinal()]);
+        }
+        return selection;
+    }
+
+    private Bitmap starSelection(Set<Integer> selected) {
+        Bitmap selection = null;
+        for (Integer star : selected) {
+            // Unknown star values select nothing rather than everything
+            selection = union(selection, star >= 0 && star <= MAX_STARS ? stars[star] : Bitmap.empty(size));
+        }
+        return selection;
+    }
+
+    private Bitmap specSelection(String key, Set<String> values) {
+        Map<String, Bitmap> byValue = specifications.getOrDefault(key, Map.of());
+        Bitmap selection = Bitmap.empty(size);
+        for (String value : values) {
+            Bitmap bitmap = byValue.get(value);
+            if (bitmap != null) {
+                selection = selection.or(bitmap);
+            }
+        }
+        return selection;
+    }
+
+    // null selections do not filter; the spec selection for skipKey is left out
+    private Bitmap intersect(Bitmap price, Bitmap stars, Map<String, Bitmap> specs, String skipKey) {
+        Bitmap result = all;
+        if (price != null) {
+            result = result.and(price);
+        }
+        if (stars != null) {
+            result = result.and(stars);
+        }
+        for (Map.Entry<String, Bitmap> spec : specs.entrySet()) {
+            if (!spec.getKey().equals(skipKey)) {
+                result = result.and(spec.getValue());
+            }
+        }
+        return result;
+    }
+
+    private static Bitmap union(Bitmap selection, Bitmap bitmap) {
+        return selection == null ? bitmap : selection.or(bitmap);
+    }
+
+    /*
+     * Products removed from and added at positions of this index. The first change to a bitmap copies it,
+     * bitmaps of untouched facet values are shared with this index. A specification value that no product
+     * has any more is dropped. A replaced product is a remove() and an add() at the same position.
+     * */
+    public final class Editor {
+
+        private final int editedSize;
+        private final Bitmap editedAll;
+        private final Bitmap[] editedPrices = priceBuckets.clone();
+        private final Bitmap[] editedStars = stars.clone();
+        private final Map<String, Map<String, Bitmap>> editedSpecifications = new LinkedHashMap<>(specifications);
+        // Copies made by this editor, the only bitmaps and value maps it may change
+        private final Set<Object> owned = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        private Editor(int size) {
+            editedSize = Math.max(size, FacetIndex.this.size);
+            editedAll = all.copy(editedSize);
+        }
+
+        public void remove(int doc, ProductView product) {
+            editedAll.clear(doc);
+            if (product.price() != null) {
+                owned(editedPrices, PriceBucket.of(product.price()).ordinal()).clear(doc);
+            }
+            owned(editedStars, starsOf(product.rating())).clear(doc);
+            for (Specification specification : product.specifications()) {
+                Map<String, Bitmap> current = editedSpecifications.get(specification.getKey());
+                if (current != null && current.containsKey(specification.getValue())) {
+                    Map<String, Bitmap> values = ownedValues(specification.getKey());
+                    Bitmap bitmap = owned(values, specification.getValue(), values.get(specification.getValue()));
+                    bitmap.clear(doc);
+                    if (bitmap.isEmpty()) {
+                        values.remove(specification.getValue());
+                        if (values.isEmpty()) {
+                            editedSpecifications.remove(specification.getKey());
+                        }
+                    }
+                }
+            }
+        }
+
+        public void add(int doc, ProductView product) {
+            editedAll.set(doc);
+            if (product.price() != null) {
+                owned(editedPrices, PriceBucket.of(product.price()).ordinal()).set(doc);
+            }
+            owned(editedStars, starsOf(product.rating())).set(doc);
+            for (Specification specification : product.specifications()) {
+                if (specification.getKey() != null && specification.getValue() != null) {
+                    Map<String, Bitmap> values = ownedValues(specification.getKey());
+                    Bitmap bitmap = values.get(specification.getValue());
+                    owned(values, specification.getValue(), bitmap != null ? bitmap : Bitmap.empty(editedSize)).set(doc);
+                }
+            }
+        }
+
+        public FacetIndex build() {
+            return new FacetIndex(editedSize, editedAll, editedPrices, editedStars, editedSpecifications);
+        }
+
+        private Bitmap owned(Bitmap[] bitmaps, int index) {
+            if (!owned.contains(bitmaps[index])) {
+                bitmaps[index] = bitmaps[index].copy(editedSize);
+                owned.add(bitmaps[index]);
+            }
+            return bitmaps[index];
+        }
+
+        private Bitmap owned(Map<String, Bitmap> values, String value, Bitmap bitmap) {
+            if (!owned.contains(bitmap)) {
+                bitmap = bitmap.copy(editedSize);
+                owned.add(bitmap);
+                values.put(value, bitmap);
+            }
+            return bitmap;
+        }
+
+        private Map<String, Bitmap> ownedValues(String key) {
+            Map<String, Bitmap> values = editedSpecifications.get(key);
+            if (values == null || !owned.contains(values)) {
+                values = values == null ? new LinkedHashMap<>() : new LinkedHashMap<>(values);
+                owned.add(values);
+                editedSpecifications.put(key, values);
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index;
+
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/*
+ * Term -> posting list index over product name and description, built once per catalog snapshot.
+ * Documents are positions in the snapshot, so hits map straight back to products without another lookup.
+ * Queries are OR-ed terms ranked with BM25, name terms weigh NAME_WEIGHT times a description term.
+ * Positions left empty by deleted products (null entries) are simply not indexed. A write goes through an
+ * Editor that re-encodes only the posting lists of the terms of the products it changes.
+ * */
+public final class InvertedIndex {
+
+    public static final InvertedIndex EMPTY = new InvertedIndex(ShardedMap.empty(), new int[0], 0, 0);
+
+    static final int NAME_WEIGHT = 3;
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private final ShardedMap<String, PostingList> postings;
+    private final int[] documentLengths;
+    private final int documentCount;
+    private final long totalLength;
+    private final float averageDocumentLength;
+
+    private InvertedIndex(ShardedMap<String, PostingList> postings, int[] documentLengths, int documentCount,
+                          long totalLength) {
+        this.postings = postings;
+        this.documentLengths = documentLengths;
+        this.documentCount = documentCount;
+        this.totalLength = totalLength;
+        this.averageDocumentLength = documentCount == 0 ? 0f : (float) totalLength / documentCount;
+    }
+
+    public static InvertedIndex build(List<ProductView> products) {
+        if (products.isEmpty()) {
+            return EMPTY;
+        }
+        Map<String, PostingList> postings = new HashMap<>();
+        int[] documentLengths = new int[products.size()];
+        int documentCount = 0;
+        long totalLength = 0;
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        for (int doc = 0; doc < products.size(); doc++) {
+            ProductView product = products.get(doc);
+            if (product == null) {
+                continue;
+            }
+            termFrequencies(product, termFrequencies);
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new PostingList()).add(doc, entry.getValue());
+                length += entry.getValue();
+            }
+            documentLengths[doc] = length;
+            documentCount++;
+            totalLength += length;
+        }
+        postings.values().forEach(PostingList::trim);
+        return new InvertedIndex(ShardedMap.copyOf(postings), documentLengths, documentCount, totalLength);
+    }
+
+    // size is the number of positions once the edit is built, positions past this index's end are new
+    public Editor edit(int size) {
+        return new Editor(size);
+    }
+
+    public Hits search(String query, int limit) {
+        List<PostingList.Cursor> cursors = cursorsFor(query);
+        if (cursors.isEmpty()) {
+            return Hits.NONE;
+        }
+        float[] idf = new float[cursors.size()];
+        for (int i = 0; i < cursors.size(); i++) {
+            PostingList.Cursor cursor = cursors.get(i);
+            idf[i] = idf(cursor.documentFrequency());
+            cursor.next();
+        }
+
+        // Document-at-a-time: every matching document is scored once, in increasing order
+        TopKCollector top = new TopKCollector(limit);
+        int totalHits = 0;
+        while (true) {
+            int doc = Integer.MAX_VALUE;
+            for (PostingList.Cursor cursor : cursors) {
+                doc = Math.min(doc, cursor.doc());
+            }
+            if (doc == Integer.MAX_VALUE) {
+                break;
+            }
+            float score = 0f;
+            for (int i = 0; i < cursors.size(); i++) {
+                PostingList.Cursor cursor = cursors.get(i);
+                if (cursor.doc() == doc) {
+                    score += idf[i] * termScore(cursor.termFrequency(), documentLengths[doc]);
+                    cursor.next();
+                }
+            }
+            totalHits++;
+            top.offer(doc, score);
+        }
+        float[] scores = new float[top.size()];
+        int[] docs = top.drainDocs(scores);
+        return new Hits(docs, scores, totalHits);
+    }
+
+    public int termCount() {
+        return postings.size();
+    }
+
+    public long postingBytes() {
+        long[] bytes = new long[1];
+        postings.forEach((term, list) -> bytes[0] += list.sizeInBytes());
+        return bytes[0];
+    }
+
+    PostingList postings(String term) {
+        return postings.get(term);
+    }
+
+    private List<PostingList.Cursor> cursorsFor(String query) {
+        Set<String> terms = new LinkedHashSet<>(Tokenizer.tokenize(query));
+        List<PostingList.Cursor> cursors = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            PostingList list = postings.get(term);
+            if (list != null) {
+                cursors.add(list.cursor());
+            }
+        }
+        return cursors;
+    }
+
+    private float idf(int documentFrequency) {
+        return (float) Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private float termScore(int termFrequency, int documentLength) {
+        float norm = K1 * (1 - B + B * documentLength / averageDocumentLength);
+        return termFrequency * (K1 + 1) / (termFrequency + norm);
+    }
+
+    private static void termFrequencies(ProductView product, Map<String, Integer> termFrequencies) {
+        termFrequencies.clear();
+        Tokenizer.forEachToken(product.name(), term -> termFrequencies.merge(term, NAME_WEIGHT, Integer::sum));
+        Tokenizer.forEachToken(product.description(), term -> termFrequencies.merge(term, 1, Integer::sum));
+    }
+
+    /*
+     * Products removed from and added at positions of this index. Each term's changes are collected first
+     * and its posting list is re-encoded once in build(), the lists of every other term are shared as they are.
+     * A replaced product is a remove() and an add() at the same position.
+     * */
+    public final class Editor {
+
+        private final ShardedMap<String, PostingList>.Editor edited = postings.edit();
+        private final Map<String, TermChanges> changes = new HashMap<>();
+        private final Map<String, Integer> termFrequencies = new HashMap<>();
+        private final int[] editedLengths;
+        private int editedCount = documentCount;
+        private long editedTotal = totalLength;
+
+        private Editor(int size) {
+            editedLengths = Arrays.copyOf(documentLengths, Math.max(size, documentLengths.length));
+        }
+
+        public void remove(int doc, ProductView product) {
+            termFrequencies(product, termFrequencies);
+            for (String term : termFrequencies.keySet()) {
+                TermChanges termChanges = changes.computeIfAbsent(term, key -> new TermChanges());
+                // Added earlier in this edit, the original posting (if any) is already marked as removed
+                if (termChanges.added.remove(doc) == null) {
+                    termChanges.removed.add(doc);
+                }
+            }
+            editedTotal -= editedLengths[doc];
+            editedLengths[doc] = 0;
+            editedCount--;
+        }
+
+        public void add(int doc, ProductView product) {
+            termFrequencies(product, termFrequencies);
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+                changes.computeIfAbsent(entry.getKey(), key -> new TermChanges()).added.put(doc, entry.getValue());
+                length += entry.getValue();
+            }
+            editedLengths[doc] = length;
+            editedTotal += length;
+            editedCount++;
+        }
+
+        public InvertedIndex build() {
+            changes.forEach((term, termChanges) -> {
+                PostingList current = edited.get(term);
+                PostingList merged = (current != null ? current : new PostingList()).merge(termChanges.removed, termChanges.added);
+                if (merged.documentFrequency() == 0) {
+                    edited.remove(term);
+                } else {
+                    edited.put(term, merged);
+                }
+            });
+            return new InvertedIndex(edited.build(), editedLengths, editedCount, editedTotal);
+        }
+    }
+
+    private static final class TermChanges {
+
+        private final Set<Integer> removed = new HashSet<>();
+        private final SortedMap<Integer, Integer> added = new TreeMap<>();
+    }
+
+    /*
+     * Best documents first with their scores, plus how many documents matched at least one term.
+     * */
+    public record Hits(int[] docs, float[] scores, int totalHits) {
+
+        public static final Hits NONE = new Hits(new int[0], new float[0], 0);
+    }
+}
@@ -0,0 +1,157 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+
+/*
+ * Documents containing one term, as (doc gap, term frequency) pairs encoded as unsigned varints.
+ * Documents are added in increasing order so gaps stay small and most pairs take two bytes. A list held by
+ * an index is never changed again, a write re-encodes the lists of the terms it touches with merge().
+ * */
+final class PostingList {
+
+    private byte[] data;
+    private int length;
+    private int documentFrequency;
+    private int lastDoc = -1;
+
+    PostingList() {
+        this.data = new byte[8];
+    }
+
+    void add(int doc, int termFrequency) {
+        if (doc <= lastDoc) {
+            throw new IllegalArgumentException("Documents must be added in increasing order");
+        }
+        writeVarInt(doc - lastDoc);
+        writeVarInt(termFrequency);
+        lastDoc = doc;
+        documentFrequency++;
+    }
+
+    // Drops the spare capacity left by the builder
+    PostingList trim() {
+        if (data.length != length) {
+            data = Arrays.copyOf(data, length);
+        }
+        return this;
+    }
+
+    /*
+     * A new list with the documents in removed dropped and the (document -> term frequency) pairs of added
+     * merged in. A document that is both removed and added ends up with its added frequency.
+     * */
+    PostingList merge(Set<Integer> removed, SortedMap<Integer, Integer> added) {
+        PostingList merged = new PostingList();
+        Iterator<Map.Entry<Integer, Integer>> additions = added.entrySet().iterator();
+        Map.Entry<Integer, Integer> addition = additions.hasNext() ? additions.next() : null;
+        Cursor cursor = cursor();
+        while (cursor.next()) {
+            while (addition != null && addition.getKey() < cursor.doc()) {
+                merged.add(addition.getKey(), addition.getValue());
+                addition = additions.hasNext() ? additions.next() : null;
+            }
+            if (!removed.contains(cursor.doc())) {
+                merged.add(cursor.doc(), cursor.termFrequency());
+            }
+        }
+        while (addition != null) {
+            merged.add(addition.getKey(), addition.getValue());
+            addition = additions.hasNext() ? additions.next() : null;
+        }
+        return merged.trim();
+    }
+
+    int documentFrequency() {
+        return documentFrequency;
+    }
+
+    int sizeInBytes() {
+        return length;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    private void writeVarInt(int value) {
+        if (length + 5 > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + 5));
+        }
+        while ((value & ~0x7F) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+    }
+
+    final class Cursor {
+
+        private int position;
+        private int doc = -1;
+        private int termFrequency;
+
+        // False once the list is exhausted
+        boolean next() {
+            if (position >= length) {
+                doc = Integer.MAX_VALUE;
+                return false;
+            }
+            doc += readVarInt();
+            termFrequency = readVarInt();
+            return true;
+        }
+
+        int doc() {
+            return doc;
+        }
+
+        int termFrequency() {
+            return termFrequency;
+        }
+
+        /*
+     * A new list with the documents in removed dropped and the (document -> term frequency) pairs of added
+     * merged in. A document that is both removed and added ends up with its added frequency.
+     * */
+    PostingList merge(Set<Integer> removed, SortedMap<Integer, Integer> added) {
+        PostingList merged = new PostingList();
+        Iterator<Map.Entry<Integer, Integer>> additions = added.entrySet().iterator();
+        Map.Entry<Integer, Integer> addition = additions.hasNext() ? additions.next() : null;
+        Cursor cursor = cursor();
+        while (cursor.next()) {
+            while (addition != null && addition.getKey() < cursor.doc()) {
+                merged.add(addition.getKey(), addition.getValue());
+                addition = additions.hasNext() ? additions.next() : null;
+            }
+            if (!removed.contains(cursor.doc())) {
+                merged.add(cursor.doc(), cursor.termFrequency());
+            }
+        }
+        while (addition != null) {
+            merged.add(addition.getKey(), addition.getValue());
+            addition = additions.hasNext() ? additions.next() : null;
+        }
+        return merged.trim();
+    }
+
+    int documentFrequency() {
+            return documentFrequency;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index;
+
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Typeahead trie over product names. Every word start of a normalized name is inserted, so both "sams"
+ * and "galaxy s2" reach "Samsung Galaxy S24". Nodes live in parallel arrays (first child / next sibling)
+ * and each one holds its MAX_COMPLETIONS best documents, ranked by rating then load order, computed at
+ * build time. A lookup is a walk down the prefix and returns a precomputed array, nothing is sorted.
+ * Nodes on a single-child chain with no name ending in them share their child's array.
+ * Positions left empty by deleted products (null entries) are skipped.
+ * */
+public final class PrefixIndex {
+
+    public static final int MAX_COMPLETIONS = 10;
+
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+    private static final int[] NO_DOCS = new int[0];
+
+    public static final PrefixIndex EMPTY = build(List.of());
+
+    private char[] labels;
+    private int[] firstChild;
+    private int[] nextSibling;
+    private int[][] completions;
+    private int nodeCount;
+
+    private PrefixIndex(int expectedNodes) {
+        labels = new char[expectedNodes];
+        firstChild = new int[expectedNodes];
+        nextSibling = new int[expectedNodes];
+        completions = new int[expectedNodes][];
+        newNode('\0');
+    }
+
+    public static PrefixIndex build(List<ProductView> products) {
+        PrefixIndex index = new PrefixIndex(Math.max(16, products.size() * 4));
+        // Documents whose key ends at a node, only needed while completions are computed
+        int[][] terminals = new int[index.labels.length][];
+        double[] ratings = new double[products.size()];
+        for (int doc = 0; doc < products.size(); doc++) {
+            if (products.get(doc) == null) {
+                continue;
+            }
+            ratings[doc] = products.get(doc).rating();
+            String key = String.join(" ", Tokenizer.tokenize(products.get(doc).name()));
+            for (int start = 0; start < key.length(); start++) {
+                if (start == 0 || key.charAt(start - 1) == ' ') {
+                    int node = index.insert(key, start);
+                    if (node >= terminals.length) {
+                        terminals = Arrays.copyOf(terminals, index.labels.length);
+                    }
+                    terminals[node] = append(terminals[node], doc, ratings);
+                }
+            }
+        }
+        terminals = Arrays.copyOf(terminals, index.labels.length);
+        index.computeCompletions(ROOT, terminals, ratings);
+        index.trim();
+        return index;
+    }
+
+    // Best documents first, at most limit of them; the empty prefix matches nothing. Callers must not modify the array
+    public int[] complete(String prefix, int limit) {
+        String key = String.join(" ", Tokenizer.tokenize(prefix));
+        if (key.isEmpty()) {
+            return NO_DOCS;
+        }
+        int node = ROOT;
+        for (int i = 0; i < key.length() && node != NONE; i++) {
+            node = child(node, key.charAt(i));
+        }
+        if (node == NONE) {
+            return NO_DOCS;
+        }
+        int[] docs = completions[node];
+        return docs.length <= limit ? docs : Arrays.copyOf(docs, limit);
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    private int insert(String key, int start) {
+        int node = ROOT;
+        for (int i = start; i < key.length(); i++) {
+            char c = key.charAt(i);
+            int next = child(node, c);
+            if (next == NONE) {
+                next = newNode(c);
+                nextSibling[next] = firstChild[node];
+                firstChild[node] = next;
+            }
+            node = next;
+        }
+        return node;
+    }
+
+    private int child(int node, char c) {
+        for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+            if (labels[child] == c) {
+                return child;
+            }
+        }
+        return NONE;
+    }
+
+    private int newNode(char label) {
+        if (nodeCount == labels.length) {
+            int capacity = labels.length * 2;
+            labels = Arrays.copyOf(labels, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            completions = Arrays.copyOf(completions, capacity);
+        }
+        labels[nodeCount] = label;
+        firstChild[nodeCount] = NONE;
+        nextSibling[nodeCount] = NONE;
+        return nodeCount++;
+    }
+
+    private int[] computeCompletions(int node, int[][] terminals, double[] ratings) {
+        boolean shareChild = terminals[node] == null && firstChild[node] != NONE && nextSibling[firstChild[node]] == NONE;
+        int[] merged = terminals[node] != null ? best(terminals[node], NO_DOCS, ratings) : NO_DOCS;
+        for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+            int[] childDocs = computeCompletions(child, terminals, ratings);
+            merged = shareChild ? childDocs : best(merged, childDocs, ratings);
+        }
+        completions[node] = merged;
+        return merged;
+    }
+
+    // Union of two duplicate-free lists, ranked and cut at MAX_COMPLETIONS
+    private static int[] best(int[] left, int[] right, double[] ratings) {
+        TopKCollector top = new TopKCollector(MAX_COMPLETIONS);
+        for (int doc : left) {
+            top.offer(doc, (float) ratings[doc]);
+        }
+        for (int doc : right) {
+            if (!contains(left, doc)) {
+                top.offer(doc, (float) ratings[doc]);
+            }
+        }
+        return top.drainDocs(null);
+    }
+
+    private static boolean contains(int[] docs, int doc) {
+        for (int i = 0; i < docs.length; i++) {
+            if (docs[i] == doc) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Different word starts of one name never end at the same node, so a document is added at most once.
+    // Many products sharing a name are cut down as they come instead of keeping all of them.
+    private static int[] append(int[] docs, int doc, double[] ratings) {
+        if (docs == null) {
+            return new int[]{doc};
+        }
+        int[] grown = Arrays.copyOf(docs, docs.length + 1);
+        grown[docs.length] = doc;
+        return grown.length > 2 * MAX_COMPLETIONS ? best(grown, NO_DOCS, ratings) : grown;
+    }
+
+    private void trim() {
+        labels = Arrays.copyOf(labels, nodeCount);
+        firstChild = Arrays.copyOf(firstChild, nodeCount);
+        nextSibling = Arrays.copyOf(nextSibling, nodeCount);
+        completions = Arrays.copyOf(completions, nodeCount);
+    }
+}
@@ -0,0 +1,162 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/*
+ * Immutable hash map split into a power-of-two number of plain HashMap shards of about SHARD_SIZE entries.
+ * An Editor copies only the shards it touches, so a snapshot that changes a few keys shares every other
+ * shard with the one it was derived from, and a write costs a few small map copies instead of a full one.
+ * When an edit leaves the map far off the size its shard count was chosen for, build() redistributes it.
+ * */
+public final class ShardedMap<K, V> {
+
+    static final int SHARD_SIZE = 64;
+    // Redistribute once the average shard is this many times too big or too small
+    private static final int RESHARD_FACTOR = 4;
+
+    private static final ShardedMap<?, ?> EMPTY = new ShardedMap<>(newShards(1), 0);
+
+    private final HashMap<K, V>[] shards;
+    private final int size;
+
+    private ShardedMap(HashMap<K, V>[] shards, int size) {
+        this.shards = shards;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> ShardedMap<K, V> empty() {
+        return (ShardedMap<K, V>) EMPTY;
+    }
+
+    public static <K, V> ShardedMap<K, V> copyOf(Map<K, V> entries) {
+        if (entries.isEmpty()) {
+            return empty();
+        }
+        HashMap<K, V>[] shards = newShards(shardCountFor(entries.size()));
+        entries.forEach((key, value) -> shards[indexOf(key, shards.length)].put(key, value));
+        return new ShardedMap<>(shards, entries.size());
+    }
+
+    public V get(Object key) {
+        return shards[indexOf(key, shards.length)].get(key);
+    }
+
+    public boolean containsKey(Object key) {
+        return shards[indexOf(key, shards.length)].containsKey(key);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Shard by shard, in no particular order
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (HashMap<K, V> shard : shards) {
+            shard.forEach(action);
+        }
+    }
+
+    public Editor edit() {
+        return new Editor();
+    }
+
+    int shardCount() {
+        return shards.length;
+    }
+
+    // Identity of the shard holding key, lets tests check what an edit shared
+    Object shardOf(Object key) {
+        return shards[indexOf(key, shards.length)];
+    }
+
+    private static int shardCountFor(int size) {
+        int wanted = size / SHARD_SIZE;
+        return wanted <= 1 ? 1 : Integer.highestOneBit(wanted - 1) << 1;
+    }
+
+    private static int indexOf(Object key, int shardCount) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (shardCount - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> HashMap<K, V>[] newShards(int count) {
+        HashMap<K, V>[] shards = new HashMap[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new HashMap<>();
+        }
+        return shards;
+    }
+
+    /*
+     * Changes to a map that is built into a new ShardedMap, the original is never modified. A shard is
+     * copied the first time a change lands in it, later changes to it in the same edit reuse the copy.
+     * Single-use, and like the maps it builds not meant to be shared between threads while it is open.
+     * */
+    public final class Editor {
+
+        private final HashMap<K, V>[] edited = Arrays.copyOf(shards, shards.length);
+        private final boolean[] copied = new boolean[shards.length];
+        private int editedSize = size;
+
+        public V get(Object key) {
+            return edited[indexOf(key, edited.length)].get(key);
+        }
+
+        public boolean containsKey(Object key) {
+            return edited[indexOf(key, edited.length)].containsKey(key);
+        }
+
+        public void put(K key, V value) {
+            if (writable(key).put(key, value) == null) {
+                editedSize++;
+            }
+        }
+
+        public void remove(Object key) {
+            int index = indexOf(key, edited.length);
+            if (edited[index].containsKey(key)) {
+                writable(key).remove(key);
+                editedSize--;
+            }
+        }
+
+        public int size() {
+            return editedSize;
+        }
+
+        public ShardedMap<K, V> build() {
+            if (editedSize == 0) {
+                return empty();
+            }
+            int average = editedSize / edited.length;
+            boolean tooBig = average > SHARD_SIZE * RESHARD_FACTOR;
+            boolean tooSmall = edited.length > 1 && average < SHARD_SIZE / RESHARD_FACTOR;
+            if (!tooBig && !tooSmall) {
+                return new ShardedMap<>(edited, editedSize);
+            }
+            HashMap<K, V>[] redistributed = newShards(shardCountFor(editedSize));
+            for (HashMap<K, V> shard : edited) {
+                shard.forEach((key, value) -> redistributed[indexOf(key, redistributed.length)].put(key, value));
+            }
+            return new ShardedMap<>(redistributed, editedSize);
+        }
+
+        private HashMap<K, V> writable(Object key) {
+            int index = indexOf(key, edited.length);
+            if (!copied[index]) {
+                edited[index] = new HashMap<>(edited[index]);
+                copied[index] = true;
+            }
+            return edited[index];
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index;
+
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.domain.model.Specification;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * "Similar products" by Jaccard similarity of specification key/value sets. Each product gets a MinHash
+ * signature of SIGNATURE_LENGTH values, cut into BANDS bands of ROWS rows; products sharing any band land
+ * in the same bucket. A lookup only scores the products in its own buckets, so its cost depends on how
+ * many products look alike, not on catalog size. Spec values rarely repeat across products, so the bands
+ * are tuned low: pairs at Jaccard 0.2 share a bucket about 73% of the time, at 0.33 about 97%, at 0.5 and
+ * above practically always. Candidates are scored with the exact Jaccard of their hashed sets.
+ * */
+public final class SimilarityIndex {
+
+    static final int BANDS = 32;
+    static final int ROWS = 2;
+    static final int SIGNATURE_LENGTH = BANDS * ROWS;
+    // Bounds a lookup when many products have the same specifications
+    static final int MAX_CANDIDATES = 512;
+
+    private static final long[] SEEDS = new long[SIGNATURE_LENGTH];
+    private static final long[] NO_SHINGLES = new long[0];
+
+    static {
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            SEEDS[i] = mix((i + 1) * 0x9E3779B97F4A7C15L);
+        }
+    }
+
+    public static final SimilarityIndex EMPTY = build(List.of());
+
+    // Sorted, distinct hashes of each product's "key=value" pairs
+    private final long[][] shingles;
+    // SIGNATURE_LENGTH values per product, back to back
+    private final int[] signatures;
+    private final Map<Long, int[]> buckets;
+
+    private SimilarityIndex(long[][] shingles, int[] signatures, Map<Long, int[]> buckets) {
+        this.shingles = shingles;
+        this.signatures = signatures;
+        this.buckets = buckets;
+    }
+
+    public static SimilarityIndex build(List<ProductView> products) {
+        int size = products.size();
+        long[][] shingles = new long[size][];
+        int[] signatures = new int[size * SIGNATURE_LENGTH];
+        // Bucket sizes first, then exactly sized arrays filled from the back so they end up in load order
+        Map<Long, int[]> counts = new HashMap<>();
+        for (int doc = 0; doc < size; doc++) {
+            shingles[doc] = shinglesOf(products.get(doc));
+            if (shingles[doc].length == 0) {
+                continue;
+            }
+            sign(shingles[doc], signatures, doc * SIGNATURE_LENGTH);
+            for (int band = 0; band < BANDS; band++) {
+                counts.computeIfAbsent(bucketKey(signatures, doc, band), key -> new int[1])[0]++;
+            }
+        }
+        // A bucket with a single product never yields a candidate
+        counts.values().removeIf(count -> count[0] == 1);
+        Map<Long, int[]> buckets = new HashMap<>(Math.max(16, (int) (counts.size() / 0.75f) + 1));
+        counts.forEach((key, count) -> buckets.put(key, new int[count[0]]));
+        for (int doc = size - 1; doc >= 0; doc--) {
+            if (shingles[doc].length == 0) {
+                continue;
+            }
+            for (int band = 0; band < BANDS; band++) {
+                long key = bucketKey(signatures, doc, band);
+                int[] count = counts.get(key);
+                if (count != null) {
+                    buckets.get(key)[--count[0]] = doc;
+                }
+            }
+        }
+        return new SimilarityIndex(shingles, signatures, buckets);
+    }
+
+    // Most similar products first, never doc itself; products without specifications have no neighbors
+    public Neighbors similar(int doc, int limit) {
+        if (shingles[doc].length == 0) {
+            return Neighbors.NONE;
+        }
+        TopKCollector top = new TopKCollector(limit);
+        Set<Integer> seen = new HashSet<>();
+        seen.add(doc);
+        for (int band = 0; band < BANDS && seen.size() <= MAX_CANDIDATES; band++) {
+            int[] bucket = buckets.get(bucketKey(signatures, doc, band));
+            if (bucket == null) {
+                continue;
+            }
+            for (int i = 0; i < bucket.length && seen.size() <= MAX_CANDIDATES; i++) {
+                int candidate = bucket[i];
+                if (seen.add(candidate)) {
+                    float similarity = jaccard(shingles[doc], shingles[candidate]);
+                    if (similarity > 0) {
+                        top.offer(candidate, similarity);
+                    }
+                }
+            }
+        }
+        float[] similarities = new float[top.size()];
+        int[] docs = top.drainDocs(similarities);
+        return new Neighbors(docs, similarities);
+    }
+
+    public int size() {
+        return shingles.length;
+    }
+
+    public int bucketCount() {
+        return buckets.size();
+    }
+
+    // Empty positions, like products without specifications, have no shingles
+    static long[] shinglesOf(ProductView product) {
+        if (product == null) {
+            return NO_SHINGLES;
+        }
+        List<Specification> specifications = product.specifications();
+        if (specifications == null || specifications.isEmpty()) {
+            return NO_SHINGLES;
+        }
+        long[] hashes = new long[specifications.size()];
+        int count = 0;
+        for (Specification specification : specifications) {
+            if (specification.getKey() != null && specification.getValue() != null) {
+                hashes[count++] = hash(Tokenizer.normalize(specification.getKey().trim()) + '='
+                        + Tokenizer.normalize(specification.getValue().trim()));
+            }
+        }
+        long[] sorted = Arrays.copyOf(hashes, count);
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        return distinct == sorted.length ? sorted : Arrays.copyOf(sorted, distinct);
+    }
+
+    // Both arrays sorted and distinct
+    static float jaccard(long[] left, long[] right) {
+        int shared = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] == right[j]) {
+                shared++;
+                i++;
+                j++;
+            } else if (left[i] < right[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        int union = left.length + right.length - shared;
+        return union == 0 ? 0f : (float) shared / union;
+    }
+
+    // Each signature slot is the minimum of one seeded hash over the set
+    private static void sign(long[] shingles, int[] signatures, int offset) {
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            int min = Integer.MAX_VALUE;
+            for (long shingle : shingles) {
+                min = Math.min(min, (int) (mix(shingle ^ SEEDS[i]) >>> 33));
+            }
+            signatures[offset + i] = min;
+        }
+    }
+
+    private static long bucketKey(int[] signatures, int doc, int band) {
+        long key = band;
+        int offset = doc * SIGNATURE_LENGTH + band * ROWS;
+        for (int row = 0; row < ROWS; row++) {
+            key = key * 0x100000001b3L + signatures[offset + row];
+        }
+        return mix(key);
+    }
+
+    // FNV-1a over the chars, then mixed so that similar strings spread over all bits
+    private static long hash(String text) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    public record Neighbors(int[] docs, float[] similarities) {
+
+        public static final Neighbors NONE = new Neighbors(new int[0], new float[0]);
+    }
+}
@@ -0,0 +1,185 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index;
+
+import com.meli.technical.exam.api.products.domain.model.ProductSortField;
+import com.meli.technical.exam.api.products.domain.model.ProductSortOrder;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.domain.model.SortDirection;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/*
+ * One ascending permutation of snapshot positions per sort field, sorted once when the snapshot is built.
+ * A sorted page is then a slice of the permutation (read backwards for descending), whatever the page.
+ * Ties keep load order. Loaded products always have a price, a missing one would sort as the highest.
+ * Positions left empty by deleted products (null entries) are not in the permutations. A write drops the
+ * positions it changes from each permutation and binary-searches them back in, nothing else is compared.
+ * */
+public final class SortIndex {
+
+    public static final SortIndex EMPTY = build(List.of());
+
+    private final int[][] permutations;
+
+    private SortIndex(int[][] permutations) {
+        this.permutations = permutations;
+    }
+
+    public static SortIndex build(List<ProductView> products) {
+        int[] docs = new int[products.size()];
+        int count = 0;
+        for (int doc = 0; doc < products.size(); doc++) {
+            if (products.get(doc) != null) {
+                docs[count++] = doc;
+            }
+        }
+        int[] live = Arrays.copyOf(docs, count);
+        int[][] permutations = new int[ProductSortField.values().length][];
+        permutations[ProductSortField.PRICE.ordinal()] = sort(live, priceOrder(products));
+        permutations[ProductSortField.RATING.ordinal()] = sort(live,
+                (a, b) -> Double.compare(products.get(a).rating(), products.get(b).rating()));
+        permutations[ProductSortField.NAME.ordinal()] = sort(live, nameOrder(products));
+        return new SortIndex(permutations);
+    }
+
+    // products holds every position once the edit is built, with the changed products already in place
+    public Editor edit(List<ProductView> products) {
+        return new Editor(products);
+    }
+
+    // Snapshot position of the product at the given rank, rank 0 is the first product of the listing
+    public int doc(ProductSortOrder order, int rank) {
+        int[] permutation = permutations[order.field().ordinal()];
+        return order.direction() == SortDirection.ASC ? permutation[rank] : permutation[permutation.length - 1 - rank];
+    }
+
+    public int size() {
+        return permutations[0].length;
+    }
+
+    private static int[] sort(int[] live, Comparator<Integer> order) {
+        Integer[] docs = new Integer[live.length];
+        for (int i = 0; i < live.length; i++) {
+            docs[i] = live[i];
+        }
+        // Stable, so equal keys stay in load order
+        Arrays.sort(docs, order);
+        int[] permutation = new int[live.length];
+        for (int i = 0; i < live.length; i++) {
+            permutation[i] = docs[i];
+        }
+        return permutation;
+    }
+
+    // The order of one field with ties broken by position, which is where a stable sort leaves them
+    private static Comparator<Integer> fieldOrder(ProductSortField field, List<ProductView> products) {
+        Comparator<Integer> byKey = switch (field) {
+            case PRICE -> Comparator.comparing(doc -> products.get(doc).price(),
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+            case RATING -> (a, b) -> Double.compare(products.get(a).rating(), products.get(b).rating());
+            case NAME -> Comparator.comparing(doc -> lowerCaseName(products.get(doc)),
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+        };
+        return byKey.thenComparing(Comparator.naturalOrder());
+    }
+
+    private static String lowerCaseName(ProductView product) {
+        return product.name() != null ? product.name().toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static Comparator<Integer> priceOrder(List<ProductView> products) {
+        BigDecimal[] prices = new BigDecimal[products.size()];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = products.get(i) != null ? products.get(i).price() : null;
+        }
+        return Comparator.comparing(doc -> prices[doc], Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+
+    private static Comparator<Integer> nameOrder(List<ProductView> products) {
+        String[] names = new String[products.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = products.get(i) != null ? lowerCaseName(products.get(i)) : null;
+        }
+        return Comparator.comparing(doc -> names[doc], Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+
+    /*
+     * Positions whose product was removed, added or replaced. build() filters the changed positions out of
+     * each permutation and inserts the ones that hold a product again at their binary-searched rank.
+     * */
+    public final class Editor {
+
+        private final List<ProductView> products;
+        private final Set<Integer> removed = new HashSet<>();
+        private final Set<Integer> added = new LinkedHashSet<>();
+
+        private Editor(List<ProductView> products) {
+            this.products = products;
+        }
+
+        public void remove(int doc) {
+            // Added earlier in this edit, the original entry (if any) is already marked as removed
+            if (!added.remove(doc)) {
+                removed.add(doc);
+            }
+        }
+
+        public void add(int doc) {
+            added.add(doc);
+        }
+
+        public SortIndex build() {
+            int[][] edited = new int[permutations.length][];
+            for (ProductSortField field : ProductSortField.values()) {
+                edited[field.ordinal()] = edit(permutations[field.ordinal()], fieldOrder(field, products));
+            }
+            return new SortIndex(edited);
+        }
+
+        private int[] edit(int[] permutation, Comparator<Integer> order) {
+            int[] kept = new int[permutation.length];
+            int count = 0;
+            for (int doc : permutation) {
+                if (!removed.contains(doc)) {
+                    kept[count++] = doc;
+                }
+            }
+            List<Integer> inserted = new ArrayList<>(added);
+            inserted.sort(order);
+            int[] result = new int[count + inserted.size()];
+            int from = 0;
+            int to = 0;
+            for (int doc : inserted) {
+                int at = insertionPoint(kept, from, count, doc, order);
+                System.arraycopy(kept, from, result, to, at - from);
+                to += at - from;
+                result[to++] = doc;
+                from = at;
+            }
+            System.arraycopy(kept, from, result, to, count - from);
+            return result;
+        }
+
+        // First index in [from, to) whose doc sorts after doc
+        private int insertionPoint(int[] docs, int from, int to, int doc, Comparator<Integer> order) {
+            int low = from;
+            int high = to;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (order.compare(docs[mid], doc) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/*
+ * Splits text into lower-case terms on anything that is not a letter or a digit, so "6.8-inch Display"
+ * gives [6, 8, inch, display]. Accents are stripped so "camara" also finds the accented spelling.
+ * Indexing and queries must go through the same method.
+ * */
+public final class Tokenizer {
+
+    private Tokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        forEachToken(text, tokens::add);
+        return tokens;
+    }
+
+    public static void forEachToken(String text, Consumer<String> consumer) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        String normalized = normalize(text);
+        int start = -1;
+        for (int i = 0; i < normalized.length(); i++) {
+            if (Character.isLetterOrDigit(normalized.charAt(i))) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                consumer.accept(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            consumer.accept(normalized.substring(start));
+        }
+    }
+
+    static String normalize(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        if (isAscii(lower)) {
+            return lower;
+        }
+        String decomposed = Normalizer.normalize(lower, Normalizer.Form.NFD);
+        StringBuilder stripped = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                stripped.append(c);
+            }
+        }
+        return stripped.toString();
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,96 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index;
+
+/*
+ * Keeps the k best (document, score) pairs seen so far in a bounded min-heap on two parallel arrays, so
+ * selecting the top results of a large candidate set costs O(n log k) and no per-candidate allocation.
+ * Equal scores prefer the lower document, i.e. the product loaded first.
+ * */
+public final class TopKCollector {
+
+    private final int[] docs;
+    private final float[] scores;
+    private int size;
+
+    public TopKCollector(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        this.docs = new int[k];
+        this.scores = new float[k];
+    }
+
+    public void offer(int doc, float score) {
+        if (size < docs.length) {
+            docs[size] = doc;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (better(doc, score, docs[0], scores[0])) {
+            docs[0] = doc;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Drains the heap; results are best first
+    public int[] drainDocs(float[] scoresOut) {
+        int[] ordered = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            ordered[i] = docs[0];
+            if (scoresOut != null) {
+                scoresOut[i] = scores[0];
+            }
+            size--;
+            docs[0] = docs[size];
+            scores[0] = scores[size];
+            siftDown(0);
+        }
+        return ordered;
+    }
+
+    private static boolean better(int doc, float score, int otherDoc, float otherScore) {
+        return score > otherScore || (score == otherScore && doc < otherDoc);
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!better(docs[parent], scores[parent], docs[index], scores[index])) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            int worst = left;
+            int right = left + 1;
+            if (right < size && better(docs[left], scores[left], docs[right], scores[right])) {
+                worst = right;
+            }
+            if (!better(docs[index], scores[index], docs[worst], scores[worst])) {
+                return;
+            }
+            swap(index, worst);
+            index = worst;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int doc = docs[a];
+        docs[a] = docs[b];
+        docs[b] = doc;
+        float score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
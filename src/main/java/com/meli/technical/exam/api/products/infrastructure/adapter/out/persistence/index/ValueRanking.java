@@ -0,0 +1,198 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index;
+
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Catalog-wide best-value leaderboard: every snapshot position ordered by ProductView.valueRatio(), best
+ * first, ties in load order. A top-N request walks the head of the array and stops after N matches.
+ * A write does not re-sort anything: its Editor filters the changed positions out of the rank order and
+ * merges them back in at their binary-searched rank, the ranking it was made from is untouched.
+ * */
+public final class ValueRanking {
+
+    public static final ValueRanking EMPTY = build(List.of());
+
+    private static final double MAX_RATING = 5.0;
+
+    // Parallel arrays in rank order
+    private final int[] docs;
+    private final double[] ratios;
+    // Indexed by snapshot position
+    private final double[] ratioByDoc;
+    private final double[] priceByDoc;
+    private final double maxPrice;
+
+    private ValueRanking(int[] docs, double[] ratios, double[] ratioByDoc, double[] priceByDoc, double maxPrice) {
+        this.docs = docs;
+        this.ratios = ratios;
+        this.ratioByDoc = ratioByDoc;
+        this.priceByDoc = priceByDoc;
+        this.maxPrice = maxPrice;
+    }
+
+    public static ValueRanking build(List<ProductView> products) {
+        int size = products.size();
+        double[] ratioByDoc = new double[size];
+        double[] priceByDoc = new double[size];
+        Integer[] order = new Integer[size];
+        int count = 0;
+        for (int doc = 0; doc < size; doc++) {
+            ProductView product = products.get(doc);
+            if (product == null) {
+                continue;
+            }
+            ratioByDoc[doc] = product.valueRatio();
+            priceByDoc[doc] = priceOf(product);
+            order[count++] = doc;
+        }
+        order = Arrays.copyOf(order, count);
+        Arrays.sort(order, (a, b) -> compare(ratioByDoc[a], a, ratioByDoc[b], b));
+        int[] docs = new int[count];
+        double[] ratios = new double[count];
+        for (int rank = 0; rank < count; rank++) {
+            docs[rank] = order[rank];
+            ratios[rank] = ratioByDoc[order[rank]];
+        }
+        return new ValueRanking(docs, ratios, ratioByDoc, priceByDoc, max(priceByDoc));
+    }
+
+    // size is the number of positions once the edit is built, positions past this ranking's end are new
+    public Editor edit(int size) {
+        return new Editor(size);
+    }
+
+    // Best positions first, only those in the filter when one is given
+    public int[] top(int limit, Bitmap filter) {
+        int[] result = new int[Math.min(limit, docs.length)];
+        int count = 0;
+        for (int rank = 0; rank < docs.length && count < result.length; rank++) {
+            if (filter == null || filter.get(docs[rank])) {
+                result[count++] = docs[rank];
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    // (rating / 5) / (price / most expensive price in the catalog), the comparison's best-value formula
+    public double valueScore(int doc) {
+        if (priceByDoc[doc] <= 0) {
+            return 0;
+        }
+        return ratioByDoc[doc] * maxPrice / MAX_RATING;
+    }
+
+    public int size() {
+        return docs.length;
+    }
+
+    // Binary search in rank order; the index when present, (-(insertion point) - 1) otherwise
+    private static int rankOf(int[] docs, double[] ratios, int length, double ratio, int doc) {
+        int low = 0;
+        int high = length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int compared = compare(ratios[mid], docs[mid], ratio, doc);
+            if (compared < 0) {
+                low = mid + 1;
+            } else if (compared > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    // Higher ratio first, then lower position
+    private static int compare(double ratio, int doc, double otherRatio, int otherDoc) {
+        int byRatio = Double.compare(otherRatio, ratio);
+        return byRatio != 0 ? byRatio : Integer.compare(doc, otherDoc);
+    }
+
+    private static double priceOf(ProductView product) {
+        return product.price() != null ? product.price().doubleValue() : 0;
+    }
+
+    private static double max(double[] values) {
+        double max = 0;
+        for (double value : values) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    /*
+     * Positions whose product was removed, added or replaced; a replaced product is a remove() and an add()
+     * at the same position. The most expensive price is only rescanned when a product that had it left.
+     * */
+    public final class Editor {
+
+        private final double[] editedRatioByDoc;
+        private final double[] editedPriceByDoc;
+        private final Set<Integer> removed = new HashSet<>();
+        private final Set<Integer> added = new LinkedHashSet<>();
+        private double editedMaxPrice = maxPrice;
+        private boolean rescanMaxPrice;
+
+        private Editor(int size) {
+            editedRatioByDoc = Arrays.copyOf(ratioByDoc, Math.max(size, ratioByDoc.length));
+            editedPriceByDoc = Arrays.copyOf(priceByDoc, editedRatioByDoc.length);
+        }
+
+        public void remove(int doc) {
+            // Added earlier in this edit, the original entry (if any) is already marked as removed
+            if (!added.remove(doc)) {
+                removed.add(doc);
+            }
+            rescanMaxPrice = rescanMaxPrice || editedPriceByDoc[doc] == editedMaxPrice;
+            editedRatioByDoc[doc] = 0;
+            editedPriceByDoc[doc] = 0;
+        }
+
+        public void add(int doc, ProductView product) {
+            added.add(doc);
+            editedRatioByDoc[doc] = product.valueRatio();
+            editedPriceByDoc[doc] = priceOf(product);
+            editedMaxPrice = Math.max(editedMaxPrice, editedPriceByDoc[doc]);
+        }
+
+        public ValueRanking build() {
+            int[] keptDocs = new int[docs.length];
+            double[] keptRatios = new double[docs.length];
+            int count = 0;
+            for (int rank = 0; rank < docs.length; rank++) {
+                if (!removed.contains(docs[rank])) {
+                    keptDocs[count] = docs[rank];
+                    keptRatios[count++] = ratios[rank];
+                }
+            }
+            List<Integer> inserted = new ArrayList<>(added);
+            inserted.sort((a, b) -> compare(editedRatioByDoc[a], a, editedRatioByDoc[b], b));
+            int[] rankedDocs = new int[count + inserted.size()];
+            double[] rankedRatios = new double[rankedDocs.length];
+            int from = 0;
+            int to = 0;
+            for (int doc : inserted) {
+                double ratio = editedRatioByDoc[doc];
+                int at = -rankOf(keptDocs, keptRatios, count, ratio, doc) - 1;
+                System.arraycopy(keptDocs, from, rankedDocs, to, at - from);
+                System.arraycopy(keptRatios, from, rankedRatios, to, at - from);
+                to += at - from;
+                rankedDocs[to] = doc;
+                rankedRatios[to++] = ratio;
+                from = at;
+            }
+            System.arraycopy(keptDocs, from, rankedDocs, to, count - from);
+            System.arraycopy(keptRatios, from, rankedRatios, to, count - from);
+            double builtMaxPrice = rescanMaxPrice ? max(editedPriceByDoc) : editedMaxPrice;
+            return new ValueRanking(rankedDocs, rankedRatios, editedRatioByDoc, editedPriceByDoc, builtMaxPrice);
+        }
+    }
+}
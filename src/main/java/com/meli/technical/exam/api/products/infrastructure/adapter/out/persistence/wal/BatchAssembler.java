@@ -0,0 +1,72 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/*
+ * Puts an import batch logged across several records back together while the log is read. Such a batch
+ * is UPSERT_BATCH_PART records closed by an UPSERT_BATCH, all of them with the sequence of the first part
+ * as their product ID, and it was written at the sequence of that last record. Its parts are held back
+ * until the last one and then go to applied together with it; parts that no last record follows are what
+ * a crash mid-batch leaves behind, they never reached a snapshot and go to dropped. Every other record
+ * goes to applied on its own. Both get the records in log order.
+ * */
+public final class BatchAssembler {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchAssembler.class);
+
+    private final Consumer<List<WalRecord>> applied;
+    private final Consumer<List<WalRecord>> dropped;
+    private List<WalRecord> parts = new ArrayList<>();
+
+    public BatchAssembler(Consumer<List<WalRecord>> applied, Consumer<List<WalRecord>> dropped) {
+        this.applied = applied;
+        this.dropped = dropped;
+    }
+
+    public void accept(WalRecord record) {
+        if (record.operation() == WalOperation.UPSERT_BATCH_PART) {
+            if (!parts.isEmpty() && !parts.get(0).productId().equals(record.productId())) {
+                dropParts();
+            }
+            parts.add(record);
+            return;
+        }
+        if (record.operation() == WalOperation.UPSERT_BATCH && !record.productId().isEmpty()) {
+            if (!parts.isEmpty() && parts.get(0).productId().equals(record.productId())
+                    && parts.get(0).productId().equals(Long.toString(parts.get(0).sequence()))) {
+                List<WalRecord> batch = parts;
+                batch.add(record);
+                parts = new ArrayList<>();
+                applied.accept(batch);
+                return;
+            }
+            // Its first part is missing, the batch cannot be applied whole
+            parts.add(record);
+            dropParts();
+            return;
+        }
+        dropParts();
+        applied.accept(List.of(record));
+    }
+
+    // At the end of what is read; an unfinished batch there is dropped
+    public void end() {
+        dropParts();
+    }
+
+    private void dropParts() {
+        if (parts.isEmpty()) {
+            return;
+        }
+        logger.warn("Dropping the import batch logged from sequence {} through {}, it was cut off",
+                parts.get(0).sequence(), parts.get(parts.size() - 1).sequence());
+        List<WalRecord> cutOff = parts;
+        parts = new ArrayList<>();
+        dropped.accept(cutOff);
+    }
+}
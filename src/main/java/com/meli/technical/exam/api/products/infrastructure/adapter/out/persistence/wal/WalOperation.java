@@ -0,0 +1,36 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal;
+
+/*
+ * What a log record does to the product with its ID. The code is what is stored, never the ordinal.
+ * */
+public enum WalOperation {
+
+    UPSERT((byte) 1),
+    // Several products in one record, so a crash never leaves part of them applied; see WalRecord.pack().
+    // With a product ID it ends a batch split across the UPSERT_BATCH_PART records before it
+    UPSERT_BATCH((byte) 2),
+    // No payload, the record's ID is the product removed
+    DELETE((byte) 3),
+    // Products of a batch that goes on in the next record, only applied with its end; see BatchAssembler
+    UPSERT_BATCH_PART((byte) 4);
+
+    private final byte code;
+
+    WalOperation(byte code) {
+        this.code = code;
+    }
+
+    public byte code() {
+        return code;
+    }
+
+    // null for codes this version does not know
+    public static WalOperation fromCode(byte code) {
+        for (WalOperation operation : values()) {
+            if (operation.code == code) {
+                return operation;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,48 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * One entry of the write-ahead log. Sequences start at 1 and grow by one per record across segments;
+ * the payload is opaque to the log.
+ * */
+public record WalRecord(
+        long sequence,
+        WalOperation operation,
+        String productId,
+        byte[] payload
+) {
+
+    // [count] then [length][bytes] per entry, the payload of an UPSERT_BATCH record
+    public static byte[] pack(List<byte[]> entries) {
+        int size = Integer.BYTES;
+        for (byte[] entry : entries) {
+            size += Integer.BYTES + entry.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size).putInt(entries.size());
+        for (byte[] entry : entries) {
+            buffer.putInt(entry.length).put(entry);
+        }
+        return buffer.array();
+    }
+
+    // The payload of each product an upsert record writes, unpacked for the batch operations
+    public List<byte[]> productPayloads() {
+        return operation == WalOperation.UPSERT_BATCH || operation == WalOperation.UPSERT_BATCH_PART
+                ? unpack() : List.of(payload);
+    }
+
+    public List<byte[]> unpack() {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        int count = buffer.getInt();
+        List<byte[]> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] entry = new byte[buffer.getInt()];
+            buffer.get(entry);
+            entries.add(entry);
+        }
+        return entries;
+    }
+}
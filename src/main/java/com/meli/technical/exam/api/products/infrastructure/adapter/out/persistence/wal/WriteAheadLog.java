@@ -0,0 +1,381 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/*
+ * Append-only log of product mutations in numbered segment files (<first sequence>.wal). A record is
+ * [body length][CRC32 of body][sequence, operation, ID, payload]; append() only writes to the OS, sync()
+ * makes everything appended so far durable, so a caller can pay one fsync for a whole batch.
+ * Opening the log replays it. A record that is cut short or fails its checksum at the end of the last
+ * segment is what a crash mid-write leaves behind: it was never acknowledged, so it is truncated away.
+ * The same thing anywhere else is corruption and opening fails. A writer that cannot publish what it
+ * appended takes it back with truncateTo(), so a later sync or a restart never makes it durable. Not
+ * thread-safe, it has a single writer; only deleteSegmentsThrough() and read() may be used from other threads.
+ * */
+public final class WriteAheadLog implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    static final String SEGMENT_SUFFIX = ".wal";
+    private static final int HEADER_BYTES = 8;
+    // sequence + operation + ID length
+    private static final int MIN_BODY_BYTES = 13;
+    private static final int MAX_BODY_BYTES = 16 * 1024 * 1024;
+    // The most a record with an empty product ID, like a single UPSERT_BATCH, can carry
+    public static final int MAX_PAYLOAD_BYTES = MAX_BODY_BYTES - MIN_BODY_BYTES;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private FileChannel segment;
+    private long segmentFirstSequence;
+    private long segmentSize;
+    private long lastSequence;
+
+    private WriteAheadLog(Path directory, long segmentBytes, long lastSequence) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.lastSequence = lastSequence;
+    }
+
+    /*
+     * Replays every record with a sequence above afterSequence, oldest first, then leaves the log ready
+     * for appends. New records continue after afterSequence even if no segment is left.
+     * */
+    public static WriteAheadLog open(Path directory, long segmentBytes, long afterSequence,
+                                     Consumer<WalRecord> consumer) throws IOException {
+        Files.createDirectories(directory);
+        List<Path> segments = segments(directory);
+        long lastSequence = afterSequence;
+        long previous = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            previous = replay(segments.get(i), i == segments.size() - 1, previous, afterSequence, consumer);
+            lastSequence = Math.max(lastSequence, previous);
+        }
+        WriteAheadLog log = new WriteAheadLog(directory, segmentBytes, lastSequence);
+        if (segments.isEmpty()) {
+            log.startSegment();
+        } else {
+            Path tail = segments.get(segments.size() - 1);
+            log.segment = FileChannel.open(tail, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            log.segmentFirstSequence = firstSequence(tail);
+            log.segmentSize = log.segment.size();
+        }
+        return log;
+    }
+
+    /*
+     * Reads the records after afterSequence up to throughSequence, oldest first, next to the writer and
+     * without touching the files. Only durable, published sequences are safe to read through: whatever is
+     * after them may still be taken back. Fails when the segments no longer reach back to afterSequence.
+     * */
+    public static Reader read(Path directory, long afterSequence, long throughSequence) throws IOException {
+        return new Reader(directory, afterSequence, throughSequence);
+    }
+
+    // Written but not durable until sync(); returns the record's sequence
+    public long append(WalOperation operation, String productId, byte[] payload) throws IOException {
+        if (segmentSize >= segmentBytes) {
+            roll();
+        }
+        long sequence = lastSequence + 1;
+        byte[] id = productId.getBytes(StandardCharsets.UTF_8);
+        int length = MIN_BODY_BYTES + id.length + payload.length;
+        if (length > MAX_BODY_BYTES) {
+            throw new IOException("WAL record for " + productId + " is " + length + " bytes, the limit is " + MAX_BODY_BYTES);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + length);
+        buffer.putInt(length).putInt(0);
+        buffer.putLong(sequence).put(operation.code()).putInt(id.length).put(id).put(payload);
+        buffer.putInt(4, checksum(buffer.array(), HEADER_BYTES, length));
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                segment.write(buffer);
+            }
+        } catch (IOException e) {
+            // Never leave a partial record in front of the next one
+            segment.truncate(segmentSize);
+            throw e;
+        }
+        segmentSize += buffer.limit();
+        lastSequence = sequence;
+        return sequence;
+    }
+
+    /*
+     * Where the next record goes. A full segment is rolled first, so the position is always inside the
+     * segment the next append writes to and no checkpoint can delete that segment while it is in use.
+     * */
+    public Position position() throws IOException {
+        if (segmentSize >= segmentBytes) {
+            roll();
+        }
+        return new Position(segmentFirstSequence, segmentSize, lastSequence);
+    }
+
+    /*
+     * Drops every record appended since position() returned position, synced or not, and deletes the
+     * segments started since. The truncation is synced before returning, so the dropped sequences can be
+     * handed out again. When this fails the log is in an unknown state and must not be appended to.
+     * */
+    public void truncateTo(Position position) throws IOException {
+        if (position.segment() != segmentFirstSequence) {
+            segment.close();
+            for (Path path : segments(directory)) {
+                if (firstSequence(path) > position.segment()) {
+                    Files.delete(path);
+                }
+            }
+            syncDirectory(directory);
+            segment = FileChannel.open(directory.resolve(segmentName(position.segment())),
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            segmentFirstSequence = position.segment();
+        }
+        segment.truncate(position.bytes());
+        segment.force(true);
+        segmentSize = position.bytes();
+        lastSequence = position.sequence();
+    }
+
+    /*
+     * Deletes the oldest segments whose records are all at or below sequence, once a checkpoint covers
+     * them. The last segment is never touched: it may be the one being appended to, and a segment is only
+     * known to be complete once the next one exists. Oldest first, so a crash in between leaves no gap.
+     * */
+    public int deleteSegmentsThrough(long sequence) throws IOException {
+        List<Path> segments = segments(directory);
+        int deleted = 0;
+        for (int i = 0; i < segments.size() - 1; i++) {
+            if (firstSequence(segments.get(i + 1)) - 1 > sequence) {
+                break;
+            }
+            Files.delete(segments.get(i));
+            deleted++;
+        }
+        if (deleted > 0) {
+            syncDirectory(directory);
+        }
+        return deleted;
+    }
+
+    public void sync() throws IOException {
+        segment.force(false);
+    }
+
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (segment != null && segment.isOpen()) {
+            segment.force(false);
+            segment.close();
+        }
+    }
+
+    private void roll() throws IOException {
+        segment.force(false);
+        segment.close();
+        startSegment();
+    }
+
+    private void startSegment() throws IOException {
+        Path path = directory.resolve(segmentName(lastSequence + 1));
+        segment = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        segmentFirstSequence = lastSequence + 1;
+        segmentSize = 0;
+        syncDirectory(directory);
+    }
+
+    private static long replay(Path path, boolean tail, long previous, long afterSequence,
+                               Consumer<WalRecord> consumer) throws IOException {
+        long validBytes = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            while (true) {
+                byte[] body = readBody(in);
+                if (body == null) {
+                    break;
+                }
+                WalRecord record = decode(body, path);
+                if (record.sequence() <= previous) {
+                    break;
+                }
+                previous = record.sequence();
+                validBytes += HEADER_BYTES + body.length;
+                if (record.sequence() > afterSequence) {
+                    consumer.accept(record);
+                }
+            }
+        }
+        long size = Files.size(path);
+        if (validBytes < size) {
+            if (!tail) {
+                throw new IOException("Corrupt record in WAL segment " + path + " at offset " + validBytes);
+            }
+            logger.warn("Truncating {} bytes of unacknowledged writes at the end of {}", size - validBytes, path);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(validBytes);
+                channel.force(true);
+            }
+        }
+        return previous;
+    }
+
+    // null at the end of the valid records
+    private static byte[] readBody(DataInputStream in) throws IOException {
+        try {
+            int length = in.readInt();
+            int checksum = in.readInt();
+            if (length < MIN_BODY_BYTES || length > MAX_BODY_BYTES) {
+                return null;
+            }
+            byte[] body = new byte[length];
+            in.readFully(body);
+            return checksum(body, 0, length) == checksum ? body : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private static WalRecord decode(byte[] body, Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        long sequence = buffer.getLong();
+        byte code = buffer.get();
+        WalOperation operation = WalOperation.fromCode(code);
+        if (operation == null) {
+            // Checksum is fine, so this was written by a newer version; dropping it would lose data
+            throw new IOException("Unknown WAL operation " + code + " in " + path + " at sequence " + sequence);
+        }
+        int idLength = buffer.getInt();
+        if (idLength < 0 || idLength > buffer.remaining()) {
+            throw new IOException("Malformed WAL record in " + path + " at sequence " + sequence);
+        }
+        byte[] id = new byte[idLength];
+        buffer.get(id);
+        byte[] payload = new byte[buffer.remaining()];
+        buffer.get(payload);
+        return new WalRecord(sequence, operation, new String(id, StandardCharsets.UTF_8), payload);
+    }
+
+    static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    // Zero padded so that name order is sequence order
+    static String segmentName(long firstSequence) {
+        return String.format("%020d%s", firstSequence, SEGMENT_SUFFIX);
+    }
+
+    private static int checksum(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    // Makes created, renamed or deleted directory entries durable; not supported on every platform
+    public static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            logger.debug("Directory {} cannot be synced on this platform", directory);
+        }
+    }
+
+    public static final class Reader implements Closeable {
+
+        private final List<Path> segments;
+        private final long throughSequence;
+        private int next;
+        private Path path;
+        private DataInputStream in;
+        private long previous;
+
+        private Reader(Path directory, long afterSequence, long throughSequence) throws IOException {
+            List<Path> all = segments(directory);
+            int first = 0;
+            // Segments that end at or before afterSequence have nothing to read
+            while (first + 1 < all.size() && firstSequence(all.get(first + 1)) - 1 <= afterSequence) {
+                first++;
+            }
+            if (afterSequence < throughSequence
+                    && (first == all.size() || firstSequence(all.get(first)) > afterSequence + 1)) {
+                throw new NoSuchFileException(directory.toString(), null,
+                        "no segment has the records after sequence " + afterSequence);
+            }
+            this.segments = all.subList(first, all.size());
+            this.throughSequence = throughSequence;
+            this.previous = afterSequence;
+        }
+
+        // null once throughSequence was read
+        public WalRecord next() throws IOException {
+            while (previous < throughSequence) {
+                if (in == null) {
+                    if (next == segments.size()) {
+                        throw new EOFException("WAL ends at sequence " + previous + ", before " + throughSequence);
+                    }
+                    path = segments.get(next++);
+                    in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)));
+                }
+                byte[] body = readBody(in);
+                if (body == null) {
+                    in.close();
+                    in = null;
+                    continue;
+                }
+                WalRecord record = decode(body, path);
+                if (record.sequence() > throughSequence) {
+                    break;
+                }
+                if (record.sequence() > previous) {
+                    previous = record.sequence();
+                    return record;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (in != null) {
+                in.close();
+            }
+        }
+    }
+
+    // The first sequence of a segment, a byte offset in it and the last sequence written before that offset
+    public record Position(long segment, long bytes, long sequence) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.meli.technical.exam.api.products.infrastructure.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meli.technical.exam.api.products.infrastructure.metrics.ProductMetrics;
+import com.meli.technical.exam.api.products.infrastructure.metrics.TimedJackson2JsonEncoder;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+@Configuration
+public class MetricsConfiguration {
+
+    // Runs after Spring Boot's own Jackson customizer so our encoder is the one that stays registered
+    @Bean
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public CodecCustomizer timedJacksonCodecCustomizer(ObjectMapper objectMapper, ProductMetrics productMetrics) {
+        return configurer -> configurer.defaultCodecs()
+                .jackson2JsonEncoder(new TimedJackson2JsonEncoder(objectMapper, productMetrics));
+    }
+}
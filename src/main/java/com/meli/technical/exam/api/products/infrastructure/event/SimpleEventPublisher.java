@@ -2,6 +2,7 @@ package com.meli.technical.exam.api.products.infrastructure.event;
 
 import com.meli.technical.exam.api.products.domain.event.DomainEvent;
 import com.meli.technical.exam.api.products.domain.event.DomainEventPublisher;
+import com.meli.technical.exam.api.products.infrastructure.jfr.ProductFlightRecorder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -13,6 +14,12 @@ import java.util.List;
 public class SimpleEventPublisher implements DomainEventPublisher {
     
     private static final Logger logger = LoggerFactory.getLogger(SimpleEventPublisher.class);
+
+    private final ProductFlightRecorder flightRecorder;
+
+    public SimpleEventPublisher(ProductFlightRecorder flightRecorder) {
+        this.flightRecorder = flightRecorder;
+    }
     
     @Override
     public void publish(DomainEvent event) {
@@ -21,6 +28,8 @@ public class SimpleEventPublisher implements DomainEventPublisher {
     
     @Override
     public void publishAll(List<DomainEvent> events) {
+        ProductFlightRecorder.CountRecording drain = flightRecorder.beginPublisherDrain();
         events.forEach(this::publish);
+        drain.end(events.size());
     }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.meli.technical.exam.api.products.infrastructure.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("com.meli.products.ComparisonRequest")
+@Label("Product Comparison Request")
+@Category({"Products", "Comparison"})
+@Description("A full /compare request, from repository fetch to the end of the analysis")
+final class ComparisonRequestEvent extends jdk.jfr.Event {
+
+    @Label("Requested IDs")
+    int idCount;
+
+    @Label("Found Products")
+    int foundCount;
+
+    @Label("Fetch Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long fetchDuration;
+
+    @Label("Analysis Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long analysisDuration;
+}
@@ -0,0 +1,16 @@
+package com.meli.technical.exam.api.products.infrastructure.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.meli.products.EventPublisherDrain")
+@Label("Domain Event Publisher Drain")
+@Category({"Products", "Events"})
+@Description("Publication of a batch of domain events")
+final class EventPublisherDrainEvent extends jdk.jfr.Event {
+
+    @Label("Event Count")
+    int eventCount;
+}
@@ -0,0 +1,153 @@
+package com.meli.technical.exam.api.products.infrastructure.jfr;
+
+import com.meli.technical.exam.api.products.domain.metrics.ComparisonRecorder;
+import jdk.jfr.FlightRecorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+
+/*
+ * Emits the custom JFR events of the application. When app.products.jfr.enabled is false every
+ * method hands back the source publisher or a shared no-op recording, so nothing is allocated on the hot path.
+ * When enabled, events are still only committed if the running recording has them switched on.
+ * */
+@Component
+public class ProductFlightRecorder implements ComparisonRecorder {
+
+    private final boolean enabled;
+
+    public ProductFlightRecorder(@Value("${app.products.jfr.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+        if (enabled) {
+            FlightRecorder.register(RepositoryLookupEvent.class);
+            FlightRecorder.register(ComparisonRequestEvent.class);
+            FlightRecorder.register(SnapshotReloadEvent.class);
+            FlightRecorder.register(EventPublisherDrainEvent.class);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public <T> Flux<T> recordLookup(String operation, int requestedCount, Flux<T> source) {
+        if (!enabled) {
+            return source;
+        }
+        return Flux.defer(() -> {
+            RepositoryLookupEvent event = new RepositoryLookupEvent();
+            if (!event.isEnabled()) {
+                return source;
+            }
+            event.operation = operation;
+            event.requestedCount = requestedCount;
+            AtomicInteger found = new AtomicInteger();
+            event.begin();
+            return source
+                    .doOnNext(item -> found.incrementAndGet())
+                    .doFinally(signal -> {
+                        event.foundCount = found.get();
+                        event.commit();
+                    });
+        });
+    }
+
+    public <T> Mono<T> recordLookup(String operation, Mono<T> source) {
+        if (!enabled) {
+            return source;
+        }
+        return recordLookup(operation, 1, source.flux()).next();
+    }
+
+    // A lookup answering all requested IDs in one value, foundCount tells how many of them it found
+    public <T> Mono<T> recordLookup(String operation, int requestedCount, Mono<T> source, ToIntFunction<T> foundCount) {
+        if (!enabled) {
+            return source;
+        }
+        return Mono.defer(() -> {
+            RepositoryLookupEvent event = new RepositoryLookupEvent();
+            if (!event.isEnabled()) {
+                return source;
+            }
+            event.operation = operation;
+            event.requestedCount = requestedCount;
+            event.begin();
+            return source
+                    .doOnNext(value -> event.foundCount = foundCount.applyAsInt(value))
+                    .doFinally(signal -> event.commit());
+        });
+    }
+
+    @Override
+    public ComparisonRecording beginComparison(int idCount) {
+        if (!enabled) {
+            return ComparisonRecording.NOOP;
+        }
+        ComparisonRequestEvent event = new ComparisonRequestEvent();
+        if (!event.isEnabled()) {
+            return ComparisonRecording.NOOP;
+        }
+        event.idCount = idCount;
+        event.begin();
+        long start = System.nanoTime();
+        return new ComparisonRecording() {
+            private long fetchedAt = start;
+
+            @Override
+            public void fetched(int foundCount) {
+                fetchedAt = System.nanoTime();
+                event.foundCount = foundCount;
+                event.fetchDuration = fetchedAt - start;
+            }
+
+            @Override
+            public void end() {
+                event.analysisDuration = System.nanoTime() - fetchedAt;
+                event.commit();
+            }
+        };
+    }
+
+    public CountRecording beginSnapshotReload(String source) {
+        if (!enabled) {
+            return CountRecording.NOOP;
+        }
+        SnapshotReloadEvent event = new SnapshotReloadEvent();
+        if (!event.isEnabled()) {
+            return CountRecording.NOOP;
+        }
+        event.source = source;
+        event.begin();
+        return productCount -> {
+            event.productCount = productCount;
+            event.commit();
+        };
+    }
+
+    public CountRecording beginPublisherDrain() {
+        if (!enabled) {
+            return CountRecording.NOOP;
+        }
+        EventPublisherDrainEvent event = new EventPublisherDrainEvent();
+        if (!event.isEnabled()) {
+            return CountRecording.NOOP;
+        }
+        event.begin();
+        return eventCount -> {
+            event.eventCount = eventCount;
+            event.commit();
+        };
+    }
+
+    @FunctionalInterface
+    public interface CountRecording {
+
+        CountRecording NOOP = count -> { };
+
+        void end(int count);
+    }
+}
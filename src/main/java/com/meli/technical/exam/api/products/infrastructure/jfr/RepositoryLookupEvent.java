@@ -0,0 +1,22 @@
+package com.meli.technical.exam.api.products.infrastructure.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.meli.products.RepositoryLookup")
+@Label("Product Repository Lookup")
+@Category({"Products", "Repository"})
+@Description("Lookup of one or more products in the in-memory catalog")
+final class RepositoryLookupEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Requested IDs")
+    int requestedCount;
+
+    @Label("Found Products")
+    int foundCount;
+}
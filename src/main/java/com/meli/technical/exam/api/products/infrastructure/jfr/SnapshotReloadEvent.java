@@ -0,0 +1,19 @@
+package com.meli.technical.exam.api.products.infrastructure.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.meli.products.SnapshotReload")
+@Label("Catalog Snapshot Reload")
+@Category({"Products", "Repository"})
+@Description("Load or reload of the product catalog held in memory")
+final class SnapshotReloadEvent extends jdk.jfr.Event {
+
+    @Label("Source")
+    String source;
+
+    @Label("Product Count")
+    int productCount;
+}
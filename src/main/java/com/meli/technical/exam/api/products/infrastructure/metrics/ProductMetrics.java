@@ -0,0 +1,221 @@
+package com.meli.technical.exam.api.products.infrastructure.metrics;
+
+import com.meli.technical.exam.api.products.domain.metrics.PipelineMetrics;
+import com.meli.technical.exam.api.products.infrastructure.web.trace.RequestTrace;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/*
+ * Central place for the comparison pipeline meters, so every stage is published with the same
+ * names, tags and percentile histograms under /actuator/metrics.
+ * Stage timings are also added to the RequestTrace of the current request, when there is one.
+ * This is the Micrometer adapter behind the domain's PipelineMetrics port.
+ * */
+@Component
+public class ProductMetrics implements PipelineMetrics {
+
+    public static final String STAGE_REPOSITORY_FETCH = "repository_fetch";
+    public static final String STAGE_SERIALIZATION = "serialization";
+    public static final String STAGE_SEARCH = "search";
+    public static final String STAGE_SUGGEST = "suggest";
+    public static final String STAGE_FACETS = "facets";
+    public static final String STAGE_BEST_VALUE = "best_value";
+    public static final String STAGE_SIMILAR = "similar";
+    public static final String STAGE_WRITE = "write";
+    public static final String STAGE_IMPORT_WRITE = "import_write";
+    public static final String STAGE_DELTA = "delta";
+    public static final String STAGE_PARTITION_HOP = "partition_hop";
+
+    static final String STAGE_TIMER = "products.pipeline.stage";
+    static final String STRATEGY_TIMER = "products.analysis.strategy";
+    static final String NOT_FOUND_COUNTER = "products.not.found";
+    static final String IMPORT_RECORDS_COUNTER = "products.import.records";
+    static final String PARTITION_HOP_FAILURES_COUNTER = "products.partition.hop.failures";
+    static final String PEER_INVALIDATIONS_COUNTER = "products.partition.invalidations";
+    static final String CATALOG_SIZE_GAUGE = "products.catalog.size";
+    static final String CATALOG_UNIQUE_STRINGS_GAUGE = "products.catalog.strings.unique";
+    static final String CATALOG_DEDUP_SAVED_GAUGE = "products.catalog.dedup.saved";
+    static final String CATALOG_PINNED_SNAPSHOTS_GAUGE = "products.catalog.snapshots.pinned";
+    static final String CHANGE_SUBSCRIBERS_GAUGE = "products.changes.subscribers";
+    static final String REMOTE_CACHE_SIZE_GAUGE = "products.partition.cache.size";
+    static final String REPLICATION_LAG_GAUGE = "products.replication.lag";
+    static final String REPLICATION_LAG_RECORDS_GAUGE = "products.replication.lag.records";
+
+    private static final String UNKNOWN = "UNKNOWN";
+    private static final String STRATEGY_STAGE_PREFIX = "strategy.";
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> strategyTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> notFoundCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> importCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> hopFailureCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> invalidationCounters = new ConcurrentHashMap<>();
+
+    public ProductMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public <T> Mono<T> timeStage(String stage, Mono<T> source) {
+        return time(stage, stageTimer(stage), source);
+    }
+
+    public <T> Flux<T> timeStage(String stage, Flux<T> source) {
+        Timer timer = stageTimer(stage);
+        return Flux.deferContextual(context -> {
+            RequestTrace trace = context.getOrDefault(RequestTrace.CONTEXT_KEY, null);
+            long start = System.nanoTime();
+            return source.doFinally(signal -> record(timer, trace, stage, System.nanoTime() - start));
+        });
+    }
+
+    @Override
+    public <T> Mono<T> timeStrategy(String analysisType, Mono<T> source) {
+        String type = analysisType != null ? analysisType : UNKNOWN;
+        return time(STRATEGY_STAGE_PREFIX + type, strategyTimer(type), source);
+    }
+
+    // For synchronous stages; the trace is taken from the context restored around the calling operator
+    @Override
+    public void recordStage(String stage, long startNanos) {
+        record(stageTimer(stage), RequestTrace.current(), stage, System.nanoTime() - startNanos);
+    }
+
+    @Override
+    public void incrementNotFound(String operation, long amount) {
+        if (amount <= 0) {
+            return;
+        }
+        notFoundCounters.computeIfAbsent(operation, op -> Counter.builder(NOT_FOUND_COUNTER)
+                        .description("Requested product IDs that are not present in the catalog")
+                        .tag("operation", op)
+                        .register(registry))
+                .increment(amount);
+    }
+
+    // outcome is "imported" or "rejected"
+    @Override
+    public void incrementImported(String outcome, long amount) {
+        if (amount <= 0) {
+            return;
+        }
+        importCounters.computeIfAbsent(outcome, o -> Counter.builder(IMPORT_RECORDS_COUNTER)
+                        .description("Records received by the bulk import, by outcome")
+                        .tag("outcome", o)
+                        .register(registry))
+                .increment(amount);
+    }
+
+    // node is the URL of the instance that failed or timed out
+    public void incrementPartitionHopFailure(String node) {
+        hopFailureCounters.computeIfAbsent(node, n -> Counter.builder(PARTITION_HOP_FAILURES_COUNTER)
+                        .description("Lookups another partition of the catalog did not answer in time")
+                        .tag("node", n)
+                        .register(registry))
+                .increment();
+    }
+
+    // outcome is "sent", "received" or "dropped"; amount counts product IDs, or datagrams when dropped
+    public void incrementPeerInvalidation(String outcome, long amount) {
+        if (amount <= 0) {
+            return;
+        }
+        invalidationCounters.computeIfAbsent(outcome, o -> Counter.builder(PEER_INVALIDATIONS_COUNTER)
+                        .description("Product invalidations exchanged with the other partitions, by outcome")
+                        .tag("outcome", o)
+                        .register(registry))
+                .increment(amount);
+    }
+
+    // Suppliers are read on every scrape, so they should point at the current snapshot rather than a copy
+    public void registerCatalogGauges(Supplier<Number> productCount, Supplier<Number> uniqueStrings,
+                                      Supplier<Number> dedupSavedBytes) {
+        Gauge.builder(CATALOG_SIZE_GAUGE, productCount)
+                .description("Products in the current catalog snapshot")
+                .register(registry);
+        Gauge.builder(CATALOG_UNIQUE_STRINGS_GAUGE, uniqueStrings)
+                .description("Distinct specification keys and values retained by the current catalog snapshot")
+                .register(registry);
+        Gauge.builder(CATALOG_DEDUP_SAVED_GAUGE, dedupSavedBytes)
+                .description("Estimated heap not retained thanks to load-time deduplication of specifications")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    public void registerPinnedSnapshotsGauge(Supplier<Number> pinnedSnapshots) {
+        Gauge.builder(CATALOG_PINNED_SNAPSHOTS_GAUGE, pinnedSnapshots)
+                .description("Catalog versions kept readable for paginating clients")
+                .register(registry);
+    }
+
+    public void registerChangeSubscribersGauge(Supplier<Number> subscribers) {
+        Gauge.builder(CHANGE_SUBSCRIBERS_GAUGE, subscribers)
+                .description("Clients following the catalog change stream")
+                .register(registry);
+    }
+
+    public void registerRemoteCacheGauge(Supplier<Number> cachedProducts) {
+        Gauge.builder(REMOTE_CACHE_SIZE_GAUGE, cachedProducts)
+                .description("Products of other partitions cached by this instance")
+                .register(registry);
+    }
+
+    public void registerReplicationGauges(Supplier<Number> lagSeconds, Supplier<Number> lagRecords) {
+        Gauge.builder(REPLICATION_LAG_GAUGE, lagSeconds)
+                .description("Time since this follower last had every change its leader had reported")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder(REPLICATION_LAG_RECORDS_GAUGE, lagRecords)
+                .description("Log records the leader has reported that this follower has not applied yet")
+                .register(registry);
+    }
+
+    private <T> Mono<T> time(String traceStage, Timer timer, Mono<T> source) {
+        return Mono.deferContextual(context -> {
+            RequestTrace trace = context.getOrDefault(RequestTrace.CONTEXT_KEY, null);
+            long start = System.nanoTime();
+            return source.doFinally(signal -> record(timer, trace, traceStage, System.nanoTime() - start));
+        });
+    }
+
+    private void record(Timer timer, RequestTrace trace, String traceStage, long elapsedNanos) {
+        timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (trace != null) {
+            trace.recordStage(traceStage, elapsedNanos);
+        }
+    }
+
+    private Timer stageTimer(String stage) {
+        return stageTimers.computeIfAbsent(stage, s -> histogramTimer(STAGE_TIMER)
+                .description("Latency of each stage of the product read and comparison pipeline")
+                .tag("stage", s)
+                .register(registry));
+    }
+
+    private Timer strategyTimer(String type) {
+        return strategyTimers.computeIfAbsent(type, t -> histogramTimer(STRATEGY_TIMER)
+                .description("Latency of each product analysis strategy")
+                .tag("type", t)
+                .register(registry));
+    }
+
+    private static Timer.Builder histogramTimer(String name) {
+        return Timer.builder(name)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(1_000))
+                .maximumExpectedValue(Duration.ofSeconds(5));
+    }
+}
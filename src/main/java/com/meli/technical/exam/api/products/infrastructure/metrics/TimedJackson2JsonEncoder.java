@@ -0,0 +1,36 @@
+package com.meli.technical.exam.api.products.infrastructure.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+
+import java.util.Map;
+
+/*
+ * Jackson encoder that reports how long each response body takes to serialize.
+ * Every single-value and streamed element goes through encodeValue, so this covers all JSON responses.
+ * */
+public class TimedJackson2JsonEncoder extends Jackson2JsonEncoder {
+
+    private final ProductMetrics productMetrics;
+
+    public TimedJackson2JsonEncoder(ObjectMapper objectMapper, ProductMetrics productMetrics) {
+        super(objectMapper);
+        this.productMetrics = productMetrics;
+    }
+
+    @Override
+    public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType,
+                                  @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        long start = System.nanoTime();
+        try {
+            return super.encodeValue(value, bufferFactory, valueType, mimeType, hints);
+        } finally {
+            productMetrics.recordStage(ProductMetrics.STAGE_SERIALIZATION, start);
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.meli.technical.exam.api.products.infrastructure.web;
 
 import com.meli.technical.exam.api.products.domain.exception.*;
-import com.meli.technical.exam.api.products.infrastructure.web.utils.TraceIdGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -18,19 +17,79 @@ import java.util.Map;
 public class GlobalExceptionHandler {
     
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+    // 421 Misdirected Request, which HttpStatus only knows under an older WebDAV name
+    private static final HttpStatus MISDIRECTED_REQUEST = HttpStatus.valueOf(421);
     
     @ExceptionHandler(ProductNotFoundException.class)
-    public ResponseEntity<Map<String, Object>> handleProductNotFoundException(
+    public ResponseEntity<NotFoundBody> handleProductNotFoundException(
             ProductNotFoundException ex, ServerWebExchange exchange) {
-        logger.warn("Product not found: {}", ex.getMessage());
+        logger.debug("Product not found: {}", ex.getMessage());
         String path = exchange.getRequest().getPath().value();
-        return buildErrorResponse(HttpStatus.NOT_FOUND, ex.getMessage(), "The requested product does not exist in our catalog", path);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(NotFoundBody.of(ex.getMessage(), TraceIdWebFilter.traceIdOf(exchange), path));
+    }
+    
+    @ExceptionHandler(ProductAlreadyExistsException.class)
+    public ResponseEntity<Map<String, Object>> handleProductAlreadyExistsException(
+            ProductAlreadyExistsException ex, ServerWebExchange exchange) {
+        logger.warn("Product already exists: {}", ex.getMessage());
+        String path = exchange.getRequest().getPath().value();
+        return buildErrorResponse(exchange, HttpStatus.CONFLICT, "Product already exists", ex.getMessage(), path);
+    }
+    
+    @ExceptionHandler(ProductVersionMismatchException.class)
+    public ResponseEntity<Map<String, Object>> handleProductVersionMismatchException(
+            ProductVersionMismatchException ex, ServerWebExchange exchange) {
+        logger.debug("Product version mismatch: {}", ex.getMessage());
+        String path = exchange.getRequest().getPath().value();
+        return buildErrorResponse(exchange, HttpStatus.PRECONDITION_FAILED, "Product was modified", ex.getMessage(), path);
+    }
+    
+    @ExceptionHandler(ProductOwnedElsewhereException.class)
+    public ResponseEntity<Map<String, Object>> handleProductOwnedElsewhereException(
+            ProductOwnedElsewhereException ex, ServerWebExchange exchange) {
+        logger.debug("Write sent to the wrong partition: {}", ex.getMessage());
+        String path = exchange.getRequest().getPath().value();
+        return buildErrorResponse(exchange, MISDIRECTED_REQUEST, "Wrong partition", ex.getMessage(), path);
+    }
+
+    @ExceptionHandler(PartitionUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handlePartitionUnavailableException(
+            PartitionUnavailableException ex, ServerWebExchange exchange) {
+        logger.debug("Partition unavailable: {}", ex.getMessage());
+        String path = exchange.getRequest().getPath().value();
+        return buildErrorResponse(exchange, HttpStatus.SERVICE_UNAVAILABLE, "Partition unavailable", ex.getMessage(), path);
+    }
+
+    @ExceptionHandler(ReadOnlyReplicaException.class)
+    public ResponseEntity<Map<String, Object>> handleReadOnlyReplicaException(
+            ReadOnlyReplicaException ex, ServerWebExchange exchange) {
+        logger.debug("Write sent to a read-only replica: {}", ex.getMessage());
+        String path = exchange.getRequest().getPath().value();
+        return buildErrorResponse(exchange, MISDIRECTED_REQUEST, "Read-only replica", ex.getMessage(), path);
+    }
+    
+    @ExceptionHandler(SnapshotExpiredException.class)
+    public ResponseEntity<Map<String, Object>> handleSnapshotExpiredException(
+            SnapshotExpiredException ex, ServerWebExchange exchange) {
+        logger.debug("Catalog snapshot expired: {}", ex.getMessage());
+        String path = exchange.getRequest().getPath().value();
+        return buildErrorResponse(exchange, HttpStatus.GONE, "Snapshot expired", ex.getMessage(), path);
+    }
+    
+    @ExceptionHandler(ChangeHistoryExpiredException.class)
+    public ResponseEntity<Map<String, Object>> handleChangeHistoryExpiredException(
+            ChangeHistoryExpiredException ex, ServerWebExchange exchange) {
+        logger.debug("Change history expired: {}", ex.getMessage());
+        String path = exchange.getRequest().getPath().value();
+        return buildErrorResponse(exchange, HttpStatus.GONE, "Change history expired", ex.getMessage(), path);
     }
     
     @ExceptionHandler(InvalidProductException.class)
-    public ResponseEntity<Map<String, Object>> handleInvalidProductException(InvalidProductException ex) {
+    public ResponseEntity<Map<String, Object>> handleInvalidProductException(
+            InvalidProductException ex, ServerWebExchange exchange) {
         logger.warn("Invalid product: {}", ex.getMessage());
-        return buildErrorResponse(HttpStatus.BAD_REQUEST, "Invalid product", ex.getMessage());
+        return buildErrorResponse(exchange, HttpStatus.BAD_REQUEST, "Invalid product", ex.getMessage());
     }
     
     @ExceptionHandler(ProductValidationException.class)
@@ -38,7 +97,7 @@ public class GlobalExceptionHandler {
             ProductValidationException ex, ServerWebExchange exchange) {
         logger.warn("Product validation failed: {}", ex.getMessage());
         String path = exchange.getRequest().getPath().value();
-        Map<String, Object> errorResponse = buildErrorResponseMap(HttpStatus.BAD_REQUEST, "Validation Failed", "Invalid input provided", path);
+        Map<String, Object> errorResponse = buildErrorResponseMap(exchange, HttpStatus.BAD_REQUEST, "Validation Failed", "Invalid input provided", path);
         
         if (ex.hasFieldErrors()) {
             errorResponse.put("validationErrors", ex.getFieldErrors());
@@ -52,30 +111,34 @@ public class GlobalExceptionHandler {
     }
     
     @ExceptionHandler(ProductComparisonException.class)
-    public ResponseEntity<Map<String, Object>> handleProductComparisonException(ProductComparisonException ex) {
+    public ResponseEntity<Map<String, Object>> handleProductComparisonException(
+            ProductComparisonException ex, ServerWebExchange exchange) {
         logger.warn("Product comparison failed: {}", ex.getMessage());
-        Map<String, Object> errorResponse = buildErrorResponseMap(HttpStatus.BAD_REQUEST, "Comparison failed", ex.getMessage());
+        Map<String, Object> errorResponse = buildErrorResponseMap(exchange, HttpStatus.BAD_REQUEST, "Comparison failed", ex.getMessage());
         errorResponse.put("requestedProductIds", ex.getRequestedProductIds());
         errorResponse.put("foundProductIds", ex.getFoundProductIds());
         return ResponseEntity.badRequest().body(errorResponse);
     }
     
     @ExceptionHandler(ProductDataException.class)
-    public ResponseEntity<Map<String, Object>> handleProductDataException(ProductDataException ex) {
+    public ResponseEntity<Map<String, Object>> handleProductDataException(
+            ProductDataException ex, ServerWebExchange exchange) {
         logger.error("Product data error: {}", ex.getMessage(), ex);
-        return buildErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Data access error", "Unable to access product data");
+        return buildErrorResponse(exchange, HttpStatus.INTERNAL_SERVER_ERROR, "Data access error", "Unable to access product data");
     }
     
     @ExceptionHandler(IllegalArgumentException.class)
-    public ResponseEntity<Map<String, Object>> handleIllegalArgumentException(IllegalArgumentException ex) {
+    public ResponseEntity<Map<String, Object>> handleIllegalArgumentException(
+            IllegalArgumentException ex, ServerWebExchange exchange) {
         logger.warn("Invalid argument: {}", ex.getMessage());
-        return buildErrorResponse(HttpStatus.BAD_REQUEST, "Invalid argument", ex.getMessage());
+        return buildErrorResponse(exchange, HttpStatus.BAD_REQUEST, "Invalid argument", ex.getMessage());
     }
     
     @ExceptionHandler(BusinessRuleViolationException.class)
-    public ResponseEntity<Map<String, Object>> handleBusinessRuleViolationException(BusinessRuleViolationException ex) {
+    public ResponseEntity<Map<String, Object>> handleBusinessRuleViolationException(
+            BusinessRuleViolationException ex, ServerWebExchange exchange) {
         logger.warn("Business rule violation: {}", ex.getMessage());
-        Map<String, Object> errorResponse = buildErrorResponseMap(HttpStatus.UNPROCESSABLE_ENTITY, "Business Rule Violation", ex.getMessage());
+        Map<String, Object> errorResponse = buildErrorResponseMap(exchange, HttpStatus.UNPROCESSABLE_ENTITY, "Business Rule Violation", ex.getMessage());
         errorResponse.put("businessRule", ex.getBusinessRule());
         if (ex.getLimit() != null) {
             errorResponse.put("limit", ex.getLimit());
@@ -87,33 +150,46 @@ public class GlobalExceptionHandler {
     }
     
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<Map<String, Object>> handleGenericException(Exception ex) {
+    public ResponseEntity<Map<String, Object>> handleGenericException(Exception ex, ServerWebExchange exchange) {
         logger.error("Unexpected error occurred", ex);
-        return buildErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Internal server error", "An unexpected error occurred");
+        return buildErrorResponse(exchange, HttpStatus.INTERNAL_SERVER_ERROR, "Internal server error", "An unexpected error occurred");
     }
     
-    private ResponseEntity<Map<String, Object>> buildErrorResponse(HttpStatus status, String error, String message) {
-        return ResponseEntity.status(status).body(buildErrorResponseMap(status, error, message));
+    private ResponseEntity<Map<String, Object>> buildErrorResponse(ServerWebExchange exchange, HttpStatus status, String error, String message) {
+        return ResponseEntity.status(status).body(buildErrorResponseMap(exchange, status, error, message));
     }
     
-    private ResponseEntity<Map<String, Object>> buildErrorResponse(HttpStatus status, String error, String message, String path) {
-        return ResponseEntity.status(status).body(buildErrorResponseMap(status, error, message, path));
+    private ResponseEntity<Map<String, Object>> buildErrorResponse(ServerWebExchange exchange, HttpStatus status, String error, String message, String path) {
+        return ResponseEntity.status(status).body(buildErrorResponseMap(exchange, status, error, message, path));
     }
     
-    private Map<String, Object> buildErrorResponseMap(HttpStatus status, String error, String message) {
-        return buildErrorResponseMap(status, error, message, null);
+    private Map<String, Object> buildErrorResponseMap(ServerWebExchange exchange, HttpStatus status, String error, String message) {
+        return buildErrorResponseMap(exchange, status, error, message, null);
     }
     
-    private Map<String, Object> buildErrorResponseMap(HttpStatus status, String error, String message, String path) {
+    private Map<String, Object> buildErrorResponseMap(ServerWebExchange exchange, HttpStatus status, String error, String message, String path) {
         Map<String, Object> errorResponse = new HashMap<>();
         errorResponse.put("timestamp", Instant.now().toString());
         errorResponse.put("status", status.value());
         errorResponse.put("error", error);
         errorResponse.put("message", message);
-        errorResponse.put("traceId", TraceIdGenerator.generate());
+        errorResponse.put("traceId", TraceIdWebFilter.traceIdOf(exchange));
         if (path != null) {
             errorResponse.put("path", path);
         }
         return errorResponse;
     }
+
+    /*
+     * 404s come in storms from scrapers and stale links, so their body skips the HashMap above. Status and message
+     * are fixed and only the per-request fields are set. Same JSON fields as every other error.
+     * */
+    public record NotFoundBody(String timestamp, int status, String error, String message, String traceId, String path) {
+
+        static final String MESSAGE = "The requested product does not exist in our catalog";
+
+        static NotFoundBody of(String error, String traceId, String path) {
+            return new NotFoundBody(Instant.now().toString(), HttpStatus.NOT_FOUND.value(), error, MESSAGE, traceId, path);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,115 @@
+package com.meli.technical.exam.api.products.infrastructure.web;
+
+import com.meli.technical.exam.api.products.infrastructure.web.trace.RequestTrace;
+import com.meli.technical.exam.api.products.infrastructure.web.trace.RequestTraceListener;
+import com.meli.technical.exam.api.products.infrastructure.web.trace.TraceContextPropagation;
+import com.meli.technical.exam.api.products.infrastructure.web.utils.TraceIdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Assigns every request a trace ID (or accepts the caller's X-Trace-Id) and puts it, together with a
+ * RequestTrace collecting stage timings, into the Reactor Context for the rest of the pipeline.
+ * */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TraceIdWebFilter implements WebFilter {
+
+    public static final String TRACE_HEADER = "X-Trace-Id";
+
+    private static final Logger logger = LoggerFactory.getLogger(TraceIdWebFilter.class);
+    private static final int MAX_TRACE_ID_LENGTH = 64;
+    private static final String UNMATCHED_ENDPOINT = "UNMATCHED";
+
+    private final List<RequestTraceListener> listeners;
+
+    @Autowired
+    public TraceIdWebFilter(ObjectProvider<RequestTraceListener> listeners) {
+        this(listeners.orderedStream().toList());
+    }
+
+    public TraceIdWebFilter(List<RequestTraceListener> listeners) {
+        this.listeners = List.copyOf(listeners);
+        TraceContextPropagation.register();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String traceId = resolveTraceId(exchange.getRequest().getHeaders().getFirst(TRACE_HEADER));
+        RequestTrace trace = new RequestTrace(traceId,
+                exchange.getRequest().getMethod().name(),
+                exchange.getRequest().getPath().value());
+
+        exchange.getAttributes().put(RequestTrace.CONTEXT_KEY, trace);
+        exchange.getResponse().getHeaders().set(TRACE_HEADER, traceId);
+
+        return chain.filter(exchange)
+                .doFinally(signal -> onComplete(exchange, trace))
+                .contextWrite(context -> context
+                        .put(RequestTrace.TRACE_ID_KEY, traceId)
+                        .put(RequestTrace.CONTEXT_KEY, trace));
+    }
+
+    public static String traceIdOf(ServerWebExchange exchange) {
+        RequestTrace trace = exchange.getAttribute(RequestTrace.CONTEXT_KEY);
+        return trace != null ? trace.getTraceId() : TraceIdGenerator.generate();
+    }
+
+    private void onComplete(ServerWebExchange exchange, RequestTrace trace) {
+        long durationNanos = trace.complete(endpointOf(exchange), statusOf(exchange));
+        for (RequestTraceListener listener : listeners) {
+            try {
+                listener.onComplete(trace);
+            } catch (RuntimeException e) {
+                logger.warn("Request trace listener failed for trace {}", trace.getTraceId(), e);
+            }
+        }
+        if (logger.isDebugEnabled()) {
+            try (MDC.MDCCloseable ignored = MDC.putCloseable(RequestTrace.TRACE_ID_KEY, trace.getTraceId())) {
+                logger.debug("{} {} completed in {} ms, stages (ns): {}", trace.getMethod(), trace.getPath(),
+                        TimeUnit.NANOSECONDS.toMillis(durationNanos), trace.getStageNanos());
+            }
+        }
+    }
+
+    private String endpointOf(ServerWebExchange exchange) {
+        Object pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = pattern != null ? pattern.toString() : UNMATCHED_ENDPOINT;
+        return exchange.getRequest().getMethod().name() + " " + route;
+    }
+
+    private int statusOf(ServerWebExchange exchange) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status != null ? status.value() : 200;
+    }
+
+    private String resolveTraceId(@Nullable String candidate) {
+        if (candidate == null || candidate.isEmpty() || candidate.length() > MAX_TRACE_ID_LENGTH) {
+            return TraceIdGenerator.generate();
+        }
+        for (int i = 0; i < candidate.length(); i++) {
+            char c = candidate.charAt(i);
+            boolean allowed = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+            if (!allowed) {
+                return TraceIdGenerator.generate();
+            }
+        }
+        return candidate;
+    }
+}
@@ -0,0 +1,107 @@
+package com.meli.technical.exam.api.products.infrastructure.web.trace;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * Per-request trace travelling in the Reactor Context. Pipeline stages add their elapsed time to it,
+ * so a slow request can be broken down by stage once it completes.
+ * */
+public final class RequestTrace {
+
+    public static final String CONTEXT_KEY = "products.requestTrace";
+    public static final String TRACE_ID_KEY = "traceId";
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    private final String traceId;
+    private final String method;
+    private final String path;
+    private final Instant startedAt;
+    private final long startNanos;
+    private final Map<String, Long> stageNanos = new LinkedHashMap<>();
+    private volatile long durationNanos = -1;
+    private volatile String endpoint;
+    private volatile int status;
+
+    public RequestTrace(String traceId, String method, String path) {
+        this.traceId = traceId;
+        this.method = method;
+        this.path = path;
+        this.startedAt = Instant.now();
+        this.startNanos = System.nanoTime();
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    // A stage recorded more than once in the same request is accumulated
+    public void recordStage(String stage, long nanos) {
+        synchronized (stageNanos) {
+            stageNanos.merge(stage, nanos, Long::sum);
+        }
+    }
+
+    public Map<String, Long> getStageNanos() {
+        synchronized (stageNanos) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(stageNanos));
+        }
+    }
+
+    public long complete(String endpoint, int status) {
+        if (durationNanos < 0) {
+            this.endpoint = endpoint;
+            this.status = status;
+            durationNanos = System.nanoTime() - startNanos;
+        }
+        return durationNanos;
+    }
+
+    public boolean isComplete() {
+        return durationNanos >= 0;
+    }
+
+    // Route pattern the request matched, e.g. "GET /api/v1/products/{id}"; null until completed
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos >= 0 ? durationNanos : System.nanoTime() - startNanos;
+    }
+
+    /*
+     * Thread-bound view of the trace, only populated while Reactor restores the context around an
+     * operator (see TraceContextPropagation). Useful for code that has no access to the Context, like codecs.
+     * */
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    static void setCurrent(RequestTrace trace) {
+        CURRENT.set(trace);
+    }
+
+    static void clearCurrent() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,10 @@
+package com.meli.technical.exam.api.products.infrastructure.web.trace;
+
+@FunctionalInterface
+public interface RequestTraceListener {
+
+    /**
+     * Called once per request, after the response completed, with the final trace.
+     */
+    void onComplete(RequestTrace trace);
+}
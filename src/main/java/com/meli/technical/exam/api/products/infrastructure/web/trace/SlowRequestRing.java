@@ -0,0 +1,72 @@
+package com.meli.technical.exam.api.products.infrastructure.web.trace;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+ * Fixed-size set of the slowest recent samples of one endpoint. Writers replace the fastest (or expired)
+ * slot with a compare-and-set, so recording never takes a lock; a lost race just retries a few times
+ * and then gives up, which is fine for a sampler.
+ * */
+final class SlowRequestRing {
+
+    private static final int MAX_ATTEMPTS = 4;
+
+    private final AtomicReferenceArray<SlowRequestSample> slots;
+    private final long windowMillis;
+
+    SlowRequestRing(int capacity, long windowMillis) {
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.windowMillis = windowMillis;
+    }
+
+    boolean offer(SlowRequestSample sample) {
+        long oldestAllowed = sample.completedAtMillis() - windowMillis;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            int victim = -1;
+            long victimDuration = Long.MAX_VALUE;
+            SlowRequestSample victimSample = null;
+            for (int i = 0; i < slots.length(); i++) {
+                SlowRequestSample current = slots.get(i);
+                long duration = isLive(current, oldestAllowed) ? current.durationNanos() : -1;
+                if (duration < victimDuration) {
+                    victim = i;
+                    victimDuration = duration;
+                    victimSample = current;
+                }
+            }
+            if (victim < 0 || sample.durationNanos() <= victimDuration) {
+                return false;
+            }
+            if (slots.compareAndSet(victim, victimSample, sample)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    List<SlowRequestSample> snapshot(long nowMillis) {
+        long oldestAllowed = nowMillis - windowMillis;
+        List<SlowRequestSample> samples = new ArrayList<>(slots.length());
+        for (int i = 0; i < slots.length(); i++) {
+            SlowRequestSample sample = slots.get(i);
+            if (isLive(sample, oldestAllowed)) {
+                samples.add(sample);
+            }
+        }
+        samples.sort(Comparator.comparingLong(SlowRequestSample::durationNanos).reversed());
+        return samples;
+    }
+
+    void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+
+    private static boolean isLive(SlowRequestSample sample, long oldestAllowed) {
+        return sample != null && sample.completedAtMillis() >= oldestAllowed;
+    }
+}
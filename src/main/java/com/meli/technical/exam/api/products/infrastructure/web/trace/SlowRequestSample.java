@@ -0,0 +1,18 @@
+package com.meli.technical.exam.api.products.infrastructure.web.trace;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record SlowRequestSample(
+        String traceId,
+        String endpoint,
+        String path,
+        int status,
+        Instant startedAt,
+        double durationMs,
+        Map<String, Double> stagesMs,
+        @JsonIgnore long durationNanos,
+        @JsonIgnore long completedAtMillis
+) {}
@@ -0,0 +1,78 @@
+package com.meli.technical.exam.api.products.infrastructure.web.trace;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Keeps the N slowest requests seen during the last window, per endpoint, with their stage breakdown.
+ * Endpoints are route patterns, so the number of rings stays bounded no matter which IDs are requested.
+ * */
+@Component
+public class SlowRequestSampler implements RequestTraceListener {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final int capacity;
+    private final long windowMillis;
+    private final long minDurationNanos;
+    private final Map<String, SlowRequestRing> rings = new ConcurrentHashMap<>();
+
+    public SlowRequestSampler(@Value("${app.products.slow-requests.capacity:10}") int capacity,
+                              @Value("${app.products.slow-requests.window:PT5M}") Duration window,
+                              @Value("${app.products.slow-requests.min-duration:PT0S}") Duration minDuration) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Slow request capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.windowMillis = window.toMillis();
+        this.minDurationNanos = minDuration.toNanos();
+    }
+
+    @Override
+    public void onComplete(RequestTrace trace) {
+        long durationNanos = trace.getDurationNanos();
+        if (durationNanos < minDurationNanos || trace.getEndpoint() == null) {
+            return;
+        }
+        rings.computeIfAbsent(trace.getEndpoint(), endpoint -> new SlowRequestRing(capacity, windowMillis))
+                .offer(toSample(trace, durationNanos));
+    }
+
+    public Map<String, List<SlowRequestSample>> slowestByEndpoint() {
+        long now = System.currentTimeMillis();
+        Map<String, List<SlowRequestSample>> result = new TreeMap<>();
+        rings.forEach((endpoint, ring) -> {
+            List<SlowRequestSample> samples = ring.snapshot(now);
+            if (!samples.isEmpty()) {
+                result.put(endpoint, samples);
+            }
+        });
+        return result;
+    }
+
+    public void clear() {
+        rings.values().forEach(SlowRequestRing::clear);
+    }
+
+    private SlowRequestSample toSample(RequestTrace trace, long durationNanos) {
+        Map<String, Double> stagesMs = new LinkedHashMap<>();
+        trace.getStageNanos().forEach((stage, nanos) -> stagesMs.put(stage, nanos / NANOS_PER_MILLI));
+        return new SlowRequestSample(
+                trace.getTraceId(),
+                trace.getEndpoint(),
+                trace.getPath(),
+                trace.getStatus(),
+                trace.getStartedAt(),
+                durationNanos / NANOS_PER_MILLI,
+                stagesMs,
+                durationNanos,
+                System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,38 @@
+package com.meli.technical.exam.api.products.infrastructure.web.trace;
+
+import io.micrometer.context.ContextRegistry;
+import org.slf4j.MDC;
+
+/*
+ * Bridges the Reactor Context entries of a request into thread-bound state (MDC and RequestTrace.current()).
+ * With spring.reactor.context-propagation=auto, Reactor sets these values before each operator runs and
+ * resets them afterwards, so they never leak into whatever the event loop thread processes next.
+ * */
+public final class TraceContextPropagation {
+
+    private static volatile boolean registered;
+
+    private TraceContextPropagation() {
+    }
+
+    public static void register() {
+        if (registered) {
+            return;
+        }
+        synchronized (TraceContextPropagation.class) {
+            if (registered) {
+                return;
+            }
+            ContextRegistry registry = ContextRegistry.getInstance();
+            registry.registerThreadLocalAccessor(RequestTrace.TRACE_ID_KEY,
+                    () -> MDC.get(RequestTrace.TRACE_ID_KEY),
+                    traceId -> MDC.put(RequestTrace.TRACE_ID_KEY, traceId),
+                    () -> MDC.remove(RequestTrace.TRACE_ID_KEY));
+            registry.<RequestTrace>registerThreadLocalAccessor(RequestTrace.CONTEXT_KEY,
+                    RequestTrace::current,
+                    RequestTrace::setCurrent,
+                    RequestTrace::clearCurrent);
+            registered = true;
+        }
+    }
+}
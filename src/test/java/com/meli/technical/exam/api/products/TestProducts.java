@@ -0,0 +1,48 @@
+package com.meli.technical.exam.api.products;
+
+import com.meli.technical.exam.api.products.domain.model.Price;
+import com.meli.technical.exam.api.products.domain.model.Product;
+import com.meli.technical.exam.api.products.domain.model.ProductId;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.domain.model.Rating;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/*
+ * Valid products for store tests. Every field but the ID has a fixed default,
+ * so a test only spells out the fields it asserts on.
+ * */
+public final class TestProducts {
+
+    private TestProducts() {
+    }
+
+    public static Product.ProductBuilder builder(String id) {
+        return Product.builder()
+                .id(ProductId.of(id))
+                .name("Product " + id)
+                .imageUrl("url" + id)
+                .description("Description " + id)
+                .price(Price.of(new BigDecimal("10.00")))
+                .rating(Rating.of(4.0))
+                .specifications(List.of());
+    }
+
+    public static Product product(String id) {
+        return builder(id).build();
+    }
+
+    public static Product product(String id, String name) {
+        return builder(id).name(name).build();
+    }
+
+    public static ProductView view(String id) {
+        return ProductView.from(product(id));
+    }
+
+    // Keeps the price exactly as written, scale included
+    public static ProductView view(String id, String name, String price) {
+        return new ProductView(id, name, "url" + id, "Description " + id, new BigDecimal(price), 4.0, List.of());
+    }
+}
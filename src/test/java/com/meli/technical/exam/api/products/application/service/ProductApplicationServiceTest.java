@@ -1,13 +1,14 @@
 package com.meli.technical.exam.api.products.application.service;
 
-import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
 import com.meli.technical.exam.api.products.application.dto.response.PaginatedResponseDto;
+import com.meli.technical.exam.api.products.application.dto.response.ProductResponseDto;
 import com.meli.technical.exam.api.products.application.dto.response.comparison.ComparisonResponseDto;
 import com.meli.technical.exam.api.products.application.usecase.ProductComparisonUseCase;
 import com.meli.technical.exam.api.products.domain.event.DomainEventPublisher;
 import com.meli.technical.exam.api.products.domain.event.ProductComparedEvent;
 import com.meli.technical.exam.api.products.domain.event.ProductViewedEvent;
 import com.meli.technical.exam.api.products.domain.model.ProductId;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -36,29 +37,29 @@ class ProductApplicationServiceTest {
 
     private ProductApplicationService applicationService;
 
-    private ProductDto testProduct;
+    private ProductView testProduct;
     private ComparisonResponseDto testComparisonResponse;
-    private PaginatedResponseDto<ProductDto> testPaginatedResponse;
+    private PaginatedResponseDto<ProductResponseDto> testPaginatedResponse;
 
     @BeforeEach
     void setUp() {
         applicationService = new ProductApplicationService(
                 productComparisonUseCase, eventPublisher);
 
-        testProduct = new ProductDto(
+        testProduct = new ProductView(
                 "1", "Test Product", "url", "Description",
                 new BigDecimal("99.99"), 4.5, List.of()
         );
 
         testComparisonResponse = ComparisonResponseDto.builder()
-                .products(List.of(testProduct))
+                .products(ProductResponseDto.from(List.of(testProduct)))
                 .totalProducts(1)
                 .requestedIds(List.of("1"))
                 .comparisonTimestamp(Instant.now())
                 .build();
 
         testPaginatedResponse = new PaginatedResponseDto<>(
-                List.of(testProduct), 0, 10, 1L
+                ProductResponseDto.from(List.of(testProduct)), 0, 10, 1L
         );
     }
 
@@ -220,7 +221,7 @@ class ProductApplicationServiceTest {
     @Test
     void shouldGetAllProductsPaginated() {
         // Given
-        when(productComparisonUseCase.getAllProductsPaginated(0, 10))
+        when(productComparisonUseCase.getAllProductsPaginated(0, 10, null))
                 .thenReturn(Mono.just(testPaginatedResponse));
 
         // When & Then
@@ -228,41 +229,14 @@ class ProductApplicationServiceTest {
                 .expectNext(testPaginatedResponse)
                 .verifyComplete();
 
-        verify(productComparisonUseCase).getAllProductsPaginated(0, 10);
-    }
-
-    @Test
-    void shouldGetAllProducts() {
-        // Given
-        when(productComparisonUseCase.getAllProducts())
-                .thenReturn(Mono.just(testPaginatedResponse));
-
-        // When & Then
-        StepVerifier.create(applicationService.getAllProducts())
-                .expectNext(testPaginatedResponse)
-                .verifyComplete();
-
-        verify(productComparisonUseCase).getAllProducts();
-    }
-
-    @Test
-    void shouldHandleErrorWhenGettingAllProducts() {
-        // Given
-        RuntimeException testError = new RuntimeException("Database error");
-        when(productComparisonUseCase.getAllProducts())
-                .thenReturn(Mono.error(testError));
-
-        // When & Then
-        StepVerifier.create(applicationService.getAllProducts())
-                .expectError(RuntimeException.class)
-                .verify();
+        verify(productComparisonUseCase).getAllProductsPaginated(0, 10, null);
     }
 
     @Test
     void shouldHandleErrorWhenGettingPaginatedProducts() {
         // Given
         RuntimeException testError = new RuntimeException("Database error");
-        when(productComparisonUseCase.getAllProductsPaginated(0, 10))
+        when(productComparisonUseCase.getAllProductsPaginated(0, 10, null))
                 .thenReturn(Mono.error(testError));
 
         // When & Then
@@ -1,15 +1,34 @@
 package com.meli.technical.exam.api.products.application.usecase;
 
-import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.application.dto.response.BestValueResponseDto;
+import com.meli.technical.exam.api.products.application.dto.response.ProductResponseDto;
+import com.meli.technical.exam.api.products.application.dto.response.SearchResponseDto;
+import com.meli.technical.exam.api.products.application.dto.response.SimilarProductsResponseDto;
 import com.meli.technical.exam.api.products.application.dto.response.comparison.ComparisonResponseDto;
-import com.meli.technical.exam.api.products.application.mapper.ProductMapper;
+import com.meli.technical.exam.api.products.domain.exception.BusinessRuleViolationException;
 import com.meli.technical.exam.api.products.domain.exception.ProductNotFoundException;
-import com.meli.technical.exam.api.products.domain.model.Price;
-import com.meli.technical.exam.api.products.domain.model.Product;
-import com.meli.technical.exam.api.products.domain.model.ProductId;
-import com.meli.technical.exam.api.products.domain.model.Rating;
+import com.meli.technical.exam.api.products.domain.exception.SnapshotExpiredException;
+import com.meli.technical.exam.api.products.domain.model.BestValuePick;
+import com.meli.technical.exam.api.products.domain.model.CatalogChange;
+import com.meli.technical.exam.api.products.domain.model.CatalogPage;
+import com.meli.technical.exam.api.products.domain.model.FacetCount;
+import com.meli.technical.exam.api.products.domain.model.FacetFilter;
+import com.meli.technical.exam.api.products.domain.model.ProductBatch;
+import com.meli.technical.exam.api.products.domain.model.ProductChange;
+import com.meli.technical.exam.api.products.domain.model.ProductFacets;
+import com.meli.technical.exam.api.products.domain.model.ProductSearchHit;
+import com.meli.technical.exam.api.products.domain.model.ProductSearchResult;
+import com.meli.technical.exam.api.products.domain.model.ProductSortField;
+import com.meli.technical.exam.api.products.domain.model.ProductSortOrder;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.domain.model.SimilarProduct;
+import com.meli.technical.exam.api.products.domain.model.SortDirection;
+import com.meli.technical.exam.api.products.domain.model.VersionedProduct;
 import com.meli.technical.exam.api.products.domain.service.ProductComparisonAnalyzerService;
 import com.meli.technical.exam.api.products.domain.service.ProductService;
+import com.meli.technical.exam.api.products.infrastructure.jfr.ProductFlightRecorder;
+import com.meli.technical.exam.api.products.infrastructure.metrics.ProductMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -21,9 +40,12 @@ import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -35,49 +57,25 @@ class ProductComparisonUseCaseTest {
     @Mock
     private ProductService productService;
 
-    @Mock
-    private ProductMapper productMapper;
-
     @Mock
     private ProductComparisonAnalyzerService comparisonAnalyzer;
 
     private ProductComparisonUseCase useCase;
 
-    private Product testProduct1;
-    private Product testProduct2;
-    private ProductDto testProductDto1;
-    private ProductDto testProductDto2;
+    private ProductView testProduct1;
+    private ProductView testProduct2;
 
     @BeforeEach
     void setUp() {
-        useCase = new ProductComparisonUseCase(productService, productMapper, comparisonAnalyzer);
-
-        testProduct1 = Product.builder()
-                .id(ProductId.of("1"))
-                .name("Product 1")
-                .imageUrl("url1")
-                .description("Description 1")
-                .price(Price.of(new BigDecimal("99.99")))
-                .rating(Rating.of(4.5))
-                .specifications(List.of())
-                .build();
-
-        testProduct2 = Product.builder()
-                .id(ProductId.of("2"))
-                .name("Product 2")
-                .imageUrl("url2")
-                .description("Description 2")
-                .price(Price.of(new BigDecimal("199.99")))
-                .rating(Rating.of(4.0))
-                .specifications(List.of())
-                .build();
+        useCase = new ProductComparisonUseCase(productService, comparisonAnalyzer,
+                new ProductMetrics(new SimpleMeterRegistry()), new ProductFlightRecorder(false));
 
-        testProductDto1 = new ProductDto(
+        testProduct1 = new ProductView(
                 "1", "Product 1", "url1", "Description 1",
                 new BigDecimal("99.99"), 4.5, List.of()
         );
 
-        testProductDto2 = new ProductDto(
+        testProduct2 = new ProductView(
                 "2", "Product 2", "url2", "Description 2",
                 new BigDecimal("199.99"), 4.0, List.of()
         );
@@ -87,15 +85,13 @@ class ProductComparisonUseCaseTest {
     void shouldGetProductById() {
         // Given
         when(productService.findById("1")).thenReturn(Mono.just(testProduct1));
-        when(productMapper.toDto(testProduct1)).thenReturn(testProductDto1);
 
         // When & Then
         StepVerifier.create(useCase.getProductById("1"))
-                .expectNext(testProductDto1)
+                .expectNext(testProduct1)
                 .verifyComplete();
 
         verify(productService).findById("1");
-        verify(productMapper).toDto(testProduct1);
     }
 
     @Test
@@ -109,7 +105,37 @@ class ProductComparisonUseCaseTest {
                 .verify();
 
         verify(productService).findById("nonexistent");
-        verifyNoInteractions(productMapper);
+    }
+
+    @Test
+    void shouldGetVersionedProductById() {
+        VersionedProduct versioned = new VersionedProduct(testProduct1, 7);
+        when(productService.findVersionedById("1")).thenReturn(Mono.just(versioned));
+
+        StepVerifier.create(useCase.getVersionedProductById("1"))
+                .expectNext(versioned)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldThrowProductNotFoundExceptionWhenVersionedProductDoesNotExist() {
+        when(productService.findVersionedById("nonexistent")).thenReturn(Mono.empty());
+
+        StepVerifier.create(useCase.getVersionedProductById("nonexistent"))
+                .expectError(ProductNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldNotCaptureStackTraceForMissingProduct() {
+        when(productService.findById("nonexistent")).thenReturn(Mono.empty());
+
+        StepVerifier.create(useCase.getProductById("nonexistent"))
+                .expectErrorSatisfies(error -> {
+                    assertEquals("Product not found with id: nonexistent", error.getMessage());
+                    assertEquals(0, error.getStackTrace().length);
+                })
+                .verify();
     }
 
     @Test
@@ -117,16 +143,14 @@ class ProductComparisonUseCaseTest {
         // Given
         List<String> productIds = List.of("1", "2");
         ComparisonResponseDto expectedResponse = ComparisonResponseDto.builder()
-                .products(List.of(testProductDto1, testProductDto2))
+                .products(ProductResponseDto.from(List.of(testProduct1, testProduct2)))
                 .totalProducts(2)
                 .requestedIds(productIds)
                 .comparisonTimestamp(Instant.now())
                 .build();
 
         when(productService.findProductsForComparison(productIds))
-                .thenReturn(Flux.just(testProduct1, testProduct2));
-        when(productMapper.toDto(testProduct1)).thenReturn(testProductDto1);
-        when(productMapper.toDto(testProduct2)).thenReturn(testProductDto2);
+                .thenReturn(Mono.just(new ProductBatch(List.of(testProduct1, testProduct2), List.of())));
         when(comparisonAnalyzer.analyzeProductsReactive(any(), eq(productIds)))
                 .thenReturn(Mono.just(expectedResponse));
 
@@ -136,8 +160,6 @@ class ProductComparisonUseCaseTest {
                 .verifyComplete();
 
         verify(productService).findProductsForComparison(productIds);
-        verify(productMapper).toDto(testProduct1);
-        verify(productMapper).toDto(testProduct2);
         verify(comparisonAnalyzer).analyzeProductsReactive(any(), eq(productIds));
     }
 
@@ -146,19 +168,17 @@ class ProductComparisonUseCaseTest {
         // Given
         List<String> requestedIds = List.of("1", "2", "3");
         // Only products 1 and 2 are found, product 3 is missing
-        List<ProductDto> foundProducts = List.of(testProductDto1, testProductDto2);
+        List<ProductView> foundProducts = List.of(testProduct1, testProduct2);
 
         ComparisonResponseDto expectedResponse = ComparisonResponseDto.builder()
-                .products(foundProducts)
+                .products(ProductResponseDto.from(foundProducts))
                 .totalProducts(2)
                 .requestedIds(requestedIds)
                 .comparisonTimestamp(Instant.now())
                 .build();
 
         when(productService.findProductsForComparison(requestedIds))
-                .thenReturn(Flux.just(testProduct1, testProduct2)); // Only 2 products found
-        when(productMapper.toDto(testProduct1)).thenReturn(testProductDto1);
-        when(productMapper.toDto(testProduct2)).thenReturn(testProductDto2);
+                .thenReturn(Mono.just(new ProductBatch(foundProducts, List.of("3")))); // Only 2 products found
         when(comparisonAnalyzer.analyzeProductsReactive(any(), eq(requestedIds)))
                 .thenReturn(Mono.just(expectedResponse));
 
@@ -171,6 +191,29 @@ class ProductComparisonUseCaseTest {
         verify(comparisonAnalyzer).analyzeProductsReactive(any(), eq(requestedIds));
     }
 
+    @Test
+    void shouldReportProductsWhosePartitionDidNotAnswer() {
+        List<String> requestedIds = List.of("1", "2", "3");
+        ComparisonResponseDto analyzed = ComparisonResponseDto.builder()
+                .products(ProductResponseDto.from(List.of(testProduct1, testProduct2)))
+                .totalProducts(2)
+                .requestedIds(requestedIds)
+                .comparisonTimestamp(Instant.now())
+                .build();
+
+        when(productService.findProductsForComparison(requestedIds))
+                .thenReturn(Mono.just(new ProductBatch(List.of(testProduct1, testProduct2), List.of(), List.of("3"))));
+        when(comparisonAnalyzer.analyzeProductsReactive(any(), eq(requestedIds)))
+                .thenReturn(Mono.just(analyzed));
+
+        StepVerifier.create(useCase.compareProducts(requestedIds))
+                .assertNext(response -> {
+                    assertEquals(List.of("3"), response.getUnavailableIds());
+                    assertEquals(2, response.getTotalProducts());
+                })
+                .verifyComplete();
+    }
+
     @Test
     void shouldReturnErrorWhenProductIdsIsEmpty() {
         // When & Then
@@ -178,7 +221,7 @@ class ProductComparisonUseCaseTest {
                 .expectError(IllegalArgumentException.class)
                 .verify();
 
-        verifyNoInteractions(productService, productMapper, comparisonAnalyzer);
+        verifyNoInteractions(productService, comparisonAnalyzer);
     }
 
     @Test
@@ -188,7 +231,7 @@ class ProductComparisonUseCaseTest {
                 .expectError(IllegalArgumentException.class)
                 .verify();
 
-        verifyNoInteractions(productService, productMapper, comparisonAnalyzer);
+        verifyNoInteractions(productService, comparisonAnalyzer);
     }
 
     @Test
@@ -201,7 +244,7 @@ class ProductComparisonUseCaseTest {
                 .expectError(IllegalArgumentException.class)
                 .verify();
 
-        verifyNoInteractions(productService, productMapper, comparisonAnalyzer);
+        verifyNoInteractions(productService, comparisonAnalyzer);
     }
 
     @Test
@@ -211,74 +254,66 @@ class ProductComparisonUseCaseTest {
         int size = 10;
         long totalElements = 20L;
 
-        when(productService.count()).thenReturn(Mono.just(totalElements));
-        when(productService.findAllPaginated(page, size))
-                .thenReturn(Flux.just(testProduct1, testProduct2));
-        when(productMapper.toDto(testProduct1)).thenReturn(testProductDto1);
-        when(productMapper.toDto(testProduct2)).thenReturn(testProductDto2);
+        when(productService.findPage(null, page, size, null))
+                .thenReturn(Mono.just(new CatalogPage(List.of(testProduct1, testProduct2), totalElements, "7")));
 
         // When & Then
-        StepVerifier.create(useCase.getAllProductsPaginated(page, size))
+        StepVerifier.create(useCase.getAllProductsPaginated(page, size, null))
                 .assertNext(result -> {
                     assertNotNull(result);
-                    assertEquals(List.of(testProductDto1, testProductDto2), result.getContent());
+                    assertEquals(ProductResponseDto.from(List.of(testProduct1, testProduct2)), result.getContent());
                     assertEquals(page, result.getPage());
                     assertEquals(size, result.getSize());
                     assertEquals(totalElements, result.getTotalElements());
+                    assertEquals("7", result.getSnapshot());
                 })
                 .verifyComplete();
 
-        verify(productService).count();
-        verify(productService).findAllPaginated(page, size);
-        verify(productMapper).toDto(testProduct1);
-        verify(productMapper).toDto(testProduct2);
+        verify(productService).findPage(null, page, size, null);
+    }
+
+    @Test
+    void shouldReadNextPageFromTheSnapshotOfTheFirst() {
+        when(productService.findPage(null, 1, 1, "7"))
+                .thenReturn(Mono.just(new CatalogPage(List.of(testProduct2), 2, "7")));
+
+        StepVerifier.create(useCase.getAllProductsPaginated(1, 1, "7"))
+                .assertNext(result -> {
+                    assertEquals(ProductResponseDto.from(List.of(testProduct2)), result.getContent());
+                    assertEquals("7", result.getSnapshot());
+                    assertFalse(result.isHasNext());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldPropagateExpiredSnapshot() {
+        when(productService.findPage(null, 1, 10, "3"))
+                .thenReturn(Mono.error(SnapshotExpiredException.forToken("3")));
+
+        StepVerifier.create(useCase.getAllProductsPaginated(1, 10, "3"))
+                .expectError(SnapshotExpiredException.class)
+                .verify();
     }
 
     @Test
     void shouldThrowExceptionForInvalidPaginationParameters() {
         // Test negative page
-        StepVerifier.create(useCase.getAllProductsPaginated(-1, 10))
+        StepVerifier.create(useCase.getAllProductsPaginated(-1, 10, null))
                 .expectError(IllegalArgumentException.class)
                 .verify();
 
         // Test zero size
-        StepVerifier.create(useCase.getAllProductsPaginated(0, 0))
+        StepVerifier.create(useCase.getAllProductsPaginated(0, 0, null))
                 .expectError(IllegalArgumentException.class)
                 .verify();
 
         // Test size exceeding maximum
-        StepVerifier.create(useCase.getAllProductsPaginated(0, 101))
+        StepVerifier.create(useCase.getAllProductsPaginated(0, 101, null))
                 .expectError(IllegalArgumentException.class)
                 .verify();
 
-        verifyNoInteractions(productService, productMapper);
-    }
-
-    @Test
-    void shouldGetAllProducts() {
-        // Given
-        long totalElements = 2L;
-
-        when(productService.count()).thenReturn(Mono.just(totalElements));
-        when(productService.findAll()).thenReturn(Flux.just(testProduct1, testProduct2));
-        when(productMapper.toDto(testProduct1)).thenReturn(testProductDto1);
-        when(productMapper.toDto(testProduct2)).thenReturn(testProductDto2);
-
-        // When & Then
-        StepVerifier.create(useCase.getAllProducts())
-                .assertNext(result -> {
-                    assertNotNull(result);
-                    assertEquals(List.of(testProductDto1, testProductDto2), result.getContent());
-                    assertEquals(0, result.getPage());
-                    assertEquals(2, result.getSize());
-                    assertEquals(totalElements, result.getTotalElements());
-                })
-                .verifyComplete();
-
-        verify(productService).count();
-        verify(productService).findAll();
-        verify(productMapper).toDto(testProduct1);
-        verify(productMapper).toDto(testProduct2);
+        verifyNoInteractions(productService);
     }
 
     @Test
@@ -300,7 +335,7 @@ class ProductComparisonUseCaseTest {
         RuntimeException testError = new RuntimeException("Comparison error");
         
         when(productService.findProductsForComparison(productIds))
-                .thenReturn(Flux.error(testError));
+                .thenReturn(Mono.error(testError));
 
         // When & Then
         StepVerifier.create(useCase.compareProducts(productIds))
@@ -312,11 +347,180 @@ class ProductComparisonUseCaseTest {
     void shouldHandleErrorWhenGettingPaginatedProducts() {
         // Given
         RuntimeException testError = new RuntimeException("Database error");
-        when(productService.count()).thenReturn(Mono.error(testError));
+        when(productService.findPage(null, 0, 10, null)).thenReturn(Mono.error(testError));
 
         // When & Then
-        StepVerifier.create(useCase.getAllProductsPaginated(0, 10))
+        StepVerifier.create(useCase.getAllProductsPaginated(0, 10, null))
                 .expectError(RuntimeException.class)
                 .verify();
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldGetProductsBatch() {
+        // Given
+        List<String> requestedIds = List.of("2", "3", "1");
+        when(productService.findBatch(requestedIds))
+                .thenReturn(Mono.just(new ProductBatch(List.of(testProduct2, testProduct1), List.of("3"))));
+
+        // When & Then
+        StepVerifier.create(useCase.getProductsBatch(requestedIds))
+                .assertNext(result -> {
+                    assertEquals(ProductResponseDto.from(List.of(testProduct2, testProduct1)), result.getProducts());
+                    assertEquals(List.of("3"), result.getMissingIds());
+                    assertEquals(3, result.getRequestedCount());
+                    assertEquals(2, result.getFoundCount());
+                })
+                .verifyComplete();
+
+        verify(productService).findBatch(requestedIds);
+    }
+
+    @Test
+    void shouldRejectEmptyBatch() {
+        StepVerifier.create(useCase.getProductsBatch(List.of()))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void shouldRejectBatchAboveLimit() {
+        List<String> tooManyIds = Collections.nCopies(5001, "1");
+
+        StepVerifier.create(useCase.getProductsBatch(tooManyIds))
+                .expectError(BusinessRuleViolationException.class)
+                .verify();
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void shouldSearchProducts() {
+        ProductSearchResult result = new ProductSearchResult(List.of(new ProductSearchHit(testProduct1, 2.5)), 4);
+        when(productService.search("phone", 1)).thenReturn(Mono.just(result));
+
+        StepVerifier.create(useCase.searchProducts("phone", 1))
+                .assertNext(response -> {
+                    assertEquals("phone", response.getQuery());
+                    assertEquals(List.of(new SearchResponseDto.Hit(ProductResponseDto.from(testProduct1), 2.5)),
+                            response.getResults());
+                    assertEquals(4, response.getTotalHits());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldRejectSearchLimitAboveMaximum() {
+        StepVerifier.create(useCase.searchProducts("phone", 101))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void shouldSuggestProducts() {
+        when(productService.suggest("pro", 5)).thenReturn(Flux.just(testProduct2, testProduct1));
+
+        StepVerifier.create(useCase.suggestProducts("pro", 5))
+                .assertNext(response -> {
+                    assertEquals("pro", response.getPrefix());
+                    assertEquals(ProductResponseDto.from(List.of(testProduct2, testProduct1)), response.getSuggestions());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldRejectSuggestLimitAboveMaximum() {
+        StepVerifier.create(useCase.suggestProducts("pro", 11))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void shouldGetFacets() {
+        ProductFacets facets = new ProductFacets(2, List.of(new FacetCount("1000-1500", 2)),
+                List.of(new FacetCount("4", 2)), Map.of("RAM", List.of(new FacetCount("12GB", 2))));
+        when(productService.facets(FacetFilter.NONE)).thenReturn(Mono.just(facets));
+
+        StepVerifier.create(useCase.getFacets(FacetFilter.NONE))
+                .assertNext(response -> {
+                    assertEquals(2, response.getTotalMatches());
+                    assertEquals(facets.price(), response.getPrice());
+                    assertEquals(facets.specifications(), response.getSpecifications());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldGetBestValueProducts() {
+        List<BestValuePick> picks = List.of(new BestValuePick(testProduct1, 2.0), new BestValuePick(testProduct2, 1.0));
+        when(productService.findBestValue(FacetFilter.NONE, 2)).thenReturn(Flux.fromIterable(picks));
+
+        StepVerifier.create(useCase.getBestValue(FacetFilter.NONE, 2))
+                .assertNext(response -> {
+                    assertEquals(picks.stream().map(BestValueResponseDto.Pick::from).toList(), response.getResults());
+                    assertEquals(2, response.getCount());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldRejectBestValueLimitOutOfRange() {
+        StepVerifier.create(useCase.getBestValue(FacetFilter.NONE, 101))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void shouldGetSimilarProducts() {
+        List<SimilarProduct> similar = List.of(new SimilarProduct(testProduct2, 0.6));
+        when(productService.findSimilar("1", 5)).thenReturn(Mono.just(similar));
+
+        StepVerifier.create(useCase.getSimilarProducts("1", 5))
+                .assertNext(response -> {
+                    assertEquals("1", response.getProductId());
+                    assertEquals(List.of(new SimilarProductsResponseDto.Match(ProductResponseDto.from(testProduct2), 0.6)),
+                            response.getSimilar());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldReturnNotFoundForSimilarOfUnknownProduct() {
+        when(productService.findSimilar("nonexistent", 5)).thenReturn(Mono.empty());
+
+        StepVerifier.create(useCase.getSimilarProducts("nonexistent", 5))
+                .expectError(ProductNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldGetChangesSinceOffset() {
+        CatalogChange change = new CatalogChange(4, 3, List.of(ProductChange.between(null, testProduct1)));
+        when(productService.findChanges(3L)).thenReturn(Flux.just(change));
+
+        StepVerifier.create(useCase.getChanges(3L))
+                .expectNext(change)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldGetSortedProducts() {
+        ProductSortOrder order = new ProductSortOrder(ProductSortField.PRICE, SortDirection.ASC);
+        when(productService.findPage(order, 0, 10, null))
+                .thenReturn(Mono.just(new CatalogPage(List.of(testProduct1, testProduct2), 2, "0")));
+
+        StepVerifier.create(useCase.getSortedProducts(0, 10, order, null))
+                .assertNext(result -> {
+                    assertEquals(ProductResponseDto.from(List.of(testProduct1, testProduct2)), result.getContent());
+                    assertEquals(2L, result.getTotalElements());
+                })
+                .verifyComplete();
+    }
+}
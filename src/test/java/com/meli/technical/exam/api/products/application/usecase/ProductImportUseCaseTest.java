@@ -0,0 +1,144 @@
+package com.meli.technical.exam.api.products.application.usecase;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meli.technical.exam.api.products.application.dto.response.ImportReportDto;
+import com.meli.technical.exam.api.products.application.mapper.ProductMapper;
+import com.meli.technical.exam.api.products.domain.exception.ProductDataException;
+import com.meli.technical.exam.api.products.domain.model.ImportBatchResult;
+import com.meli.technical.exam.api.products.domain.model.Product;
+import com.meli.technical.exam.api.products.domain.service.ProductService;
+import com.meli.technical.exam.api.products.domain.validator.ProductBusinessRulesValidator;
+import com.meli.technical.exam.api.products.domain.validator.ProductInputFormatValidator;
+import com.meli.technical.exam.api.products.infrastructure.metrics.ProductMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportUseCaseTest {
+
+    @Mock
+    private ProductService productService;
+
+    private ProductImportUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        useCase = new ProductImportUseCase(productService, Mappers.getMapper(ProductMapper.class),
+                List.of(new ProductInputFormatValidator(), new ProductBusinessRulesValidator()),
+                new ObjectMapper().findAndRegisterModules(), new ProductMetrics(new SimpleMeterRegistry()), 2, 2);
+    }
+
+    @Test
+    void shouldStoreValidRecordsAndReportRejectedOnes() {
+        when(productService.importBatch(anyList()))
+                .thenAnswer(invocation -> Mono.just(new ImportBatchResult(((List<?>) invocation.getArgument(0)).size(), 0)));
+
+        Flux<String> lines = Flux.just(
+                product("a-1", "99.99"),
+                "{\"id\": \"broken\"",
+                "",
+                product("bad id!", "10.00"),
+                product("a-2", "20.00"));
+
+        StepVerifier.create(useCase.importProducts(lines))
+                .assertNext(report -> {
+                    assertEquals(ImportReportDto.TYPE_ERROR, report.getType());
+                    assertEquals(2L, report.getLine());
+                })
+                .assertNext(report -> {
+                    assertEquals(ImportReportDto.TYPE_ERROR, report.getType());
+                    assertEquals(4L, report.getLine());
+                    assertEquals("bad id!", report.getId());
+                })
+                .assertNext(report -> {
+                    assertEquals(ImportReportDto.TYPE_SUMMARY, report.getType());
+                    assertEquals(4L, report.getReceived());
+                    assertEquals(2L, report.getCreated());
+                    assertEquals(0L, report.getUpdated());
+                    assertEquals(2L, report.getRejected());
+                })
+                .verifyComplete();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Product>> batches = ArgumentCaptor.forClass(List.class);
+        verify(productService, times(2)).importBatch(batches.capture());
+        assertEquals(List.of("a-1"), batches.getAllValues().get(0).stream().map(product -> product.getId().getValue()).toList());
+        assertEquals(List.of("a-2"), batches.getAllValues().get(1).stream().map(product -> product.getId().getValue()).toList());
+    }
+
+    @Test
+    void shouldReportAbortedImportWithProgressSoFar() {
+        when(productService.importBatch(anyList()))
+                .thenReturn(Mono.just(new ImportBatchResult(1, 1)))
+                .thenReturn(Mono.error(new ProductDataException("Failed to sync the product log", null)));
+
+        Flux<String> lines = Flux.just(product("a-1", "1.00"), product("a-2", "2.00"),
+                product("a-3", "3.00"), product("a-4", "4.00"));
+
+        StepVerifier.create(useCase.importProducts(lines))
+                .assertNext(report -> {
+                    assertEquals(ImportReportDto.TYPE_ABORTED, report.getType());
+                    assertEquals("Failed to sync the product log", report.getMessage());
+                    assertEquals(2L, report.getReceived());
+                    assertEquals(1L, report.getCreated());
+                    assertEquals(1L, report.getUpdated());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldHandTheNextBatchToTheStoreBeforeThePreviousOneIsStored() {
+        Sinks.One<ImportBatchResult> first = Sinks.one();
+        when(productService.importBatch(anyList()))
+                .thenReturn(first.asMono())
+                .thenReturn(Mono.just(new ImportBatchResult(1, 1)));
+
+        Flux<String> lines = Flux.just(product("a-1", "1.00"), product("a-2", "2.00"),
+                product("a-3", "3.00"), product("a-4", "4.00"));
+
+        StepVerifier.create(useCase.importProducts(lines))
+                .then(() -> verify(productService, timeout(5000).times(2)).importBatch(anyList()))
+                .then(() -> first.tryEmitValue(new ImportBatchResult(2, 0)))
+                .assertNext(report -> {
+                    assertEquals(ImportReportDto.TYPE_SUMMARY, report.getType());
+                    assertEquals(4L, report.getReceived());
+                    assertEquals(3L, report.getCreated());
+                    assertEquals(1L, report.getUpdated());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldReportEmptyImport() {
+        StepVerifier.create(useCase.importProducts(Flux.just("", "  ")))
+                .assertNext(report -> {
+                    assertEquals(ImportReportDto.TYPE_SUMMARY, report.getType());
+                    assertEquals(0L, report.getReceived());
+                })
+                .verifyComplete();
+
+        verifyNoInteractions(productService);
+    }
+
+    private static String product(String id, String price) {
+        return "{\"id\": \"" + id + "\", \"name\": \"Imported " + id + "\", \"imageUrl\": \"https://example.com/" + id
+                + ".jpg\", \"description\": \"An imported test product\", \"price\": " + price
+                + ", \"rating\": 4.0, \"specifications\": [{\"key\": \"RAM\", \"value\": \"8GB\"}]}";
+    }
+}
@@ -0,0 +1,165 @@
+package com.meli.technical.exam.api.products.application.usecase;
+
+import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.application.mapper.ProductMapper;
+import com.meli.technical.exam.api.products.domain.exception.InvalidProductException;
+import com.meli.technical.exam.api.products.domain.exception.ProductAlreadyExistsException;
+import com.meli.technical.exam.api.products.domain.exception.ProductVersionMismatchException;
+import com.meli.technical.exam.api.products.domain.model.Price;
+import com.meli.technical.exam.api.products.domain.model.Product;
+import com.meli.technical.exam.api.products.domain.model.ProductId;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.domain.model.Rating;
+import com.meli.technical.exam.api.products.domain.model.VersionedProduct;
+import com.meli.technical.exam.api.products.domain.service.ProductService;
+import com.meli.technical.exam.api.products.domain.validator.ProductValidator;
+import com.meli.technical.exam.api.products.domain.validator.ValidationResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductWriteUseCaseTest {
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private ProductMapper productMapper;
+
+    @Mock
+    private ProductValidator productValidator;
+
+    private ProductWriteUseCase useCase;
+    private Product product;
+    private ProductView view;
+
+    @BeforeEach
+    void setUp() {
+        useCase = new ProductWriteUseCase(productService, productMapper, List.of(productValidator));
+        product = Product.builder()
+                .id(ProductId.of("11"))
+                .name("New Phone")
+                .imageUrl("url")
+                .description("desc")
+                .price(Price.of(new BigDecimal("199.99")))
+                .rating(Rating.of(4.2))
+                .specifications(List.of())
+                .build();
+        view = ProductView.from(product);
+    }
+
+    @Test
+    void shouldValidateAndCreateProduct() {
+        ProductDto request = request("11");
+        when(productMapper.toDomain(request)).thenReturn(product);
+        VersionedProduct created = new VersionedProduct(view, 1);
+        when(productService.create(product)).thenReturn(Mono.just(created));
+
+        StepVerifier.create(useCase.createProduct(request))
+                .expectNext(created)
+                .verifyComplete();
+
+        verify(productValidator).validate(eq(product), any(ValidationResult.class));
+    }
+
+    @Test
+    void shouldNotStoreProductThatFailsValidation() {
+        ProductDto request = request("11");
+        when(productMapper.toDomain(request)).thenReturn(product);
+        doAnswer(invocation -> {
+            ValidationResult result = invocation.getArgument(1);
+            result.reject("Product price cannot exceed 999999.99");
+            result.reject("Product rating must be between 0.0 and 5.0");
+            return null;
+        }).when(productValidator).validate(eq(product), any(ValidationResult.class));
+
+        StepVerifier.create(useCase.createProduct(request))
+                .expectErrorSatisfies(error -> {
+                    assertInstanceOf(InvalidProductException.class, error);
+                    assertEquals("Product price cannot exceed 999999.99; Product rating must be between 0.0 and 5.0",
+                            error.getMessage());
+                })
+                .verify();
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void shouldPropagateDuplicateCreate() {
+        ProductDto request = request("11");
+        when(productMapper.toDomain(request)).thenReturn(product);
+        when(productService.create(product)).thenReturn(Mono.error(ProductAlreadyExistsException.forId("11")));
+
+        StepVerifier.create(useCase.createProduct(request))
+                .expectError(ProductAlreadyExistsException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldTakeTheIdFromThePathOnUpdate() {
+        ProductDto request = request(null);
+        when(productMapper.toDomain(request)).thenReturn(product);
+        VersionedProduct updated = new VersionedProduct(view, 2);
+        when(productService.update(product, VersionedProduct.ANY_VERSION)).thenReturn(Mono.just(updated));
+
+        StepVerifier.create(useCase.updateProduct("11", request))
+                .expectNext(updated)
+                .verifyComplete();
+
+        assertEquals("11", request.getId());
+    }
+
+    @Test
+    void shouldPassTheExpectedVersionOnUpdate() {
+        ProductDto request = request("11");
+        when(productMapper.toDomain(request)).thenReturn(product);
+        when(productService.update(product, 5)).thenReturn(Mono.error(ProductVersionMismatchException.forId("11", 5, 7)));
+
+        StepVerifier.create(useCase.updateProduct("11", request, 5))
+                .expectError(ProductVersionMismatchException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldDeleteAtTheExpectedVersion() {
+        when(productService.delete("11", 5)).thenReturn(Mono.empty());
+
+        StepVerifier.create(useCase.deleteProduct(" 11 ", 5))
+                .verifyComplete();
+
+        verify(productService).delete("11", 5);
+    }
+
+    @Test
+    void shouldRejectUpdateWithMismatchedId() {
+        StepVerifier.create(useCase.updateProduct("11", request("12")))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(productMapper, productService);
+    }
+
+    private static ProductDto request(String id) {
+        return ProductDto.builder()
+                .id(id)
+                .name("New Phone")
+                .imageUrl("url")
+                .description("desc")
+                .price(new BigDecimal("199.99"))
+                .rating(4.2)
+                .specifications(List.of())
+                .build();
+    }
+}
@@ -1,9 +1,12 @@
 package com.meli.technical.exam.api.products.domain.service;
 
-import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
-import com.meli.technical.exam.api.products.application.dto.request.SpecificationDto;
+import com.meli.technical.exam.api.products.application.dto.response.ProductResponseDto;
 import com.meli.technical.exam.api.products.application.dto.response.comparison.*;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.domain.model.Specification;
 import com.meli.technical.exam.api.products.domain.service.analysis.strategy.*;
+import com.meli.technical.exam.api.products.infrastructure.metrics.ProductMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -42,8 +45,8 @@ class ProductComparisonAnalyzerServiceTest {
 
     private ProductComparisonAnalyzerService analyzerService;
 
-    private ProductDto testProduct1;
-    private ProductDto testProduct2;
+    private ProductView testProduct1;
+    private ProductView testProduct2;
     private List<String> requestedIds;
 
     @BeforeEach
@@ -53,21 +56,22 @@ class ProductComparisonAnalyzerServiceTest {
                 ratingAnalysisStrategy,
                 specificationAnalysisStrategy,
                 recommendationEngine,
-                summaryGenerationStrategy
+                summaryGenerationStrategy,
+                new ProductMetrics(new SimpleMeterRegistry())
         );
 
-        testProduct1 = new ProductDto(
+        testProduct1 = new ProductView(
                 "1", "Product 1", "url1", "Description 1",
                 new BigDecimal("99.99"), 4.5,
-                List.of(new SpecificationDto("brand", "Brand A"),
-                        new SpecificationDto("model", "Model X"))
+                List.of(new Specification("brand", "Brand A"),
+                        new Specification("model", "Model X"))
         );
 
-        testProduct2 = new ProductDto(
+        testProduct2 = new ProductView(
                 "2", "Product 2", "url2", "Description 2",
                 new BigDecimal("199.99"), 4.0,
-                List.of(new SpecificationDto("brand", "Brand B"),
-                        new SpecificationDto("model", "Model Y"))
+                List.of(new Specification("brand", "Brand B"),
+                        new Specification("model", "Model Y"))
         );
 
         requestedIds = List.of("1", "2");
@@ -76,7 +80,7 @@ class ProductComparisonAnalyzerServiceTest {
     @Test
     void shouldAnalyzeProductsReactively() {
         // Given
-        Flux<ProductDto> productFlux = Flux.just(testProduct1, testProduct2);
+        Flux<ProductView> productFlux = Flux.just(testProduct1, testProduct2);
         
         PriceAnalysisDto priceAnalysis = PriceAnalysisDto.builder()
                 .priceRange(new BigDecimal("100.00"))
@@ -136,7 +140,7 @@ class ProductComparisonAnalyzerServiceTest {
     @Test
     void shouldAnalyzeProductsFromList() {
         // Given
-        List<ProductDto> products = List.of(testProduct1, testProduct2);
+        List<ProductView> products = List.of(testProduct1, testProduct2);
 
         when(priceAnalysisStrategy.analyze(any())).thenReturn(Mono.just(
                 PriceAnalysisDto.builder().priceRange(new BigDecimal("100.00")).build()));
@@ -153,7 +157,7 @@ class ProductComparisonAnalyzerServiceTest {
                 .assertNext(result -> {
                     assertNotNull(result);
                     assertEquals(2, result.getTotalProducts());
-                    assertEquals(products, result.getProducts());
+                    assertEquals(ProductResponseDto.from(products), result.getProducts());
                     assertEquals(requestedIds, result.getRequestedIds());
                 })
                 .verifyComplete();
@@ -162,7 +166,7 @@ class ProductComparisonAnalyzerServiceTest {
     @Test
     void shouldReturnEmptyResponseWhenProductsListIsEmpty() {
         // Given
-        List<ProductDto> emptyProducts = List.of();
+        List<ProductView> emptyProducts = List.of();
 
         // When & Then
         StepVerifier.create(analyzerService.analyzeProductsReactive(Flux.fromIterable(emptyProducts), requestedIds))
@@ -205,7 +209,7 @@ class ProductComparisonAnalyzerServiceTest {
     @Test
     void shouldHandleAnalysisErrors() {
         // Given
-        List<ProductDto> products = List.of(testProduct1);
+        List<ProductView> products = List.of(testProduct1);
         RuntimeException analysisError = new RuntimeException("Analysis failed");
 
         when(priceAnalysisStrategy.analyze(any())).thenReturn(Mono.error(analysisError));
@@ -219,7 +223,7 @@ class ProductComparisonAnalyzerServiceTest {
     @Test
     void shouldAnalyzeReactiveFluxWithEmptyFlux() {
         // Given
-        Flux<ProductDto> emptyFlux = Flux.empty();
+        Flux<ProductView> emptyFlux = Flux.empty();
 
         // When & Then
         StepVerifier.create(analyzerService.analyzeProductsReactive(emptyFlux, requestedIds))
@@ -234,7 +238,7 @@ class ProductComparisonAnalyzerServiceTest {
     @Test
     void shouldAnalyzeSingleProduct() {
         // Given
-        List<ProductDto> singleProduct = List.of(testProduct1);
+        List<ProductView> singleProduct = List.of(testProduct1);
 
         when(priceAnalysisStrategy.analyze(any())).thenReturn(Mono.just(
                 PriceAnalysisDto.builder().priceRange(new BigDecimal("0.00")).build()));
@@ -251,7 +255,7 @@ class ProductComparisonAnalyzerServiceTest {
                 .assertNext(result -> {
                     assertNotNull(result);
                     assertEquals(1, result.getTotalProducts());
-                    assertEquals(singleProduct, result.getProducts());
+                    assertEquals(ProductResponseDto.from(singleProduct), result.getProducts());
                     assertTrue(result.getComparisonTimestamp().isBefore(Instant.now().plusSeconds(1)));
                 })
                 .verifyComplete();
@@ -1,9 +1,24 @@
 package com.meli.technical.exam.api.products.domain.service;
 
+import com.meli.technical.exam.api.products.domain.exception.ProductNotFoundException;
+import com.meli.technical.exam.api.products.domain.model.BestValuePick;
+import com.meli.technical.exam.api.products.domain.model.CatalogPage;
+import com.meli.technical.exam.api.products.domain.model.FacetFilter;
+import com.meli.technical.exam.api.products.domain.model.ImportBatchResult;
 import com.meli.technical.exam.api.products.domain.model.Price;
 import com.meli.technical.exam.api.products.domain.model.Product;
+import com.meli.technical.exam.api.products.domain.model.ProductBatch;
+import com.meli.technical.exam.api.products.domain.model.ProductFacets;
 import com.meli.technical.exam.api.products.domain.model.ProductId;
+import com.meli.technical.exam.api.products.domain.model.ProductSortField;
+import com.meli.technical.exam.api.products.domain.model.ProductSortOrder;
+import com.meli.technical.exam.api.products.domain.model.ProductSearchHit;
+import com.meli.technical.exam.api.products.domain.model.ProductSearchResult;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
 import com.meli.technical.exam.api.products.domain.model.Rating;
+import com.meli.technical.exam.api.products.domain.model.SimilarProduct;
+import com.meli.technical.exam.api.products.domain.model.SortDirection;
+import com.meli.technical.exam.api.products.domain.model.VersionedProduct;
 import com.meli.technical.exam.api.products.domain.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,6 +31,7 @@ import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.Mockito.*;
 
@@ -26,12 +42,12 @@ class ProductServiceTest {
     private ProductRepository productRepository;
 
     private ProductService productService;
-    private Product testProduct;
+    private ProductView testProduct;
 
     @BeforeEach
     void setUp() {
         productService = new ProductService(productRepository);
-        testProduct = Product.builder()
+        testProduct = ProductView.from(Product.builder()
                 .id(ProductId.of("1"))
                 .name("Test Product")
                 .imageUrl("url")
@@ -39,7 +55,7 @@ class ProductServiceTest {
                 .price(Price.of(new BigDecimal("99.99")))
                 .rating(Rating.of(4.5))
                 .specifications(List.of())
-                .build();
+                .build());
     }
 
     @Test
@@ -53,6 +69,16 @@ class ProductServiceTest {
         verify(productRepository).findById("1");
     }
 
+    @Test
+    void shouldFindVersionedProductById() {
+        VersionedProduct versioned = new VersionedProduct(testProduct, 3);
+        when(productRepository.findVersionedById("1")).thenReturn(Mono.just(versioned));
+
+        StepVerifier.create(productService.findVersionedById("1"))
+                .expectNext(versioned)
+                .verifyComplete();
+    }
+
     @Test
     void shouldReturnEmptyWhenProductNotFound() {
         when(productRepository.findById("nonexistent")).thenReturn(Mono.empty());
@@ -66,7 +92,7 @@ class ProductServiceTest {
     @Test
     void shouldFindProductsForComparison() {
         List<String> productIds = List.of("1", "2");
-        Product product2 = Product.builder()
+        ProductView product2 = ProductView.from(Product.builder()
                 .id(ProductId.of("2"))
                 .name("Product 2")
                 .imageUrl("url2")
@@ -74,22 +100,23 @@ class ProductServiceTest {
                 .price(Price.of(new BigDecimal("199.99")))
                 .rating(Rating.of(4.0))
                 .specifications(List.of())
-                .build();
+                .build());
 
-        when(productRepository.findByIds(productIds))
-                .thenReturn(Flux.just(testProduct, product2));
+        ProductBatch batch = new ProductBatch(List.of(testProduct, product2), List.of());
+        when(productRepository.findBatch(productIds))
+                .thenReturn(Mono.just(batch));
 
         StepVerifier.create(productService.findProductsForComparison(productIds))
-                .expectNext(testProduct)
-                .expectNext(product2)
+                .expectNext(batch)
                 .verifyComplete();
 
-        verify(productRepository).findByIds(productIds);
+        verify(productRepository).findBatch(productIds);
     }
 
     @Test
     void shouldReturnEmptyWhenProductIdsListIsEmpty() {
         StepVerifier.create(productService.findProductsForComparison(List.of()))
+                .expectNext(ProductBatch.EMPTY)
                 .verifyComplete();
 
         verifyNoInteractions(productRepository);
@@ -98,55 +125,195 @@ class ProductServiceTest {
     @Test
     void shouldReturnEmptyWhenProductIdsListIsNull() {
         StepVerifier.create(productService.findProductsForComparison(null))
+                .expectNext(ProductBatch.EMPTY)
                 .verifyComplete();
 
         verifyNoInteractions(productRepository);
     }
 
     @Test
-    void shouldFindAllProducts() {
-        when(productRepository.findAll()).thenReturn(Flux.just(testProduct));
+    void shouldFindPageThroughRepository() {
+        CatalogPage page = new CatalogPage(List.of(testProduct), 1, "0");
+        when(productRepository.findPage(null, 0, 10, null)).thenReturn(Mono.just(page));
 
-        StepVerifier.create(productService.findAll())
-                .expectNext(testProduct)
+        StepVerifier.create(productService.findPage(null, 0, 10, null))
+                .expectNext(page)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldRejectInvalidPageBeforeReadingASnapshot() {
+        StepVerifier.create(productService.findPage(null, -1, 10, "4"))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        StepVerifier.create(productService.findPage(null, 0, 0, null))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void shouldFindBatch() {
+        List<String> productIds = List.of("1", "missing");
+        ProductBatch batch = new ProductBatch(List.of(testProduct), List.of("missing"));
+        when(productRepository.findBatch(productIds)).thenReturn(Mono.just(batch));
+
+        StepVerifier.create(productService.findBatch(productIds))
+                .expectNext(batch)
                 .verifyComplete();
 
-        verify(productRepository).findAll();
+        verify(productRepository).findBatch(productIds);
     }
 
     @Test
-    void shouldFindAllProductsPaginated() {
-        when(productRepository.findAllPaginated(0, 10))
-                .thenReturn(Flux.just(testProduct));
+    void shouldReturnEmptyBatchWithoutQueryingRepository() {
+        StepVerifier.create(productService.findBatch(List.of()))
+                .expectNext(ProductBatch.EMPTY)
+                .verifyComplete();
+
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void shouldSearch() {
+        ProductSearchResult result = new ProductSearchResult(List.of(new ProductSearchHit(testProduct, 1.5)), 1);
+        when(productRepository.search("galaxy", 10)).thenReturn(Mono.just(result));
+
+        StepVerifier.create(productService.search("galaxy", 10))
+                .expectNext(result)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldReturnEmptySearchResultForBlankQuery() {
+        StepVerifier.create(productService.search("  ", 10))
+                .expectNext(ProductSearchResult.EMPTY)
+                .verifyComplete();
 
-        StepVerifier.create(productService.findAllPaginated(0, 10))
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void shouldSuggest() {
+        when(productRepository.suggest("pro", 5)).thenReturn(Flux.just(testProduct));
+
+        StepVerifier.create(productService.suggest("pro", 5))
                 .expectNext(testProduct)
                 .verifyComplete();
+    }
 
-        verify(productRepository).findAllPaginated(0, 10);
+    @Test
+    void shouldCountFacetsWithoutFilterWhenNoneGiven() {
+        ProductFacets facets = new ProductFacets(1, List.of(), List.of(), Map.of());
+        when(productRepository.facets(FacetFilter.NONE)).thenReturn(Mono.just(facets));
+
+        StepVerifier.create(productService.facets(null))
+                .expectNext(facets)
+                .verifyComplete();
     }
 
     @Test
-    void shouldReturnErrorWhenInvalidPaginationParameters() {
-        StepVerifier.create(productService.findAllPaginated(-1, 10))
-                .expectError(IllegalArgumentException.class)
-                .verify();
+    void shouldFindBestValueWithoutFilterWhenNoneGiven() {
+        BestValuePick pick = new BestValuePick(testProduct, 1.0);
+        when(productRepository.findBestValue(FacetFilter.NONE, 5)).thenReturn(Flux.just(pick));
 
-        StepVerifier.create(productService.findAllPaginated(0, 0))
-                .expectError(IllegalArgumentException.class)
-                .verify();
+        StepVerifier.create(productService.findBestValue(null, 5))
+                .expectNext(pick)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldFindSimilarWithTrimmedId() {
+        List<SimilarProduct> similar = List.of(new SimilarProduct(testProduct, 0.5));
+        when(productRepository.findSimilar("1", 5)).thenReturn(Mono.just(similar));
+
+        StepVerifier.create(productService.findSimilar(" 1 ", 5))
+                .expectNext(similar)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldNotLookUpSimilarForBlankId() {
+        StepVerifier.create(productService.findSimilar(" ", 5))
+                .verifyComplete();
 
         verifyNoInteractions(productRepository);
     }
 
     @Test
-    void shouldCountProducts() {
-        when(productRepository.count()).thenReturn(Mono.just(5L));
+    void shouldFindSortedPageThroughRepository() {
+        ProductSortOrder order = new ProductSortOrder(ProductSortField.RATING, SortDirection.DESC);
+        CatalogPage page = new CatalogPage(List.of(testProduct), 1, "0");
+        when(productRepository.findPage(order, 0, 10, null)).thenReturn(Mono.just(page));
+
+        StepVerifier.create(productService.findPage(order, 0, 10, null))
+                .expectNext(page)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldCreateThroughRepository() {
+        Product product = Product.builder()
+                .id(ProductId.of("2"))
+                .name("New Product")
+                .imageUrl("url")
+                .description("desc")
+                .price(Price.of(new BigDecimal("10.00")))
+                .rating(Rating.of(4.0))
+                .specifications(List.of())
+                .build();
+        VersionedProduct created = new VersionedProduct(ProductView.from(product), 1);
+        when(productRepository.create(product)).thenReturn(Mono.just(created));
 
-        StepVerifier.create(productService.count())
-                .expectNext(5L)
+        StepVerifier.create(productService.create(product))
+                .expectNext(created)
                 .verifyComplete();
+    }
 
-        verify(productRepository).count();
+    @Test
+    void shouldPropagateUpdateOfMissingProduct() {
+        Product product = Product.builder()
+                .id(ProductId.of("404"))
+                .name("Missing")
+                .imageUrl("url")
+                .description("desc")
+                .price(Price.of(new BigDecimal("10.00")))
+                .rating(Rating.of(4.0))
+                .specifications(List.of())
+                .build();
+        when(productRepository.update(product, VersionedProduct.ANY_VERSION)).thenReturn(Mono.error(ProductNotFoundException.forId("404")));
+
+        StepVerifier.create(productService.update(product))
+                .expectError(ProductNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldImportBatchThroughRepository() {
+        Product product = Product.builder()
+                .id(ProductId.of("3"))
+                .name("Imported")
+                .imageUrl("url")
+                .description("desc")
+                .price(Price.of(new BigDecimal("10.00")))
+                .rating(Rating.of(4.0))
+                .specifications(List.of())
+                .build();
+        when(productRepository.importBatch(List.of(product))).thenReturn(Mono.just(new ImportBatchResult(1, 0)));
+
+        StepVerifier.create(productService.importBatch(List.of(product)))
+                .expectNext(new ImportBatchResult(1, 0))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldNotWriteEmptyImportBatch() {
+        StepVerifier.create(productService.importBatch(List.of()))
+                .expectNext(ImportBatchResult.EMPTY)
+                .verifyComplete();
+
+        verifyNoInteractions(productRepository);
     }
-}
\ No newline at end of file
+}
@@ -87,4 +87,58 @@ class ProductInputFormatValidatorTest {
 
         assertThrows(InvalidProductException.class, () -> validator.validate(product));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldAccumulateEveryBrokenRuleInsteadOfThrowing() {
+        Product product = Product.builder()
+                .id(ProductId.of("bad id!"))
+                .name("A")
+                .imageUrl("not-a-valid-url")
+                .description("This is a valid description with more than 10 characters")
+                .price(Price.of(new BigDecimal("99.99")))
+                .rating(Rating.of(4.5))
+                .specifications(List.of())
+                .build();
+        ValidationResult result = new ValidationResult();
+
+        assertDoesNotThrow(() -> validator.validate(product, result));
+
+        assertFalse(result.isValid());
+        assertEquals(List.of(
+                "Product ID can only contain letters, numbers, hyphens, and underscores",
+                "Product name must be at least 2 characters long",
+                "Product image URL format is invalid: not-a-valid-url"), result.errors());
+        assertFalse(validator.isValid(product));
+    }
+
+    @Test
+    void shouldCheckIdCharactersWithinTrimmedBounds() {
+        assertTrue(validator.isValid(productWithId("  Valid_ID-42  ")));
+        assertFalse(validator.isValid(productWithId("caf\u00e9")));
+        assertFalse(validator.isValid(productWithId("a".repeat(51))));
+    }
+
+    @Test
+    void shouldReuseResultAfterClear() {
+        ValidationResult result = new ValidationResult();
+        validator.validate(productWithId("bad id!"), result);
+        result.clear();
+
+        validator.validate(productWithId("good-id"), result);
+
+        assertTrue(result.isValid());
+        assertEquals(List.of(), result.errors());
+    }
+
+    private static Product productWithId(String id) {
+        return Product.builder()
+                .id(ProductId.of(id))
+                .name("Valid Name")
+                .imageUrl("https://example.com/image.jpg")
+                .description("This is a valid description with more than 10 characters")
+                .price(Price.of(new BigDecimal("99.99")))
+                .rating(Rating.of(4.5))
+                .specifications(List.of())
+                .build();
+    }
+}
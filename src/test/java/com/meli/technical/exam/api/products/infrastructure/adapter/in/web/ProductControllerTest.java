@@ -1,25 +1,66 @@
 package com.meli.technical.exam.api.products.infrastructure.adapter.in.web;
 
+import com.meli.technical.exam.api.products.application.dto.request.BatchRequestDto;
 import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
-import com.meli.technical.exam.api.products.application.dto.request.SpecificationDto;
+import com.meli.technical.exam.api.products.application.dto.response.BatchResponseDto;
+import com.meli.technical.exam.api.products.application.dto.response.BestValueResponseDto;
+import com.meli.technical.exam.api.products.application.dto.response.FacetsResponseDto;
+import com.meli.technical.exam.api.products.application.dto.response.ImportReportDto;
 import com.meli.technical.exam.api.products.application.dto.response.PaginatedResponseDto;
+import com.meli.technical.exam.api.products.application.dto.response.ProductResponseDto;
+import com.meli.technical.exam.api.products.application.dto.response.SearchResponseDto;
+import com.meli.technical.exam.api.products.application.dto.response.SimilarProductsResponseDto;
+import com.meli.technical.exam.api.products.application.dto.response.SuggestResponseDto;
 import com.meli.technical.exam.api.products.application.dto.response.comparison.ComparisonResponseDto;
 import com.meli.technical.exam.api.products.application.dto.response.comparison.ComparisonSummaryDto;
 import com.meli.technical.exam.api.products.application.dto.response.comparison.PriceAnalysisDto;
 import com.meli.technical.exam.api.products.application.dto.response.comparison.RatingAnalysisDto;
 import com.meli.technical.exam.api.products.application.usecase.ProductComparisonUseCase;
+import com.meli.technical.exam.api.products.application.usecase.ProductImportUseCase;
+import com.meli.technical.exam.api.products.application.usecase.ProductWriteUseCase;
+import com.meli.technical.exam.api.products.domain.exception.BusinessRuleViolationException;
+import com.meli.technical.exam.api.products.domain.exception.ChangeHistoryExpiredException;
+import com.meli.technical.exam.api.products.domain.exception.ProductAlreadyExistsException;
 import com.meli.technical.exam.api.products.domain.exception.ProductNotFoundException;
+import com.meli.technical.exam.api.products.domain.exception.ProductOwnedElsewhereException;
+import com.meli.technical.exam.api.products.domain.exception.ProductVersionMismatchException;
+import com.meli.technical.exam.api.products.domain.exception.ReadOnlyReplicaException;
+import com.meli.technical.exam.api.products.domain.exception.SnapshotExpiredException;
+import com.meli.technical.exam.api.products.domain.model.CatalogChange;
+import com.meli.technical.exam.api.products.domain.model.CatalogDelta;
+import com.meli.technical.exam.api.products.domain.model.ChangeType;
+import com.meli.technical.exam.api.products.domain.model.FacetCount;
+import com.meli.technical.exam.api.products.domain.model.FacetFilter;
+import com.meli.technical.exam.api.products.domain.model.PriceBucket;
+import com.meli.technical.exam.api.products.domain.model.ProductChange;
+import com.meli.technical.exam.api.products.domain.model.ProductSortField;
+import com.meli.technical.exam.api.products.domain.model.ProductSortOrder;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.domain.model.SortDirection;
+import com.meli.technical.exam.api.products.domain.model.Specification;
+import com.meli.technical.exam.api.products.domain.model.VersionedProduct;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @WebFluxTest(ProductController.class)
@@ -31,20 +72,27 @@ class ProductControllerTest {
     @MockBean
     private ProductComparisonUseCase productComparisonUseCase;
 
+    @MockBean
+    private ProductWriteUseCase productWriteUseCase;
+
+    @MockBean
+    private ProductImportUseCase productImportUseCase;
+
     @Test
     void shouldGetProductById() {
-        ProductDto productDto = new ProductDto(
+        ProductView product = new ProductView(
             "1", "Test Product", "url", "desc", 
             new BigDecimal("99.99"), 4.5, List.of()
         );
         
-        when(productComparisonUseCase.getProductById("1"))
-                .thenReturn(Mono.just(productDto));
+        when(productComparisonUseCase.getVersionedProductById("1"))
+                .thenReturn(Mono.just(new VersionedProduct(product, 4)));
 
         webTestClient.get()
                 .uri("/api/v1/products/1")
                 .exchange()
                 .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"4\"")
                 .expectBody()
                 .jsonPath("$.id").isEqualTo("1")
                 .jsonPath("$.name").isEqualTo("Test Product")
@@ -53,7 +101,7 @@ class ProductControllerTest {
 
     @Test
     void shouldReturn404WhenProductNotFound() {
-        when(productComparisonUseCase.getProductById("nonexistent"))
+        when(productComparisonUseCase.getVersionedProductById("nonexistent"))
                 .thenReturn(Mono.error(new ProductNotFoundException("Product not found")));
 
         webTestClient.get()
@@ -62,25 +110,68 @@ class ProductControllerTest {
                 .expectStatus().isNotFound()
                 .expectBody()
                 .jsonPath("$.status").isEqualTo(404)
-                .jsonPath("$.error").isEqualTo("Product not found");
+                .jsonPath("$.error").isEqualTo("Product not found")
+                .jsonPath("$.message").isEqualTo("The requested product does not exist in our catalog")
+                .jsonPath("$.path").isEqualTo("/api/v1/products/nonexistent");
+    }
+
+    @Test
+    void shouldGetSimilarProducts() {
+        ProductView product = new ProductView(
+            "2", "Product 2", "url2", "desc2",
+            new BigDecimal("89.99"), 4.0, List.of()
+        );
+        when(productComparisonUseCase.getSimilarProducts("1", 3))
+                .thenReturn(Mono.just(new SimilarProductsResponseDto("1",
+                        List.of(new SimilarProductsResponseDto.Match(ProductResponseDto.from(product), 0.5)))));
+
+        webTestClient.get()
+                .uri("/api/v1/products/1/similar?k=3")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.productId").isEqualTo("1")
+                .jsonPath("$.similar[0].product.id").isEqualTo("2")
+                .jsonPath("$.similar[0].similarity").isEqualTo(0.5);
+    }
+
+    @Test
+    void shouldReturn404ForSimilarOfUnknownProduct() {
+        when(productComparisonUseCase.getSimilarProducts("nonexistent", 5))
+                .thenReturn(Mono.error(ProductNotFoundException.forId("nonexistent")));
+
+        webTestClient.get()
+                .uri("/api/v1/products/nonexistent/similar")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void shouldRejectSimilarCountOutOfRange() {
+        webTestClient.get()
+                .uri("/api/v1/products/1/similar?k=21")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.validationErrors[0].field").isEqualTo("k");
     }
 
     @Test
     void shouldCompareProducts() {
-        ProductDto product1 = new ProductDto(
+        ProductView product1 = new ProductView(
             "1", "Product 1", "url1", "desc1",
             new BigDecimal("99.99"), 4.5, 
-            List.of(new SpecificationDto("brand", "Brand A"))
+            List.of(new Specification("brand", "Brand A"))
         );
-        ProductDto product2 = new ProductDto(
+        ProductView product2 = new ProductView(
             "2", "Product 2", "url2", "desc2",
             new BigDecimal("199.99"), 4.0,
-            List.of(new SpecificationDto("brand", "Brand B"))
+            List.of(new Specification("brand", "Brand B"))
         );
         
         List<String> requestedIds = List.of("1", "2");
         ComparisonResponseDto response = ComparisonResponseDto.builder()
-                .products(List.of(product1, product2))
+                .products(ProductResponseDto.from(List.of(product1, product2)))
                 .totalProducts(2)
                 .requestedIds(requestedIds)
                 .comparisonTimestamp(Instant.now())
@@ -137,16 +228,16 @@ class ProductControllerTest {
 
     @Test
     void shouldGetPaginatedProducts() {
-        ProductDto productDto = new ProductDto(
+        ProductView product = new ProductView(
             "1", "Product 1", "url", "desc",
             new BigDecimal("99.99"), 4.5, List.of()
         );
         
-        PaginatedResponseDto<ProductDto> response = new PaginatedResponseDto<>(
-            List.of(productDto), 0, 10, 1L
+        PaginatedResponseDto<ProductResponseDto> response = new PaginatedResponseDto<>(
+            ProductResponseDto.from(List.of(product)), 0, 10, 1L
         );
 
-        when(productComparisonUseCase.getAllProductsPaginated(0, 10))
+        when(productComparisonUseCase.getAllProductsPaginated(0, 10, null))
                 .thenReturn(Mono.just(response));
 
         webTestClient.get()
@@ -163,11 +254,11 @@ class ProductControllerTest {
 
     @Test
     void shouldUseDefaultPaginationParameters() {
-        PaginatedResponseDto<ProductDto> response = new PaginatedResponseDto<>(
+        PaginatedResponseDto<ProductResponseDto> response = new PaginatedResponseDto<>(
             List.of(), 0, 10, 0L
         );
 
-        when(productComparisonUseCase.getAllProductsPaginated(0, 10))
+        when(productComparisonUseCase.getAllProductsPaginated(0, 10, null))
                 .thenReturn(Mono.just(response));
 
         webTestClient.get()
@@ -179,6 +270,37 @@ class ProductControllerTest {
                 .jsonPath("$.size").isEqualTo(10);
     }
 
+    @Test
+    void shouldPassSnapshotTokenToPagination() {
+        PaginatedResponseDto<ProductResponseDto> response = new PaginatedResponseDto<>(
+            List.of(), 2, 10, 25L, "41"
+        );
+
+        when(productComparisonUseCase.getAllProductsPaginated(2, 10, "41"))
+                .thenReturn(Mono.just(response));
+
+        webTestClient.get()
+                .uri("/api/v1/products?page=2&size=10&snapshot=41")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.snapshot").isEqualTo("41")
+                .jsonPath("$.totalElements").isEqualTo(25);
+    }
+
+    @Test
+    void shouldReturn410ForExpiredSnapshot() {
+        when(productComparisonUseCase.getAllProductsPaginated(1, 10, "3"))
+                .thenReturn(Mono.error(SnapshotExpiredException.forToken("3")));
+
+        webTestClient.get()
+                .uri("/api/v1/products?page=1&size=10&snapshot=3")
+                .exchange()
+                .expectStatus().isEqualTo(410)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Snapshot expired");
+    }
+
     @Test
     void shouldReturnHealthCheck() {
         webTestClient.get()
@@ -191,11 +313,11 @@ class ProductControllerTest {
 
     @Test
     void shouldHandleInvalidPaginationParameters() {
-        PaginatedResponseDto<ProductDto> response = new PaginatedResponseDto<>(
+        PaginatedResponseDto<ProductResponseDto> response = new PaginatedResponseDto<>(
             List.of(), 0, 10, 0L
         );
 
-        when(productComparisonUseCase.getAllProductsPaginated(0, 10))
+        when(productComparisonUseCase.getAllProductsPaginated(0, 10, null))
                 .thenReturn(Mono.just(response));
 
         webTestClient.get()
@@ -208,12 +330,12 @@ class ProductControllerTest {
     }
 
     @Test
-    void shouldUseGetAllProductsWhenLargePageSize() {
-        PaginatedResponseDto<ProductDto> response = new PaginatedResponseDto<>(
-            List.of(), 0, 100, 0L
+    void shouldPageLargePageSizesWithASnapshotToken() {
+        PaginatedResponseDto<ProductResponseDto> response = new PaginatedResponseDto<>(
+            List.of(), 0, 50, 120L, "9"
         );
 
-        when(productComparisonUseCase.getAllProducts())
+        when(productComparisonUseCase.getAllProductsPaginated(0, 50, null))
                 .thenReturn(Mono.just(response));
 
         webTestClient.get()
@@ -221,19 +343,20 @@ class ProductControllerTest {
                 .exchange()
                 .expectStatus().isOk()
                 .expectBody()
-                .jsonPath("$.content").isArray();
+                .jsonPath("$.size").isEqualTo(50)
+                .jsonPath("$.snapshot").isEqualTo("9");
     }
 
     @Test
     void shouldHandleCompareWithWhitespaceAndDuplicates() {
-        ProductDto product1 = new ProductDto(
+        ProductView product1 = new ProductView(
             "1", "Product 1", "url1", "desc1",
             new BigDecimal("99.99"), 4.5, List.of()
         );
         
         List<String> cleanIds = List.of("1");
         ComparisonResponseDto response = ComparisonResponseDto.builder()
-                .products(List.of(product1))
+                .products(ProductResponseDto.from(List.of(product1)))
                 .totalProducts(1)
                 .requestedIds(cleanIds)
                 .comparisonTimestamp(Instant.now())
@@ -267,4 +390,542 @@ class ProductControllerTest {
                 .exchange()
                 .expectStatus().is5xxServerError();
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldGetProductsBatchInRequestOrderWithMissingIds() {
+        ProductView product2 = new ProductView(
+            "2", "Product 2", "url2", "desc2",
+            new BigDecimal("199.99"), 4.0, List.of()
+        );
+        ProductView product1 = new ProductView(
+            "1", "Product 1", "url1", "desc1",
+            new BigDecimal("99.99"), 4.5, List.of()
+        );
+        BatchResponseDto response = BatchResponseDto.builder()
+                .products(ProductResponseDto.from(List.of(product2, product1)))
+                .missingIds(List.of("404"))
+                .requestedCount(3)
+                .foundCount(2)
+                .build();
+
+        when(productComparisonUseCase.getProductsBatch(List.of("2", "404", "1")))
+                .thenReturn(Mono.just(response));
+
+        webTestClient.post()
+                .uri("/api/v1/products/batch")
+                .bodyValue(new BatchRequestDto(List.of("2", "404", "1")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.products.length()").isEqualTo(2)
+                .jsonPath("$.products[0].id").isEqualTo("2")
+                .jsonPath("$.products[1].id").isEqualTo("1")
+                .jsonPath("$.missingIds[0]").isEqualTo("404")
+                .jsonPath("$.requestedCount").isEqualTo(3)
+                .jsonPath("$.foundCount").isEqualTo(2);
+    }
+
+    @Test
+    void shouldRejectBatchWithoutIds() {
+        webTestClient.post()
+                .uri("/api/v1/products/batch")
+                .bodyValue(new BatchRequestDto(List.of()))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.validationErrors").isArray();
+    }
+
+    @Test
+    void shouldRejectBatchWithBlankIds() {
+        webTestClient.post()
+                .uri("/api/v1/products/batch")
+                .bodyValue(new BatchRequestDto(List.of("1", " ")))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.validationErrors[0].field").isEqualTo("ids");
+    }
+
+    @Test
+    void shouldReturn422WhenBatchIsTooLarge() {
+        when(productComparisonUseCase.getProductsBatch(List.of("1")))
+                .thenReturn(Mono.error(new BusinessRuleViolationException(
+                        "Cannot look up more than 5000 products at once", "MAX_BATCH_SIZE", 5000, 5001)));
+
+        webTestClient.post()
+                .uri("/api/v1/products/batch")
+                .bodyValue(new BatchRequestDto(List.of("1")))
+                .exchange()
+                .expectStatus().isEqualTo(422)
+                .expectBody()
+                .jsonPath("$.businessRule").isEqualTo("MAX_BATCH_SIZE")
+                .jsonPath("$.limit").isEqualTo(5000);
+    }
+
+    @Test
+    void shouldSearchProducts() {
+        ProductView product = new ProductView(
+            "1", "Samsung Galaxy S24", "url1", "desc1",
+            new BigDecimal("999.99"), 4.5, List.of()
+        );
+        SearchResponseDto response = SearchResponseDto.builder()
+                .query("galaxy")
+                .results(List.of(new SearchResponseDto.Hit(ProductResponseDto.from(product), 1.25)))
+                .totalHits(1)
+                .build();
+
+        when(productComparisonUseCase.searchProducts("galaxy", 5)).thenReturn(Mono.just(response));
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/v1/products/search")
+                        .queryParam("q", " galaxy ")
+                        .queryParam("limit", 5)
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.query").isEqualTo("galaxy")
+                .jsonPath("$.totalHits").isEqualTo(1)
+                .jsonPath("$.results[0].product.id").isEqualTo("1")
+                .jsonPath("$.results[0].score").isEqualTo(1.25);
+    }
+
+    @Test
+    void shouldRejectSearchWithoutQuery() {
+        webTestClient.get()
+                .uri("/api/v1/products/search?q=")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.validationErrors[0].field").isEqualTo("q");
+    }
+
+    @Test
+    void shouldRejectSearchLimitOutOfRange() {
+        webTestClient.get()
+                .uri("/api/v1/products/search?q=phone&limit=500")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.validationErrors[0].field").isEqualTo("limit");
+    }
+
+    @Test
+    void shouldSuggestProducts() {
+        ProductView product = new ProductView(
+            "1", "Samsung Galaxy S24", "url1", "desc1",
+            new BigDecimal("999.99"), 4.5, List.of()
+        );
+        when(productComparisonUseCase.suggestProducts("sam", 5))
+                .thenReturn(Mono.just(new SuggestResponseDto("sam", ProductResponseDto.from(List.of(product)))));
+
+        webTestClient.get()
+                .uri("/api/v1/products/suggest?prefix=sam")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.prefix").isEqualTo("sam")
+                .jsonPath("$.suggestions[0].name").isEqualTo("Samsung Galaxy S24");
+    }
+
+    @Test
+    void shouldRejectSuggestWithoutPrefix() {
+        webTestClient.get()
+                .uri("/api/v1/products/suggest")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.validationErrors[0].field").isEqualTo("prefix");
+    }
+
+    @Test
+    void shouldGetFacetsForFilter() {
+        FacetFilter filter = new FacetFilter(Set.of(PriceBucket.FROM_1000_TO_1500), Set.of(4),
+                Map.of("RAM", Set.of("12GB", "16GB")));
+        FacetsResponseDto response = FacetsResponseDto.builder()
+                .totalMatches(3)
+                .price(List.of(new FacetCount("1000-1500", 3)))
+                .rating(List.of(new FacetCount("4", 3)))
+                .specifications(Map.of("RAM", List.of(new FacetCount("12GB", 2), new FacetCount("16GB", 1))))
+                .build();
+        when(productComparisonUseCase.getFacets(filter)).thenReturn(Mono.just(response));
+
+        webTestClient.get()
+                .uri("/api/v1/products/facets?price=1000-1500&rating=4&spec=RAM:12GB&spec=RAM:16GB")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalMatches").isEqualTo(3)
+                .jsonPath("$.specifications.RAM[0].value").isEqualTo("12GB")
+                .jsonPath("$.specifications.RAM[0].count").isEqualTo(2);
+    }
+
+    @Test
+    void shouldRejectUnknownFacetValues() {
+        webTestClient.get()
+                .uri("/api/v1/products/facets?price=cheap&rating=7&spec=RAM")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.validationErrors.length()").isEqualTo(3);
+    }
+
+    @Test
+    void shouldGetBestValueProductsWithinFilter() {
+        ProductView product = new ProductView(
+            "7", "Product 7", "url7", "desc7",
+            new BigDecimal("399.99"), 4.2, List.of()
+        );
+        FacetFilter filter = new FacetFilter(Set.of(PriceBucket.FROM_250_TO_500), Set.of(), Map.of());
+        when(productComparisonUseCase.getBestValue(filter, 3))
+                .thenReturn(Mono.just(new BestValueResponseDto(
+                        List.of(new BestValueResponseDto.Pick(ProductResponseDto.from(product), 2.9)), 1)));
+
+        webTestClient.get()
+                .uri("/api/v1/products/best-value?limit=3&price=250-500")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.count").isEqualTo(1)
+                .jsonPath("$.results[0].product.id").isEqualTo("7")
+                .jsonPath("$.results[0].valueScore").isEqualTo(2.9);
+    }
+
+    @Test
+    void shouldRejectBestValueLimitOutOfRange() {
+        webTestClient.get()
+                .uri("/api/v1/products/best-value?limit=0")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.validationErrors[0].field").isEqualTo("limit");
+    }
+
+    @Test
+    void shouldGetProductsSortedByPriceDescending() {
+        ProductView product = new ProductView(
+            "1", "Product 1", "url1", "desc1",
+            new BigDecimal("99.99"), 4.5, List.of()
+        );
+        ProductSortOrder order = new ProductSortOrder(ProductSortField.PRICE, SortDirection.DESC);
+        when(productComparisonUseCase.getSortedProducts(0, 50, order, null))
+                .thenReturn(Mono.just(new PaginatedResponseDto<>(ProductResponseDto.from(List.of(product)), 0, 50, 1L)));
+
+        webTestClient.get()
+                .uri("/api/v1/products?page=0&size=50&sort=price&direction=desc")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content[0].id").isEqualTo("1");
+    }
+
+    @Test
+    void shouldRejectUnknownSortField() {
+        webTestClient.get()
+                .uri("/api/v1/products?sort=popularity&direction=up")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.validationErrors[0].field").isEqualTo("sort")
+                .jsonPath("$.validationErrors[1].field").isEqualTo("direction");
+    }
+
+    @Test
+    void shouldCreateProduct() {
+        ProductView created = new ProductView(
+            "11", "New Phone", "url", "desc",
+            new BigDecimal("199.99"), 4.2, List.of()
+        );
+        when(productWriteUseCase.createProduct(any(ProductDto.class)))
+                .thenReturn(Mono.just(new VersionedProduct(created, 12)));
+
+        webTestClient.post()
+                .uri("/api/v1/products")
+                .bodyValue(productDto("11"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().location("/api/v1/products/11")
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"12\"")
+                .expectBody()
+                .jsonPath("$.id").isEqualTo("11")
+                .jsonPath("$.name").isEqualTo("New Phone");
+    }
+
+    @Test
+    void shouldReturn409WhenCreatingExistingProduct() {
+        when(productWriteUseCase.createProduct(any(ProductDto.class)))
+                .thenReturn(Mono.error(ProductAlreadyExistsException.forId("1")));
+
+        webTestClient.post()
+                .uri("/api/v1/products")
+                .bodyValue(productDto("1"))
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Product already exists");
+    }
+
+    @Test
+    void shouldRejectInvalidProductOnCreate() {
+        ProductDto invalid = productDto(null);
+        invalid.setPrice(new BigDecimal("-1"));
+        invalid.setRating(7.0);
+
+        webTestClient.post()
+                .uri("/api/v1/products")
+                .bodyValue(invalid)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.validationErrors.length()").isEqualTo(3);
+
+        verifyNoInteractions(productWriteUseCase);
+    }
+
+    @Test
+    void shouldUpdateProduct() {
+        ProductView updated = new ProductView(
+            "1", "Renamed", "url", "desc",
+            new BigDecimal("99.99"), 4.5, List.of()
+        );
+        when(productWriteUseCase.updateProduct(eq("1"), any(ProductDto.class), eq(VersionedProduct.ANY_VERSION)))
+                .thenReturn(Mono.just(new VersionedProduct(updated, 13)));
+
+        webTestClient.put()
+                .uri("/api/v1/products/1")
+                .bodyValue(productDto(null))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"13\"")
+                .expectBody()
+                .jsonPath("$.id").isEqualTo("1")
+                .jsonPath("$.name").isEqualTo("Renamed");
+    }
+
+    @Test
+    void shouldPassIfMatchVersionToUpdate() {
+        ProductView updated = new ProductView(
+            "1", "Renamed", "url", "desc",
+            new BigDecimal("99.99"), 4.5, List.of()
+        );
+        when(productWriteUseCase.updateProduct(eq("1"), any(ProductDto.class), eq(4L)))
+                .thenReturn(Mono.just(new VersionedProduct(updated, 13)));
+
+        webTestClient.put()
+                .uri("/api/v1/products/1")
+                .header(HttpHeaders.IF_MATCH, "\"4\"")
+                .bodyValue(productDto(null))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"13\"");
+    }
+
+    @Test
+    void shouldReturn412WhenIfMatchIsStale() {
+        when(productWriteUseCase.updateProduct(eq("1"), any(ProductDto.class), eq(4L)))
+                .thenReturn(Mono.error(ProductVersionMismatchException.forId("1", 4, 9)));
+
+        webTestClient.put()
+                .uri("/api/v1/products/1")
+                .header(HttpHeaders.IF_MATCH, "\"4\"")
+                .bodyValue(productDto(null))
+                .exchange()
+                .expectStatus().isEqualTo(412)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Product was modified");
+    }
+
+    @Test
+    void shouldRejectIfMatchWithSeveralTags() {
+        webTestClient.put()
+                .uri("/api/v1/products/1")
+                .header(HttpHeaders.IF_MATCH, "\"4\", \"5\"")
+                .bodyValue(productDto(null))
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(productWriteUseCase);
+    }
+
+    @Test
+    void shouldReturn404WhenUpdatingMissingProduct() {
+        when(productWriteUseCase.updateProduct(eq("404"), any(ProductDto.class), anyLong()))
+                .thenReturn(Mono.error(ProductNotFoundException.forId("404")));
+
+        webTestClient.put()
+                .uri("/api/v1/products/404")
+                .bodyValue(productDto("404"))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void shouldStreamImportReportAsNdjson() {
+        ImportReportDto error = ImportReportDto.builder()
+                .type(ImportReportDto.TYPE_ERROR).line(2L).id("bad").message("Product price cannot be negative").build();
+        ImportReportDto summary = ImportReportDto.builder()
+                .type(ImportReportDto.TYPE_SUMMARY).received(2L).created(1L).updated(0L).rejected(1L).build();
+        when(productImportUseCase.importProducts(any())).thenReturn(Flux.just(error, summary));
+
+        String body = webTestClient.post()
+                .uri("/api/v1/products/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"id\":\"1\"}\n{\"id\":\"bad\"}\n")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        String[] lines = body.trim().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"type\":\"error\"") && lines[0].contains("\"line\":2"));
+        assertTrue(lines[1].contains("\"type\":\"summary\"") && lines[1].contains("\"rejected\":1"));
+    }
+
+    @Test
+    void shouldDeleteProductWithIfMatch() {
+        when(productWriteUseCase.deleteProduct("1", 4L)).thenReturn(Mono.empty());
+
+        webTestClient.delete()
+                .uri("/api/v1/products/1")
+                .header(HttpHeaders.IF_MATCH, "\"4\"")
+                .exchange()
+                .expectStatus().isNoContent()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void shouldReturn412WhenDeletingAStaleVersion() {
+        when(productWriteUseCase.deleteProduct("1", 4L))
+                .thenReturn(Mono.error(ProductVersionMismatchException.forId("1", 4, 9)));
+
+        webTestClient.delete()
+                .uri("/api/v1/products/1")
+                .header(HttpHeaders.IF_MATCH, "\"4\"")
+                .exchange()
+                .expectStatus().isEqualTo(412);
+    }
+
+    @Test
+    void shouldReturn421WhenAnotherPartitionOwnsTheProduct() {
+        when(productWriteUseCase.deleteProduct("1", 4L))
+                .thenReturn(Mono.error(ProductOwnedElsewhereException.forId("1", "http://localhost:8082")));
+
+        webTestClient.delete()
+                .uri("/api/v1/products/1")
+                .header(HttpHeaders.IF_MATCH, "\"4\"")
+                .exchange()
+                .expectStatus().isEqualTo(421)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Wrong partition");
+    }
+
+    @Test
+    void shouldReturn421WhenWritingToAReadReplica() {
+        when(productWriteUseCase.deleteProduct("1", 4L))
+                .thenReturn(Mono.error(ReadOnlyReplicaException.forLeader("http://localhost:8080")));
+
+        webTestClient.delete()
+                .uri("/api/v1/products/1")
+                .header(HttpHeaders.IF_MATCH, "\"4\"")
+                .exchange()
+                .expectStatus().isEqualTo(421)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Read-only replica");
+    }
+
+    @Test
+    void shouldReturnDeltaSinceVersion() {
+        ProductView product = new ProductView("1", "Renamed", "url", "desc", new BigDecimal("99.99"), 4.5, List.of());
+        when(productComparisonUseCase.getDelta(7L))
+                .thenReturn(Mono.just(new CatalogDelta(7, 9, false, List.of(product), List.of("2"))));
+
+        webTestClient.get()
+                .uri("/api/v1/products/delta?fromVersion=7")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.toVersion").isEqualTo(9)
+                .jsonPath("$.resync").isEqualTo(false)
+                .jsonPath("$.upserted[0].id").isEqualTo("1")
+                .jsonPath("$.deleted[0]").isEqualTo("2");
+    }
+
+    @Test
+    void shouldOmitChangesFromAResyncDelta() {
+        when(productComparisonUseCase.getDelta(0L)).thenReturn(Mono.just(CatalogDelta.resync(0, 9)));
+
+        webTestClient.get()
+                .uri("/api/v1/products/delta?fromVersion=0")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.resync").isEqualTo(true)
+                .jsonPath("$.upserted").doesNotExist();
+    }
+
+    @Test
+    void shouldStreamChangesAsNdjson() {
+        ProductView product = new ProductView("1", "Renamed", "url", "desc", new BigDecimal("99.99"), 4.5, List.of());
+        CatalogChange change = new CatalogChange(8, 7, List.of(new ProductChange(ChangeType.UPDATED, product, List.of("name"))));
+        when(productComparisonUseCase.getChanges(7L)).thenReturn(Flux.just(change));
+
+        String body = webTestClient.get()
+                .uri("/api/v1/products/changes?since=7")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertTrue(body.contains("\"sequence\":8") && body.contains("\"changedFields\":[\"name\"]"));
+    }
+
+    @Test
+    void shouldResumeServerSentEventsFromLastEventId() {
+        ProductView product = new ProductView("2", "New", "url", "desc", new BigDecimal("5.00"), 4.0, List.of());
+        CatalogChange change = new CatalogChange(12, 11, List.of(new ProductChange(ChangeType.CREATED, product, List.of())));
+        when(productComparisonUseCase.getChanges(11L)).thenReturn(Flux.just(change));
+
+        String body = webTestClient.get()
+                .uri("/api/v1/products/changes")
+                .header("Last-Event-ID", "11")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertTrue(body.contains("id:12") && body.contains("event:change"));
+    }
+
+    @Test
+    void shouldReturn410WhenChangesAreNoLongerKept() {
+        when(productComparisonUseCase.getChanges(1L)).thenReturn(Flux.error(ChangeHistoryExpiredException.since(1, 40)));
+
+        webTestClient.get()
+                .uri("/api/v1/products/changes?since=1")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isEqualTo(410);
+    }
+
+    private static ProductDto productDto(String id) {
+        return ProductDto.builder()
+                .id(id)
+                .name("New Phone")
+                .imageUrl("url")
+                .description("desc")
+                .price(new BigDecimal("199.99"))
+                .rating(4.2)
+                .specifications(List.of())
+                .build();
+    }
+}
@@ -0,0 +1,68 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.partition;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    private static final List<String> NODES = List.of("http://localhost:8080", "http://localhost:8081", "http://localhost:8082");
+
+    @Test
+    void shouldAgreeOnOwnersWhateverTheNodeOrder() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        ConsistentHashRing reordered = new ConsistentHashRing(List.of(NODES.get(2), NODES.get(0), NODES.get(1)), 128);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(ring.ownerOf("product-" + i), reordered.ownerOf("product-" + i));
+        }
+    }
+
+    @Test
+    void shouldSpreadIdsEvenly() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+
+        Map<String, Integer> owned = new HashMap<>();
+        for (int i = 0; i < 30_000; i++) {
+            owned.merge(ring.ownerOf(Integer.toString(i)), 1, Integer::sum);
+        }
+
+        assertEquals(3, owned.size());
+        // A third each, give or take a fifth of that
+        owned.values().forEach(count -> assertTrue(count > 8_000 && count < 12_000, "owned " + count));
+    }
+
+    @Test
+    void shouldOnlyMoveIdsToANewNode() {
+        ConsistentHashRing before = new ConsistentHashRing(NODES, 128);
+        ConsistentHashRing after = new ConsistentHashRing(List.of(NODES.get(0), NODES.get(1), NODES.get(2),
+                "http://localhost:8083"), 128);
+
+        int moved = 0;
+        for (int i = 0; i < 10_000; i++) {
+            String id = Integer.toString(i);
+            if (!before.ownerOf(id).equals(after.ownerOf(id))) {
+                assertEquals("http://localhost:8083", after.ownerOf(id));
+                moved++;
+            }
+        }
+        assertTrue(moved > 1_500 && moved < 3_500, "moved " + moved);
+    }
+
+    @Test
+    void shouldValidateThePartitionConfiguration() {
+        ProductPartition partition = new ProductPartition(true, "http://localhost:8081/", NODES, 64);
+
+        assertEquals("http://localhost:8081", partition.self());
+        assertEquals(partition.owns("42"), partition.ownerOf("42").equals("http://localhost:8081"));
+        assertThrows(IllegalStateException.class,
+                () -> new ProductPartition(true, "http://localhost:9999", NODES, 64));
+
+        ProductPartition single = new ProductPartition(false, "", List.of(), 64);
+        assertTrue(single.owns("42"));
+    }
+}
@@ -0,0 +1,170 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.partition;
+
+import com.meli.technical.exam.api.products.application.mapper.ProductMapper;
+import com.meli.technical.exam.api.products.domain.exception.PartitionUnavailableException;
+import com.meli.technical.exam.api.products.domain.exception.ProductOwnedElsewhereException;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.domain.model.VersionedProduct;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.JsonProductRepository;
+import com.meli.technical.exam.api.products.infrastructure.metrics.ProductMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.meli.technical.exam.api.products.TestProducts.product;
+import static com.meli.technical.exam.api.products.TestProducts.view;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PartitionedProductRepositoryTest {
+
+    private static final String SELF = "http://node-a";
+    private static final String HEALTHY = "http://node-b";
+    private static final String DOWN = "http://node-c";
+
+    private final ProductPartition partition = new ProductPartition(true, SELF, List.of(SELF, HEALTHY, DOWN), 64);
+    private final AtomicInteger remoteCalls = new AtomicInteger();
+    private JsonProductRepository local;
+    private RemoteProductCache cache;
+    private ProductMetrics productMetrics;
+    private PartitionedProductRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        local = mock(JsonProductRepository.class);
+        when(local.findVersionedById(anyString())).thenReturn(Mono.empty());
+        productMetrics = new ProductMetrics(new SimpleMeterRegistry());
+        cache = new RemoteProductCache(100, Duration.ofMinutes(1), System::nanoTime);
+        WebClient.Builder client = WebClient.builder().exchangeFunction(request -> {
+            remoteCalls.incrementAndGet();
+            if (request.url().toString().startsWith(DOWN)) {
+                return Mono.never();
+            }
+            String id = idOwnedBy(HEALTHY, 0);
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body("[{\"product\":{\"id\":\"" + id + "\",\"name\":\"Remote\",\"imageUrl\":\"url\","
+                            + "\"description\":\"desc\",\"price\":10.00,\"rating\":4.0,\"specifications\":[]},\"version\":7}]")
+                    .build());
+        });
+        repository = new PartitionedProductRepository(local, partition, client, cache,
+                Mappers.getMapper(ProductMapper.class), productMetrics, Duration.ofMillis(200));
+    }
+
+    @Test
+    void shouldGatherEveryPartitionAndReportTheUnreachableOne() {
+        String localId = idOwnedBy(SELF, 0);
+        String remoteId = idOwnedBy(HEALTHY, 0);
+        String missingRemoteId = idOwnedBy(HEALTHY, 1);
+        String unreachableId = idOwnedBy(DOWN, 0);
+        when(local.findVersionedById(localId)).thenReturn(Mono.just(new VersionedProduct(view(localId), 0)));
+
+        StepVerifier.create(repository.findBatch(List.of(unreachableId, remoteId, localId, missingRemoteId, localId)))
+                .assertNext(batch -> {
+                    assertEquals(List.of(remoteId, localId), batch.found().stream().map(ProductView::id).toList());
+                    assertEquals(List.of(missingRemoteId), batch.missingIds());
+                    assertEquals(List.of(unreachableId), batch.unavailableIds());
+                })
+                .verifyComplete();
+        // One hop per remote owner, however many of its IDs were asked for
+        assertEquals(2, remoteCalls.get());
+    }
+
+    @Test
+    void shouldReadSingleProductsFromTheirOwner() {
+        String remoteId = idOwnedBy(HEALTHY, 0);
+
+        StepVerifier.create(repository.findVersionedById(remoteId))
+                .assertNext(product -> {
+                    assertEquals("Remote", product.product().name());
+                    assertEquals(7, product.version());
+                })
+                .verifyComplete();
+        verify(local, never()).findVersionedById(remoteId);
+    }
+
+    @Test
+    void shouldFailASingleLookupWhoseOwnerDoesNotAnswer() {
+        StepVerifier.create(repository.findVersionedById(idOwnedBy(DOWN, 0)))
+                .expectErrorSatisfies(error -> {
+                    assertInstanceOf(PartitionUnavailableException.class, error);
+                    assertEquals(DOWN, ((PartitionUnavailableException) error).getOwner());
+                })
+                .verify();
+    }
+
+    @Test
+    void shouldServeCachedRemoteProductsUntilInvalidated() {
+        String remoteId = idOwnedBy(HEALTHY, 0);
+
+        StepVerifier.create(repository.findVersionedById(remoteId)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(repository.findVersionedById(remoteId)).expectNextCount(1).verifyComplete();
+        assertEquals(1, remoteCalls.get());
+
+        cache.invalidate(List.of(remoteId));
+        StepVerifier.create(repository.findVersionedById(remoteId)).expectNextCount(1).verifyComplete();
+        assertEquals(2, remoteCalls.get());
+    }
+
+    @Test
+    void shouldStillReturnCachedProductsOfAnUnreachableOwner() {
+        String cachedId = idOwnedBy(DOWN, 0);
+        String uncachedId = idOwnedBy(DOWN, 1);
+        cache.put(new VersionedProduct(view(cachedId), 3), cache.generation());
+
+        StepVerifier.create(repository.findBatch(List.of(cachedId, uncachedId)))
+                .assertNext(batch -> {
+                    assertEquals(List.of(cachedId), batch.found().stream().map(ProductView::id).toList());
+                    assertEquals(List.of(uncachedId), batch.unavailableIds());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldOnlyWriteOwnedProducts() {
+        String foreignId = idOwnedBy(HEALTHY, 0);
+
+        StepVerifier.create(repository.create(product(foreignId)))
+                .expectErrorSatisfies(error -> {
+                    assertInstanceOf(ProductOwnedElsewhereException.class, error);
+                    assertEquals(HEALTHY, ((ProductOwnedElsewhereException) error).getOwner());
+                })
+                .verify();
+        StepVerifier.create(repository.importBatch(List.of(product(idOwnedBy(SELF, 0)), product(foreignId))))
+                .expectError(ProductOwnedElsewhereException.class)
+                .verify();
+        verify(local, never()).create(any());
+        verify(local, never()).importBatch(any());
+
+        String ownedId = idOwnedBy(SELF, 0);
+        when(local.delete(ownedId, 3)).thenReturn(Mono.empty());
+        StepVerifier.create(repository.delete(ownedId, 3))
+                .verifyComplete();
+        verify(local).delete(ownedId, 3);
+    }
+
+    // The n-th of the IDs "0", "1", ... that the ring gives to owner
+    private String idOwnedBy(String owner, int n) {
+        List<String> owned = new ArrayList<>();
+        for (int i = 0; owned.size() <= n; i++) {
+            if (partition.ownerOf(Integer.toString(i)).equals(owner)) {
+                owned.add(Integer.toString(i));
+            }
+        }
+        return owned.get(n);
+    }
+}
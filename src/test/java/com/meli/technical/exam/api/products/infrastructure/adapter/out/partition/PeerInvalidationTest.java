@@ -0,0 +1,142 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.partition;
+
+import com.meli.technical.exam.api.products.domain.model.CatalogChange;
+import com.meli.technical.exam.api.products.domain.model.ProductChange;
+import com.meli.technical.exam.api.products.domain.model.VersionedProduct;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.JsonProductRepository;
+import com.meli.technical.exam.api.products.infrastructure.metrics.ProductMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.io.IOException;
+import java.net.DatagramSocket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.meli.technical.exam.api.products.TestProducts.view;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PeerInvalidationTest {
+
+    private static final Duration RETRY_DELAY = Duration.ofMillis(10);
+
+    @Test
+    void shouldRoundTripTheIdsOfAChange() {
+        List<ByteBuffer> datagrams = PeerInvalidation.encode(42, List.of("1", "caf\u00e9"));
+
+        assertEquals(1, datagrams.size());
+        PeerInvalidation.Message message = PeerInvalidation.decode(datagrams.get(0));
+        assertEquals(PeerInvalidation.INVALIDATE, message.type());
+        assertEquals(42, message.sequence());
+        assertEquals(List.of("1", "caf\u00e9"), message.ids());
+    }
+
+    @Test
+    void shouldSplitLargeChangesOverSeveralDatagrams() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            ids.add("product-" + i);
+        }
+
+        List<ByteBuffer> datagrams = PeerInvalidation.encode(7, ids);
+
+        assertTrue(datagrams.size() > 1);
+        List<String> decoded = new ArrayList<>();
+        for (ByteBuffer datagram : datagrams) {
+            assertTrue(datagram.remaining() <= PeerInvalidation.MAX_DATAGRAM);
+            decoded.addAll(PeerInvalidation.decode(datagram).ids());
+        }
+        assertEquals(ids, decoded);
+    }
+
+    @Test
+    void shouldClearInsteadOfSendingAnIdTooLongForADatagram() {
+        List<ByteBuffer> datagrams = PeerInvalidation.encode(7, List.of("1", "x".repeat(PeerInvalidation.MAX_DATAGRAM)));
+
+        assertEquals(1, datagrams.size());
+        assertEquals(PeerInvalidation.CLEAR, PeerInvalidation.decode(datagrams.get(0)).type());
+    }
+
+    @Test
+    void shouldRejectForeignOrTruncatedDatagrams() {
+        ByteBuffer valid = PeerInvalidation.encode(1, List.of("1")).get(0);
+
+        assertNull(PeerInvalidation.decode(ByteBuffer.wrap(new byte[]{1, 2, 3})));
+        assertNull(PeerInvalidation.decode(valid.duplicate().limit(valid.limit() - 1)));
+        assertNull(PeerInvalidation.decode(ByteBuffer.allocate(32).putInt(0xCAFE).flip()));
+    }
+
+    @Test
+    void shouldEvictWhatAPeerWroteFromTheCache() throws Exception {
+        int writerPort = freePort();
+        int readerPort = freePort();
+        Sinks.Many<CatalogChange> changes = Sinks.many().multicast().directBestEffort();
+        JsonProductRepository writerStore = mock(JsonProductRepository.class);
+        when(writerStore.findChanges(null)).thenReturn(changes.asFlux());
+        JsonProductRepository readerStore = mock(JsonProductRepository.class);
+        when(readerStore.findChanges(null)).thenReturn(Flux.never());
+        ProductMetrics productMetrics = new ProductMetrics(new SimpleMeterRegistry());
+        RemoteProductCache readerCache = new RemoteProductCache(100, Duration.ofMinutes(1), System::nanoTime);
+        readerCache.put(new VersionedProduct(view("1"), 3), readerCache.generation());
+        readerCache.put(new VersionedProduct(view("2"), 3), readerCache.generation());
+
+        try (PeerInvalidation writer = new PeerInvalidation(writerStore, new RemoteProductCache(100, Duration.ofMinutes(1), System::nanoTime),
+                productMetrics, writerPort, List.of("localhost:" + readerPort), RETRY_DELAY, RETRY_DELAY);
+             PeerInvalidation reader = new PeerInvalidation(readerStore, readerCache,
+                     productMetrics, readerPort, List.of("localhost:" + writerPort), RETRY_DELAY, RETRY_DELAY)) {
+
+            changes.tryEmitNext(new CatalogChange(4, 3, List.of(ProductChange.between(view("1"), view("1")))));
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (readerCache.get("1") != null && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertNull(readerCache.get("1"));
+            assertNotNull(readerCache.get("2"));
+        }
+    }
+
+    @Test
+    void shouldRejectMalformedPeers() {
+        JsonProductRepository store = mock(JsonProductRepository.class);
+        ProductMetrics productMetrics = new ProductMetrics(new SimpleMeterRegistry());
+        RemoteProductCache cache = new RemoteProductCache(100, Duration.ofMinutes(1), System::nanoTime);
+
+        assertThrows(IllegalStateException.class,
+                () -> new PeerInvalidation(store, cache, productMetrics, 0, List.of("localhost"), RETRY_DELAY, RETRY_DELAY));
+    }
+
+    @Test
+    void shouldBackOffWhileTheChangeStreamKeepsFailing() throws Exception {
+        AtomicInteger subscriptions = new AtomicInteger();
+        JsonProductRepository store = mock(JsonProductRepository.class);
+        when(store.findChanges(null)).thenReturn(Flux.defer(() -> {
+            subscriptions.incrementAndGet();
+            return Flux.error(new IllegalStateException("Change stream unavailable"));
+        }));
+        RemoteProductCache cache = new RemoteProductCache(100, Duration.ofMinutes(1), System::nanoTime);
+        ProductMetrics productMetrics = new ProductMetrics(new SimpleMeterRegistry());
+
+        try (PeerInvalidation ignored = new PeerInvalidation(store, cache, productMetrics, freePort(), List.of(),
+                RETRY_DELAY, Duration.ofMillis(50))) {
+            Thread.sleep(500);
+        }
+
+        // Retried, but about every 50 ms rather than in a loop
+        assertTrue(subscriptions.get() > 2);
+        assertTrue(subscriptions.get() < 40);
+    }
+
+    private static int freePort() throws IOException {
+        try (DatagramSocket socket = new DatagramSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
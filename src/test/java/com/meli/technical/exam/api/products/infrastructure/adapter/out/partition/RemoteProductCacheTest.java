@@ -0,0 +1,98 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.partition;
+
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.domain.model.VersionedProduct;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RemoteProductCacheTest {
+
+    private static final Duration TTL = Duration.ofSeconds(10);
+
+    private final long[] now = {0};
+    private final RemoteProductCache cache = new RemoteProductCache(2, TTL, () -> now[0]);
+
+    @Test
+    void shouldExpireEntriesAfterTheTtl() {
+        cache.put(product("1", 4), cache.generation());
+        assertEquals(4, cache.get("1").version());
+
+        now[0] += TTL.toNanos();
+        assertNull(cache.get("1"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldEvictInvalidatedProducts() {
+        cache.put(product("1", 4), cache.generation());
+        cache.put(product("2", 5), cache.generation());
+
+        cache.invalidate(List.of("1", "3"));
+
+        assertNull(cache.get("1"));
+        assertNotNull(cache.get("2"));
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldDropFillsFromLookupsOlderThanAnInvalidation() {
+        long generation = cache.generation();
+        cache.invalidate(List.of("1"));
+
+        cache.put(product("1", 4), generation);
+
+        assertNull(cache.get("1"));
+    }
+
+    @Test
+    void shouldKeepTheNewerVersion() {
+        cache.put(product("1", 7), cache.generation());
+        cache.put(product("1", 4), cache.generation());
+
+        assertEquals(7, cache.get("1").version());
+    }
+
+    @Test
+    void shouldStopCachingWhenFullOfLiveEntries() {
+        cache.put(product("1", 1), cache.generation());
+        cache.put(product("2", 1), cache.generation());
+        cache.put(product("3", 1), cache.generation());
+        assertNull(cache.get("3"));
+
+        now[0] += TTL.toNanos();
+        cache.put(product("3", 1), cache.generation());
+        assertNotNull(cache.get("3"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void shouldNotSweepAFullCacheOnEveryPut() {
+        long interval = TTL.toNanos() / RemoteProductCache.SWEEPS_PER_TTL;
+        cache.put(product("1", 1), cache.generation());
+        cache.put(product("2", 1), cache.generation());
+
+        // Full of live entries, this put sweeps and finds nothing to evict
+        now[0] = TTL.toNanos() - interval / 2;
+        cache.put(product("3", 1), cache.generation());
+
+        // Both have expired by now, but the next sweep is not due yet
+        now[0] = TTL.toNanos();
+        cache.put(product("3", 1), cache.generation());
+        assertEquals(2, cache.size());
+
+        now[0] = TTL.toNanos() + interval / 2;
+        cache.put(product("3", 1), cache.generation());
+        assertNotNull(cache.get("3"));
+        assertEquals(1, cache.size());
+    }
+
+    private static VersionedProduct product(String id, long version) {
+        return new VersionedProduct(new ProductView(id, "Product " + id, "url", "desc", new BigDecimal("10.00"), 4.0, List.of()), version);
+    }
+}
@@ -0,0 +1,51 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void shouldNeverRejectALoadedId() {
+        List<String> ids = IntStream.range(0, 10_000).mapToObj(i -> "MLA" + i).toList();
+
+        BloomFilter filter = BloomFilter.of(ids);
+
+        assertTrue(ids.stream().allMatch(filter::mightContain));
+    }
+
+    @Test
+    void shouldKeepFalsePositivesNearTheTargetRate() {
+        BloomFilter filter = BloomFilter.of(IntStream.range(0, 10_000).mapToObj(i -> "MLA" + i).toList());
+
+        long falsePositives = IntStream.range(0, 100_000)
+                .mapToObj(i -> "unknown-" + i)
+                .filter(filter::mightContain)
+                .count();
+
+        // Sized for 1%, allow some slack so the test is not flaky
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void shouldRejectEverythingWhenEmpty() {
+        BloomFilter filter = BloomFilter.of(List.of());
+
+        assertSame(BloomFilter.EMPTY, filter);
+        assertFalse(filter.mightContain("1"));
+        assertFalse(filter.mightContain(""));
+    }
+
+    @Test
+    void shouldSizeForTheNumberOfIds() {
+        BloomFilter filter = BloomFilter.of(IntStream.range(0, 1_000).mapToObj(String::valueOf).toList());
+
+        // ~9.6 bits per element and 7 hashes for a 1% false positive rate
+        assertTrue(filter.bitCount() >= 9_585);
+        assertEquals(7, filter.hashCount());
+    }
+}
@@ -0,0 +1,360 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence;
+
+import com.meli.technical.exam.api.products.TestProducts;
+import com.meli.technical.exam.api.products.domain.model.BestValuePick;
+import com.meli.technical.exam.api.products.domain.model.CatalogDelta;
+import com.meli.technical.exam.api.products.domain.model.FacetCount;
+import com.meli.technical.exam.api.products.domain.model.FacetFilter;
+import com.meli.technical.exam.api.products.domain.model.Price;
+import com.meli.technical.exam.api.products.domain.model.PriceBucket;
+import com.meli.technical.exam.api.products.domain.model.Product;
+import com.meli.technical.exam.api.products.domain.model.ProductBatch;
+import com.meli.technical.exam.api.products.domain.model.ProductFacets;
+import com.meli.technical.exam.api.products.domain.model.ProductSearchResult;
+import com.meli.technical.exam.api.products.domain.model.ProductSortField;
+import com.meli.technical.exam.api.products.domain.model.ProductSortOrder;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.domain.model.SimilarProduct;
+import com.meli.technical.exam.api.products.domain.model.SortDirection;
+import com.meli.technical.exam.api.products.domain.model.Specification;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotTest {
+
+    @Test
+    void shouldKeepLoadOrderAndFindById() {
+        CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(product("3", "99.99"), product("1", "10.00"), product("2", "5.00")));
+
+        assertEquals(3, snapshot.size());
+        assertEquals(List.of("3", "1", "2"), snapshot.all().stream().map(ProductView::id).toList());
+        assertEquals(new BigDecimal("10.00"), snapshot.get("1").price());
+        assertNull(snapshot.get("missing"));
+    }
+
+    @Test
+    void shouldRejectUnknownIdsThroughTheFilter() {
+        CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(product("1", "1.00"), product("2", "2.00")));
+
+        assertTrue(snapshot.mightContain("1"));
+        assertTrue(snapshot.mightContain("2"));
+        assertNull(snapshot.get("unknown"));
+        assertFalse(CatalogSnapshot.EMPTY.mightContain("1"));
+        assertNull(CatalogSnapshot.EMPTY.get("1"));
+    }
+
+    @Test
+    void shouldLookUpBatchInRequestOrder() {
+        CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(product("1", "1.00"), product("2", "2.00"), product("3", "3.00")));
+
+        ProductBatch batch = snapshot.lookup(Arrays.asList("3", " 1 ", "missing", "3", "", null, "2"));
+
+        assertEquals(List.of("3", "1", "2"), batch.found().stream().map(ProductView::id).toList());
+        assertEquals(List.of("missing"), batch.missingIds());
+    }
+
+    @Test
+    void shouldSearchNamesAndDescriptions() {
+        CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(product("1", "1.00"), product("2", "2.00"), product("3", "3.00")));
+
+        ProductSearchResult result = snapshot.search("product 2", 2);
+
+        assertEquals(3, result.totalHits());
+        assertEquals("2", result.hits().get(0).product().id());
+        assertSame(snapshot.get("2"), result.hits().get(0).product());
+        assertSame(ProductSearchResult.EMPTY, snapshot.search("missing", 2));
+    }
+
+    @Test
+    void shouldSuggestByNamePrefix() {
+        CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(product("1", "1.00"), product("2", "2.00")));
+
+        assertEquals(List.of("1", "2"), snapshot.suggest("prod", 5).stream().map(ProductView::id).toList());
+        assertEquals(List.of("2"), snapshot.suggest("product 2", 5).stream().map(ProductView::id).toList());
+        assertTrue(snapshot.suggest("laptop", 5).isEmpty());
+    }
+
+    @Test
+    void shouldCountFacetsOverTheSnapshot() {
+        CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(product("1", "100.00"), product("2", "600.00")));
+
+        ProductFacets facets = snapshot.facets(new FacetFilter(Set.of(PriceBucket.UNDER_250), Set.of(), Map.of()));
+
+        assertEquals(1, facets.totalMatches());
+        assertEquals(List.of(new FacetCount("8GB", 1)), facets.specifications().get("RAM"));
+    }
+
+    @Test
+    void shouldRankBestValueWithinTheFilter() {
+        CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(product("1", "100.00"), product("2", "600.00"), product("3", "50.00")));
+
+        List<BestValuePick> picks = snapshot.bestValue(FacetFilter.NONE, 2);
+        assertEquals(List.of("3", "1"), picks.stream().map(pick -> pick.product().id()).toList());
+        assertEquals(4.0 / 5 / (50.0 / 600), picks.get(0).valueScore(), 1e-9);
+
+        FacetFilter over500 = new FacetFilter(Set.of(PriceBucket.FROM_500_TO_1000), Set.of(), Map.of());
+        assertEquals(List.of("2"), snapshot.bestValue(over500, 10).stream().map(pick -> pick.product().id()).toList());
+    }
+
+    @Test
+    void shouldFindSimilarProductsBySpecifications() {
+        CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(product("1", "1.00"), product("2", "2.00")));
+
+        List<SimilarProduct> similar = snapshot.similar("1", 5);
+        assertEquals(List.of("2"), similar.stream().map(match -> match.product().id()).toList());
+        assertEquals(1.0, similar.get(0).similarity(), 1e-6);
+        assertNull(snapshot.similar("3", 5));
+    }
+
+    @Test
+    void shouldReturnSortedPagesAsSlices() {
+        CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(product("1", "30.00"), product("2", "10.00"), product("3", "20.00")));
+        ProductSortOrder byPriceDesc = new ProductSortOrder(ProductSortField.PRICE, SortDirection.DESC);
+
+        assertEquals(List.of("1", "3"), snapshot.sortedPage(byPriceDesc, 0, 2).stream().map(ProductView::id).toList());
+        assertEquals(List.of("2"), snapshot.sortedPage(byPriceDesc, 1, 2).stream().map(ProductView::id).toList());
+        assertTrue(snapshot.sortedPage(byPriceDesc, 2, 2).isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshot.sortedPage(byPriceDesc, 1, 2).get(1));
+    }
+
+    @Test
+    void shouldReplaceDuplicatedIdInPlace() {
+        CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(product("1", "10.00"), product("2", "5.00"), product("1", "12.00")));
+
+        assertEquals(2, snapshot.size());
+        assertEquals(List.of("1", "2"), snapshot.all().stream().map(ProductView::id).toList());
+        assertEquals(new BigDecimal("12.00"), snapshot.get("1").price());
+    }
+
+    @Test
+    void shouldReturnPagesWithoutCopying() {
+        CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(product("1", "1.00"), product("2", "2.00"), product("3", "3.00")));
+
+        assertEquals(List.of("1", "2"), snapshot.page(0, 2).stream().map(ProductView::id).toList());
+        assertEquals(List.of("3"), snapshot.page(1, 2).stream().map(ProductView::id).toList());
+        assertTrue(snapshot.page(2, 2).isEmpty());
+        assertTrue(snapshot.page(Integer.MAX_VALUE, Integer.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    void shouldShareIdenticalSpecificationsBetweenProducts() {
+        CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(product("1", "1.00"), product("2", "2.00")));
+
+        Specification first = snapshot.get("1").specifications().get(0);
+        Specification second = snapshot.get("2").specifications().get(0);
+
+        assertSame(first, second);
+        assertEquals("8GB", snapshot.get("1").specificationValue("RAM"));
+        assertNull(snapshot.get("1").specificationValue("Storage"));
+    }
+
+    @Test
+    void shouldReportDeduplicationSavings() {
+        CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(product("1", "1.00"), product("2", "2.00"), product("3", "3.00")));
+
+        StringPoolStats stats = snapshot.stringPoolStats();
+        assertEquals(2, stats.unique());
+        assertEquals(2, stats.deduplicated());
+        assertEquals(2 * (24 + StringPool.retainedBytes("RAM") + StringPool.retainedBytes("8GB")), stats.savedBytes());
+        assertEquals(StringPoolStats.EMPTY, CatalogSnapshot.EMPTY.stringPoolStats());
+    }
+
+    @Test
+    void shouldKeepReportingDeduplicationAfterAWrite() {
+        CatalogSnapshot original = CatalogSnapshot.of(List.of(product("1", "1.00"), product("2", "2.00"), product("3", "3.00")));
+
+        CatalogSnapshot changed = original.withChanges(List.of(
+                new CatalogSnapshot.Change(product("2", "20.00"), 1), new CatalogSnapshot.Change(product("4", "4.00"), 2)), 2, 10);
+
+        // The same as loading the four products at once
+        StringPoolStats stats = changed.stringPoolStats();
+        assertEquals(2, stats.lookups());
+        assertEquals(2, stats.unique());
+        assertEquals(3, stats.deduplicated());
+        assertEquals(3 * (24 + StringPool.retainedBytes("RAM") + StringPool.retainedBytes("8GB")), stats.savedBytes());
+    }
+
+    @Test
+    void shouldStopCountingSpecificationsNoProductHasAnyMore() {
+        CatalogSnapshot original = CatalogSnapshot.of(List.of(product("1", "1.00"), product("2", "2.00")));
+
+        CatalogSnapshot changed = original.withChanges(List.of(CatalogSnapshot.Change.deleted("1", 1),
+                new CatalogSnapshot.Change(TestProducts.product("2"), 2)), 2, 10);
+
+        assertEquals(StringPoolStats.EMPTY, changed.stringPoolStats());
+        assertEquals(1, original.stringPoolStats().deduplicated());
+    }
+
+    @Test
+    void shouldExposeImmutableViews() {
+        CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(product("1", "1.00")));
+
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.all().set(0, null));
+        assertThrows(UnsupportedOperationException.class,
+                () -> snapshot.get("1").specifications().add(new Specification("Color", "Black")));
+    }
+
+    @Test
+    void shouldApplyChangedProductsToANewSnapshot() {
+        CatalogSnapshot original = CatalogSnapshot.of(List.of(product("1", "1.00"), product("2", "2.00")));
+
+        CatalogSnapshot changed = original.withChanges(List.of(
+                new CatalogSnapshot.Change(product("2", "20.00"), 6), new CatalogSnapshot.Change(product("3", "3.00"), 7)), 7, 10);
+
+        assertEquals(List.of("1", "2", "3"), changed.all().stream().map(ProductView::id).toList());
+        assertEquals(new BigDecimal("20.00"), changed.get("2").price());
+        assertEquals(7, changed.sequence());
+        assertTrue(changed.mightContain("3"));
+        assertEquals("3", changed.search("product 3", 1).hits().get(0).product().id());
+        assertSame(changed.get("1").specifications().get(0), changed.get("3").specifications().get(0));
+        // Readers holding the old snapshot are not affected
+        assertEquals(2, original.size());
+        assertEquals(0, original.sequence());
+        assertEquals(new BigDecimal("2.00"), original.get("2").price());
+    }
+
+    @Test
+    void shouldKeepVersionsWithTheirProducts() {
+        CatalogSnapshot original = CatalogSnapshot.of(List.of(product("1", "1.00"), product("2", "2.00")), Map.of("2", 4L), 4);
+
+        CatalogSnapshot changed = original.withChanges(List.of(new CatalogSnapshot.Change(product("1", "10.00"), 5)), 5, 10);
+
+        assertEquals(5, changed.versioned("1").version());
+        assertEquals(new BigDecimal("10.00"), changed.versioned("1").product().price());
+        assertEquals(4, changed.versioned("2").version());
+        assertEquals(0, original.versioned("1").version());
+        assertNull(changed.versioned("missing"));
+        assertEquals(5, changed.versionAt(0));
+    }
+
+    @Test
+    void shouldRemoveDeletedProductsAndRememberThem() {
+        CatalogSnapshot original = CatalogSnapshot.of(List.of(product("1", "1.00"), product("2", "2.00"), product("3", "3.00")));
+
+        CatalogSnapshot changed = original.withChanges(List.of(CatalogSnapshot.Change.deleted("2", 4)), 4, 10);
+
+        assertEquals(List.of("1", "3"), changed.all().stream().map(ProductView::id).toList());
+        assertNull(changed.get("2"));
+        assertEquals(new BigDecimal("3.00"), changed.get("3").price());
+        assertEquals(Map.of("2", 4L), changed.tombstones());
+        assertEquals(3, original.size());
+    }
+
+    @Test
+    void shouldLeaveUnrelatedStructuresAloneOnAWrite() {
+        CatalogSnapshot original = CatalogSnapshot.of(List.of(product("1", "1.00"), product("2", "2.00"), product("3", "3.00")));
+
+        // Same name, rating and specifications: only the price changes
+        CatalogSnapshot repriced = original.withChanges(List.of(new CatalogSnapshot.Change(product("2", "20.00"), 1)), 1, 10);
+
+        assertSame(original.indexes().ids(), repriced.indexes().ids());
+        assertSame(original.indexes().suggest(), repriced.indexes().suggest());
+        assertSame(original.indexes().similar(), repriced.indexes().similar());
+        assertNotSame(original.indexes().sort(), repriced.indexes().sort());
+        assertEquals("2", repriced.sortedPage(new ProductSortOrder(ProductSortField.PRICE, SortDirection.DESC), 0, 1).get(0).id());
+
+        // A new product is added to the shared ID filter, the typeahead is rebuilt on first use
+        CatalogSnapshot created = repriced.withChanges(List.of(new CatalogSnapshot.Change(product("4", "4.00"), 2)), 2, 10);
+
+        assertSame(repriced.indexes().ids(), created.indexes().ids());
+        assertTrue(created.mightContain("4"));
+        assertNotSame(repriced.indexes().suggest(), created.indexes().suggest());
+        assertEquals(List.of("4"), created.suggest("product 4", 5).stream().map(ProductView::id).toList());
+        assertTrue(repriced.suggest("product 4", 5).isEmpty());
+    }
+
+    @Test
+    void shouldSkipThePositionsOfDeletedProducts() {
+        CatalogSnapshot changed = CatalogSnapshot.of(List.of(product("1", "1.00"), product("2", "2.00"), product("3", "3.00")))
+                .withChanges(List.of(CatalogSnapshot.Change.deleted("1", 1), new CatalogSnapshot.Change(product("4", "0.50"), 2)), 2, 10);
+
+        assertEquals(3, changed.size());
+        assertEquals(List.of("2", "3", "4"), changed.all().stream().map(ProductView::id).toList());
+        assertEquals(List.of("2", "3"), changed.page(0, 2).stream().map(ProductView::id).toList());
+        assertEquals(List.of("4"), changed.page(1, 2).stream().map(ProductView::id).toList());
+        assertEquals(2, changed.versionAt(2));
+        assertEquals(List.of("4", "2", "3"), changed.sortedPage(new ProductSortOrder(ProductSortField.PRICE, SortDirection.ASC), 0, 10)
+                .stream().map(ProductView::id).toList());
+        assertEquals(3, changed.search("product", 10).totalHits());
+        assertEquals(3, changed.facets(FacetFilter.NONE).totalMatches());
+        assertEquals("4", changed.bestValue(FacetFilter.NONE, 1).get(0).product().id());
+    }
+
+    @Test
+    void shouldCompactOnceDeletedPositionsPileUp() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 3 * CatalogSnapshot.MIN_HOLES_TO_COMPACT; i++) {
+            products.add(product(String.valueOf(i), "1.00"));
+        }
+        List<CatalogSnapshot.Change> deletions = new ArrayList<>();
+        for (int i = 0; i <= CatalogSnapshot.MIN_HOLES_TO_COMPACT; i++) {
+            deletions.add(CatalogSnapshot.Change.deleted(String.valueOf(2 * i), i + 1));
+        }
+
+        CatalogSnapshot compacted = CatalogSnapshot.of(products).withChanges(deletions, deletions.size(), deletions.size());
+
+        assertEquals(products.size() - deletions.size(), compacted.size());
+        // Rebuilt without the empty positions
+        assertEquals(compacted.size(), compacted.indexes().facets().size());
+        assertEquals("1", compacted.all().get(0).id());
+        assertEquals(compacted.size(), compacted.search("product", compacted.size()).totalHits());
+        assertNull(compacted.get("0"));
+        assertEquals(deletions.size(), compacted.tombstones().size());
+    }
+
+    @Test
+    void shouldReturnOnlyWhatChangedSinceAVersion() {
+        CatalogSnapshot original = CatalogSnapshot.of(List.of(product("1", "1.00"), product("2", "2.00"), product("3", "3.00")));
+        CatalogSnapshot changed = original
+                .withChanges(List.of(new CatalogSnapshot.Change(product("1", "10.00"), 1)), 1, 10)
+                .withChanges(List.of(CatalogSnapshot.Change.deleted("2", 2)), 2, 10)
+                .withChanges(List.of(new CatalogSnapshot.Change(product("4", "4.00"), 3)), 3, 10);
+
+        CatalogDelta all = changed.delta(0, 10);
+        assertFalse(all.resync());
+        assertEquals(3, all.toVersion());
+        assertEquals(List.of("1", "4"), all.upserted().stream().map(ProductView::id).toList());
+        assertEquals(List.of("2"), all.deleted());
+
+        CatalogDelta recent = changed.delta(2, 10);
+        assertEquals(List.of("4"), recent.upserted().stream().map(ProductView::id).toList());
+        assertEquals(List.of(), recent.deleted());
+
+        CatalogDelta current = changed.delta(3, 10);
+        assertEquals(List.of(), current.upserted());
+    }
+
+    @Test
+    void shouldAskForAResyncWhenTheDeltaCannotBeTrusted() {
+        CatalogSnapshot changed = CatalogSnapshot.of(List.of(product("1", "1.00"), product("2", "2.00"), product("3", "3.00")))
+                .withChanges(List.of(CatalogSnapshot.Change.deleted("1", 1)), 1, 1)
+                .withChanges(List.of(CatalogSnapshot.Change.deleted("2", 2)), 2, 1)
+                .withChanges(List.of(new CatalogSnapshot.Change(product("3", "30.00"), 3)), 3, 1);
+
+        assertEquals(1, changed.tombstoneFloor());
+        // The deletion of 1 is forgotten
+        assertTrue(changed.delta(0, 10).resync());
+        assertFalse(changed.delta(1, 10).resync());
+        // Ahead of this catalog
+        assertTrue(changed.delta(4, 10).resync());
+        // More changes than the limit
+        assertTrue(changed.delta(1, 1).resync());
+        assertNull(changed.delta(1, 1).upserted());
+    }
+
+    private Product product(String id, String price) {
+        return TestProducts.builder(id)
+                .price(Price.of(new BigDecimal(price)))
+                // new String() so that equal values do not start out as the same literal instance
+                .specifications(List.of(new Specification(new String("RAM"), new String("8GB"))))
+                .build();
+    }
+}
@@ -0,0 +1,226 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence;
+
+import com.meli.technical.exam.api.products.domain.exception.ChangeHistoryExpiredException;
+import com.meli.technical.exam.api.products.domain.model.ChangeType;
+import com.meli.technical.exam.api.products.domain.model.ProductChange;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal.WalOperation;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal.WalRecord;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal.WriteAheadLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.meli.technical.exam.api.products.TestProducts.product;
+import static com.meli.technical.exam.api.products.TestProducts.view;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReplayMissedChangesThenFollowLiveOnes() {
+        ChangeFeed feed = new ChangeFeed(10, 8);
+        feed.publish(11, List.of(created("1")));
+        feed.publish(13, List.of(created("2")));
+
+        StepVerifier.create(feed.since(11L))
+                .assertNext(change -> {
+                    assertEquals(13, change.sequence());
+                    assertEquals(11, change.previousSequence());
+                })
+                .then(() -> feed.publish(14, List.of(created("3"))))
+                .assertNext(change -> assertEquals(14, change.sequence()))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void shouldOnlyFollowLiveChangesWithoutAnOffset() {
+        ChangeFeed feed = new ChangeFeed(0, 8);
+        feed.publish(1, List.of(created("1")));
+
+        StepVerifier.create(feed.since(null))
+                .then(() -> feed.publish(2, List.of(created("2"))))
+                .assertNext(change -> assertEquals(2, change.sequence()))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void shouldMulticastToEverySubscriber() {
+        ChangeFeed feed = new ChangeFeed(0, 8);
+
+        StepVerifier first = StepVerifier.create(feed.since(0L))
+                .assertNext(change -> assertEquals(1, change.sequence()))
+                .thenCancel()
+                .verifyLater();
+        StepVerifier second = StepVerifier.create(feed.since(0L))
+                .assertNext(change -> assertEquals(1, change.sequence()))
+                .thenCancel()
+                .verifyLater();
+        assertEquals(2, feed.subscribers());
+
+        feed.publish(1, List.of(created("1")));
+
+        first.verify();
+        second.verify();
+    }
+
+    @Test
+    void shouldRejectOffsetsOlderThanTheRetainedHistory() {
+        ChangeFeed feed = new ChangeFeed(10, 2);
+        feed.publish(11, List.of(created("1")));
+        feed.publish(12, List.of(created("2")));
+        feed.publish(13, List.of(created("3")));
+
+        StepVerifier.create(feed.since(10L))
+                .expectError(ChangeHistoryExpiredException.class)
+                .verify();
+        StepVerifier.create(feed.since(11L))
+                .assertNext(change -> assertEquals(12, change.sequence()))
+                .assertNext(change -> assertEquals(13, change.sequence()))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void shouldRejectOffsetsFromBeforeStartup() {
+        ChangeFeed feed = new ChangeFeed(50, 8);
+
+        StepVerifier.create(feed.since(40L))
+                .expectError(ChangeHistoryExpiredException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldReadOffsetsOlderThanTheMemoryFromTheLog() throws IOException {
+        LogHistory history = logOf(CatalogSnapshot.of(List.of(product("1", "Old")), 0));
+        // As after a restart: nothing of the log is in memory
+        ChangeFeed feed = new ChangeFeed(4, 1, history);
+
+        StepVerifier.create(feed.since(1L))
+                .assertNext(change -> {
+                    assertEquals(2, change.sequence());
+                    assertEquals(1, change.previousSequence());
+                    assertEquals(ChangeType.CREATED, change.changes().get(0).type());
+                })
+                .assertNext(change -> {
+                    ProductChange deleted = change.changes().get(0);
+                    assertEquals(ChangeType.DELETED, deleted.type());
+                    // As the record before left it, not as the checkpoint had it
+                    assertEquals("New", deleted.product().name());
+                })
+                .assertNext(change -> {
+                    assertEquals(4, change.sequence());
+                    assertEquals(List.of("name"), change.changes().get(0).changedFields());
+                })
+                .then(() -> feed.publish(5, List.of(created("3"))))
+                .assertNext(change -> {
+                    assertEquals(5, change.sequence());
+                    assertEquals(4, change.previousSequence());
+                })
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void shouldRejectOffsetsOlderThanTheLastCheckpoint() throws IOException {
+        LogHistory history = logOf(CatalogSnapshot.of(List.of(product("1", "Old")), 0));
+        history.rebase(CatalogSnapshot.of(List.of(product("2", "Two")), 3));
+        ChangeFeed feed = new ChangeFeed(4, 1, history);
+
+        StepVerifier.create(feed.since(2L))
+                .expectError(ChangeHistoryExpiredException.class)
+                .verify();
+        StepVerifier.create(feed.since(3L))
+                .assertNext(change -> assertEquals(4, change.sequence()))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void shouldReadASplitImportBatchFromTheLogAsOneChange() throws IOException {
+        try (WriteAheadLog log = WriteAheadLog.open(directory, 1024, 0, record -> { })) {
+            log.append(WalOperation.UPSERT_BATCH_PART, "1", WalRecord.pack(List.of(bytes("1:One"))));
+            log.append(WalOperation.UPSERT_BATCH, "1", WalRecord.pack(List.of(bytes("2:Two"))));
+            // Cut off by a crash, so it was never published
+            log.append(WalOperation.UPSERT_BATCH_PART, "3", WalRecord.pack(List.of(bytes("3:Three"))));
+            log.append(WalOperation.UPSERT, "4", bytes("4:Four"));
+        }
+        ChangeFeed feed = new ChangeFeed(4, 1, historyOf(CatalogSnapshot.EMPTY));
+
+        StepVerifier.create(feed.since(0L))
+                .assertNext(change -> {
+                    assertEquals(2, change.sequence());
+                    assertEquals(0, change.previousSequence());
+                    assertEquals(List.of("1", "2"), change.changes().stream().map(product -> product.product().id()).toList());
+                })
+                .assertNext(change -> {
+                    assertEquals(3, change.sequence());
+                    assertEquals(List.of(), change.changes());
+                })
+                .assertNext(change -> {
+                    assertEquals(4, change.sequence());
+                    assertEquals(3, change.previousSequence());
+                })
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void shouldRejectOffsetsAheadOfTheLog() {
+        ChangeFeed feed = new ChangeFeed(5, 8);
+
+        StepVerifier.create(feed.since(6L))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldNameTheFieldsAnUpdateChanged() {
+        ProductView before = view("1", "Phone", "10.00");
+        ProductView after = view("1", "Phone", "10.0");
+        ProductView renamed = view("1", "Phone 2", "12.00");
+
+        assertEquals(List.of(), ProductChange.between(before, after).changedFields());
+        ProductChange change = ProductChange.between(before, renamed);
+        assertEquals(ChangeType.UPDATED, change.type());
+        assertEquals(List.of("name", "price"), change.changedFields());
+        assertEquals(ChangeType.CREATED, ProductChange.between(null, renamed).type());
+    }
+
+    // Records 1 to 4 on top of base, with payloads of the form <id>:<name>
+    private LogHistory logOf(CatalogSnapshot base) throws IOException {
+        try (WriteAheadLog log = WriteAheadLog.open(directory, 1024, 0, record -> { })) {
+            log.append(WalOperation.UPSERT, "1", bytes("1:New"));
+            log.append(WalOperation.UPSERT, "2", bytes("2:Two"));
+            log.append(WalOperation.DELETE, "1", new byte[0]);
+            log.append(WalOperation.UPSERT, "2", bytes("2:Two again"));
+        }
+        return historyOf(base);
+    }
+
+    // Payloads of the form <id>:<name>
+    private LogHistory historyOf(CatalogSnapshot base) {
+        return new LogHistory(directory, base, (record, payload) -> {
+            String[] idAndName = new String(payload, StandardCharsets.UTF_8).split(":");
+            return product(idAndName[0], idAndName[1]);
+        });
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ProductChange created(String id) {
+        return ProductChange.between(null, view(id, "Product " + id, "10.00"));
+    }
+}
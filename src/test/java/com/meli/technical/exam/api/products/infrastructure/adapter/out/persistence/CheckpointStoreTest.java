@@ -0,0 +1,114 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meli.technical.exam.api.products.TestProducts;
+import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.domain.model.Price;
+import com.meli.technical.exam.api.products.domain.model.Product;
+import com.meli.technical.exam.api.products.domain.model.Specification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckpointStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private CheckpointStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new CheckpointStore(directory, new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Test
+    void shouldRoundTripTheSnapshot() throws IOException {
+        assertFalse(store.exists());
+
+        store.write(CatalogSnapshot.of(List.of(product("1", "10.50"), product("2", "20.00")), 42));
+
+        assertTrue(store.exists());
+        CheckpointStore.Checkpoint checkpoint = store.load();
+        assertEquals(42, checkpoint.sequence());
+        assertEquals(List.of("1", "2"), checkpoint.products().stream().map(ProductDto::getId).toList());
+        ProductDto first = checkpoint.products().get(0);
+        assertEquals("Product 1", first.getName());
+        assertEquals(0, new BigDecimal("10.50").compareTo(first.getPrice()));
+        assertEquals(4.0, first.getRating());
+        assertEquals("RAM", first.getSpecifications().get(0).getKey());
+        assertEquals("8GB", first.getSpecifications().get(0).getValue());
+    }
+
+    @Test
+    void shouldRoundTripProductVersions() throws IOException {
+        store.write(CatalogSnapshot.of(List.of(product("1", "10.00"), product("2", "20.00")), Map.of("2", 17L), 17));
+
+        CheckpointStore.Checkpoint checkpoint = store.load();
+
+        assertEquals(Map.of("2", 17L), checkpoint.versions());
+    }
+
+    @Test
+    void shouldRoundTripTombstones() throws IOException {
+        store.write(CatalogSnapshot.of(List.of(product("1", "10.00")), Map.of(), Map.of("2", 20L), 12, 21));
+
+        CheckpointStore.Checkpoint checkpoint = store.load();
+
+        assertEquals(Map.of("2", 20L), checkpoint.tombstones());
+        assertEquals(12, checkpoint.tombstoneFloor());
+    }
+
+    @Test
+    void shouldLoadCheckpointWithoutVersions() throws IOException {
+        Files.writeString(directory.resolve(CheckpointStore.FILE_NAME), "{\"sequence\": 3, \"products\": []}");
+
+        CheckpointStore.Checkpoint checkpoint = store.load();
+
+        assertEquals(3, checkpoint.sequence());
+        assertEquals(Map.of(), checkpoint.versions());
+        assertEquals(Map.of(), checkpoint.tombstones());
+        assertEquals(0, checkpoint.tombstoneFloor());
+    }
+
+    @Test
+    void shouldReplaceThePreviousCheckpoint() throws IOException {
+        store.write(CatalogSnapshot.of(List.of(product("1", "10.00")), 1));
+        store.write(CatalogSnapshot.of(List.of(product("1", "10.00"), product("2", "20.00")), 2));
+
+        CheckpointStore.Checkpoint checkpoint = store.load();
+        assertEquals(2, checkpoint.sequence());
+        assertEquals(2, checkpoint.products().size());
+        try (var files = Files.list(directory)) {
+            assertEquals(List.of(CheckpointStore.FILE_NAME), files.map(file -> file.getFileName().toString()).toList());
+        }
+    }
+
+    @Test
+    void shouldIgnoreTemporaryFileOfAnInterruptedCheckpoint() throws IOException {
+        store.write(CatalogSnapshot.of(List.of(product("1", "10.00")), 5));
+        Path temp = directory.resolve(CheckpointStore.FILE_NAME + ".tmp");
+        Files.writeString(temp, "{\"sequence\": 9, \"products\": [{\"id\": \"tor");
+
+        CheckpointStore.Checkpoint checkpoint = store.load();
+
+        assertEquals(5, checkpoint.sequence());
+        assertFalse(Files.exists(temp));
+    }
+
+    private static Product product(String id, String price) {
+        return TestProducts.builder(id)
+                .price(Price.of(new BigDecimal(price)))
+                .specifications(List.of(new Specification("RAM", "8GB")))
+                .build();
+    }
+}
@@ -0,0 +1,166 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence;
+
+import com.meli.technical.exam.api.products.application.mapper.ProductMapper;
+import com.meli.technical.exam.api.products.domain.model.ChangeType;
+import com.meli.technical.exam.api.products.domain.model.ProductChange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static com.meli.technical.exam.api.products.TestProducts.product;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicationFollowerTest {
+
+    private static final String LEADER = "http://leader";
+
+    private final AtomicReference<CatalogSnapshot> snapshot = new AtomicReference<>(CatalogSnapshot.EMPTY);
+    private final ChangeFeed changes = new ChangeFeed(0, 16);
+    private final Deque<String> snapshots = new ArrayDeque<>();
+    private final Deque<Mono<ClientResponse>> logs = new ArrayDeque<>();
+    private final AtomicInteger snapshotCalls = new AtomicInteger();
+    private ReplicationFollower follower;
+
+    @AfterEach
+    void tearDown() {
+        if (follower != null) {
+            follower.close();
+        }
+    }
+
+    @Test
+    void shouldLoadTheLeaderSnapshotThenApplyItsLog() {
+        snapshots.add(checkpoint(5, "{\"1\":5}", productJson("1", "Phone"), productJson("2", "Tablet")));
+        logs.add(ndjson("{\"heartbeat\":7}",
+                change(6, 5, "UPDATED", productJson("1", "Phone 2")),
+                change(7, 6, "DELETED", productJson("2", "Tablet"))));
+
+        follower = start();
+
+        await(() -> snapshot.get().sequence() == 7);
+        CatalogSnapshot current = snapshot.get();
+        assertEquals("Phone 2", current.get("1").name());
+        assertEquals(6, current.versioned("1").version());
+        assertNull(current.get("2"));
+        assertEquals(7L, current.tombstones().get("2"));
+        assertTrue(follower.bootstrapped());
+        assertEquals(0, follower.lagRecords());
+        assertEquals(7, changes.lastSequence());
+    }
+
+    @Test
+    void shouldReloadTheSnapshotWhenTheLogHasAGap() {
+        snapshots.add(checkpoint(5, "{}", productJson("1", "Phone")));
+        snapshots.add(checkpoint(9, "{\"3\":9}", productJson("1", "Phone"), productJson("3", "Watch")));
+        logs.add(ndjson(change(9, 8, "CREATED", productJson("3", "Watch"))));
+
+        follower = start();
+
+        await(() -> snapshot.get().sequence() == 9);
+        assertEquals(2, snapshotCalls.get());
+        assertEquals("Watch", snapshot.get().get("3").name());
+    }
+
+    @Test
+    void shouldReloadTheSnapshotWhenTheLeaderNoLongerHasTheLog() {
+        snapshots.add(checkpoint(5, "{}", productJson("1", "Phone")));
+        snapshots.add(checkpoint(12, "{}", productJson("1", "Phone")));
+        logs.add(Mono.just(ClientResponse.create(HttpStatus.GONE).build()));
+
+        follower = start();
+
+        await(() -> snapshot.get().sequence() == 12);
+        assertEquals(2, snapshotCalls.get());
+    }
+
+    @Test
+    void shouldReportWhatAFreshSnapshotChanged() {
+        CatalogSnapshot before = CatalogSnapshot.of(List.of(product("1", "Phone"), product("2", "Tablet")),
+                Map.of("1", 3L), 3);
+        CatalogSnapshot after = CatalogSnapshot.of(List.of(product("1", "Phone 2"), product("3", "Watch")),
+                Map.of("1", 8L, "3", 9L), 9);
+
+        List<ProductChange> difference = ReplicationFollower.difference(before, after);
+
+        assertEquals(List.of(ChangeType.UPDATED, ChangeType.CREATED, ChangeType.DELETED),
+                difference.stream().map(ProductChange::type).toList());
+        assertEquals(List.of("1", "3", "2"), difference.stream().map(change -> change.product().id()).toList());
+    }
+
+    private ReplicationFollower start() {
+        WebClient client = WebClient.builder().exchangeFunction(request -> {
+            String path = request.url().getPath();
+            if (path.equals(ReplicationFrame.SNAPSHOT_PATH)) {
+                snapshotCalls.incrementAndGet();
+                String body = snapshots.size() > 1 ? snapshots.poll() : snapshots.peek();
+                return Mono.just(json(MediaType.APPLICATION_JSON, Flux.just(body)));
+            }
+            Mono<ClientResponse> log = logs.poll();
+            // Once the scripted connections are used up the leader stays connected and quiet
+            return log != null ? log : Mono.just(json(MediaType.APPLICATION_NDJSON, Flux.never()));
+        }).build();
+        return new ReplicationFollower(LEADER, client, snapshot, changes,
+                Mappers.getMapper(ProductMapper.class)::toDomain, 16, 8, Duration.ofSeconds(5), Duration.ofMillis(10));
+    }
+
+    private static Mono<ClientResponse> ndjson(String... lines) {
+        return Mono.just(json(MediaType.APPLICATION_NDJSON,
+                Flux.concat(Flux.just(String.join("\n", lines) + "\n"), Flux.never())));
+    }
+
+    private static ClientResponse json(MediaType type, Flux<String> body) {
+        Flux<DataBuffer> buffers = body.map(text -> DefaultDataBufferFactory.sharedInstance
+                .wrap(text.getBytes(StandardCharsets.UTF_8)));
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, type.toString())
+                .body(buffers)
+                .build();
+    }
+
+    private static String checkpoint(long sequence, String versions, String... products) {
+        return "{\"sequence\":" + sequence + ",\"products\":[" + String.join(",", products) + "],\"versions\":"
+                + versions + ",\"tombstones\":{},\"tombstoneFloor\":0}";
+    }
+
+    private static String change(long sequence, long previous, String type, String product) {
+        return "{\"change\":{\"sequence\":" + sequence + ",\"previousSequence\":" + previous
+                + ",\"changes\":[{\"type\":\"" + type + "\",\"product\":" + product + ",\"changedFields\":[]}]}}";
+    }
+
+    private static String productJson(String id, String name) {
+        return "{\"id\":\"" + id + "\",\"name\":\"" + name + "\",\"imageUrl\":\"url\",\"description\":\"desc\","
+                + "\"price\":10.00,\"rating\":4.0,\"specifications\":[]}";
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Follower did not get there in time");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
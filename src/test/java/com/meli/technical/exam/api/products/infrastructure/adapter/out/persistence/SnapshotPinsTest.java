@@ -0,0 +1,190 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence;
+
+import com.meli.technical.exam.api.products.domain.exception.SnapshotExpiredException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.meli.technical.exam.api.products.TestProducts.product;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotPinsTest {
+
+    private static final Duration TTL = Duration.ofSeconds(60);
+    private static final Duration FIRST_PAGE_TTL = Duration.ofSeconds(10);
+
+    private final long[] now = {0};
+    private AtomicReference<CatalogSnapshot> current;
+    private SnapshotPins pins;
+
+    @BeforeEach
+    void setUp() {
+        current = new AtomicReference<>(CatalogSnapshot.of(List.of(product("1"), product("2")), 5));
+        pins = new SnapshotPins(current, TTL, FIRST_PAGE_TTL, 2, () -> now[0]);
+    }
+
+    @Test
+    void shouldKeepServingThePinnedSnapshotAfterAWrite() {
+        String token;
+        try (SnapshotPins.Lease first = pins.acquire(null)) {
+            token = first.token();
+            assertEquals("5", token);
+        }
+        current.set(CatalogSnapshot.of(List.of(product("1"), product("2"), product("3")), 6));
+
+        try (SnapshotPins.Lease next = pins.acquire(token)) {
+            assertEquals(5, next.snapshot().sequence());
+            assertEquals(2, next.snapshot().size());
+        }
+        try (SnapshotPins.Lease fresh = pins.acquire(null)) {
+            assertEquals("6", fresh.token());
+        }
+    }
+
+    @Test
+    void shouldShareOnePinPerVersion() {
+        pins.acquire(null).close();
+        pins.acquire(null).close();
+
+        assertEquals(1, pins.size());
+    }
+
+    @Test
+    void shouldReclaimIdlePinsAfterTheTtl() {
+        String token;
+        try (SnapshotPins.Lease lease = pins.acquire(null)) {
+            token = lease.token();
+        }
+        current.set(CatalogSnapshot.of(List.of(product("1")), 6));
+
+        now[0] += TTL.toNanos() - 1;
+        pins.sweep();
+        assertEquals(1, pins.size());
+
+        now[0] += TTL.toNanos();
+        pins.sweep();
+        assertEquals(0, pins.size());
+        assertThrows(SnapshotExpiredException.class, () -> pins.acquire(token));
+    }
+
+    @Test
+    void shouldNotReclaimAPinWhileAReadHoldsIt() {
+        SnapshotPins.Lease lease = pins.acquire(null);
+        current.set(CatalogSnapshot.of(List.of(product("1")), 6));
+
+        now[0] += 2 * TTL.toNanos();
+        pins.sweep();
+        assertEquals(1, pins.size());
+
+        lease.close();
+        try (SnapshotPins.Lease again = pins.acquire(lease.token())) {
+            assertEquals(5, again.snapshot().sequence());
+        }
+    }
+
+    @Test
+    void shouldAcceptAnUnpinnedTokenWhileTheCatalogIsUnchanged() {
+        try (SnapshotPins.Lease lease = pins.acquire("5")) {
+            assertEquals(5, lease.snapshot().sequence());
+        }
+        assertEquals(1, pins.size());
+    }
+
+    @Test
+    void shouldStopPinningWhenFullOfVersionsInUse() {
+        SnapshotPins.Lease first = pins.acquire(null);
+        current.set(CatalogSnapshot.of(List.of(product("1")), 6));
+        SnapshotPins.Lease second = pins.acquire(null);
+        current.set(CatalogSnapshot.of(List.of(product("1")), 7));
+
+        try (SnapshotPins.Lease third = pins.acquire(null)) {
+            assertEquals("7", third.token());
+        }
+        assertEquals(2, pins.size());
+        first.close();
+        second.close();
+    }
+
+    @Test
+    void shouldKeepAFirstPageReadableAcrossAWrite() {
+        String token;
+        try (SnapshotPins.Lease firstPage = pins.firstPage()) {
+            token = firstPage.token();
+        }
+        current.set(CatalogSnapshot.of(List.of(product("1")), 6));
+
+        try (SnapshotPins.Lease secondPage = pins.acquire(token)) {
+            assertEquals(5, secondPage.snapshot().sequence());
+            assertEquals(2, secondPage.snapshot().size());
+        }
+    }
+
+    @Test
+    void shouldReclaimAFirstPagePinAfterTheShorterTtl() {
+        String token;
+        try (SnapshotPins.Lease firstPage = pins.firstPage()) {
+            token = firstPage.token();
+        }
+        current.set(CatalogSnapshot.of(List.of(product("1")), 6));
+
+        now[0] += FIRST_PAGE_TTL.toNanos();
+        pins.sweep();
+        assertEquals(0, pins.size());
+        assertThrows(SnapshotExpiredException.class, () -> pins.acquire(token));
+    }
+
+    @Test
+    void shouldKeepAFirstPagePinForTheFullTtlOnceItsTokenComesBack() {
+        String token;
+        try (SnapshotPins.Lease firstPage = pins.firstPage()) {
+            token = firstPage.token();
+        }
+        pins.acquire(token).close();
+        current.set(CatalogSnapshot.of(List.of(product("1")), 6));
+
+        now[0] += 2 * FIRST_PAGE_TTL.toNanos();
+        pins.sweep();
+        try (SnapshotPins.Lease thirdPage = pins.acquire(token)) {
+            assertEquals(5, thirdPage.snapshot().sequence());
+        }
+    }
+
+    @Test
+    void shouldNotLetFirstPagesCrowdOutPagingClients() {
+        pins.firstPage().close();
+        current.set(CatalogSnapshot.of(List.of(product("1")), 6));
+        pins.firstPage().close();
+        current.set(CatalogSnapshot.of(List.of(product("1")), 7));
+
+        // Full: another first page goes unpinned, a paging read takes the oldest first-page pin
+        pins.firstPage().close();
+        assertEquals(2, pins.size());
+        pins.acquire(null).close();
+        assertEquals(2, pins.size());
+
+        assertThrows(SnapshotExpiredException.class, () -> pins.acquire("5"));
+        try (SnapshotPins.Lease lease = pins.acquire("6")) {
+            assertEquals(6, lease.snapshot().sequence());
+        }
+    }
+
+    @Test
+    void shouldKeepAnExplicitlyPinnedSnapshot() {
+        CatalogSnapshot resync = current.get();
+        pins.pin(resync);
+        current.set(CatalogSnapshot.of(List.of(product("1")), 6));
+
+        try (SnapshotPins.Lease lease = pins.acquire("5")) {
+            assertSame(resync, lease.snapshot());
+        }
+    }
+
+    @Test
+    void shouldRejectMalformedTokens() {
+        assertThrows(IllegalArgumentException.class, () -> pins.acquire("abc"));
+        assertThrows(IllegalArgumentException.class, () -> pins.acquire("-1"));
+    }
+}
@@ -0,0 +1,317 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence;
+
+import com.meli.technical.exam.api.products.domain.exception.ProductAlreadyExistsException;
+import com.meli.technical.exam.api.products.domain.exception.ProductDataException;
+import com.meli.technical.exam.api.products.domain.exception.ProductNotFoundException;
+import com.meli.technical.exam.api.products.domain.exception.ProductVersionMismatchException;
+import com.meli.technical.exam.api.products.domain.model.CatalogChange;
+import com.meli.technical.exam.api.products.domain.model.ChangeType;
+import com.meli.technical.exam.api.products.domain.model.ImportBatchResult;
+import com.meli.technical.exam.api.products.domain.model.ProductChange;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.domain.model.VersionedProduct;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.SnapshotWriter.WriteKind;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal.WalOperation;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal.WalRecord;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal.WriteAheadLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.meli.technical.exam.api.products.TestProducts.product;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+
+class SnapshotWriterTest {
+
+    @TempDir
+    Path directory;
+
+    private AtomicReference<CatalogSnapshot> snapshot;
+    private ChangeFeed changes;
+    private SnapshotWriter writer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        snapshot = new AtomicReference<>(CatalogSnapshot.of(List.of(product("1", "Original"))));
+        changes = new ChangeFeed(0, 16);
+        writer = new SnapshotWriter(WriteAheadLog.open(directory, 1024 * 1024, 0, record -> { }), snapshot,
+                product -> product.getName().getBytes(StandardCharsets.UTF_8), 16, 2, changes);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        writer.close();
+    }
+
+    @Test
+    void shouldPublishWritesBeforeCompletingThem() throws Exception {
+        VersionedProduct created = await(writer.submit(WriteKind.CREATE, product("2", "Created")));
+        VersionedProduct updated = await(writer.submit(WriteKind.UPDATE, product("1", "Updated")));
+
+        assertEquals("Created", created.product().name());
+        assertEquals("Updated", updated.product().name());
+        assertSame(updated.product(), snapshot.get().get("1"));
+        assertEquals(List.of("1", "2"), snapshot.get().all().stream().map(ProductView::id).toList());
+    }
+
+    @Test
+    void shouldRejectDuplicateCreateAndMissingUpdate() {
+        ExecutionException duplicate = assertThrows(ExecutionException.class,
+                () -> await(writer.submit(WriteKind.CREATE, product("1", "Duplicate"))));
+        ExecutionException missing = assertThrows(ExecutionException.class,
+                () -> await(writer.submit(WriteKind.UPDATE, product("404", "Missing"))));
+
+        assertInstanceOf(ProductAlreadyExistsException.class, duplicate.getCause());
+        assertInstanceOf(ProductNotFoundException.class, missing.getCause());
+        assertEquals("Original", snapshot.get().get("1").name());
+        assertNull(snapshot.get().get("404"));
+    }
+
+    @Test
+    void shouldLetOnlyOneOfConcurrentCreatesWin() throws Exception {
+        List<CompletableFuture<VersionedProduct>> results = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            results.add(writer.submit(WriteKind.CREATE, product("race", "Attempt " + i)));
+        }
+
+        int created = 0;
+        for (CompletableFuture<VersionedProduct> result : results) {
+            try {
+                await(result);
+                created++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(ProductAlreadyExistsException.class, e.getCause());
+            }
+        }
+        assertEquals(1, created);
+    }
+
+    @Test
+    void shouldVersionEachWriteWithItsLogSequence() throws Exception {
+        VersionedProduct created = await(writer.submit(WriteKind.CREATE, product("2", "Created")));
+        VersionedProduct updated = await(writer.submit(WriteKind.UPDATE, product("2", "Updated"), created.version()));
+
+        assertEquals(1, created.version());
+        assertEquals(2, updated.version());
+        assertEquals(0, snapshot.get().versioned("1").version());
+        assertEquals(2, snapshot.get().versioned("2").version());
+    }
+
+    @Test
+    void shouldRejectUpdateAtAStaleVersion() throws Exception {
+        VersionedProduct first = await(writer.submit(WriteKind.UPDATE, product("1", "First"), 0));
+
+        ExecutionException stale = assertThrows(ExecutionException.class,
+                () -> await(writer.submit(WriteKind.UPDATE, product("1", "Stale"), 0)));
+
+        assertInstanceOf(ProductVersionMismatchException.class, stale.getCause());
+        assertEquals("First", snapshot.get().get("1").name());
+        assertEquals(first.version(), snapshot.get().versioned("1").version());
+    }
+
+    @Test
+    void shouldLetOnlyOneOfConcurrentUpdatesAtTheSameVersionWin() throws Exception {
+        List<CompletableFuture<VersionedProduct>> results = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            results.add(writer.submit(WriteKind.UPDATE, product("1", "Attempt " + i), 0));
+        }
+
+        int updated = 0;
+        for (CompletableFuture<VersionedProduct> result : results) {
+            try {
+                await(result);
+                updated++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(ProductVersionMismatchException.class, e.getCause());
+            }
+        }
+        assertEquals(1, updated);
+    }
+
+    @Test
+    void shouldDeleteAndLeaveATombstone() throws Exception {
+        VersionedProduct created = await(writer.submit(WriteKind.CREATE, product("2", "Created")));
+
+        writer.submitDelete("2", created.version()).get(5, TimeUnit.SECONDS);
+
+        assertNull(snapshot.get().get("2"));
+        assertEquals(List.of("1"), snapshot.get().all().stream().map(ProductView::id).toList());
+        assertEquals(2L, snapshot.get().tombstones().get("2"));
+        ExecutionException missing = assertThrows(ExecutionException.class,
+                () -> writer.submitDelete("2", VersionedProduct.ANY_VERSION).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ProductNotFoundException.class, missing.getCause());
+
+        VersionedProduct recreated = await(writer.submit(WriteKind.CREATE, product("2", "Recreated")));
+        assertEquals(3, recreated.version());
+        assertFalse(snapshot.get().tombstones().containsKey("2"));
+    }
+
+    @Test
+    void shouldRejectDeleteAtAStaleVersion() throws Exception {
+        await(writer.submit(WriteKind.UPDATE, product("1", "Updated")));
+
+        ExecutionException stale = assertThrows(ExecutionException.class,
+                () -> writer.submitDelete("1", 0).get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(ProductVersionMismatchException.class, stale.getCause());
+        assertEquals("Updated", snapshot.get().get("1").name());
+    }
+
+    @Test
+    void shouldForgetTheOldestTombstonesBeyondTheLimit() throws Exception {
+        writer.submitImport(List.of(product("2", "Imported"), product("3", "Imported"), product("4", "Imported")))
+                .get(5, TimeUnit.SECONDS);
+        for (String id : List.of("2", "3", "4")) {
+            writer.submitDelete(id, VersionedProduct.ANY_VERSION).get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(Map.of("3", 3L, "4", 4L), snapshot.get().tombstones());
+        assertEquals(2, snapshot.get().tombstoneFloor());
+    }
+
+    @Test
+    void shouldPublishOneChangePerLoggedRecord() throws Exception {
+        await(writer.submit(WriteKind.CREATE, product("2", "Created")));
+        await(writer.submit(WriteKind.UPDATE, product("1", "Renamed")));
+        assertThrows(ExecutionException.class, () -> await(writer.submit(WriteKind.CREATE, product("1", "Duplicate"))));
+        writer.submitImport(List.of(product("2", "Imported"), product("3", "Imported"))).get(5, TimeUnit.SECONDS);
+
+        List<CatalogChange> published = changes.since(0L).take(3).collectList().block(Duration.ofSeconds(5));
+
+        assertEquals(List.of(1L, 2L, 3L), published.stream().map(CatalogChange::sequence).toList());
+        assertEquals(ChangeType.CREATED, published.get(0).changes().get(0).type());
+        assertEquals(List.of("name"), published.get(1).changes().get(0).changedFields());
+        assertEquals(List.of(ChangeType.UPDATED, ChangeType.CREATED),
+                published.get(2).changes().stream().map(ProductChange::type).toList());
+
+        writer.submitDelete("3", VersionedProduct.ANY_VERSION).get(5, TimeUnit.SECONDS);
+        CatalogChange deleted = changes.since(3L).blockFirst(Duration.ofSeconds(5));
+        assertEquals(ChangeType.DELETED, deleted.changes().get(0).type());
+        assertEquals("Imported", deleted.changes().get(0).product().name());
+    }
+
+    @Test
+    void shouldLogEveryAcceptedWrite() throws Exception {
+        await(writer.submit(WriteKind.CREATE, product("2", "Created")));
+        await(writer.submit(WriteKind.UPDATE, product("2", "Updated")));
+        assertThrows(ExecutionException.class, () -> await(writer.submit(WriteKind.CREATE, product("1", "Duplicate"))));
+        writer.close();
+
+        List<WalRecord> logged = new ArrayList<>();
+        WriteAheadLog.open(directory, 1024 * 1024, 0, logged::add).close();
+
+        assertEquals(List.of("Created", "Updated"),
+                logged.stream().map(record -> new String(record.payload(), StandardCharsets.UTF_8)).toList());
+    }
+
+    @Test
+    void shouldLogDeletionsByIdAlone() throws Exception {
+        writer.submitDelete("1", VersionedProduct.ANY_VERSION).get(5, TimeUnit.SECONDS);
+        writer.close();
+
+        List<WalRecord> logged = new ArrayList<>();
+        WriteAheadLog.open(directory, 1024 * 1024, 0, logged::add).close();
+
+        assertEquals(1, logged.size());
+        assertEquals(WalOperation.DELETE, logged.get(0).operation());
+        assertEquals("1", logged.get(0).productId());
+        assertEquals(0, logged.get(0).payload().length);
+    }
+
+    @Test
+    void shouldApplyImportBatchAsOneLoggedUpsert() throws Exception {
+        ImportBatchResult result = writer.submitImport(List.of(
+                product("1", "Replaced"), product("2", "Imported"), product("3", "Imported"), product("2", "Imported again")))
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals(new ImportBatchResult(2, 1), result);
+        assertEquals("Replaced", snapshot.get().get("1").name());
+        assertEquals("Imported again", snapshot.get().get("2").name());
+        assertEquals(List.of("1", "2", "3"), snapshot.get().all().stream().map(ProductView::id).toList());
+        assertEquals(1, snapshot.get().versioned("3").version());
+        writer.close();
+
+        List<WalRecord> logged = new ArrayList<>();
+        WriteAheadLog.open(directory, 1024 * 1024, 0, logged::add).close();
+        assertEquals(1, logged.size());
+        assertEquals(WalOperation.UPSERT_BATCH, logged.get(0).operation());
+        assertEquals(4, logged.get(0).unpack().size());
+    }
+
+    @Test
+    void shouldSplitAnImportBatchIntoRecordsUnderTheSizeLimit() throws Exception {
+        writer.close();
+        // Room for two of the 8 byte names below
+        writer = new SnapshotWriter(WriteAheadLog.open(directory, 1024 * 1024, 0, record -> { }), snapshot,
+                product -> product.getName().getBytes(StandardCharsets.UTF_8), 16, 2, 28, changes);
+
+        ImportBatchResult result = writer.submitImport(List.of(product("1", "Imported"), product("2", "Imported"),
+                product("3", "Imported"), product("4", "Imported"), product("5", "Imported"))).get(5, TimeUnit.SECONDS);
+        writer.close();
+
+        assertEquals(new ImportBatchResult(4, 1), result);
+        // Written at the sequence of its last record, as one change
+        assertEquals(List.of(3L, 3L, 3L, 3L, 3L), snapshot.get().all().stream()
+                .map(product -> snapshot.get().versioned(product.id()).version()).toList());
+        CatalogChange change = changes.since(0L).blockFirst(Duration.ofSeconds(5));
+        assertEquals(3, change.sequence());
+        assertEquals(0, change.previousSequence());
+        assertEquals(5, change.changes().size());
+        List<WalRecord> logged = new ArrayList<>();
+        WriteAheadLog.open(directory, 1024 * 1024, 0, logged::add).close();
+        assertEquals(List.of(2, 2, 1), logged.stream().map(record -> record.unpack().size()).toList());
+        assertEquals(List.of(WalOperation.UPSERT_BATCH_PART, WalOperation.UPSERT_BATCH_PART, WalOperation.UPSERT_BATCH),
+                logged.stream().map(WalRecord::operation).toList());
+        assertEquals(List.of("1", "1", "1"), logged.stream().map(WalRecord::productId).toList());
+    }
+
+    @Test
+    void shouldNotBringBackAWriteWhoseSyncFailedAfterARestart() throws Exception {
+        writer.close();
+        WriteAheadLog log = spy(WriteAheadLog.open(directory, 1024 * 1024, 0, record -> { }));
+        doThrow(new IOException("Disk full")).doCallRealMethod().when(log).sync();
+        writer = new SnapshotWriter(log, snapshot, product -> product.getName().getBytes(StandardCharsets.UTF_8), 16, 2, changes);
+
+        ExecutionException failed = assertThrows(ExecutionException.class,
+                () -> await(writer.submit(WriteKind.CREATE, product("2", "Lost"))));
+        VersionedProduct created = await(writer.submit(WriteKind.CREATE, product("3", "Kept")));
+        writer.close();
+
+        assertInstanceOf(ProductDataException.class, failed.getCause());
+        assertNull(snapshot.get().get("2"));
+        // The failed record's sequence is handed out again
+        assertEquals(1, created.version());
+        List<WalRecord> logged = new ArrayList<>();
+        WriteAheadLog.open(directory, 1024 * 1024, 0, logged::add).close();
+        assertEquals(List.of("3"), logged.stream().map(WalRecord::productId).toList());
+    }
+
+    @Test
+    void shouldFailWritesAfterClose() throws IOException {
+        writer.close();
+
+        ExecutionException closed = assertThrows(ExecutionException.class,
+                () -> await(writer.submit(WriteKind.CREATE, product("2", "Late"))));
+
+        assertInstanceOf(ProductDataException.class, closed.getCause());
+    }
+
+    private static VersionedProduct await(CompletableFuture<VersionedProduct> result) throws Exception {
+        return result.get(5, TimeUnit.SECONDS);
+    }
+}
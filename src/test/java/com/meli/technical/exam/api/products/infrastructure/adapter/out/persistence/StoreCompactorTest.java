@@ -0,0 +1,112 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meli.technical.exam.api.products.domain.model.Product;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal.WalOperation;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal.WalRecord;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal.WriteAheadLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.meli.technical.exam.api.products.TestProducts.product;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StoreCompactorTest {
+
+    private static final long SEGMENT_BYTES = 64;
+
+    @TempDir
+    Path directory;
+
+    private CheckpointStore checkpoints;
+    private WriteAheadLog log;
+    private LogHistory history;
+    private AtomicReference<CatalogSnapshot> snapshot;
+    private StoreCompactor compactor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        checkpoints = new CheckpointStore(directory, new ObjectMapper().findAndRegisterModules());
+        log = WriteAheadLog.open(directory, SEGMENT_BYTES, 0, record -> { });
+        List<Product> products = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            products.add(product(String.valueOf(i)));
+            log.append(WalOperation.UPSERT, String.valueOf(i), "payload".getBytes(StandardCharsets.UTF_8));
+        }
+        log.sync();
+        snapshot = new AtomicReference<>(CatalogSnapshot.of(products, log.lastSequence()));
+        history = new LogHistory(directory, CatalogSnapshot.EMPTY, (record, payload) -> null);
+        // Only explicit compactions run during a test
+        compactor = new StoreCompactor(checkpoints, log, history, snapshot, 0, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        log.close();
+    }
+
+    @Test
+    void shouldCheckpointAndDeleteCoveredSegments() throws IOException {
+        int segments = WriteAheadLog.segments(directory).size();
+
+        int deleted = compactor.compact();
+
+        assertEquals(segments - 1, deleted);
+        assertEquals(10, compactor.checkpointedSequence());
+        assertEquals(10, history.oldestSequence());
+        CheckpointStore.Checkpoint checkpoint = checkpoints.load();
+        assertEquals(10, checkpoint.sequence());
+        assertEquals(10, checkpoint.products().size());
+
+        List<WalRecord> replayed = new ArrayList<>();
+        WriteAheadLog.open(directory, SEGMENT_BYTES, checkpoint.sequence(), replayed::add).close();
+        assertTrue(replayed.isEmpty());
+    }
+
+    @Test
+    void shouldKeepSegmentsWrittenAfterTheCheckpoint() throws IOException {
+        compactor.compact();
+        for (int i = 11; i <= 20; i++) {
+            log.append(WalOperation.UPSERT, String.valueOf(i), "payload".getBytes(StandardCharsets.UTF_8));
+        }
+        log.sync();
+
+        // The snapshot still says 10: nothing newer may be dropped
+        compactor.compact();
+
+        List<WalRecord> replayed = new ArrayList<>();
+        WriteAheadLog.open(directory, SEGMENT_BYTES, checkpoints.load().sequence(), replayed::add).close();
+        assertEquals(11, replayed.get(0).sequence());
+        assertEquals(20, replayed.get(replayed.size() - 1).sequence());
+        assertEquals(10, replayed.size());
+    }
+
+    @Test
+    void shouldSkipTheCheckpointWhenNothingChanged() throws IOException {
+        compactor.compact();
+        Files.delete(checkpoints.file());
+
+        compactor.compact();
+
+        assertFalse(checkpoints.exists());
+    }
+
+    @Test
+    void shouldCheckpointOnClose() throws IOException {
+        compactor.close();
+
+        assertTrue(checkpoints.exists());
+        assertEquals(10, checkpoints.load().sequence());
+    }
+}
@@ -0,0 +1,101 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meli.technical.exam.api.products.application.mapper.ProductMapper;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.partition.ProductPartition;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal.WalOperation;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal.WalRecord;
+import com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal.WriteAheadLog;
+import com.meli.technical.exam.api.products.infrastructure.jfr.ProductFlightRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mapstruct.factory.Mappers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.meli.technical.exam.api.products.TestProducts.product;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StoreRecoveryTest {
+
+    private static final long SEGMENT_BYTES = 1024;
+    private static final ProductPartition UNPARTITIONED = new ProductPartition(false, "", List.of(), 64);
+
+    @TempDir
+    Path directory;
+
+    private CheckpointStore checkpoints;
+    private StoreRecovery recovery;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        checkpoints = new CheckpointStore(directory, objectMapper);
+        recovery = new StoreRecovery(objectMapper, Mappers.getMapper(ProductMapper.class),
+                new ProductFlightRecorder(false), checkpoints);
+    }
+
+    @Test
+    void shouldReplayTheLogOnTopOfTheCheckpoint() throws IOException {
+        checkpoints.write(CatalogSnapshot.of(List.of(product("1"), product("2")), 2));
+        try (WriteAheadLog log = WriteAheadLog.open(directory, SEGMENT_BYTES, 2, record -> { })) {
+            log.append(WalOperation.UPSERT, "3", recovery.encode(product("3", "Three")));
+            log.append(WalOperation.DELETE, "1", new byte[0]);
+            log.sync();
+        }
+
+        StoreRecovery.Recovered recovered = recovery.recover(UNPARTITIONED, directory, SEGMENT_BYTES, 100);
+
+        try (WriteAheadLog log = recovered.log()) {
+            assertEquals(2, recovered.checkpointed().sequence());
+            assertEquals(2, recovered.checkpointed().size());
+            assertEquals(4, recovered.current().sequence());
+            assertNull(recovered.current().get("1"));
+            assertEquals("Three", recovered.current().get("3").name());
+            // Appends go on after the replayed records
+            assertEquals(5, log.append(WalOperation.UPSERT, "4", recovery.encode(product("4"))));
+        }
+    }
+
+    @Test
+    void shouldLeaveOutAnImportBatchCutOffBeforeItsLastRecord() throws IOException {
+        checkpoints.write(CatalogSnapshot.of(List.of(product("1")), 0));
+        try (WriteAheadLog log = WriteAheadLog.open(directory, SEGMENT_BYTES, 0, record -> { })) {
+            log.append(WalOperation.UPSERT_BATCH_PART, "1", WalRecord.pack(List.of(recovery.encode(product("2")))));
+            log.append(WalOperation.UPSERT_BATCH, "1", WalRecord.pack(List.of(recovery.encode(product("3")))));
+            log.append(WalOperation.UPSERT_BATCH_PART, "3", WalRecord.pack(List.of(recovery.encode(product("4")))));
+            log.sync();
+        }
+
+        StoreRecovery.Recovered recovered = recovery.recover(UNPARTITIONED, directory, SEGMENT_BYTES, 100);
+
+        try (WriteAheadLog ignored = recovered.log()) {
+            assertEquals(2, recovered.current().versioned("2").version());
+            assertEquals(2, recovered.current().versioned("3").version());
+            assertNull(recovered.current().get("4"));
+            assertEquals(3, recovered.current().sequence());
+        }
+    }
+
+    @Test
+    void shouldSkipLogRecordsThatCannotBeRead() throws IOException {
+        checkpoints.write(CatalogSnapshot.of(List.of(product("1")), 0));
+        try (WriteAheadLog log = WriteAheadLog.open(directory, SEGMENT_BYTES, 0, record -> { })) {
+            log.append(WalOperation.UPSERT, "2", "not a product".getBytes(StandardCharsets.UTF_8));
+            log.append(WalOperation.UPSERT, "3", recovery.encode(product("3")));
+            log.sync();
+        }
+
+        StoreRecovery.Recovered recovered = recovery.recover(UNPARTITIONED, directory, SEGMENT_BYTES, 100);
+
+        try (WriteAheadLog ignored = recovered.log()) {
+            assertEquals(2, recovered.current().sequence());
+            assertNull(recovered.current().get("2"));
+            assertNotNull(recovered.current().get("3"));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringPoolTest {
+
+    @Test
+    void shouldReturnFirstInstanceForEqualStrings() {
+        StringPool pool = new StringPool();
+        String first = new String("256GB");
+        String second = new String("256GB");
+
+        assertSame(first, pool.canonical(first));
+        assertSame(first, pool.canonical(second));
+    }
+
+    @Test
+    void shouldCountOnlyDroppedDuplicates() {
+        StringPool pool = new StringPool();
+        String ram = new String("RAM");
+
+        pool.canonical(ram);
+        pool.canonical(ram);
+        pool.canonical(new String("RAM"));
+        pool.canonical(new String("Storage"));
+        pool.canonical(null);
+
+        StringPoolStats stats = pool.stats();
+        assertEquals(4, stats.lookups());
+        assertEquals(2, stats.unique());
+        assertEquals(1, stats.deduplicated());
+        assertEquals(StringPool.retainedBytes("RAM"), stats.savedBytes());
+    }
+
+    @Test
+    void shouldCountRepeatsOfAlreadySharedStrings() {
+        StringPool pool = new StringPool();
+        String ram = "RAM";
+
+        pool.share(ram);
+        assertSame(ram, pool.share(ram));
+
+        assertEquals(1, pool.stats().deduplicated());
+        assertEquals(StringPool.retainedBytes("RAM"), pool.stats().savedBytes());
+    }
+
+    @Test
+    void shouldEstimateCompactAndUtf16Strings() {
+        // 24 byte String + 16 byte array header + 3 Latin-1 bytes, padded to 8
+        assertEquals(48, StringPool.retainedBytes("RAM"));
+        // Same length but needs UTF-16, 6 bytes of payload
+        assertEquals(48, StringPool.retainedBytes("RA\u2122"));
+        assertEquals(64, StringPool.retainedBytes("Operating \u2122"));
+        assertEquals(0, StringPool.retainedBytes(null));
+    }
+
+    @Test
+    void shouldIncludeSharedInstancesInStats() {
+        StringPool pool = new StringPool();
+
+        pool.recordShared(120);
+
+        assertEquals(1, pool.stats().deduplicated());
+        assertEquals(120, pool.stats().savedBytes());
+    }
+}
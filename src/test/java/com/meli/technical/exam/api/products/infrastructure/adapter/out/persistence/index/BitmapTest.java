@@ -0,0 +1,65 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BitmapTest {
+
+    @Test
+    void shouldOnlySetBitsInsideTheSizeWhenFull() {
+        Bitmap full = Bitmap.full(130);
+
+        assertEquals(130, full.cardinality());
+        assertTrue(full.get(129));
+        assertEquals(-1, full.nextSetBit(130));
+    }
+
+    @Test
+    void shouldCountIntersectionsWithoutMaterializingThem() {
+        Bitmap evens = Bitmap.empty(200);
+        Bitmap lowHalf = Bitmap.empty(200);
+        for (int i = 0; i < 200; i++) {
+            if (i % 2 == 0) {
+                evens.set(i);
+            }
+            if (i < 100) {
+                lowHalf.set(i);
+            }
+        }
+
+        assertEquals(50, evens.andCardinality(lowHalf));
+        assertEquals(50, evens.and(lowHalf).cardinality());
+        assertEquals(150, evens.or(lowHalf).cardinality());
+    }
+
+    @Test
+    void shouldCombineBitmapsOfDifferentLengthsAsIfPaddedWithZeros() {
+        Bitmap shorter = Bitmap.full(64);
+        Bitmap longer = shorter.copy(200);
+        longer.set(150);
+        longer.clear(0);
+
+        assertEquals(63, shorter.andCardinality(longer));
+        assertEquals(63, longer.and(shorter).cardinality());
+        assertEquals(65, shorter.or(longer).cardinality());
+        assertFalse(shorter.get(150));
+        assertTrue(longer.get(150));
+        // The copy does not write through
+        assertTrue(shorter.get(0));
+    }
+
+    @Test
+    void shouldIterateSetPositions() {
+        Bitmap bitmap = Bitmap.empty(300);
+        bitmap.set(3);
+        bitmap.set(64);
+        bitmap.set(299);
+
+        assertEquals(3, bitmap.nextSetBit(0));
+        assertEquals(64, bitmap.nextSetBit(4));
+        assertEquals(299, bitmap.nextSetBit(65));
+        assertEquals(-1, bitmap.nextSetBit(300));
+        assertEquals(-1, Bitmap.empty(0).nextSetBit(0));
+    }
+}
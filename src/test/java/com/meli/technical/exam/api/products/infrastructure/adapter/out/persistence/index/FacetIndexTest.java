@@ -0,0 +1,97 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index;
+
+import com.meli.technical.exam.api.products.domain.model.FacetCount;
+import com.meli.technical.exam.api.products.domain.model.FacetFilter;
+import com.meli.technical.exam.api.products.domain.model.PriceBucket;
+import com.meli.technical.exam.api.products.domain.model.ProductFacets;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.domain.model.Specification;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FacetIndexTest {
+
+    private final FacetIndex index = FacetIndex.build(List.of(
+            product("1", "1299.99", 4.8, "12GB"),
+            product("2", "399.99", 4.2, "8GB"),
+            product("3", "899.99", 3.5, "12GB"),
+            product("4", "100.00", 5.0, "16GB")));
+
+    @Test
+    void shouldCountEveryFacetWithoutFilter() {
+        ProductFacets facets = index.count(FacetFilter.NONE);
+
+        assertEquals(4, facets.totalMatches());
+        assertEquals(new FacetCount("0-250", 1), facets.price().get(0));
+        assertEquals(new FacetCount("1500+", 0), facets.price().get(4));
+        assertEquals(List.of(new FacetCount("5", 1), new FacetCount("4", 2), new FacetCount("3", 1)),
+                facets.rating().subList(0, 3));
+        assertEquals(List.of(new FacetCount("12GB", 2), new FacetCount("8GB", 1), new FacetCount("16GB", 1)),
+                facets.specifications().get("RAM"));
+    }
+
+    @Test
+    void shouldNotNarrowAFacetByItsOwnSelection() {
+        ProductFacets facets = index.count(new FacetFilter(Set.of(), Set.of(), Map.of("RAM", Set.of("12GB"))));
+
+        assertEquals(2, facets.totalMatches());
+        // Other RAM values stay visible so the user can widen the selection
+        assertEquals(3, facets.specifications().get("RAM").size());
+        assertEquals(new FacetCount("500-1000", 1), facets.price().get(2));
+        assertEquals(new FacetCount("0-250", 0), facets.price().get(0));
+    }
+
+    @Test
+    void shouldOrValuesWithinAFacetAndAndAcrossFacets() {
+        FacetFilter filter = new FacetFilter(Set.of(PriceBucket.FROM_1000_TO_1500, PriceBucket.FROM_250_TO_500),
+                Set.of(4), Map.of("RAM", Set.of("12GB", "8GB")));
+
+        ProductFacets facets = index.count(filter);
+
+        assertEquals(2, facets.totalMatches());
+        assertEquals(2, index.matching(filter).cardinality());
+    }
+
+    @Test
+    void shouldMatchNothingForUnknownValues() {
+        FacetFilter filter = new FacetFilter(Set.of(), Set.of(), Map.of("Color", Set.of("Black")));
+
+        assertEquals(0, index.count(filter).totalMatches());
+        assertEquals(0, FacetIndex.EMPTY.count(FacetFilter.NONE).totalMatches());
+    }
+
+    @Test
+    void shouldCountAnEditedIndexLikeAFreshBuild() {
+        FacetIndex.Editor editor = index.edit(5);
+        editor.remove(3, product("4", "100.00", 5.0, "16GB"));
+        editor.remove(1, product("2", "399.99", 4.2, "8GB"));
+        editor.add(1, product("2", "1999.99", 4.2, "32GB"));
+        editor.add(4, product("5", "50.00", 2.0, "8GB"));
+        FacetIndex edited = editor.build();
+
+        FacetIndex fresh = FacetIndex.build(Arrays.asList(
+                product("1", "1299.99", 4.8, "12GB"),
+                product("2", "1999.99", 4.2, "32GB"),
+                product("3", "899.99", 3.5, "12GB"),
+                null,
+                product("5", "50.00", 2.0, "8GB")));
+        assertEquals(fresh.count(FacetFilter.NONE), edited.count(FacetFilter.NONE));
+        FacetFilter filter = new FacetFilter(Set.of(PriceBucket.UNDER_250), Set.of(), Map.of());
+        assertEquals(fresh.count(filter), edited.count(filter));
+        // A value no product has any more is gone, the original still counts it
+        assertFalse(edited.count(FacetFilter.NONE).specifications().get("RAM").contains(new FacetCount("16GB", 0)));
+        assertEquals(4, index.count(FacetFilter.NONE).totalMatches());
+    }
+
+    private static ProductView product(String id, String price, double rating, String ram) {
+        return new ProductView(id, "Product " + id, "url" + id, "desc" + id, new BigDecimal(price), rating,
+                List.of(new Specification("RAM", ram)));
+    }
+}
@@ -0,0 +1,105 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index;
+
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvertedIndexTest {
+
+    private final InvertedIndex index = InvertedIndex.build(List.of(
+            product("1", "Samsung Galaxy S24 Ultra", "Premium Android smartphone with S Pen"),
+            product("2", "iPhone 15 Pro", "Apple smartphone with titanium design"),
+            product("3", "MacBook Air", "Thin and light Apple laptop")));
+
+    @Test
+    void shouldRankMatchesWithBm25() {
+        InvertedIndex.Hits hits = index.search("apple smartphone", 10);
+
+        assertEquals(3, hits.totalHits());
+        // Only product 2 has both terms
+        assertEquals(1, hits.docs()[0]);
+        assertTrue(hits.scores()[0] > hits.scores()[1]);
+    }
+
+    @Test
+    void shouldWeighNameAboveDescription() {
+        InvertedIndex index = InvertedIndex.build(List.of(
+                product("1", "Phone case", "Fits the Galaxy S24"),
+                product("2", "Galaxy S24", "Phone")));
+
+        assertArrayEquals(new int[]{1, 0}, index.search("galaxy", 10).docs());
+    }
+
+    @Test
+    void shouldLimitResultsButCountAllMatches() {
+        InvertedIndex.Hits hits = index.search("smartphone apple", 1);
+
+        assertEquals(1, hits.docs().length);
+        assertEquals(3, hits.totalHits());
+    }
+
+    @Test
+    void shouldReturnNoHitsForUnknownTerms() {
+        assertSame(InvertedIndex.Hits.NONE, index.search("zzz", 10));
+        assertSame(InvertedIndex.Hits.NONE, index.search("...", 10));
+        assertSame(InvertedIndex.Hits.NONE, InvertedIndex.EMPTY.search("apple", 10));
+    }
+
+    @Test
+    void shouldKeepPostingsCompact() {
+        List<ProductView> products = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            products.add(product(String.valueOf(i), "Phone " + i, "Android smartphone"));
+        }
+
+        InvertedIndex large = InvertedIndex.build(products);
+
+        assertEquals(1_000, large.search("android", 5).totalHits());
+        // "phone", "android" and "smartphone" are in every product: one byte gap + one byte frequency each
+        assertTrue(large.postingBytes() < 3 * 2_000 + 1_000 * 4);
+    }
+
+    @Test
+    void shouldReencodeOnlyThePostingsOfTheTermsAWriteTouches() {
+        InvertedIndex.Editor editor = index.edit(4);
+        editor.remove(1, product("2", "iPhone 15 Pro", "Apple smartphone with titanium design"));
+        editor.add(1, product("2", "iPhone 15 Pro", "Apple smartphone in black"));
+        editor.add(3, product("4", "iPad Air", "Apple tablet"));
+        InvertedIndex edited = editor.build();
+
+        assertSame(index.postings("macbook"), edited.postings("macbook"));
+        assertNotSame(index.postings("apple"), edited.postings("apple"));
+        assertNull(edited.postings("titanium"));
+        assertArrayEquals(new int[]{3}, edited.search("tablet", 10).docs());
+        assertEquals(3, edited.search("apple", 10).totalHits());
+        // The original is untouched
+        assertEquals(1, index.search("titanium", 10).totalHits());
+        assertEquals(2, index.search("apple", 10).totalHits());
+    }
+
+    @Test
+    void shouldScoreAnEditedIndexLikeAFreshBuild() {
+        List<ProductView> products = new ArrayList<>(List.of(
+                product("1", "Samsung Galaxy S24 Ultra", "Premium Android smartphone with S Pen"),
+                product("2", "iPhone 15 Pro", "Apple smartphone with titanium design"),
+                product("3", "MacBook Air", "Thin and light Apple laptop")));
+        InvertedIndex.Editor editor = index.edit(3);
+        editor.remove(0, products.get(0));
+        products.set(0, null);
+
+        InvertedIndex.Hits edited = editor.build().search("apple smartphone", 10);
+        InvertedIndex.Hits fresh = InvertedIndex.build(products).search("apple smartphone", 10);
+
+        assertArrayEquals(fresh.docs(), edited.docs());
+        assertArrayEquals(fresh.scores(), edited.scores());
+    }
+
+    private static ProductView product(String id, String name, String description) {
+        return new ProductView(id, name, "url" + id, description, new BigDecimal("1.00"), 4.0, List.of());
+    }
+}
@@ -0,0 +1,62 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index;
+
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixIndexTest {
+
+    private final PrefixIndex index = PrefixIndex.build(List.of(
+            product("1", "Samsung Galaxy S24 Ultra", 4.8),
+            product("2", "iPhone 15 Pro Max", 4.7),
+            product("3", "Google Pixel 8 Pro", 4.6),
+            product("4", "Samsung Galaxy A15", 4.1)));
+
+    @Test
+    void shouldCompleteFromAnyWordStartRankedByRating() {
+        assertArrayEquals(new int[]{0, 3}, index.complete("sams", 10));
+        assertArrayEquals(new int[]{1, 2}, index.complete("pro", 10));
+        assertArrayEquals(new int[]{0, 2, 3}, index.complete("g", 10));
+    }
+
+    @Test
+    void shouldMatchAcrossWordsIgnoringCaseAndSpacing() {
+        assertArrayEquals(new int[]{0}, index.complete("GALAXY  s", 10));
+        assertArrayEquals(new int[]{1}, index.complete("pro m", 10));
+    }
+
+    @Test
+    void shouldRespectLimit() {
+        assertArrayEquals(new int[]{0}, index.complete("g", 1));
+    }
+
+    @Test
+    void shouldReturnNothingForUnknownOrBlankPrefix() {
+        assertEquals(0, index.complete("xyz", 10).length);
+        assertEquals(0, index.complete(" ", 10).length);
+        assertEquals(0, PrefixIndex.EMPTY.complete("a", 10).length);
+    }
+
+    @Test
+    void shouldKeepOnlyBestCompletionsForCommonNames() {
+        List<ProductView> products = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            products.add(product(String.valueOf(i), "Phone case", i == 500 ? 5.0 : 3.0));
+        }
+
+        int[] completions = PrefixIndex.build(products).complete("ph", 20);
+
+        assertEquals(PrefixIndex.MAX_COMPLETIONS, completions.length);
+        assertEquals(500, completions[0]);
+        assertEquals(0, completions[1]);
+    }
+
+    private static ProductView product(String id, String name, double rating) {
+        return new ProductView(id, name, "url" + id, "desc" + id, new BigDecimal("1.00"), rating, List.of());
+    }
+}
@@ -0,0 +1,75 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedMapTest {
+
+    @Test
+    void shouldCopyOnlyTheShardsAnEditTouches() {
+        ShardedMap<String, Integer> original = ShardedMap.copyOf(numbers(10_000));
+        String other = keyOutsideTheShardsOf(original, "42", "43");
+
+        ShardedMap<String, Integer>.Editor editor = original.edit();
+        editor.put("42", -42);
+        editor.remove("43");
+        ShardedMap<String, Integer> edited = editor.build();
+
+        assertEquals(-42, edited.get("42"));
+        assertNull(edited.get("43"));
+        assertEquals(9_999, edited.size());
+        assertNotSame(original.shardOf("42"), edited.shardOf("42"));
+        assertSame(original.shardOf(other), edited.shardOf(other));
+        // The original is untouched
+        assertEquals(42, original.get("42"));
+        assertEquals(10_000, original.size());
+    }
+
+    @Test
+    void shouldRedistributeWhenAnEditGrowsTheMapPastItsShards() {
+        ShardedMap<String, Integer> small = ShardedMap.copyOf(numbers(10));
+        ShardedMap<String, Integer>.Editor editor = small.edit();
+        for (int i = 10; i < 1_000; i++) {
+            editor.put(String.valueOf(i), i);
+        }
+
+        ShardedMap<String, Integer> grown = editor.build();
+
+        assertEquals(1, small.shardCount());
+        assertTrue(grown.shardCount() > 1);
+        assertEquals(1_000, grown.size());
+        assertEquals(999, grown.get("999"));
+    }
+
+    @Test
+    void shouldBuildTheSharedEmptyMapWhenEverythingIsRemoved() {
+        ShardedMap<String, Integer>.Editor editor = ShardedMap.copyOf(numbers(3)).edit();
+        editor.remove("0");
+        editor.remove("1");
+        editor.remove("2");
+        editor.remove("missing");
+
+        assertSame(ShardedMap.empty(), editor.build());
+    }
+
+    private static String keyOutsideTheShardsOf(ShardedMap<String, Integer> map, String first, String second) {
+        for (int i = 0; ; i++) {
+            Object shard = map.shardOf(String.valueOf(i));
+            if (shard != map.shardOf(first) && shard != map.shardOf(second)) {
+                return String.valueOf(i);
+            }
+        }
+    }
+
+    private static Map<String, Integer> numbers(int count) {
+        Map<String, Integer> numbers = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            numbers.put(String.valueOf(i), i);
+        }
+        return numbers;
+    }
+}
@@ -0,0 +1,62 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index;
+
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.domain.model.Specification;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimilarityIndexTest {
+
+    private final SimilarityIndex index = SimilarityIndex.build(List.of(
+            product(spec("RAM", "8GB"), spec("Storage", "128GB"), spec("Color", "Black"), spec("OS", "Android")),
+            product(spec("RAM", "8GB"), spec("Storage", "128GB"), spec("Color", "Black"), spec("OS", "iOS")),
+            product(spec("RAM", "8GB"), spec("Storage", "128GB"), spec("Color", "Black"), spec("OS", "Android")),
+            product(spec("Weight", "1kg")),
+            product()));
+
+    @Test
+    void shouldRankBySpecificationOverlap() {
+        SimilarityIndex.Neighbors neighbors = index.similar(0, 5);
+
+        assertArrayEquals(new int[]{2, 1}, neighbors.docs());
+        assertEquals(1.0f, neighbors.similarities()[0]);
+        assertEquals(0.6f, neighbors.similarities()[1], 1e-6);
+    }
+
+    @Test
+    void shouldCutAtLimit() {
+        assertArrayEquals(new int[]{2}, index.similar(0, 1).docs());
+    }
+
+    @Test
+    void shouldNotFindNeighborsWithoutSharedSpecifications() {
+        assertEquals(0, index.similar(3, 5).docs().length);
+        assertSame(SimilarityIndex.Neighbors.NONE, index.similar(4, 5));
+    }
+
+    @Test
+    void shouldCompareSpecificationsIgnoringCaseAndSurroundingSpaces() {
+        long[] left = SimilarityIndex.shinglesOf(product(spec("RAM", "8GB"), spec("Storage", "128GB")));
+        long[] right = SimilarityIndex.shinglesOf(product(spec(" ram", "8gb "), spec("Storage", "256GB")));
+
+        assertEquals(1f / 3, SimilarityIndex.jaccard(left, right), 1e-6);
+    }
+
+    @Test
+    void shouldBeEmptyForEmptyCatalog() {
+        assertEquals(0, SimilarityIndex.EMPTY.size());
+        assertEquals(0, SimilarityIndex.EMPTY.bucketCount());
+    }
+
+    private static Specification spec(String key, String value) {
+        return new Specification(key, value);
+    }
+
+    private static ProductView product(Specification... specifications) {
+        return new ProductView("id", "name", "url", "desc", new BigDecimal("10"), 4.0, List.of(specifications));
+    }
+}
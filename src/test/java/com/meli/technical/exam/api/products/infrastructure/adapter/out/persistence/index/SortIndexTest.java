@@ -0,0 +1,85 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index;
+
+import com.meli.technical.exam.api.products.domain.model.ProductSortField;
+import com.meli.technical.exam.api.products.domain.model.ProductSortOrder;
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import com.meli.technical.exam.api.products.domain.model.SortDirection;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortIndexTest {
+
+    private final SortIndex index = SortIndex.build(List.of(
+            product("banana", "10", 4.0),
+            product("Apple", "99.99", 4.5),
+            product("cherry", "5", 4.0),
+            product("apple", "10.00", 3.0)));
+
+    @Test
+    void shouldSortByPriceComparingValues() {
+        // 10 and 10.00 are equal, so they keep load order
+        assertArrayEquals(new int[]{2, 0, 3, 1}, ranks(ProductSortField.PRICE, SortDirection.ASC));
+        assertArrayEquals(new int[]{1, 3, 0, 2}, ranks(ProductSortField.PRICE, SortDirection.DESC));
+    }
+
+    @Test
+    void shouldSortByRating() {
+        assertArrayEquals(new int[]{3, 0, 2, 1}, ranks(ProductSortField.RATING, SortDirection.ASC));
+        assertArrayEquals(new int[]{1, 2, 0, 3}, ranks(ProductSortField.RATING, SortDirection.DESC));
+    }
+
+    @Test
+    void shouldSortByNameIgnoringCase() {
+        assertArrayEquals(new int[]{1, 3, 0, 2}, ranks(ProductSortField.NAME, SortDirection.ASC));
+    }
+
+    @Test
+    void shouldMoveEditedProductsToTheirNewRank() {
+        List<ProductView> products = Arrays.asList(
+                product("banana", "10", 4.0),
+                null,
+                product("cherry", "5", 4.0),
+                product("apple", "1.00", 3.0),
+                product("date", "10", 5.0));
+        SortIndex.Editor editor = index.edit(products);
+        editor.remove(1);
+        editor.remove(3);
+        editor.add(3);
+        editor.add(4);
+        SortIndex edited = editor.build();
+
+        assertEquals(4, edited.size());
+        assertArrayEquals(new int[]{3, 2, 0, 4}, ranks(edited, ProductSortField.PRICE, SortDirection.ASC));
+        assertArrayEquals(new int[]{4, 2, 0, 3}, ranks(edited, ProductSortField.RATING, SortDirection.DESC));
+        assertArrayEquals(new int[]{3, 0, 2, 4}, ranks(edited, ProductSortField.NAME, SortDirection.ASC));
+        // The original is untouched
+        assertArrayEquals(new int[]{2, 0, 3, 1}, ranks(ProductSortField.PRICE, SortDirection.ASC));
+    }
+
+    @Test
+    void shouldBeEmptyForEmptyCatalog() {
+        assertEquals(0, SortIndex.EMPTY.size());
+    }
+
+    private int[] ranks(ProductSortField field, SortDirection direction) {
+        return ranks(index, field, direction);
+    }
+
+    private static int[] ranks(SortIndex index, ProductSortField field, SortDirection direction) {
+        ProductSortOrder order = new ProductSortOrder(field, direction);
+        int[] docs = new int[index.size()];
+        for (int rank = 0; rank < docs.length; rank++) {
+            docs[rank] = index.doc(order, rank);
+        }
+        return docs;
+    }
+
+    private static ProductView product(String name, String price, double rating) {
+        return new ProductView(name, name, "url", "desc", new BigDecimal(price), rating, List.of());
+    }
+}
@@ -0,0 +1,26 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenizerTest {
+
+    @Test
+    void shouldSplitOnNonAlphanumericCharacters() {
+        assertEquals(List.of("6", "8", "inch", "dynamic", "amoled", "2x"), Tokenizer.tokenize("6.8-inch Dynamic AMOLED 2X"));
+    }
+
+    @Test
+    void shouldStripAccents() {
+        assertEquals(List.of("camara", "tactil"), Tokenizer.tokenize("C\u00e1mara T\u00e1ctil"));
+    }
+
+    @Test
+    void shouldReturnNoTokensForBlankText() {
+        assertTrue(Tokenizer.tokenize(null).isEmpty());
+        assertTrue(Tokenizer.tokenize(" ,.- ").isEmpty());
+    }
+}
@@ -0,0 +1,45 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKCollectorTest {
+
+    @Test
+    void shouldKeepBestScoresInDescendingOrder() {
+        TopKCollector collector = new TopKCollector(3);
+        float[] scores = {1f, 5f, 3f, 0.5f, 2f, 9f, 0f};
+        for (int doc = 0; doc < scores.length; doc++) {
+            collector.offer(doc, scores[doc]);
+        }
+
+        float[] best = new float[3];
+        assertArrayEquals(new int[]{5, 1, 2}, collector.drainDocs(best));
+        assertArrayEquals(new float[]{9f, 5f, 3f}, best);
+    }
+
+    @Test
+    void shouldPreferLowerDocumentOnTies() {
+        TopKCollector collector = new TopKCollector(2);
+        collector.offer(7, 1f);
+        collector.offer(3, 1f);
+        collector.offer(5, 1f);
+
+        assertArrayEquals(new int[]{3, 5}, collector.drainDocs(null));
+    }
+
+    @Test
+    void shouldReturnFewerResultsThanK() {
+        TopKCollector collector = new TopKCollector(10);
+        collector.offer(4, 2f);
+
+        assertArrayEquals(new int[]{4}, collector.drainDocs(null));
+        assertEquals(0, collector.size());
+    }
+
+    @Test
+    void shouldRejectNonPositiveK() {
+        assertThrows(IllegalArgumentException.class, () -> new TopKCollector(0));
+    }
+}
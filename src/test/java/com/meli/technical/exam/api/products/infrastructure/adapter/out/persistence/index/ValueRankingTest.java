@@ -0,0 +1,124 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.index;
+
+import com.meli.technical.exam.api.products.domain.model.ProductView;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValueRankingTest {
+
+    private final ValueRanking ranking = ValueRanking.build(List.of(
+            product("100", 4.0),
+            product("50", 4.0),
+            product("200", 5.0),
+            product("50", 4.0)));
+
+    @Test
+    void shouldRankByRatingPerPriceKeepingLoadOrderOnTies() {
+        assertArrayEquals(new int[]{1, 3, 0, 2}, ranking.top(10, null));
+        assertArrayEquals(new int[]{1, 3}, ranking.top(2, null));
+    }
+
+    @Test
+    void shouldScoreLikeTheComparisonFormula() {
+        // (4 / 5) / (50 / 200)
+        assertEquals(3.2, ranking.valueScore(1), 1e-9);
+        assertEquals(1.0, ranking.valueScore(2), 1e-9);
+    }
+
+    @Test
+    void shouldOnlyReturnPositionsInTheFilter() {
+        Bitmap filter = Bitmap.empty(4);
+        filter.set(0);
+        filter.set(2);
+
+        assertArrayEquals(new int[]{0, 2}, ranking.top(10, filter));
+        assertArrayEquals(new int[]{0}, ranking.top(1, filter));
+    }
+
+    @Test
+    void shouldMoveAnEditedProductWithoutChangingTheOriginal() {
+        ValueRanking.Editor editor = ranking.edit(4);
+        editor.remove(2);
+        editor.add(2, product("20", 5.0));
+
+        ValueRanking edited = editor.build();
+
+        assertArrayEquals(new int[]{2, 1, 3, 0}, edited.top(10, null));
+        assertArrayEquals(new int[]{1, 3, 0, 2}, ranking.top(10, null));
+    }
+
+    @Test
+    void shouldRescanMaxPriceWhenTheMostExpensiveProductGetsCheaper() {
+        ValueRanking.Editor editor = ranking.edit(4);
+        editor.remove(2);
+        editor.add(2, product("100", 5.0));
+
+        ValueRanking edited = editor.build();
+
+        // The most expensive price is now 100
+        assertEquals(1.6, edited.valueScore(1), 1e-9);
+        assertEquals(1.0, edited.valueScore(2), 1e-9);
+    }
+
+    @Test
+    void shouldAppendAtTheEnd() {
+        ValueRanking.Editor editor = ranking.edit(5);
+        editor.add(4, product("400", 2.0));
+
+        ValueRanking edited = editor.build();
+
+        assertEquals(5, edited.size());
+        assertArrayEquals(new int[]{1, 3, 0, 2, 4}, edited.top(10, null));
+        assertEquals(6.4, edited.valueScore(1), 1e-9);
+    }
+
+    @Test
+    void shouldDropRemovedPositions() {
+        ValueRanking.Editor editor = ranking.edit(4);
+        editor.remove(1);
+        editor.remove(2);
+
+        ValueRanking edited = editor.build();
+
+        assertEquals(2, edited.size());
+        assertArrayEquals(new int[]{3, 0}, edited.top(10, null));
+        // (4 / 5) / (50 / 100)
+        assertEquals(1.6, edited.valueScore(3), 1e-9);
+    }
+
+    @Test
+    void shouldRankAnEditedRankingLikeAFreshBuild() {
+        List<ProductView> products = new ArrayList<>(List.of(
+                product("100", 4.0), product("50", 4.0), product("200", 5.0), product("50", 4.0), product("75", 3.0)));
+        ValueRanking.Editor editor = ValueRanking.build(products.subList(0, 4)).edit(5);
+        editor.remove(0);
+        editor.add(0, product("10", 1.0));
+        editor.add(4, products.get(4));
+        editor.remove(3);
+        products.set(0, product("10", 1.0));
+        products.set(3, null);
+
+        ValueRanking edited = editor.build();
+        ValueRanking built = ValueRanking.build(products);
+
+        assertArrayEquals(built.top(10, null), edited.top(10, null));
+        for (int doc : built.top(10, null)) {
+            assertEquals(built.valueScore(doc), edited.valueScore(doc), 1e-9);
+        }
+    }
+
+    @Test
+    void shouldBeEmptyForEmptyCatalog() {
+        assertEquals(0, ValueRanking.EMPTY.size());
+        assertEquals(0, ValueRanking.EMPTY.top(10, null).length);
+    }
+
+    private static ProductView product(String price, double rating) {
+        return new ProductView("id", "name", "url", "desc", new BigDecimal(price), rating, List.of());
+    }
+}
@@ -0,0 +1,71 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchAssemblerTest {
+
+    private final List<List<Long>> applied = new ArrayList<>();
+    private final List<List<Long>> dropped = new ArrayList<>();
+    private final BatchAssembler batches = new BatchAssembler(
+            records -> applied.add(sequences(records)), records -> dropped.add(sequences(records)));
+
+    @Test
+    void shouldApplyASplitBatchOnlyWithItsLastRecord() {
+        batches.accept(record(1, WalOperation.UPSERT, "9"));
+        batches.accept(record(2, WalOperation.UPSERT_BATCH_PART, "2"));
+        batches.accept(record(3, WalOperation.UPSERT_BATCH_PART, "2"));
+        assertEquals(List.of(List.of(1L)), applied);
+
+        batches.accept(record(4, WalOperation.UPSERT_BATCH, "2"));
+        batches.accept(record(5, WalOperation.UPSERT_BATCH, ""));
+        batches.end();
+
+        assertEquals(List.of(List.of(1L), List.of(2L, 3L, 4L), List.of(5L)), applied);
+        assertEquals(List.of(), dropped);
+    }
+
+    @Test
+    void shouldDropABatchCutOffBeforeItsLastRecord() {
+        batches.accept(record(1, WalOperation.UPSERT_BATCH_PART, "1"));
+        batches.accept(record(2, WalOperation.UPSERT_BATCH_PART, "1"));
+        // Written after a restart
+        batches.accept(record(3, WalOperation.DELETE, "9"));
+        batches.accept(record(4, WalOperation.UPSERT_BATCH_PART, "4"));
+        batches.end();
+
+        assertEquals(List.of(List.of(1L, 2L), List.of(4L)), dropped);
+        assertEquals(List.of(List.of(3L)), applied);
+    }
+
+    @Test
+    void shouldStartANewBatchWhenACutOffOneIsFollowedByAnother() {
+        batches.accept(record(1, WalOperation.UPSERT_BATCH_PART, "1"));
+        batches.accept(record(2, WalOperation.UPSERT_BATCH_PART, "2"));
+        batches.accept(record(3, WalOperation.UPSERT_BATCH, "2"));
+
+        assertEquals(List.of(List.of(1L)), dropped);
+        assertEquals(List.of(List.of(2L, 3L)), applied);
+    }
+
+    @Test
+    void shouldDropTheEndOfABatchWhoseFirstPartIsMissing() {
+        batches.accept(record(2, WalOperation.UPSERT_BATCH_PART, "1"));
+        batches.accept(record(3, WalOperation.UPSERT_BATCH, "1"));
+
+        assertEquals(List.of(List.of(2L, 3L)), dropped);
+        assertEquals(List.of(), applied);
+    }
+
+    private static WalRecord record(long sequence, WalOperation operation, String productId) {
+        return new WalRecord(sequence, operation, productId, new byte[0]);
+    }
+
+    private static List<Long> sequences(List<WalRecord> records) {
+        return records.stream().map(WalRecord::sequence).toList();
+    }
+}
@@ -0,0 +1,231 @@
+package com.meli.technical.exam.api.products.infrastructure.adapter.out.persistence.wal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteAheadLogTest {
+
+    private static final long SEGMENT_BYTES = 1024 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReplayAppendedRecordsOnReopen() throws IOException {
+        try (WriteAheadLog log = WriteAheadLog.open(directory, SEGMENT_BYTES, 0, record -> fail("Log should be empty"))) {
+            assertEquals(1, log.append(WalOperation.UPSERT, "1", bytes("first")));
+            assertEquals(2, log.append(WalOperation.UPSERT, "2", bytes("second")));
+            log.sync();
+        }
+
+        List<WalRecord> replayed = new ArrayList<>();
+        try (WriteAheadLog log = WriteAheadLog.open(directory, SEGMENT_BYTES, 0, replayed::add)) {
+            assertEquals(2, log.lastSequence());
+            assertEquals(3, log.append(WalOperation.UPSERT, "3", bytes("third")));
+        }
+
+        assertEquals(List.of("1", "2"), replayed.stream().map(WalRecord::productId).toList());
+        assertEquals(WalOperation.UPSERT, replayed.get(0).operation());
+        assertEquals("second", new String(replayed.get(1).payload(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldTruncateTornRecordAtTheEndAndKeepAppending() throws IOException {
+        try (WriteAheadLog log = WriteAheadLog.open(directory, SEGMENT_BYTES, 0, record -> { })) {
+            log.append(WalOperation.UPSERT, "1", bytes("first"));
+            log.append(WalOperation.UPSERT, "2", bytes("second"));
+            log.sync();
+        }
+        Path segment = WriteAheadLog.segments(directory).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        List<WalRecord> replayed = new ArrayList<>();
+        try (WriteAheadLog log = WriteAheadLog.open(directory, SEGMENT_BYTES, 0, replayed::add)) {
+            assertEquals(List.of(1L), replayed.stream().map(WalRecord::sequence).toList());
+            assertEquals(2, log.append(WalOperation.UPSERT, "3", bytes("third")));
+        }
+
+        replayed.clear();
+        WriteAheadLog.open(directory, SEGMENT_BYTES, 0, replayed::add).close();
+        assertEquals(List.of("1", "3"), replayed.stream().map(WalRecord::productId).toList());
+    }
+
+    @Test
+    void shouldDropRecordWithBadChecksumAtTheEnd() throws IOException {
+        try (WriteAheadLog log = WriteAheadLog.open(directory, SEGMENT_BYTES, 0, record -> { })) {
+            log.append(WalOperation.UPSERT, "1", bytes("first"));
+            log.append(WalOperation.UPSERT, "2", bytes("second"));
+        }
+        Path segment = WriteAheadLog.segments(directory).get(0);
+        byte[] content = Files.readAllBytes(segment);
+        content[content.length - 1] ^= 1;
+        Files.write(segment, content);
+
+        List<WalRecord> replayed = new ArrayList<>();
+        WriteAheadLog.open(directory, SEGMENT_BYTES, 0, replayed::add).close();
+
+        assertEquals(List.of("1"), replayed.stream().map(WalRecord::productId).toList());
+    }
+
+    @Test
+    void shouldFailOnCorruptionBeforeTheLastSegment() throws IOException {
+        try (WriteAheadLog log = WriteAheadLog.open(directory, 64, 0, record -> { })) {
+            for (int i = 0; i < 6; i++) {
+                log.append(WalOperation.UPSERT, String.valueOf(i), bytes("payload " + i));
+            }
+        }
+        Path first = WriteAheadLog.segments(directory).get(0);
+        byte[] content = Files.readAllBytes(first);
+        content[content.length - 1] ^= 1;
+        Files.write(first, content);
+
+        assertThrows(IOException.class, () -> WriteAheadLog.open(directory, 64, 0, record -> { }));
+    }
+
+    @Test
+    void shouldRollSegmentsWithContinuousSequences() throws IOException {
+        try (WriteAheadLog log = WriteAheadLog.open(directory, 64, 0, record -> { })) {
+            for (int i = 0; i < 10; i++) {
+                log.append(WalOperation.UPSERT, String.valueOf(i), bytes("payload " + i));
+            }
+        }
+
+        List<Path> segments = WriteAheadLog.segments(directory);
+        assertTrue(segments.size() > 1);
+        assertEquals(WriteAheadLog.segmentName(1), segments.get(0).getFileName().toString());
+
+        List<WalRecord> replayed = new ArrayList<>();
+        try (WriteAheadLog log = WriteAheadLog.open(directory, 64, 0, replayed::add)) {
+            assertEquals(10, log.lastSequence());
+        }
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), replayed.stream().map(WalRecord::sequence).toList());
+    }
+
+    @Test
+    void shouldSkipRecordsUpToAfterSequence() throws IOException {
+        try (WriteAheadLog log = WriteAheadLog.open(directory, SEGMENT_BYTES, 0, record -> { })) {
+            for (int i = 0; i < 5; i++) {
+                log.append(WalOperation.UPSERT, String.valueOf(i), bytes("payload " + i));
+            }
+        }
+
+        List<WalRecord> replayed = new ArrayList<>();
+        WriteAheadLog.open(directory, SEGMENT_BYTES, 3, replayed::add).close();
+
+        assertEquals(List.of(4L, 5L), replayed.stream().map(WalRecord::sequence).toList());
+    }
+
+    @Test
+    void shouldContinueAfterSequenceWhenNoSegmentIsLeft() throws IOException {
+        try (WriteAheadLog log = WriteAheadLog.open(directory, SEGMENT_BYTES, 41, record -> { })) {
+            assertEquals(41, log.lastSequence());
+            assertEquals(42, log.append(WalOperation.UPSERT, "1", bytes("first")));
+        }
+
+        assertEquals(WriteAheadLog.segmentName(42), WriteAheadLog.segments(directory).get(0).getFileName().toString());
+    }
+
+    @Test
+    void shouldDeleteOnlySegmentsCoveredBySequence() throws IOException {
+        try (WriteAheadLog log = WriteAheadLog.open(directory, 64, 0, record -> { })) {
+            for (int i = 0; i < 10; i++) {
+                log.append(WalOperation.UPSERT, String.valueOf(i), bytes("payload " + i));
+            }
+            List<Path> segments = WriteAheadLog.segments(directory);
+            long secondStart = WriteAheadLog.firstSequence(segments.get(1));
+
+            assertEquals(0, log.deleteSegmentsThrough(secondStart - 2));
+            assertEquals(1, log.deleteSegmentsThrough(secondStart - 1));
+            // Everything is covered, but the last segment stays
+            assertEquals(segments.size() - 2, log.deleteSegmentsThrough(Long.MAX_VALUE));
+            assertEquals(List.of(segments.get(segments.size() - 1)), WriteAheadLog.segments(directory));
+
+            assertEquals(11, log.append(WalOperation.UPSERT, "10", bytes("payload 10")));
+        }
+
+        List<WalRecord> replayed = new ArrayList<>();
+        WriteAheadLog.open(directory, 64, 0, replayed::add).close();
+        assertEquals(11, replayed.get(replayed.size() - 1).sequence());
+    }
+
+    @Test
+    void shouldTruncateBackToAPositionAcrossSegments() throws IOException {
+        try (WriteAheadLog log = WriteAheadLog.open(directory, 64, 0, record -> { })) {
+            log.append(WalOperation.UPSERT, "0", bytes("kept"));
+            log.sync();
+            WriteAheadLog.Position start = log.position();
+            for (int i = 1; i < 10; i++) {
+                log.append(WalOperation.UPSERT, String.valueOf(i), bytes("dropped " + i));
+            }
+            assertTrue(WriteAheadLog.segments(directory).size() > 1);
+
+            log.truncateTo(start);
+
+            assertEquals(List.of(directory.resolve(WriteAheadLog.segmentName(1))), WriteAheadLog.segments(directory));
+            assertEquals(1, log.lastSequence());
+            assertEquals(2, log.append(WalOperation.UPSERT, "10", bytes("after")));
+        }
+
+        List<WalRecord> replayed = new ArrayList<>();
+        WriteAheadLog.open(directory, 64, 0, replayed::add).close();
+        assertEquals(List.of("0", "10"), replayed.stream().map(WalRecord::productId).toList());
+    }
+
+    @Test
+    void shouldReadARangeOfRecordsNextToTheWriter() throws IOException {
+        try (WriteAheadLog log = WriteAheadLog.open(directory, 64, 0, record -> { })) {
+            for (int i = 0; i < 10; i++) {
+                log.append(WalOperation.UPSERT, String.valueOf(i), bytes("payload " + i));
+            }
+            log.sync();
+            long secondStart = WriteAheadLog.firstSequence(WriteAheadLog.segments(directory).get(1));
+
+            List<Long> read = new ArrayList<>();
+            try (WriteAheadLog.Reader reader = WriteAheadLog.read(directory, secondStart, 8)) {
+                for (WalRecord record = reader.next(); record != null; record = reader.next()) {
+                    read.add(record.sequence());
+                }
+            }
+            List<Long> expected = new ArrayList<>();
+            for (long sequence = secondStart + 1; sequence <= 8; sequence++) {
+                expected.add(sequence);
+            }
+            assertEquals(expected, read);
+
+            log.deleteSegmentsThrough(secondStart);
+            assertThrows(IOException.class, () -> WriteAheadLog.read(directory, 0, 8));
+        }
+    }
+
+    @Test
+    void shouldReplayBatchRecordAsOneUnit() throws IOException {
+        try (WriteAheadLog log = WriteAheadLog.open(directory, 1024, 0, record -> { })) {
+            log.append(WalOperation.UPSERT_BATCH, "", WalRecord.pack(List.of(bytes("a"), bytes(""), bytes("ccc"))));
+        }
+
+        List<WalRecord> replayed = new ArrayList<>();
+        WriteAheadLog.open(directory, 1024, 0, replayed::add).close();
+
+        assertEquals(1, replayed.size());
+        assertEquals(WalOperation.UPSERT_BATCH, replayed.get(0).operation());
+        assertEquals(List.of("a", "", "ccc"), replayed.get(0).unpack().stream()
+                .map(entry -> new String(entry, StandardCharsets.UTF_8)).toList());
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,96 @@
+package com.meli.technical.exam.api.products.infrastructure.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductFlightRecorderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldPassThroughWhenDisabled() {
+        ProductFlightRecorder recorder = new ProductFlightRecorder(false);
+        Flux<String> source = Flux.just("1", "2");
+        Mono<String> single = Mono.just("1");
+
+        assertSame(source, recorder.recordLookup("findByIds", 2, source));
+        assertSame(single, recorder.recordLookup("findById", single));
+        assertSame(single, recorder.recordLookup("findBatch", 2, single, String::length));
+        assertSame(ProductFlightRecorder.ComparisonRecording.NOOP, recorder.beginComparison(2));
+        assertSame(ProductFlightRecorder.CountRecording.NOOP, recorder.beginSnapshotReload("test"));
+        assertSame(ProductFlightRecorder.CountRecording.NOOP, recorder.beginPublisherDrain());
+    }
+
+    @Test
+    void shouldEmitEventsWhenEnabled() throws Exception {
+        ProductFlightRecorder recorder = new ProductFlightRecorder(true);
+        Path dump = tempDir.resolve("products.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable("com.meli.products.RepositoryLookup");
+            recording.enable("com.meli.products.ComparisonRequest");
+            recording.enable("com.meli.products.SnapshotReload");
+            recording.start();
+
+            StepVerifier.create(recorder.recordLookup("findByIds", 3, Flux.just("a", "b")))
+                    .expectNext("a", "b")
+                    .verifyComplete();
+            StepVerifier.create(recorder.recordLookup("findBatch", 4, Mono.just(List.of("a")), List::size))
+                    .expectNext(List.of("a"))
+                    .verifyComplete();
+
+            ProductFlightRecorder.ComparisonRecording comparison = recorder.beginComparison(3);
+            comparison.fetched(2);
+            comparison.end();
+
+            recorder.beginSnapshotReload("test").end(10);
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+
+        RecordedEvent lookup = findLookup(events, "findByIds");
+        assertEquals(3, lookup.getInt("requestedCount"));
+        assertEquals(2, lookup.getInt("foundCount"));
+
+        RecordedEvent batch = findLookup(events, "findBatch");
+        assertEquals(4, batch.getInt("requestedCount"));
+        assertEquals(1, batch.getInt("foundCount"));
+
+        RecordedEvent comparison = findEvent(events, "com.meli.products.ComparisonRequest");
+        assertEquals(3, comparison.getInt("idCount"));
+        assertEquals(2, comparison.getInt("foundCount"));
+
+        RecordedEvent reload = findEvent(events, "com.meli.products.SnapshotReload");
+        assertEquals(10, reload.getInt("productCount"));
+    }
+
+    private RecordedEvent findLookup(List<RecordedEvent> events, String operation) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.meli.products.RepositoryLookup"))
+                .filter(event -> operation.equals(event.getString("operation")))
+                .findFirst()
+                .orElseGet(() -> fail("Missing lookup event " + operation));
+    }
+
+    private RecordedEvent findEvent(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .findFirst()
+                .orElseGet(() -> fail("Missing JFR event " + name));
+    }
+}
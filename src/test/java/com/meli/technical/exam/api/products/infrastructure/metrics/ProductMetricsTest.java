@@ -0,0 +1,148 @@
+package com.meli.technical.exam.api.products.infrastructure.metrics;
+
+import com.meli.technical.exam.api.products.infrastructure.web.trace.RequestTrace;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private ProductMetrics productMetrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        productMetrics = new ProductMetrics(registry);
+    }
+
+    @Test
+    void shouldTimeMonoStageOnSubscription() {
+        Mono<String> timed = productMetrics.timeStage(ProductMetrics.STAGE_STATS_COLLECTION, Mono.just("stats"));
+
+        assertEquals(0, findStageTimer(ProductMetrics.STAGE_STATS_COLLECTION).count());
+
+        StepVerifier.create(timed)
+                .expectNext("stats")
+                .verifyComplete();
+
+        assertEquals(1, findStageTimer(ProductMetrics.STAGE_STATS_COLLECTION).count());
+    }
+
+    @Test
+    void shouldTimeFluxStage() {
+        StepVerifier.create(productMetrics.timeStage(ProductMetrics.STAGE_REPOSITORY_FETCH, Flux.just(1, 2, 3)))
+                .expectNext(1, 2, 3)
+                .verifyComplete();
+
+        assertEquals(1, findStageTimer(ProductMetrics.STAGE_REPOSITORY_FETCH).count());
+    }
+
+    @Test
+    void shouldTagStrategyTimerWithAnalysisType() {
+        StepVerifier.create(productMetrics.timeStrategy("PRICE_ANALYSIS", Mono.just("price")))
+                .expectNext("price")
+                .verifyComplete();
+
+        Timer timer = registry.find(ProductMetrics.STRATEGY_TIMER).tag("type", "PRICE_ANALYSIS").timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void shouldFallbackToUnknownStrategyType() {
+        StepVerifier.create(productMetrics.timeStrategy(null, Mono.just("value")))
+                .expectNext("value")
+                .verifyComplete();
+
+        assertNotNull(registry.find(ProductMetrics.STRATEGY_TIMER).tag("type", "UNKNOWN").timer());
+    }
+
+    @Test
+    void shouldRecordStageErrorsToo() {
+        StepVerifier.create(productMetrics.timeStage(ProductMetrics.STAGE_SERIALIZATION, Mono.error(new RuntimeException("boom"))))
+                .expectError(RuntimeException.class)
+                .verify();
+
+        assertEquals(1, findStageTimer(ProductMetrics.STAGE_SERIALIZATION).count());
+    }
+
+    @Test
+    void shouldRecordStagesOnRequestTraceFromContext() {
+        RequestTrace trace = new RequestTrace("trace-1", "GET", "/api/v1/products/compare");
+
+        Mono<String> pipeline = productMetrics.timeStage(ProductMetrics.STAGE_STATS_COLLECTION, Mono.just("stats"))
+                .flatMap(stats -> productMetrics.timeStrategy("PRICE_ANALYSIS", Mono.just("price")))
+                .contextWrite(context -> context.put(RequestTrace.CONTEXT_KEY, trace));
+
+        StepVerifier.create(pipeline)
+                .expectNext("price")
+                .verifyComplete();
+
+        assertTrue(trace.getStageNanos().containsKey(ProductMetrics.STAGE_STATS_COLLECTION));
+        assertTrue(trace.getStageNanos().containsKey("strategy.PRICE_ANALYSIS"));
+    }
+
+    @Test
+    void shouldCountNotFoundProductsByOperation() {
+        productMetrics.incrementNotFound(ProductMetrics.OPERATION_COMPARE, 2);
+        productMetrics.incrementNotFound(ProductMetrics.OPERATION_COMPARE, 0);
+        productMetrics.incrementNotFound(ProductMetrics.OPERATION_GET_BY_ID, 1);
+
+        Counter compare = registry.find(ProductMetrics.NOT_FOUND_COUNTER).tag("operation", "compare").counter();
+        Counter byId = registry.find(ProductMetrics.NOT_FOUND_COUNTER).tag("operation", "get_by_id").counter();
+        assertNotNull(compare);
+        assertNotNull(byId);
+        assertEquals(2.0, compare.count());
+        assertEquals(1.0, byId.count());
+    }
+
+    @Test
+    void shouldCountPartitionHopFailuresByNode() {
+        productMetrics.incrementPartitionHopFailure("http://localhost:8081");
+        productMetrics.incrementPartitionHopFailure("http://localhost:8081");
+        productMetrics.incrementPartitionHopFailure("http://localhost:8082");
+
+        assertEquals(2.0, registry.get(ProductMetrics.PARTITION_HOP_FAILURES_COUNTER)
+                .tag("node", "http://localhost:8081").counter().count());
+        assertEquals(1.0, registry.get(ProductMetrics.PARTITION_HOP_FAILURES_COUNTER)
+                .tag("node", "http://localhost:8082").counter().count());
+    }
+
+    @Test
+    void shouldReadCatalogGaugesFromSuppliers() {
+        long[] size = {10};
+        productMetrics.registerCatalogGauges(() -> size[0], () -> 42, () -> 1024);
+        productMetrics.registerPinnedSnapshotsGauge(() -> 3);
+        productMetrics.registerChangeSubscribersGauge(() -> 2);
+
+        size[0] = 20;
+
+        assertEquals(20.0, registry.get(ProductMetrics.CATALOG_SIZE_GAUGE).gauge().value());
+        assertEquals(42.0, registry.get(ProductMetrics.CATALOG_UNIQUE_STRINGS_GAUGE).gauge().value());
+        assertEquals(1024.0, registry.get(ProductMetrics.CATALOG_DEDUP_SAVED_GAUGE).gauge().value());
+        assertEquals(3.0, registry.get(ProductMetrics.CATALOG_PINNED_SNAPSHOTS_GAUGE).gauge().value());
+        assertEquals(2.0, registry.get(ProductMetrics.CHANGE_SUBSCRIBERS_GAUGE).gauge().value());
+    }
+
+    @Test
+    void shouldReadReplicationLagFromSuppliers() {
+        productMetrics.registerReplicationGauges(() -> 1.5, () -> 7L);
+
+        assertEquals(1.5, registry.get(ProductMetrics.REPLICATION_LAG_GAUGE).gauge().value());
+        assertEquals(7.0, registry.get(ProductMetrics.REPLICATION_LAG_RECORDS_GAUGE).gauge().value());
+    }
+
+    private Timer findStageTimer(String stage) {
+        Timer timer = registry.find(ProductMetrics.STAGE_TIMER).tag("stage", stage).timer();
+        assertNotNull(timer, "Missing timer for stage " + stage);
+        return timer;
+    }
+}
@@ -0,0 +1,76 @@
+package com.meli.technical.exam.api.products.infrastructure.web;
+
+import com.meli.technical.exam.api.products.infrastructure.web.trace.RequestTrace;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TraceIdWebFilterTest {
+
+    private TraceIdWebFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new TraceIdWebFilter(List.of());
+    }
+
+    @Test
+    void shouldAcceptIncomingTraceId() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/api/v1/products/1").header(TraceIdWebFilter.TRACE_HEADER, "abc-123"));
+        AtomicReference<String> contextTraceId = new AtomicReference<>();
+
+        WebFilterChain chain = ex -> Mono.deferContextual(context -> {
+            contextTraceId.set(context.get(RequestTrace.TRACE_ID_KEY));
+            return Mono.empty();
+        });
+
+        StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+        assertEquals("abc-123", contextTraceId.get());
+        assertEquals("abc-123", exchange.getResponse().getHeaders().getFirst(TraceIdWebFilter.TRACE_HEADER));
+        assertEquals("abc-123", TraceIdWebFilter.traceIdOf(exchange));
+    }
+
+    @Test
+    void shouldGenerateTraceIdWhenHeaderIsInvalid() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/api/v1/products/1").header(TraceIdWebFilter.TRACE_HEADER, "bad id\n"));
+
+        StepVerifier.create(filter.filter(exchange, ex -> Mono.empty())).verifyComplete();
+
+        String traceId = exchange.getResponse().getHeaders().getFirst(TraceIdWebFilter.TRACE_HEADER);
+        assertNotNull(traceId);
+        assertNotEquals("bad id\n", traceId);
+    }
+
+    @Test
+    void shouldExposeRequestTraceForStageTimings() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/products/compare"));
+
+        WebFilterChain chain = ex -> Mono.deferContextual(context -> {
+            RequestTrace trace = context.get(RequestTrace.CONTEXT_KEY);
+            trace.recordStage("mapping", 1_000);
+            trace.recordStage("mapping", 500);
+            return Mono.empty();
+        });
+
+        StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+        RequestTrace trace = exchange.getAttribute(RequestTrace.CONTEXT_KEY);
+        assertNotNull(trace);
+        assertEquals("GET", trace.getMethod());
+        assertEquals("/api/v1/products/compare", trace.getPath());
+        assertEquals(1_500L, trace.getStageNanos().get("mapping"));
+        assertTrue(trace.getDurationNanos() >= 0);
+    }
+}
@@ -0,0 +1,82 @@
+package com.meli.technical.exam.api.products.infrastructure.web.trace;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowRequestSamplerTest {
+
+    private static final String COMPARE = "GET /api/v1/products/compare";
+    private static final String BY_ID = "GET /api/v1/products/{id}";
+
+    @Test
+    void shouldKeepOnlyTheSlowestRequestsPerEndpoint() {
+        SlowRequestSampler sampler = new SlowRequestSampler(2, Duration.ofMinutes(5), Duration.ZERO);
+
+        sampler.onComplete(completedTrace("t1", COMPARE, 10));
+        sampler.onComplete(completedTrace("t2", COMPARE, 30));
+        sampler.onComplete(completedTrace("t3", COMPARE, 20));
+        sampler.onComplete(completedTrace("t4", BY_ID, 5));
+
+        Map<String, List<SlowRequestSample>> slowest = sampler.slowestByEndpoint();
+
+        assertEquals(List.of("t2", "t3"), slowest.get(COMPARE).stream().map(SlowRequestSample::traceId).toList());
+        assertEquals(1, slowest.get(BY_ID).size());
+    }
+
+    @Test
+    void shouldExposeStageBreakdownInMillis() {
+        SlowRequestSampler sampler = new SlowRequestSampler(5, Duration.ofMinutes(5), Duration.ZERO);
+        RequestTrace trace = new RequestTrace("t1", "GET", "/api/v1/products/compare?ids=1,2");
+        trace.recordStage("repository_fetch", 2_000_000);
+        trace.recordStage("strategy.PRICE_ANALYSIS", 500_000);
+        trace.complete(COMPARE, 200);
+
+        sampler.onComplete(trace);
+
+        SlowRequestSample sample = sampler.slowestByEndpoint().get(COMPARE).get(0);
+        assertEquals(2.0, sample.stagesMs().get("repository_fetch"));
+        assertEquals(0.5, sample.stagesMs().get("strategy.PRICE_ANALYSIS"));
+        assertEquals(200, sample.status());
+    }
+
+    @Test
+    void shouldIgnoreRequestsFasterThanMinimumDuration() {
+        SlowRequestSampler sampler = new SlowRequestSampler(5, Duration.ofMinutes(5), Duration.ofHours(1));
+
+        sampler.onComplete(completedTrace("t1", COMPARE, 10));
+
+        assertTrue(sampler.slowestByEndpoint().isEmpty());
+    }
+
+    @Test
+    void shouldClearSamples() {
+        SlowRequestSampler sampler = new SlowRequestSampler(5, Duration.ofMinutes(5), Duration.ZERO);
+        sampler.onComplete(completedTrace("t1", COMPARE, 10));
+
+        sampler.clear();
+
+        assertTrue(sampler.slowestByEndpoint().isEmpty());
+    }
+
+    @Test
+    void shouldRejectNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SlowRequestSampler(0, Duration.ofMinutes(5), Duration.ZERO));
+    }
+
+    private RequestTrace completedTrace(String traceId, String endpoint, long sleepMillis) {
+        RequestTrace trace = new RequestTrace(traceId, "GET", "/path");
+        try {
+            Thread.sleep(sleepMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        trace.complete(endpoint, 200);
+        return trace;
+    }
+}
@@ -5,6 +5,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
+import java.util.List;
+import java.util.Map;
+
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 class ProductComparisonIntegrationTest {
 
@@ -179,4 +182,105 @@ class ProductComparisonIntegrationTest {
                 .jsonPath("$.size").isEqualTo(10)
                 .jsonPath("$.totalElements").isNumber();
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldGetProductsBatchInRequestOrder() {
+        webTestClient.post()
+                .uri("/api/v1/products/batch")
+                .bodyValue(Map.of("ids", List.of("2", "nonexistent", "1", "2")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.products.length()").isEqualTo(2)
+                .jsonPath("$.products[0].id").isEqualTo("2")
+                .jsonPath("$.products[1].id").isEqualTo("1")
+                .jsonPath("$.missingIds[0]").isEqualTo("nonexistent")
+                .jsonPath("$.requestedCount").isEqualTo(3)
+                .jsonPath("$.foundCount").isEqualTo(2);
+    }
+
+    @Test
+    void shouldSearchProductsByNameAndDescription() {
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/v1/products/search")
+                        .queryParam("q", "samsung galaxy")
+                        .queryParam("limit", 3)
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.query").isEqualTo("samsung galaxy")
+                .jsonPath("$.results[0].product.id").isEqualTo("1")
+                .jsonPath("$.results[0].product.name").isEqualTo("Samsung Galaxy S24 Ultra");
+    }
+
+    @Test
+    void shouldSuggestProductsByNamePrefix() {
+        webTestClient.get()
+                .uri("/api/v1/products/suggest?prefix=pix&limit=3")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.suggestions.length()").isEqualTo(1)
+                .jsonPath("$.suggestions[0].name").isEqualTo("Google Pixel 8 Pro");
+    }
+
+    @Test
+    void shouldCountFacetsForSpecificationFilter() {
+        webTestClient.get()
+                .uri("/api/v1/products/facets?spec=RAM:12GB")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalMatches").isEqualTo(4)
+                .jsonPath("$.rating[1].value").isEqualTo("4")
+                .jsonPath("$.rating[1].count").isEqualTo(4)
+                .jsonPath("$.specifications.RAM.length()").isEqualTo(4);
+    }
+
+    @Test
+    void shouldRankBestValueAcrossTheCatalog() {
+        webTestClient.get()
+                .uri("/api/v1/products/best-value?limit=3")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.count").isEqualTo(3)
+                .jsonPath("$.results[0].product.id").isEqualTo("7")
+                .jsonPath("$.results[1].product.id").isEqualTo("9");
+    }
+
+    @Test
+    void shouldFindProductsWithSimilarSpecifications() {
+        webTestClient.get()
+                .uri("/api/v1/products/1/similar?k=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.productId").isEqualTo("1")
+                .jsonPath("$.similar.length()").isEqualTo(2)
+                .jsonPath("$.similar[0].product.id").isEqualTo("6")
+                .jsonPath("$.similar[1].product.id").isEqualTo("7");
+    }
+
+    @Test
+    void shouldReturn404ForSimilarOfUnknownProduct() {
+        webTestClient.get()
+                .uri("/api/v1/products/999/similar")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void shouldListProductsSortedByPrice() {
+        webTestClient.get()
+                .uri("/api/v1/products?page=0&size=3&sort=price")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content[0].price").isEqualTo(399.99)
+                .jsonPath("$.content[1].price").isEqualTo(799.99)
+                .jsonPath("$.content[2].price").isEqualTo(899.99)
+                .jsonPath("$.totalElements").isEqualTo(10);
+    }
+}
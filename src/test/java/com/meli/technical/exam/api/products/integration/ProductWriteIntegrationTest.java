@@ -0,0 +1,276 @@
+package com.meli.technical.exam.api.products.integration;
+
+import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.application.dto.request.SpecificationDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ProductWriteIntegrationTest {
+
+    @TempDir
+    static Path storeDirectory;
+
+    @DynamicPropertySource
+    static void storeProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.products.store.directory", storeDirectory::toString);
+    }
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void shouldServeCreatedProductImmediately() {
+        webTestClient.post()
+                .uri("/api/v1/products")
+                .bodyValue(product("write-1", "Written Phone", "249.99"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().location("/api/v1/products/write-1");
+
+        webTestClient.get()
+                .uri("/api/v1/products/write-1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Written Phone")
+                .jsonPath("$.specifications[0].key").isEqualTo("Battery");
+
+        webTestClient.get()
+                .uri("/api/v1/products/search?q=written")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.results[0].product.id").isEqualTo("write-1");
+    }
+
+    @Test
+    void shouldUpdateExistingProduct() {
+        webTestClient.post()
+                .uri("/api/v1/products")
+                .bodyValue(product("write-2", "Before", "100.00"))
+                .exchange()
+                .expectStatus().isCreated();
+
+        webTestClient.put()
+                .uri("/api/v1/products/write-2")
+                .bodyValue(product(null, "After", "90.00"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo("write-2")
+                .jsonPath("$.name").isEqualTo("After");
+
+        webTestClient.get()
+                .uri("/api/v1/products/write-2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.price").isEqualTo(90.0);
+    }
+
+    @Test
+    void shouldOnlyApplyUpdateToTheVersionInIfMatch() {
+        String created = webTestClient.post()
+                .uri("/api/v1/products")
+                .bodyValue(product("write-3", "Before", "100.00"))
+                .exchange()
+                .expectStatus().isCreated()
+                .returnResult(String.class)
+                .getResponseHeaders().getETag();
+
+        String updated = webTestClient.put()
+                .uri("/api/v1/products/write-3")
+                .header(HttpHeaders.IF_MATCH, created)
+                .bodyValue(product(null, "First edit", "95.00"))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseHeaders().getETag();
+
+        webTestClient.put()
+                .uri("/api/v1/products/write-3")
+                .header(HttpHeaders.IF_MATCH, created)
+                .bodyValue(product(null, "Lost edit", "90.00"))
+                .exchange()
+                .expectStatus().isEqualTo(412);
+
+        webTestClient.get()
+                .uri("/api/v1/products/write-3")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, updated)
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("First edit");
+    }
+
+    @Test
+    void shouldKeepPagingThroughTheSameCatalogVersion() {
+        PageSummary first = webTestClient.get()
+                .uri("/api/v1/products?page=0&size=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PageSummary.class)
+                .returnResult()
+                .getResponseBody();
+
+        webTestClient.post()
+                .uri("/api/v1/products")
+                .bodyValue(product("write-4", "Added Meanwhile", "10.00"))
+                .exchange()
+                .expectStatus().isCreated();
+
+        webTestClient.get()
+                .uri("/api/v1/products?page=1&size=2&snapshot=" + first.snapshot())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalElements").isEqualTo(first.totalElements())
+                .jsonPath("$.snapshot").isEqualTo(first.snapshot());
+
+        webTestClient.get()
+                .uri("/api/v1/products?page=0&size=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalElements").isEqualTo(first.totalElements() + 1);
+    }
+
+    @Test
+    void shouldDeleteAndReportItInTheDelta() {
+        webTestClient.post()
+                .uri("/api/v1/products")
+                .bodyValue(product("write-5", "Kept", "10.00"))
+                .exchange()
+                .expectStatus().isCreated();
+        webTestClient.post()
+                .uri("/api/v1/products")
+                .bodyValue(product("write-6", "Deleted", "10.00"))
+                .exchange()
+                .expectStatus().isCreated();
+        PageSummary copied = webTestClient.get()
+                .uri("/api/v1/products?page=0&size=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PageSummary.class)
+                .returnResult()
+                .getResponseBody();
+
+        webTestClient.put()
+                .uri("/api/v1/products/write-5")
+                .bodyValue(product(null, "Kept and edited", "9.00"))
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.delete()
+                .uri("/api/v1/products/write-6")
+                .exchange()
+                .expectStatus().isNoContent();
+        webTestClient.get()
+                .uri("/api/v1/products/write-6")
+                .exchange()
+                .expectStatus().isNotFound();
+
+        DeltaSummary delta = webTestClient.get()
+                .uri("/api/v1/products/delta?fromVersion=" + copied.snapshot())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(DeltaSummary.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertFalse(delta.resync());
+        assertTrue(delta.upserted().stream().anyMatch(product -> product.id().equals("write-5")));
+        assertTrue(delta.upserted().stream().noneMatch(product -> product.id().equals("write-6")));
+        assertTrue(delta.deleted().contains("write-6"));
+        assertTrue(delta.toVersion() > Long.parseLong(copied.snapshot()));
+    }
+
+    @Test
+    void shouldRejectDuplicateCreate() {
+        webTestClient.post()
+                .uri("/api/v1/products")
+                .bodyValue(product("1", "Duplicate", "10.00"))
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    void shouldReturn404WhenUpdatingMissingProduct() {
+        webTestClient.put()
+                .uri("/api/v1/products/missing-product")
+                .bodyValue(product(null, "Missing", "10.00"))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void shouldImportNdjsonAndReportRejectedLines() {
+        String body = String.join("\n",
+                "{\"id\":\"import-1\",\"name\":\"Imported Tablet\",\"imageUrl\":\"https://example.com/t.jpg\","
+                        + "\"description\":\"Imported tablet description\",\"price\":300.00,\"rating\":4.0}",
+                "{\"id\":\"import-2\",\"name\":\"Broken\",\"imageUrl\":\"https://example.com/b.jpg\","
+                        + "\"description\":\"Negative price description\",\"price\":-1,\"rating\":4.0}",
+                "not json") + "\n";
+
+        String report = webTestClient.post()
+                .uri("/api/v1/products/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        String[] lines = report.trim().split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].contains("\"line\":2"));
+        assertTrue(lines[1].contains("\"line\":3"));
+        assertTrue(lines[2].contains("\"type\":\"summary\"") && lines[2].contains("\"created\":1")
+                && lines[2].contains("\"rejected\":2"));
+
+        webTestClient.get()
+                .uri("/api/v1/products/import-1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Imported Tablet");
+    }
+
+    private record DeltaSummary(long toVersion, boolean resync, List<IdOnly> upserted, List<String> deleted) {
+    }
+
+    private record IdOnly(String id) {
+    }
+
+    private record PageSummary(long totalElements, String snapshot) {
+    }
+
+    private static ProductDto product(String id, String name, String price) {
+        return ProductDto.builder()
+                .id(id)
+                .name(name)
+                .imageUrl("https://example.com/" + name + ".jpg")
+                .description(name + " description")
+                .price(new BigDecimal(price))
+                .rating(4.1)
+                .specifications(List.of(new SpecificationDto("Battery", "5000 mAh")))
+                .build();
+    }
+}
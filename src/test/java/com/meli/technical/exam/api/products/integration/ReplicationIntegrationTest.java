@@ -0,0 +1,128 @@
+package com.meli.technical.exam.api.products.integration;
+
+import com.meli.technical.exam.api.products.ProductsApplication;
+import com.meli.technical.exam.api.products.application.dto.request.ProductDto;
+import com.meli.technical.exam.api.products.application.dto.request.SpecificationDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ReplicationIntegrationTest {
+
+    @TempDir
+    static Path leaderStore;
+
+    @TempDir
+    static Path followerStore;
+
+    @DynamicPropertySource
+    static void storeProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.products.store.directory", leaderStore::toString);
+        registry.add("app.products.replication.heartbeat", () -> "PT0.2S");
+    }
+
+    @LocalServerPort
+    private int leaderPort;
+
+    @Autowired
+    private WebTestClient leader;
+
+    @Test
+    void shouldFollowTheLeaderAndRejectWrites() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ProductsApplication.class)
+                .properties("server.port=0",
+                        "app.products.store.directory=" + followerStore,
+                        "app.products.replication.leader=http://localhost:" + leaderPort,
+                        "app.products.replication.heartbeat=PT0.2S",
+                        "app.products.replication.retry-delay=PT0.1S")
+                .run()) {
+            int followerPort = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            WebTestClient follower = WebTestClient.bindToServer()
+                    .baseUrl("http://localhost:" + followerPort)
+                    .responseTimeout(Duration.ofSeconds(10))
+                    .build();
+
+            awaitStatus(follower, "/api/v1/products/1", HttpStatus.OK);
+
+            leader.post()
+                    .uri("/api/v1/products")
+                    .bodyValue(product("replicated-1", "Replicated Phone", "199.99"))
+                    .exchange()
+                    .expectStatus().isCreated();
+            awaitStatus(follower, "/api/v1/products/replicated-1", HttpStatus.OK);
+            assertEquals(etag(leader, "/api/v1/products/replicated-1"), etag(follower, "/api/v1/products/replicated-1"));
+
+            leader.delete()
+                    .uri("/api/v1/products/replicated-1")
+                    .exchange()
+                    .expectStatus().isNoContent();
+            awaitStatus(follower, "/api/v1/products/replicated-1", HttpStatus.NOT_FOUND);
+
+            follower.post()
+                    .uri("/api/v1/products")
+                    .bodyValue(product("replicated-2", "Rejected Phone", "99.99"))
+                    .exchange()
+                    .expectStatus().isEqualTo(421)
+                    .expectBody()
+                    .jsonPath("$.error").isEqualTo("Read-only replica");
+        }
+    }
+
+    private static void awaitStatus(WebTestClient client, String uri, HttpStatus status) {
+        await(() -> client.get().uri(uri).exchange().returnResult(String.class).getStatus().value() == status.value());
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Follower did not catch up in time");
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static String etag(WebTestClient client, String uri) {
+        return client.get()
+                .uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getFirst(HttpHeaders.ETAG);
+    }
+
+    private static ProductDto product(String id, String name, String price) {
+        return ProductDto.builder()
+                .id(id)
+                .name(name)
+                .imageUrl("https://example.com/" + name + ".jpg")
+                .description(name + " description")
+                .price(new BigDecimal(price))
+                .rating(4.1)
+                .specifications(List.of(new SpecificationDto("Battery", "5000 mAh")))
+                .build();
+    }
+}